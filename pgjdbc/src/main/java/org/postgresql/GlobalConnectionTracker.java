@@ -7,17 +7,20 @@ import org.postgresql.log.Logger;
 import org.postgresql.util.HostSpec;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Keeps track of connection reference and host spec in a global map.
+ * Connections are kept in a concurrent set per host, so registering and releasing them does not
+ * serialize connection churn on one monitor.
  */
 public class GlobalConnectionTracker {
 
-    private static final Map<String, HashMap<Integer, QueryExecutor>> connectionManager = new HashMap<>();
+    private static final ConcurrentMap<String, Set<QueryExecutor>> connectionManager = new ConcurrentHashMap<>();
     private static Log LOGGER = Logger.getLogger(GlobalConnectionTracker.class.getName());
 
     /**
@@ -49,16 +52,8 @@ public class GlobalConnectionTracker {
         if (!isForceTargetServerSlave(props) && !isTargetServerMaster(props)) {
             return;
         }
-        int identityQueryExecute = System.identityHashCode(queryExecutor);
         String hostSpec = queryExecutor.getHostSpec().toString();
-        synchronized (connectionManager) {
-            HashMap<Integer, QueryExecutor> hostConnection = connectionManager.getOrDefault(hostSpec, null);
-            if (hostConnection == null) {
-                hostConnection = new HashMap<>();
-            }
-            hostConnection.put(identityQueryExecute, queryExecutor);
-            connectionManager.put(hostSpec, hostConnection);
-        }
+        getHostConnections(hostSpec).add(queryExecutor);
         if (isTargetServerMaster(props)) {
             HostSpec[] hostSpecs = Driver.GetHostSpecs(props);
             ClusterNodeCache.pushHostSpecs(queryExecutor.getHostSpec(), hostSpecs, props);
@@ -76,20 +71,30 @@ public class GlobalConnectionTracker {
             return;
         }
         String hostSpec = queryExecutor.getHostSpec().toString();
-        int identityQueryExecute = System.identityHashCode(queryExecutor);
-        synchronized (connectionManager) {
-            HashMap<Integer, QueryExecutor> hostConnection = connectionManager.getOrDefault(hostSpec, null);
-            if (hostConnection != null) {
-                if (hostConnection.get(identityQueryExecute) != null) {
-                    hostConnection.put(identityQueryExecute, null);
-                } else {
-                    LOGGER.info("[SWITCHOVER] The identity of the queryExecutor has changed!");
-                }
+        Set<QueryExecutor> hostConnection = connectionManager.get(hostSpec);
+        if (hostConnection != null) {
+            if (!hostConnection.remove(queryExecutor)) {
+                LOGGER.info("[SWITCHOVER] The queryExecutor is not registered under this host!");
+            }
+            // the heartbeat only needs to know once the last connection is gone
+            if (hostConnection.isEmpty()) {
                 ClusterNodeCache.updateDetection();
-            } else {
-                LOGGER.info("[SWITCHOVER] No connection found under this host!");
+            }
+        } else {
+            LOGGER.info("[SWITCHOVER] No connection found under this host!");
+        }
+    }
+
+    private static Set<QueryExecutor> getHostConnections(String hostSpec) {
+        Set<QueryExecutor> hostConnection = connectionManager.get(hostSpec);
+        if (hostConnection == null) {
+            Set<QueryExecutor> created = ConcurrentHashMap.newKeySet();
+            hostConnection = connectionManager.putIfAbsent(hostSpec, created);
+            if (hostConnection == null) {
+                hostConnection = created;
             }
         }
+        return hostConnection;
     }
 
     /**
@@ -100,18 +105,16 @@ public class GlobalConnectionTracker {
      */
     public static void closeOldConnection(String hostSpec, Properties props) {
         if(!isForceTargetServerSlave(props)) return;
-        synchronized (connectionManager) {
-            HashMap<Integer, QueryExecutor> hostConnection = connectionManager.getOrDefault(hostSpec, null);
-            if (hostConnection != null) {
-                LOGGER.info("[SWITCHOVER] The hostSpec: " + hostSpec + " status from slave to master, start to close the original connection.");
-                for (QueryExecutor queryExecutor : hostConnection.values()) {
-                    if (queryExecutor != null && !queryExecutor.isClosed()) {
-                        queryExecutor.setAvailability(false);
-                    }
+        Set<QueryExecutor> hostConnection = connectionManager.get(hostSpec);
+        if (hostConnection != null) {
+            LOGGER.info("[SWITCHOVER] The hostSpec: " + hostSpec + " status from slave to master, start to close the original connection.");
+            for (QueryExecutor queryExecutor : hostConnection) {
+                // remove first so a concurrent release does not miss it
+                if (hostConnection.remove(queryExecutor) && !queryExecutor.isClosed()) {
+                    queryExecutor.setAvailability(false);
                 }
-                hostConnection.clear();
-                LOGGER.info("[SWITCHOVER] The hostSpec: " + hostSpec + " status from slave to master, end to close the original connection.");
             }
+            LOGGER.info("[SWITCHOVER] The hostSpec: " + hostSpec + " status from slave to master, end to close the original connection.");
         }
     }
 
@@ -121,19 +124,16 @@ public class GlobalConnectionTracker {
      * @param hostSpec ip and port.
      */
     public static void closeConnectionOfCrash(String hostSpec) {
-        synchronized (connectionManager) {
-            HashMap<Integer, QueryExecutor> hostConnection = connectionManager.getOrDefault(hostSpec, null);
-            if (hostConnection != null && !hostConnection.isEmpty()) {
-                LOGGER.debug("[CRASH] The hostSpec: " + hostSpec + " fails, start to close the original connection.");
-                for (QueryExecutor queryExecutor : hostConnection.values()) {
-                    if (queryExecutor != null && !queryExecutor.isClosed()) {
-                        queryExecutor.close();
-                        queryExecutor.setAvailability(false);
-                    }
+        Set<QueryExecutor> hostConnection = connectionManager.get(hostSpec);
+        if (hostConnection != null && !hostConnection.isEmpty()) {
+            LOGGER.debug("[CRASH] The hostSpec: " + hostSpec + " fails, start to close the original connection.");
+            for (QueryExecutor queryExecutor : hostConnection) {
+                if (hostConnection.remove(queryExecutor) && !queryExecutor.isClosed()) {
+                    queryExecutor.close();
+                    queryExecutor.setAvailability(false);
                 }
-                hostConnection.clear();
-                LOGGER.debug("[CRASH] The hostSpec: " + hostSpec + " fails, end to close the original connection.");
             }
+            LOGGER.debug("[CRASH] The hostSpec: " + hostSpec + " fails, end to close the original connection.");
         }
     }
 
@@ -143,25 +143,18 @@ public class GlobalConnectionTracker {
      * @param hostSpec ip and port.
      */
     public static List<QueryExecutor> getConnections(String hostSpec) {
-        synchronized (connectionManager) {
-            List<QueryExecutor> ret = new ArrayList<>();
-            HashMap<Integer, QueryExecutor> hostConnection = connectionManager.getOrDefault(hostSpec, null);
-            if (hostConnection != null) {
-                for (Map.Entry<Integer, QueryExecutor> queryExecutorEntry : hostConnection.entrySet()) {
-                    ret.add(queryExecutorEntry.getValue());
-                }
-            }
-            return ret;
+        Set<QueryExecutor> hostConnection = connectionManager.get(hostSpec);
+        if (hostConnection == null) {
+            return new ArrayList<>();
         }
+        return new ArrayList<>(hostConnection);
     }
 
     public static boolean hasConnection() {
-        synchronized (connectionManager) {
-            for (HashMap<Integer, QueryExecutor> queryExecutorMap : connectionManager.values()) {
-                boolean exist = queryExecutorMap.entrySet().stream()
-                        .anyMatch((entry) -> entry.getValue() != null && !entry.getValue().isClosed());
-                if (exist) {
-                    return exist;
+        for (Set<QueryExecutor> queryExecutors : connectionManager.values()) {
+            for (QueryExecutor queryExecutor : queryExecutors) {
+                if (!queryExecutor.isClosed()) {
+                    return true;
                 }
             }
         }
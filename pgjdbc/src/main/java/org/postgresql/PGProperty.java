@@ -120,6 +120,41 @@ public enum PGProperty {
   PREPARED_STATEMENT_CACHE_SIZE_MIB("preparedStatementCacheSizeMiB", "5",
       "Specifies the maximum size (in megabytes) of a per-connection prepared statement cache. A value of {@code 0} disables the cache."),
 
+  /**
+   * Shares parsed SQL and resolved type metadata among all connections to the same server,
+   * database, user, schema and {@link #OPTIONS}, so that new connections of a pool warm up without re-parsing
+   * statements and re-querying {@code pg_type}. The shared statement cache uses the same limits as
+   * {@link #PREPARED_STATEMENT_CACHE_QUERIES} and {@link #PREPARED_STATEMENT_CACHE_SIZE_MIB}.
+   */
+  SHARED_METADATA_CACHE("sharedMetadataCache", "false",
+      "Share parsed SQL and type metadata among connections to the same server, database, user, schema and options."),
+
+  /**
+   * Counts statement executions over all connections to the same server, database, user and
+   * schema. A statement executed {@link #PREPARE_THRESHOLD} times on any of them is prepared on the
+   * server at its first execution on every connection, see {@code org.postgresql.core.PrepareStatistics}.
+   */
+  ADAPTIVE_PREPARE("adaptivePrepare", "false",
+      "Prepare statements executed prepareThreshold times on any connection to the same server, database, "
+      + "user and schema at their first execution on every connection"),
+
+  /**
+   * Maximum number of Close messages for statements and portals that are no longer used which are
+   * sent along with one query. The rest follows with later queries, or all at once when the
+   * connection is validated. {@code 0} sends all of them with the next query.
+   */
+  CLOSE_BUDGET("closeBudget", "64",
+      "Maximum number of Close messages for unused server-side statements and portals sent along with one query, "
+      + "0 for no limit"),
+
+  /**
+   * Number of most recent protocol messages kept per connection without formatting them. They are
+   * written to the log when the connection fails. {@code 0} disables the capture.
+   */
+  PROTOCOL_TRACE_CAPTURE("protocolTraceCapture", "0",
+      "Number of most recent protocol messages kept per connection and logged when the connection fails, "
+      + "0 to disable"),
+
   /**
    * Specifies the maximum number of fields to be cached per connection. A value of {@code 0} disables the cache.
    */
@@ -151,6 +186,14 @@ public enum PGProperty {
   BINARY_TRANSFER("binaryTransfer", "false",
       "Use binary format for sending and receiving data if possible"),
 
+  /**
+   * Receive int, float, numeric, timestamp, uuid and bytea result columns of prepared statements in binary
+   * format, describing each query once on its first execution.
+   */
+  BINARY_TRANSFER_ADAPTIVE("binaryTransferAdaptive", "false",
+      "Receive int, float, numeric, timestamp, uuid and bytea result columns of prepared statements in binary format, "
+      + "describing each query once on its first execution"),
+
   /**
    * Puts this connection in read-only mode.
    */
@@ -310,6 +353,24 @@ public enum PGProperty {
    */
   CONNECT_TIMEOUT("connectTimeout", "0", "The timeout value used for socket connect operations."),
 
+  /**
+   * <p>Maximum number of candidate hosts that are connected to at the same time. The first host
+   * that completes authentication and the host role check is used, the other connections are
+   * closed.</p>
+   *
+   * <p>The default of {@code 1} tries the hosts one after another. Racing is not used together
+   * with {@code priorityServers} or {@code targetServerType=preferSecondary}.</p>
+   */
+  PARALLEL_CONNECT_ATTEMPTS("parallelConnectAttempts", "1",
+      "Maximum number of candidate hosts that are connected to at the same time."),
+
+  /**
+   * Time in milliseconds to wait for a connection attempt before the next candidate host is
+   * started when {@code parallelConnectAttempts} is greater than one.
+   */
+  PARALLEL_CONNECT_DELAY("parallelConnectDelay", "250",
+      "Time in milliseconds to wait for a connection attempt before the next host is tried in parallel."),
+
   /**
    * The timeout value used for socket read operations. If reading from the server takes longer than
    * this value, the connection is closed. This can be used as both a brute force global query
@@ -359,6 +420,25 @@ public enum PGProperty {
    */
   SEND_BUFFER_SIZE("sendBufferSize", "-1", "Socket write buffer size"),
 
+  /**
+   * Use a non-blocking {@link java.nio.channels.SocketChannel} for the CT (openGauss OR protocol)
+   * connection stream. It is ignored when a {@link #SOCKET_FACTORY} is configured.
+   */
+  SOCKET_CHANNEL("socketChannel", "false", "Use a socket channel for the CT connection stream"),
+
+  /**
+   * Initial size in bytes of the read and write buffers of the CT connection stream. A value that is
+   * not positive means the default of 8192.
+   */
+  IO_BUFFER_SIZE("ioBufferSize", "8192", "Initial read and write buffer size of the CT connection stream"),
+
+  /**
+   * Size in bytes the socket channel buffers of the CT connection stream may grow to for a single
+   * packet. A value that is not positive means the default of 1048576.
+   */
+  MAX_IO_BUFFER_SIZE("maxIoBufferSize", "1048576",
+      "Maximum buffer size of the CT socket channel connection stream"),
+
   /**
    * Assume the server is at least that version.
    */
@@ -482,6 +562,13 @@ public enum PGProperty {
   REWRITE_BATCHED_INSERTS("reWriteBatchedInserts", "false",
       "Enable optimization to rewrite and collapse compatible INSERT statements that are batched."),
 
+  /**
+   * Maximum number of rows collapsed into one INSERT by {@link #REWRITE_BATCHED_INSERTS}. A block
+   * is also limited by the 65535 bind parameters a single statement can have.
+   */
+  REWRITE_BATCHED_INSERTS_SIZE("reWriteBatchedInsertsSize", "128",
+      "Maximum number of rows collapsed into one INSERT when reWriteBatchedInserts is enabled"),
+
   /**
    * <p>Connection parameter passed in the startup message. This parameter accepts two values; "true"
    * and "database". Passing "true" tells the backend to go into walsender mode, wherein a small set
@@ -552,6 +639,50 @@ public enum PGProperty {
      * Write data source address.
      */
     WRITE_DATA_SOURCE_ADDRESS("writeDataSourceAddress", "", "Specify the host and port for write database", false),
+
+    /**
+     * Read load balance policy of statement load balancing. {@code default} uses the host chooser
+     * of {@code autoBalance}, {@code latency} tracks the response time, in-flight statements and
+     * error rate of each read replica and sends reads to the faster of two randomly picked healthy
+     * replicas.
+     */
+    READ_LOAD_BALANCE_POLICY("readLoadBalancePolicy", "default",
+        "Read load balance policy when enableStatementLoadBalance=true. "
+        + "Optional values: default or latency.",
+        false, "default", "latency"),
+
+    /**
+     * Maximum replay lag of a read replica in milliseconds when statement load balancing is
+     * enabled. The replay lag of each replica is sampled in the background, replicas that are
+     * further behind are not used for reads. {@code 0} disables the check.
+     */
+    MAX_REPLICA_LAG("maxReplicaLag", "0",
+        "Maximum replay lag in milliseconds of a read replica when enableStatementLoadBalance=true, "
+        + "0 means no limit."),
+
+    /**
+     * Route reads after a write only to replicas that have replayed that write, when statement
+     * load balancing is enabled.
+     */
+    READ_YOUR_WRITES("readYourWrites", "false",
+        "Route reads after a write only to replicas that have replayed the write "
+        + "when enableStatementLoadBalance=true."),
+
+    /**
+     * Maximum number of idle physical connections per host that read write splitting connections
+     * of the same data source keep for each other.
+     */
+    ROUTED_CONNECTION_POOL_SIZE("routedConnectionPoolSize", "0",
+        "Maximum number of idle physical connections per host reused by read write splitting connections "
+        + "of the same data source when enableStatementLoadBalance=true. The session is reset with DISCARD ALL "
+        + "before a connection is reused. 0 disables reuse."),
+
+    /**
+     * Return the same String instance for repeated short ASCII values of a result set column.
+     */
+    DEDUPLICATE_STRINGS("deduplicateStrings", "false",
+        "Return the same String instance for repeated short ASCII values of a column in ResultSet.getString, "
+        + "which saves heap for low cardinality columns such as status or country codes."),
   
   /**
    * Supported TLS cipher suites
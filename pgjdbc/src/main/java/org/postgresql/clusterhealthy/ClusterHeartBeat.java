@@ -156,6 +156,7 @@ public class ClusterHeartBeat {
      */
     public void removeClusterNode(HostSpec key, HostSpec newKey, Set<HostSpec> slaves) {
         ClusterHeartBeatMaster.getInstance().removeClusterNode(key, newKey, slaves);
+        ClusterNodeCache.forgetPushedClusters();
 
     }
 
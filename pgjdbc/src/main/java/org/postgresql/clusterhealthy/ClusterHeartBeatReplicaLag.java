@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.clusterhealthy;
+
+import org.postgresql.core.Encoding;
+import org.postgresql.core.QueryExecutor;
+import org.postgresql.core.SetupQueryRunner;
+import org.postgresql.log.Log;
+import org.postgresql.log.Logger;
+import org.postgresql.replication.LogSequenceNumber;
+import org.postgresql.util.HostSpec;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the replay lag of the read replicas used by read write splitting connections. Each
+ * replica keeps one probe connection that is queried on a background thread; the latest sample
+ * is used to leave out replicas that are too far behind the primary node.
+ */
+public class ClusterHeartBeatReplicaLag extends ClusterHeartBeat {
+
+    private static final String LAG_QUERY = "select case when pg_last_xlog_receive_location() "
+            + "= pg_last_xlog_replay_location() then 0 "
+            + "else extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000 end, "
+            + "pg_last_xlog_replay_location()";
+    private static final long MIN_PERIOD = 100L;
+    private static final long MAX_PERIOD = 5000L;
+    // a sample older than this many periods is not trusted
+    private static final int STALE_PERIODS = 3;
+
+    private volatile static ClusterHeartBeatReplicaLag clusterHeartBeatReplicaLag;
+    private static Log LOGGER = Logger.getLogger(ClusterHeartBeatReplicaLag.class.getName());
+
+    private final Map<HostSpec, ReplicaLag> replicas = new ConcurrentHashMap<>();
+    private ScheduledExecutorService executorService;
+    private ScheduledFuture<?> task;
+    private volatile long periodTime = MAX_PERIOD;
+
+    private ClusterHeartBeatReplicaLag() {
+
+    }
+
+    public static synchronized ClusterHeartBeatReplicaLag getInstance() {
+        if (clusterHeartBeatReplicaLag == null) {
+            clusterHeartBeatReplicaLag = new ClusterHeartBeatReplicaLag();
+        }
+        return clusterHeartBeatReplicaLag;
+    }
+
+    /**
+     * Start sampling the given replicas. The sample period is half the lag bound, between
+     * {@value #MIN_PERIOD} and {@value #MAX_PERIOD} milliseconds.
+     *
+     * @param hostSpecs read replicas
+     * @param properties the parsed/defaulted connection properties
+     * @param maxLagMillis lag bound of the connection, 0 if only read-your-writes is used
+     */
+    public synchronized void register(HostSpec[] hostSpecs, Properties properties, long maxLagMillis) {
+        for (HostSpec hostSpec : hostSpecs) {
+            ReplicaLag replica = replicas.computeIfAbsent(hostSpec, ReplicaLag::new);
+            synchronized (replica) {
+                replica.users++;
+                replica.properties.put(properties, Boolean.TRUE);
+            }
+        }
+        long period = maxLagMillis > 0 ? Math.max(MIN_PERIOD, Math.min(MAX_PERIOD, maxLagMillis / 2)) : MAX_PERIOD;
+        if (task != null && period >= periodTime) {
+            return;
+        }
+        periodTime = task == null ? period : Math.min(periodTime, period);
+        if (executorService == null) {
+            executorService = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "PostgreSQL JDBC driver replica lag thread");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        if (task != null) {
+            task.cancel(false);
+        }
+        LOGGER.debug("replica lag sampling every " + periodTime + " ms");
+        task = executorService.scheduleWithFixedDelay(this::run, 0, periodTime, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop sampling the given replicas for a closed connection. The background thread ends when no
+     * replica is left.
+     *
+     * @param hostSpecs read replicas
+     * @param properties the parsed/defaulted connection properties
+     */
+    public synchronized void unregister(HostSpec[] hostSpecs, Properties properties) {
+        for (HostSpec hostSpec : hostSpecs) {
+            ReplicaLag replica = replicas.get(hostSpec);
+            if (replica == null) {
+                continue;
+            }
+            synchronized (replica) {
+                replica.properties.remove(properties);
+                if (--replica.users > 0) {
+                    continue;
+                }
+                replicas.remove(hostSpec);
+                replica.closeProbe();
+            }
+        }
+        if (replicas.isEmpty() && executorService != null) {
+            executorService.shutdownNow();
+            executorService = null;
+            task = null;
+            periodTime = MAX_PERIOD;
+        }
+    }
+
+    /**
+     * sample the replay lag of every registered replica
+     */
+    public void run() {
+        for (ReplicaLag replica : replicas.values()) {
+            sample(replica);
+        }
+    }
+
+    /**
+     * The probe and the properties are taken under the replica lock, the query runs without it so
+     * that register and unregister are not held up by the network, and the result is published
+     * under the lock again.
+     */
+    private void sample(ReplicaLag replica) {
+        QueryExecutor probe;
+        Set<Properties> propSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        synchronized (replica) {
+            if (replica.users <= 0) {
+                return;
+            }
+            probe = replica.probe;
+            propSet.addAll(replica.properties.keySet());
+        }
+        Sample sample = null;
+        try {
+            if (probe == null || probe.isClosed()) {
+                probe = super.getQueryExecutor(replica.hostSpec, propSet);
+            }
+            byte[][] result = SetupQueryRunner.run(probe, LAG_QUERY, true);
+            Encoding encoding = probe.getEncoding();
+            String lag = result[0] == null ? null : encoding.decode(result[0]);
+            String lsn = result[1] == null ? null : encoding.decode(result[1]);
+            long lagMillis;
+            if (lag != null) {
+                lagMillis = Math.max(0L, (long) Double.parseDouble(lag));
+            } else {
+                // no replay location: the node is not in recovery and has no lag
+                lagMillis = lsn == null ? 0L : Long.MAX_VALUE;
+            }
+            sample = new Sample(System.nanoTime(), lagMillis,
+                    lsn == null ? null : LogSequenceNumber.valueOf(lsn));
+        } catch (SQLException | IOException | RuntimeException e) {
+            LOGGER.debug("sample replica lag of " + replica.hostSpec + " failure " + e.getMessage());
+        }
+        synchronized (replica) {
+            if (sample != null && replica.users > 0) {
+                replica.probe = probe;
+                replica.sample = sample;
+                return;
+            }
+            if (replica.probe == probe) {
+                replica.probe = null;
+            }
+        }
+        // the query failed or the replica was unregistered meanwhile
+        if (probe != null) {
+            probe.close();
+        }
+    }
+
+    /**
+     * Record a replay lag sample.
+     *
+     * @param hostSpec read replica
+     * @param lagMillis replay lag in milliseconds
+     * @param replayLsn last replayed location, null if the node is not in recovery
+     */
+    void recordSample(HostSpec hostSpec, long lagMillis, LogSequenceNumber replayLsn) {
+        ReplicaLag replica = replicas.computeIfAbsent(hostSpec, ReplicaLag::new);
+        replica.sample = new Sample(System.nanoTime(), lagMillis, replayLsn);
+    }
+
+    /**
+     * Get the replay lag of a replica from a recent sample.
+     *
+     * @param hostSpec read replica
+     * @return replay lag in milliseconds, or -1 if there is no recent sample
+     */
+    public long getReplicaLag(HostSpec hostSpec) {
+        Sample sample = getSample(hostSpec);
+        return sample == null ? -1L : sample.lagMillis;
+    }
+
+    /**
+     * Whether a replica is within the lag bound and has replayed the given location.
+     *
+     * @param hostSpec read replica
+     * @param maxLagMillis lag bound, 0 for no bound
+     * @param minLsn location the replica must have replayed, {@link LogSequenceNumber#INVALID_LSN}
+     *               for none
+     * @return false if the replica is behind or there is no recent sample
+     */
+    public boolean isUpToDate(HostSpec hostSpec, long maxLagMillis, LogSequenceNumber minLsn) {
+        Sample sample = getSample(hostSpec);
+        if (sample == null) {
+            return false;
+        }
+        if (maxLagMillis > 0 && sample.lagMillis > maxLagMillis) {
+            return false;
+        }
+        if (minLsn.asLong() == LogSequenceNumber.INVALID_LSN.asLong() || sample.replayLsn == null) {
+            return minLsn.asLong() == LogSequenceNumber.INVALID_LSN.asLong() || sample.lagMillis == 0;
+        }
+        return Long.compareUnsigned(sample.replayLsn.asLong(), minLsn.asLong()) >= 0;
+    }
+
+    private Sample getSample(HostSpec hostSpec) {
+        ReplicaLag replica = replicas.get(hostSpec);
+        Sample sample = replica == null ? null : replica.sample;
+        if (sample == null) {
+            return null;
+        }
+        long age = System.nanoTime() - sample.sampledAt;
+        return age > TimeUnit.MILLISECONDS.toNanos(periodTime * STALE_PERIODS) ? null : sample;
+    }
+
+    private static final class Sample {
+        private final long sampledAt;
+        private final long lagMillis;
+        private final LogSequenceNumber replayLsn;
+
+        Sample(long sampledAt, long lagMillis, LogSequenceNumber replayLsn) {
+            this.sampledAt = sampledAt;
+            this.lagMillis = lagMillis;
+            this.replayLsn = replayLsn;
+        }
+    }
+
+    private static final class ReplicaLag {
+        private final HostSpec hostSpec;
+        // identity of the properties of each registered connection
+        private final Map<Properties, Boolean> properties = new IdentityHashMap<>();
+        private int users;
+        private QueryExecutor probe;
+        private volatile Sample sample;
+
+        ReplicaLag(HostSpec hostSpec) {
+            this.hostSpec = hostSpec;
+        }
+
+        void closeProbe() {
+            if (probe != null) {
+                probe.close();
+                probe = null;
+            }
+        }
+    }
+}
@@ -22,9 +22,12 @@ import org.postgresql.util.HostSpec;
 import org.postgresql.util.PSQLException;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
@@ -38,6 +41,8 @@ public class ClusterNodeCache {
     private static Log LOGGER = Logger.getLogger(ClusterNodeCache.class.getName());
     private static ExecutorService executorService = null;
     private static final ClusterHeartBeat CLUSTER_HEART_BEAT = new ClusterHeartBeat();
+    // node relationships already handed to the heartbeat, so reconnects do not push them again
+    private static final Set<List<Object>> PUSHED_CLUSTERS = ConcurrentHashMap.newKeySet();
 
     public static boolean isOpen() {
         return status;
@@ -97,11 +102,24 @@ public class ClusterNodeCache {
             return;
         }
         if (set.size() > 1) {
+            List<Object> cluster = Arrays.asList(master, Arrays.asList(hostSpecs.clone()),
+                    new HashMap<Object, Object>(properties));
+            if (status && !PUSHED_CLUSTERS.add(cluster)) {
+                return;
+            }
             CLUSTER_HEART_BEAT.addNodeRelationship(master, hostSpecs, properties);
             start();
         }
     }
 
+    /**
+     * Forget which node relationships were pushed, so the next connection pushes its own again.
+     * Called whenever the heartbeat drops or rewrites relationships.
+     */
+    static void forgetPushedClusters() {
+        PUSHED_CLUSTERS.clear();
+    }
+
     private static void start() {
         if (status) {
             LOGGER.info("heartbeat thread ----> started");
@@ -123,6 +141,7 @@ public class ClusterNodeCache {
     public static void stop() {
         synchronized (STATUS_LOCK) {
             status = false;
+            forgetPushedClusters();
             CLUSTER_HEART_BEAT.clear();
             CLUSTER_HEART_BEAT.initPeriodTime();
             executorService.shutdown();
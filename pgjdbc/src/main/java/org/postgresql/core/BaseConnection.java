@@ -38,6 +38,20 @@ public interface BaseConnection extends PGConnection, Connection {
    */
   boolean getBitToString();
 
+  /**
+   * True if result sets return the same String instance for repeated short ASCII column values.
+   *
+   * @return whether column values are deduplicated
+   */
+  boolean getDeduplicateStrings();
+
+  /**
+   * Maximum number of rows collapsed into one INSERT when batched inserts are rewritten.
+   *
+   * @return maximum number of rows of a rewritten insert
+   */
+  int getReWriteBatchedInsertsSize();
+
   /**
    * Cancel the current query executing on this connection.
    *
@@ -29,6 +29,8 @@ class CachedQueryCreateAction implements LruCache.CreateAction<Object, CachedQue
         + String.valueOf(key);
     BaseQueryKey queryKey;
     String parsedSql;
+    SharedMetadataCache sharedCache = queryExecutor.getSharedMetadataCache();
+    SharedMetadataCache.ParseKey sharedKey = null;
     if (key instanceof BaseQueryKey) {
       queryKey = (BaseQueryKey) key;
       parsedSql = queryKey.sql;
@@ -36,6 +38,19 @@ class CachedQueryCreateAction implements LruCache.CreateAction<Object, CachedQue
       queryKey = null;
       parsedSql = (String) key;
     }
+    boolean isParameterized = key instanceof String || queryKey.isParameterized;
+    boolean splitStatements = isParameterized || queryExecutor.getPreferQueryMode().compareTo(PreferQueryMode.EXTENDED) >= 0;
+
+    // Statements with inlined literals are unlikely to repeat in other connections
+    if (sharedCache != null && isParameterized) {
+      sharedKey = new SharedMetadataCache.ParseKey(key, parseFlags(splitStatements),
+          queryExecutor.getServerVersionNum(), queryExecutor.getProtocolVersion());
+      SharedMetadataCache.ParsedSql shared = sharedCache.getParsed(sharedKey);
+      if (shared != null) {
+        return new CachedQuery(key, queryExecutor.wrap(shared.queries), shared.isFunction,
+            shared.isACompatibilityFunction);
+      }
+    }
     if (key instanceof String || queryKey.escapeProcessing) {
       parsedSql =
           Parser.replaceProcessing(parsedSql, true, queryExecutor.getStandardConformingStrings());
@@ -53,9 +68,6 @@ class CachedQueryCreateAction implements LruCache.CreateAction<Object, CachedQue
       isFunction = false;
       isACompatibilityFunction = false;
     }
-    boolean isParameterized = key instanceof String || queryKey.isParameterized;
-    boolean splitStatements = isParameterized || queryExecutor.getPreferQueryMode().compareTo(PreferQueryMode.EXTENDED) >= 0;
-
     String[] returningColumns;
     if (key instanceof QueryWithReturningColumnsKey) {
       returningColumns = ((QueryWithReturningColumnsKey) key).columnNames;
@@ -67,8 +79,29 @@ class CachedQueryCreateAction implements LruCache.CreateAction<Object, CachedQue
         queryExecutor.getStandardConformingStrings(), isParameterized, splitStatements,
         queryExecutor.isReWriteBatchedInsertsEnabled(), queryExecutor.getQuoteReturningIdentifiers(),
         returningColumns);
+    if (sharedKey != null) {
+      sharedCache.putParsed(sharedKey,
+          new SharedMetadataCache.ParsedSql(queries, isFunction, isACompatibilityFunction));
+    }
 
     Query query = queryExecutor.wrap(queries);
     return new CachedQuery(key, query, isFunction, isACompatibilityFunction);
   }
+
+  private int parseFlags(boolean splitStatements) {
+    int flags = 0;
+    if (queryExecutor.getStandardConformingStrings()) {
+      flags |= 1;
+    }
+    if (splitStatements) {
+      flags |= 2;
+    }
+    if (queryExecutor.isReWriteBatchedInsertsEnabled()) {
+      flags |= 4;
+    }
+    if (queryExecutor.getQuoteReturningIdentifiers()) {
+      flags |= 8;
+    }
+    return flags;
+  }
 }
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.core;
+
+import org.postgresql.log.Log;
+import org.postgresql.log.Logger;
+import org.postgresql.util.HostSpec;
+
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Runs cancel requests off the caller's thread and coalesces concurrent cancel requests for the
+ * same backend.</p>
+ *
+ * <p>A cancel request needs a new connection to the server, which may block for as long as the
+ * cancel signal timeout when the node is slow. Statement timeouts hand their cancel to a small
+ * bounded pool of daemon workers instead of blocking the shared timer thread, and requests for a
+ * backend that already has a cancel in flight wait for that one instead of opening another
+ * socket.</p>
+ */
+public final class CancelDispatcher {
+  private static Log LOGGER = Logger.getLogger(CancelDispatcher.class.getName());
+
+  private static final int MAX_THREADS = 4;
+  private static final int MAX_QUEUED = 1024;
+  private static final long KEEP_ALIVE_SECONDS = 60;
+
+  private static final CancelDispatcher INSTANCE = new CancelDispatcher();
+
+  private final ThreadPoolExecutor workers;
+  private final ConcurrentMap<BackendKey, CompletableFuture<Void>> inFlight =
+      new ConcurrentHashMap<BackendKey, CompletableFuture<Void>>();
+
+  private final AtomicLong sent = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final AtomicLong coalesced = new AtomicLong();
+  private final AtomicLong rejected = new AtomicLong();
+  private final AtomicLong totalLatencyNanos = new AtomicLong();
+  private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+  private CancelDispatcher() {
+    workers = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<Runnable>(MAX_QUEUED), new ThreadFactory() {
+          private final AtomicInteger count = new AtomicInteger();
+
+          @Override
+          public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "PostgreSQL JDBC driver cancel thread "
+                + count.incrementAndGet());
+            thread.setDaemon(true); // Don't prevent the VM from shutting down
+            return thread;
+          }
+        });
+    workers.allowCoreThreadTimeOut(true);
+  }
+
+  public static CancelDispatcher getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Runs the given cancel action on a worker thread. When the queue is full the action runs on the
+   * calling thread, so a cancel is never lost.
+   *
+   * @param action action that cancels a statement
+   */
+  public void execute(Runnable action) {
+    try {
+      workers.execute(action);
+    } catch (RejectedExecutionException e) {
+      rejected.incrementAndGet();
+      LOGGER.debug("Cancel queue is full, cancelling on the calling thread");
+      action.run();
+    }
+  }
+
+  /**
+   * Sends a cancel request for the given backend on the calling thread, unless one for the same
+   * backend is already in flight, in which case this waits for that one and shares its outcome.
+   *
+   * @param hostSpec server the backend runs on
+   * @param backendPid backend process id
+   * @param request action that performs the cancel handshake
+   * @throws SQLException if the cancel request failed
+   */
+  void cancel(HostSpec hostSpec, int backendPid, CancelRequest request) throws SQLException {
+    BackendKey key = new BackendKey(hostSpec, backendPid);
+    CompletableFuture<Void> mine = new CompletableFuture<Void>();
+    CompletableFuture<Void> running = inFlight.putIfAbsent(key, mine);
+    if (running != null) {
+      coalesced.incrementAndGet();
+      await(running);
+      return;
+    }
+    long start = System.nanoTime();
+    try {
+      request.send();
+      record(System.nanoTime() - start);
+      mine.complete(null);
+    } catch (SQLException e) {
+      failed.incrementAndGet();
+      mine.completeExceptionally(e);
+      throw e;
+    } catch (RuntimeException e) {
+      failed.incrementAndGet();
+      mine.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, mine);
+    }
+  }
+
+  private static void await(CompletableFuture<Void> running) throws SQLException {
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          running.get();
+          return;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        } catch (ExecutionException e) {
+          if (e.getCause() instanceof SQLException) {
+            throw (SQLException) e.getCause();
+          }
+          throw new SQLException("Cancel request on this connection failed", e.getCause());
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void record(long latencyNanos) {
+    sent.incrementAndGet();
+    totalLatencyNanos.addAndGet(latencyNanos);
+    long max = maxLatencyNanos.get();
+    while (latencyNanos > max && !maxLatencyNanos.compareAndSet(max, latencyNanos)) {
+      max = maxLatencyNanos.get();
+    }
+  }
+
+  /**
+   * @return number of cancel requests delivered to the server
+   */
+  public long getSentCount() {
+    return sent.get();
+  }
+
+  /**
+   * @return number of cancel requests that failed to connect or complete the handshake
+   */
+  public long getFailedCount() {
+    return failed.get();
+  }
+
+  /**
+   * @return number of cancel requests that joined one already in flight for the same backend
+   */
+  public long getCoalescedCount() {
+    return coalesced.get();
+  }
+
+  /**
+   * @return number of cancels that ran on the calling thread because the queue was full
+   */
+  public long getRejectedCount() {
+    return rejected.get();
+  }
+
+  /**
+   * @return mean duration of delivered cancel requests in nanoseconds
+   */
+  public long getMeanLatencyNanos() {
+    long count = sent.get();
+    return count == 0 ? 0 : totalLatencyNanos.get() / count;
+  }
+
+  /**
+   * @return longest duration of a delivered cancel request in nanoseconds
+   */
+  public long getMaxLatencyNanos() {
+    return maxLatencyNanos.get();
+  }
+
+  /**
+   * @return number of cancel actions waiting for a worker
+   */
+  public int getQueuedCount() {
+    return workers.getQueue().size();
+  }
+
+  /**
+   * Cancel handshake with the server.
+   */
+  interface CancelRequest {
+    void send() throws SQLException;
+  }
+
+  private static final class BackendKey {
+    private final HostSpec hostSpec;
+    private final int backendPid;
+
+    BackendKey(HostSpec hostSpec, int backendPid) {
+      this.hostSpec = hostSpec;
+      this.backendPid = backendPid;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof BackendKey)) {
+        return false;
+      }
+      BackendKey that = (BackendKey) o;
+      return backendPid == that.backendPid && hostSpec.equals(that.hostSpec);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * hostSpec.hashCode() + backendPid;
+    }
+  }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>Encodes string parameters in the client encoding of one connection.</p>
+ *
+ * <p>The encoded length of a string is computed without building its encoded form, and the
+ * string is then encoded straight into the protocol stream. UTF-8 is handled by hand; other
+ * charsets use a cached {@link CharsetEncoder}, with a shortcut for pure ASCII strings when the
+ * charset is ASCII compatible. The output matches {@link String#getBytes(Charset)}, unmappable
+ * characters included.</p>
+ *
+ * <p>Like {@link PGStream}, instances are not thread safe.</p>
+ */
+public final class ClientEncoder {
+  private static final int BUFFER_SIZE = 8192;
+
+  private final String name;
+  private final Charset charset;
+  private final boolean utf8;
+  private final boolean asciiCompatible;
+  private CharsetEncoder encoder;
+  private byte[] buffer;
+  private ByteBuffer byteBuffer;
+
+  /**
+   * @param encoding client encoding name, as given to {@link Charset#forName(String)}
+   */
+  public ClientEncoder(String encoding) {
+    this.name = encoding;
+    this.charset = Utils.charsetForName(encoding);
+    this.utf8 = charset.equals(StandardCharsets.UTF_8);
+    this.asciiCompatible = utf8 || Encoding.testAscii(charset);
+  }
+
+  public String name() {
+    return name;
+  }
+
+  public Charset charset() {
+    return charset;
+  }
+
+  /**
+   * Encode a string into a new array.
+   *
+   * @param str the string to encode
+   * @return the encoded string
+   */
+  public byte[] encode(String str) {
+    return str.getBytes(charset);
+  }
+
+  /**
+   * Tells whether the string is encoded without a {@link CharsetEncoder}, that is the client
+   * encoding is UTF-8 or the string is pure ASCII in an ASCII compatible encoding. Computing the
+   * length of such a string is a cheap scan, other strings are better encoded once with
+   * {@link #encode(String)}.
+   *
+   * @param str the string
+   * @return true if {@link #length(String)} and {@link #write(String, PGStream)} do not need the
+   *     charset encoder
+   */
+  public boolean isDirect(String str) {
+    return utf8 || (asciiCompatible && isAscii(str));
+  }
+
+  /**
+   * Compute the encoded length of a string without allocating its encoded form.
+   *
+   * @param str the string
+   * @return number of bytes {@link #write(String, PGStream)} sends for {@code str}
+   */
+  public int length(String str) {
+    if (utf8) {
+      return utf8Length(str);
+    }
+    if (asciiCompatible && isAscii(str)) {
+      return str.length();
+    }
+    CharsetEncoder enc = encoder();
+    CharBuffer in = CharBuffer.wrap(str);
+    ByteBuffer out = byteBuffer;
+    int length = 0;
+    CoderResult result;
+    do {
+      out.clear();
+      result = enc.encode(in, out, true);
+      length += out.position();
+    } while (result.isOverflow());
+    do {
+      out.clear();
+      result = enc.flush(out);
+      length += out.position();
+    } while (result.isOverflow());
+    return length;
+  }
+
+  /**
+   * Encode a string directly into the output stream.
+   *
+   * @param str the string to encode
+   * @param pgStream stream to write to
+   * @throws IOException if an I/O error occurs
+   */
+  public void write(String str, PGStream pgStream) throws IOException {
+    if (utf8) {
+      writeUtf8(str, pgStream);
+      return;
+    }
+    if (asciiCompatible && isAscii(str)) {
+      writeAscii(str, pgStream);
+      return;
+    }
+    CharsetEncoder enc = encoder();
+    CharBuffer in = CharBuffer.wrap(str);
+    ByteBuffer out = byteBuffer;
+    CoderResult result;
+    do {
+      out.clear();
+      result = enc.encode(in, out, true);
+      pgStream.send(buffer, 0, out.position());
+    } while (result.isOverflow());
+    do {
+      out.clear();
+      result = enc.flush(out);
+      pgStream.send(buffer, 0, out.position());
+    } while (result.isOverflow());
+  }
+
+  private CharsetEncoder encoder() {
+    if (encoder == null) {
+      encoder = charset.newEncoder()
+          .onMalformedInput(CodingErrorAction.REPLACE)
+          .onUnmappableCharacter(CodingErrorAction.REPLACE);
+      byteBuffer = ByteBuffer.wrap(buffer());
+    }
+    return encoder.reset();
+  }
+
+  private byte[] buffer() {
+    if (buffer == null) {
+      buffer = new byte[BUFFER_SIZE];
+    }
+    return buffer;
+  }
+
+  private static boolean isAscii(String str) {
+    for (int i = 0; i < str.length(); i++) {
+      if (str.charAt(i) >= 0x80) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int utf8Length(String str) {
+    int len = str.length();
+    int length = len;
+    for (int i = 0; i < len; i++) {
+      char c = str.charAt(i);
+      if (c < 0x80) {
+        continue;
+      }
+      if (c < 0x800) {
+        length += 1;
+      } else if (Character.isHighSurrogate(c) && i + 1 < len
+          && Character.isLowSurrogate(str.charAt(i + 1))) {
+        // two chars, four bytes
+        length += 2;
+        i++;
+      } else if (!Character.isSurrogate(c)) {
+        length += 2;
+      }
+      // a lone surrogate is replaced by a single '?'
+    }
+    return length;
+  }
+
+  private void writeAscii(String str, PGStream pgStream) throws IOException {
+    byte[] buf = buffer();
+    int len = str.length();
+    int pos = 0;
+    for (int i = 0; i < len; i++) {
+      if (pos == buf.length) {
+        pgStream.send(buf, 0, pos);
+        pos = 0;
+      }
+      buf[pos++] = (byte) str.charAt(i);
+    }
+    pgStream.send(buf, 0, pos);
+  }
+
+  private void writeUtf8(String str, PGStream pgStream) throws IOException {
+    byte[] buf = buffer();
+    int len = str.length();
+    int pos = 0;
+    for (int i = 0; i < len; i++) {
+      if (pos > buf.length - 4) {
+        pgStream.send(buf, 0, pos);
+        pos = 0;
+      }
+      char c = str.charAt(i);
+      if (c < 0x80) {
+        buf[pos++] = (byte) c;
+      } else if (c < 0x800) {
+        buf[pos++] = (byte) (0xC0 | (c >> 6));
+        buf[pos++] = (byte) (0x80 | (c & 0x3F));
+      } else if (Character.isHighSurrogate(c) && i + 1 < len
+          && Character.isLowSurrogate(str.charAt(i + 1))) {
+        int cp = Character.toCodePoint(c, str.charAt(++i));
+        buf[pos++] = (byte) (0xF0 | (cp >> 18));
+        buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+        buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+        buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+      } else if (Character.isSurrogate(c)) {
+        buf[pos++] = (byte) '?';
+      } else {
+        buf[pos++] = (byte) (0xE0 | (c >> 12));
+        buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        buf[pos++] = (byte) (0x80 | (c & 0x3F));
+      }
+    }
+    pgStream.send(buf, 0, pos);
+  }
+}
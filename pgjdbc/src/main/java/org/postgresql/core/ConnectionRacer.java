@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.core;
+
+import org.postgresql.hostchooser.CandidateHost;
+import org.postgresql.log.Log;
+import org.postgresql.log.Logger;
+import org.postgresql.util.GT;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.PSQLState;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Connects to several candidate hosts at once and keeps the first connection that is ready.</p>
+ *
+ * <p>Candidates are tried in the order of the host chooser. The next candidate is started when the
+ * previous attempt fails, or when it has not finished within the stagger delay, so a host that does
+ * not answer costs the delay instead of the whole connect timeout. At most the given number of
+ * attempts are in flight. Connections that complete after a winner was chosen are handed back to
+ * the caller's discard action and closed.</p>
+ */
+public final class ConnectionRacer {
+  private static Log LOGGER = Logger.getLogger(ConnectionRacer.class.getName());
+
+  private static final long KEEP_ALIVE_SECONDS = 60;
+
+  private static final ConnectionRacer INSTANCE = new ConnectionRacer();
+
+  private final ThreadPoolExecutor workers;
+
+  private final AtomicLong races = new AtomicLong();
+  private final AtomicLong started = new AtomicLong();
+  private final AtomicLong won = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final AtomicLong discarded = new AtomicLong();
+  private final AtomicLong staggered = new AtomicLong();
+  private final AtomicLong totalWinNanos = new AtomicLong();
+
+  private ConnectionRacer() {
+    workers = new ThreadPoolExecutor(0, Integer.MAX_VALUE, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+        new SynchronousQueue<Runnable>(), new ThreadFactory() {
+          private final AtomicInteger count = new AtomicInteger();
+
+          @Override
+          public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "PostgreSQL JDBC driver connect thread "
+                + count.incrementAndGet());
+            thread.setDaemon(true); // Don't prevent the VM from shutting down
+            return thread;
+          }
+        });
+  }
+
+  public static ConnectionRacer getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Races connection attempts to the given candidates.
+   *
+   * @param candidates candidate hosts in order of preference
+   * @param parallel maximum number of attempts in flight
+   * @param delayMillis time to wait for an attempt before the next candidate is started
+   * @param attempt connects to one candidate
+   * @param discard closes a connection that completed after the winner
+   * @param <T> connection type
+   * @return the first connection that is ready, or null if every attempt returned null
+   * @throws SQLException if every attempt failed, the last failure with the others suppressed
+   */
+  public <T> T race(List<CandidateHost> candidates, int parallel, long delayMillis,
+      Attempt<T> attempt, Discard<T> discard) throws SQLException {
+    races.incrementAndGet();
+    Race<T> race = new Race<T>(attempt, discard);
+    long begin = System.nanoTime();
+    long delayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(delayMillis, 0));
+    int next = 0;
+    synchronized (race) {
+      try {
+        while (true) {
+          if (race.winner != null) {
+            won.incrementAndGet();
+            totalWinNanos.addAndGet(System.nanoTime() - begin);
+            return race.winner;
+          }
+          if (next == candidates.size()) {
+            if (race.running == 0) {
+              break;
+            }
+            race.wait();
+            continue;
+          }
+          if (race.running >= Math.max(parallel, 1)) {
+            race.wait();
+            continue;
+          }
+          if (race.running > 0 && race.completed == race.completedAtStart) {
+            long remaining = race.lastStart + delayNanos - System.nanoTime();
+            if (remaining > 0) {
+              TimeUnit.NANOSECONDS.timedWait(race, remaining);
+              continue;
+            }
+            staggered.incrementAndGet();
+          }
+          start(race, candidates.get(next++));
+        }
+      } catch (InterruptedException e) {
+        race.abandoned = true;
+        Thread.currentThread().interrupt();
+        throw new PSQLException(GT.tr("Interrupted while attempting to connect."),
+            PSQLState.CONNECTION_UNABLE_TO_CONNECT, e);
+      }
+    }
+    return race.failure();
+  }
+
+  private <T> void start(final Race<T> race, final CandidateHost candidate) {
+    race.running++;
+    race.lastStart = System.nanoTime();
+    race.completedAtStart = race.completed;
+    started.incrementAndGet();
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Starting connection attempt to " + candidate.hostSpec);
+    }
+    workers.execute(new Runnable() {
+      @Override
+      public void run() {
+        race.run(candidate);
+      }
+    });
+  }
+
+  /**
+   * @return number of races run
+   */
+  public long getRaceCount() {
+    return races.get();
+  }
+
+  /**
+   * @return number of connection attempts started
+   */
+  public long getStartedCount() {
+    return started.get();
+  }
+
+  /**
+   * @return number of races that returned a connection
+   */
+  public long getWonCount() {
+    return won.get();
+  }
+
+  /**
+   * @return number of connection attempts that failed
+   */
+  public long getFailedCount() {
+    return failed.get();
+  }
+
+  /**
+   * @return number of connections closed because another attempt won
+   */
+  public long getDiscardedCount() {
+    return discarded.get();
+  }
+
+  /**
+   * @return number of attempts started because the previous one did not finish within the delay
+   */
+  public long getStaggeredCount() {
+    return staggered.get();
+  }
+
+  /**
+   * @return mean time from the start of a race to its winner in nanoseconds
+   */
+  public long getMeanWinLatencyNanos() {
+    long count = won.get();
+    return count == 0 ? 0 : totalWinNanos.get() / count;
+  }
+
+  /**
+   * Connects to one candidate host.
+   *
+   * @param <T> connection type
+   */
+  public interface Attempt<T> {
+    /**
+     * @param candidate host to connect to
+     * @return a connection ready for use, or null if the host does not match the requirement
+     * @throws SQLException if the connection attempt failed
+     */
+    T connect(CandidateHost candidate) throws SQLException;
+  }
+
+  /**
+   * Closes a connection that lost the race.
+   *
+   * @param <T> connection type
+   */
+  public interface Discard<T> {
+    void discard(T connection);
+  }
+
+  private final class Race<T> {
+    private final Attempt<T> attempt;
+    private final Discard<T> discard;
+    private final List<SQLException> failures = new ArrayList<SQLException>();
+    private T winner;
+    private boolean abandoned;
+    private int running;
+    private int completed;
+    private int completedAtStart;
+    private long lastStart;
+
+    Race(Attempt<T> attempt, Discard<T> discard) {
+      this.attempt = attempt;
+      this.discard = discard;
+    }
+
+    void run(CandidateHost candidate) {
+      T connection = null;
+      SQLException error = null;
+      try {
+        connection = attempt.connect(candidate);
+      } catch (SQLException e) {
+        error = e;
+      } catch (RuntimeException e) {
+        error = new PSQLException(GT.tr("The connection attempt failed."),
+            PSQLState.CONNECTION_UNABLE_TO_CONNECT, e);
+      }
+      boolean keep;
+      synchronized (this) {
+        running--;
+        completed++;
+        if (error != null) {
+          failed.incrementAndGet();
+          failures.add(error);
+        }
+        keep = connection != null && winner == null && !abandoned;
+        if (keep) {
+          winner = connection;
+        }
+        notifyAll();
+      }
+      if (connection != null && !keep) {
+        discarded.incrementAndGet();
+        LOGGER.debug("Closing connection to " + candidate.hostSpec + ", another host answered first");
+        discard.discard(connection);
+      }
+    }
+
+    T failure() throws SQLException {
+      if (failures.isEmpty()) {
+        return null;
+      }
+      SQLException last = failures.get(failures.size() - 1);
+      for (int i = 0; i < failures.size() - 1; i++) {
+        last.addSuppressed(failures.get(i));
+      }
+      throw last;
+    }
+  }
+}
@@ -14,6 +14,7 @@ import java.io.Reader;
 import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.HashMap;
 import org.postgresql.log.Logger;
 import org.postgresql.log.Log;
@@ -82,6 +83,7 @@ public class Encoding {
 
   private final Charset encoding;
   private final boolean fastASCIINumbers;
+  private final boolean asciiCompatible;
 
   /**
    * Uses the default charset of the JVM.
@@ -113,6 +115,7 @@ public class Encoding {
     }
     this.encoding = encoding;
     this.fastASCIINumbers = isFastASCIINumbers;
+    this.asciiCompatible = testAscii(encoding);
     if (LOGGER.isTraceEnabled()) {
       LOGGER.trace("Creating new Encoding " + encoding + " with fastASCIINumbers " + isFastASCIINumbers);
     }
@@ -128,6 +131,16 @@ public class Encoding {
     return fastASCIINumbers;
   }
 
+  /**
+   * Returns true if this encoding encodes all of ASCII as single bytes with the ASCII values, as
+   * UTF-8, GBK and the ISO-8859 family do.
+   *
+   * @return true if ASCII bytes can be decoded without the charset.
+   */
+  public boolean isAsciiCompatible() {
+    return asciiCompatible;
+  }
+
   /**
    * Construct an Encoding for a given JVM encoding.
    *
@@ -219,9 +232,22 @@ public class Encoding {
    * @throws IOException if something goes wrong
    */
   public String decode(byte[] encodedString, int offset, int length) throws IOException {
+    if (asciiCompatible && isAscii(encodedString, offset, length)) {
+      // ISO-8859-1 maps bytes to chars one to one, the cheapest decoder there is
+      return new String(encodedString, offset, length, StandardCharsets.ISO_8859_1);
+    }
     return new String(encodedString, offset, length, encoding);
   }
 
+  private static boolean isAscii(byte[] bytes, int offset, int length) {
+    for (int i = offset, end = offset + length; i < end; i++) {
+      if (bytes[i] < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * Decode an array of bytes into a string.
    *
@@ -285,4 +311,21 @@ public class Encoding {
     String res = new String(bytes, StandardCharsets.US_ASCII);
     return test.equals(res);
   }
+
+  /**
+   * Checks whether this encoding encodes every ASCII character as the single byte of its ASCII
+   * value.
+   *
+   * @param encoding current encoding
+   * @return If ASCII text can be encoded and decoded without the charset.
+   */
+  static boolean testAscii(Charset encoding) {
+    char[] chars = new char[128];
+    byte[] ascii = new byte[128];
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = (char) i;
+      ascii[i] = (byte) i;
+    }
+    return Arrays.equals(ascii, new String(chars).getBytes(encoding));
+  }
 }
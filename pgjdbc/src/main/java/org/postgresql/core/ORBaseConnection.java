@@ -83,4 +83,20 @@ public interface ORBaseConnection extends PGConnection, Connection {
      * @param hostSpec host info
      */
     void setHostSpec(HostSpec hostSpec);
-}
\ No newline at end of file
+
+    /**
+     * reserve room for the rows of a fetch ahead, fails when fetch ahead is disabled or the
+     * rows already fetched ahead on this connection use up the prefetch memory
+     *
+     * @param bytes expected size of the rows
+     * @return true if the fetch ahead may be sent
+     */
+    boolean reservePrefetch(long bytes);
+
+    /**
+     * release room reserved with {@link #reservePrefetch(long)}
+     *
+     * @param bytes reserved size
+     */
+    void releasePrefetch(long bytes);
+}
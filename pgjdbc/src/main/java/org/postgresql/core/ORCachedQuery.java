@@ -18,9 +18,10 @@ package org.postgresql.core;
 import org.postgresql.jdbc.ORResultSet;
 import org.postgresql.jdbc.ORStatement;
 
+import java.nio.charset.Charset;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * query cache
@@ -36,6 +37,10 @@ public class ORCachedQuery {
     private String parsedSql;
     private int paramCount;
     private boolean isPrepare;
+    private byte[] sqlBytes;
+    private int sqlByteLength;
+    private Charset sqlCharset;
+    private boolean isPrefetch;
 
     /**
      * cached query constructor
@@ -192,14 +197,12 @@ public class ORCachedQuery {
      * set data rows to the resultSet
      *
      * @param fields column fields
-     * @param valueLens value length
      * @param rows data rows
      * @param hasRemain is there still data available
      * @throws SQLException if a database access error occurs
      */
-    public void handleResultRows(ORField[] fields, List<int[]> valueLens, List<byte[][]> rows,
-                                 boolean hasRemain) throws SQLException {
-        this.rs = new ORResultSet(this.ctStatement, sql, fields, valueLens, rows, hasRemain);
+    public void handleResultRows(ORField[] fields, ORRowBatch rows, boolean hasRemain) throws SQLException {
+        this.rs = new ORResultSet(this.ctStatement, sql, fields, rows, hasRemain);
     }
 
     /**
@@ -214,13 +217,44 @@ public class ORCachedQuery {
     /**
      * update fetch data to the resultSet
      *
-     * @param total rows total
-     * @param valueLens value length
      * @param rows data rows
      * @param hasRemain is there still data available
      */
-    public void setNewData(int total, List<int[]> valueLens, List<byte[][]> rows, boolean hasRemain) {
-        rs.setFetchInfo(total, valueLens, rows, hasRemain);
+    public void setNewData(ORRowBatch rows, boolean hasRemain) {
+        if (isPrefetch) {
+            rs.setPrefetchInfo(rows, hasRemain);
+        } else {
+            rs.setFetchInfo(rows, hasRemain);
+        }
+    }
+
+    /**
+     * mark the query as a fetch ahead whose rows are kept aside until the resultSet runs out of
+     * its current rows
+     *
+     * @param isPrefetch is fetch ahead
+     */
+    public void setPrefetch(boolean isPrefetch) {
+        this.isPrefetch = isPrefetch;
+    }
+
+    /**
+     * tell the resultSet that the response of its fetch ahead has been read
+     *
+     * @param error error returned by the server, or null
+     */
+    public void prefetchDone(SQLException error) {
+        rs.prefetchDone(error);
+    }
+
+    /**
+     * hand the rows of a fetch ahead that another request already read over to the resultSet
+     *
+     * @return true if the resultSet got the rows, false if a fetch has to be sent
+     * @throws SQLException if the fetch ahead failed
+     */
+    public boolean usePrefetchedRows() throws SQLException {
+        return rs != null && rs.usePrefetchedRows();
     }
 
     /**
@@ -229,9 +263,38 @@ public class ORCachedQuery {
      * @param sql sql query
      */
     public void setSql(String sql) {
+        if (!sql.equals(this.sql)) {
+            this.sqlBytes = null;
+        }
         this.sql = sql;
     }
 
+    /**
+     * get the sql encoded in the given charset and zero padded to a multiple of 4 bytes, the
+     * encoding is kept until the sql or the charset changes
+     *
+     * @param charset connection charset
+     * @return aligned sql bytes, use {@link #getSqlByteLength()} for the unpadded length
+     */
+    public byte[] getAlignedSqlBytes(Charset charset) {
+        if (sqlBytes == null || !charset.equals(sqlCharset)) {
+            byte[] data = sql.getBytes(charset);
+            sqlBytes = Arrays.copyOf(data, (data.length + 3) & ~3);
+            sqlByteLength = data.length;
+            sqlCharset = charset;
+        }
+        return sqlBytes;
+    }
+
+    /**
+     * get the length of the encoded sql without padding
+     *
+     * @return sql byte length
+     */
+    public int getSqlByteLength() {
+        return sqlByteLength;
+    }
+
     /**
      * get sql
      *
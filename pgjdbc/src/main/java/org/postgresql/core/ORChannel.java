@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.core;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Socket channel I/O for {@link ORStream}. Integers are read from and written to direct buffers
+ * in place with the byte order of the server, and byte arrays that do not fit the output buffer
+ * are sent with one gathering write instead of being copied into it.
+ *
+ * <p>The output buffer grows, up to the maximum size, when messages overflow it and shrinks back
+ * when a long run of messages uses only a small part of it. The channel is non-blocking, reads
+ * and writes wait on a selector so the socket timeout still applies.</p>
+ */
+class ORChannel implements Closeable {
+    private static final int SHRINK_AFTER_FLUSHES = 64;
+
+    private final SocketChannel channel;
+    private final Selector selector;
+    private final SelectionKey key;
+    private final int initialSize;
+    private final int maxSize;
+    private ByteOrder order = ByteOrder.LITTLE_ENDIAN;
+    private ByteBuffer in;
+    private ByteBuffer out;
+    private int timeout;
+    private boolean isOverflowed;
+    private int smallFlushes;
+
+    /**
+     * connect a socket channel
+     *
+     * @param address server address
+     * @param connectTimeout connect timeout in milliseconds, 0 means no timeout
+     * @param bufferSize initial size of the input and output buffers
+     * @param maxBufferSize maximum size of the output buffer
+     * @throws IOException if an I/O error occurs
+     */
+    ORChannel(SocketAddress address, int connectTimeout, int bufferSize, int maxBufferSize)
+            throws IOException {
+        this.initialSize = bufferSize;
+        this.maxSize = Math.max(bufferSize, maxBufferSize);
+        this.channel = SocketChannel.open();
+        try {
+            channel.socket().connect(address, connectTimeout);
+            channel.configureBlocking(false);
+            this.selector = Selector.open();
+            this.key = channel.register(selector, 0);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        this.in = newBuffer(bufferSize);
+        this.in.limit(0);
+        this.out = newBuffer(bufferSize);
+    }
+
+    private ByteBuffer newBuffer(int size) {
+        return ByteBuffer.allocateDirect(size).order(order);
+    }
+
+    /**
+     * get the socket of the channel, to set socket options
+     *
+     * @return socket
+     */
+    Socket socket() {
+        return channel.socket();
+    }
+
+    /**
+     * set read and write timeout
+     *
+     * @param timeout timeout in milliseconds, 0 means no timeout
+     */
+    void setTimeout(int timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * set the byte order used for integers
+     *
+     * @param isBigEndian is big endian
+     */
+    void setBigEndian(boolean isBigEndian) {
+        order = isBigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+        in.order(order);
+        out.order(order);
+    }
+
+    private void await(int op) throws IOException {
+        key.interestOps(op);
+        int ready = selector.select(timeout);
+        selector.selectedKeys().clear();
+        if (ready == 0 && timeout > 0) {
+            throw new SocketTimeoutException(op == SelectionKey.OP_READ ? "Read timed out"
+                    : "Write timed out");
+        }
+    }
+
+    /**
+     * make sure at least {@code size} unread bytes are buffered
+     */
+    private void fill(int size) throws IOException {
+        if (in.remaining() >= size) {
+            return;
+        }
+        in.compact();
+        try {
+            while (in.position() < size) {
+                int read = channel.read(in);
+                if (read < 0) {
+                    throw new EOFException("EOF Exception");
+                }
+                if (read == 0) {
+                    await(SelectionKey.OP_READ);
+                }
+            }
+        } finally {
+            in.flip();
+        }
+    }
+
+    int readByte() throws IOException {
+        fill(1);
+        return in.get() & 0xFF;
+    }
+
+    int readShort() throws IOException {
+        fill(2);
+        return in.getShort();
+    }
+
+    int readInt() throws IOException {
+        fill(4);
+        return in.getInt();
+    }
+
+    long readLong() throws IOException {
+        fill(8);
+        return in.getLong();
+    }
+
+    /**
+     * read exactly {@code len} bytes, values larger than the input buffer are read straight into
+     * the destination
+     */
+    void read(byte[] dst, int off, int len) throws IOException {
+        int buffered = Math.min(len, in.remaining());
+        in.get(dst, off, buffered);
+        if (buffered == len) {
+            return;
+        }
+        int rest = len - buffered;
+        if (rest < in.capacity()) {
+            fill(rest);
+            in.get(dst, off + buffered, rest);
+            return;
+        }
+        ByteBuffer target = ByteBuffer.wrap(dst, off + buffered, rest);
+        while (target.hasRemaining()) {
+            int read = channel.read(target);
+            if (read < 0) {
+                throw new EOFException("EOF Exception");
+            }
+            if (read == 0) {
+                await(SelectionKey.OP_READ);
+            }
+        }
+    }
+
+    private void reserve(int size) throws IOException {
+        if (out.remaining() < size) {
+            isOverflowed = true;
+            writeBuffer();
+        }
+    }
+
+    void writeByte(int val) throws IOException {
+        reserve(1);
+        out.put((byte) val);
+    }
+
+    void writeShort(int val) throws IOException {
+        reserve(2);
+        out.putShort((short) val);
+    }
+
+    void writeInt(int val) throws IOException {
+        reserve(4);
+        out.putInt(val);
+    }
+
+    void writeLong(long val) throws IOException {
+        reserve(8);
+        out.putLong(val);
+    }
+
+    /**
+     * buffer the bytes, or send them together with the buffered bytes in one gathering write when
+     * they do not fit
+     */
+    void write(byte[] src, int off, int len) throws IOException {
+        if (len <= out.remaining()) {
+            out.put(src, off, len);
+            return;
+        }
+        isOverflowed = true;
+        if (len < out.capacity() / 2) {
+            writeBuffer();
+            out.put(src, off, len);
+            return;
+        }
+        out.flip();
+        ByteBuffer[] buffers = {out, ByteBuffer.wrap(src, off, len)};
+        try {
+            while (buffers[1].hasRemaining()) {
+                if (channel.write(buffers) == 0) {
+                    await(SelectionKey.OP_WRITE);
+                }
+            }
+        } finally {
+            out.clear();
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        out.flip();
+        try {
+            while (out.hasRemaining()) {
+                if (channel.write(out) == 0) {
+                    await(SelectionKey.OP_WRITE);
+                }
+            }
+        } finally {
+            out.clear();
+        }
+    }
+
+    /**
+     * send the buffered bytes, then resize the output buffer for the next messages
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    void flush() throws IOException {
+        int used = out.position();
+        writeBuffer();
+        int capacity = out.capacity();
+        if (isOverflowed) {
+            isOverflowed = false;
+            smallFlushes = 0;
+            if (capacity < maxSize) {
+                out = newBuffer(Math.min(capacity * 2, maxSize));
+            }
+        } else if (capacity > initialSize && used < capacity / 4) {
+            if (++smallFlushes >= SHRINK_AFTER_FLUSHES) {
+                smallFlushes = 0;
+                out = newBuffer(Math.max(capacity / 2, initialSize));
+            }
+        } else {
+            smallFlushes = 0;
+        }
+    }
+
+    /**
+     * get the current output buffer size
+     *
+     * @return output buffer size
+     */
+    int getOutputBufferSize() {
+        return out.capacity();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            selector.close();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -19,6 +19,7 @@ import org.postgresql.util.GT;
 import org.postgresql.util.PSQLException;
 import org.postgresql.util.PSQLState;
 
+import java.io.IOException;
 import java.sql.SQLException;
 import java.util.Arrays;
 
@@ -31,6 +32,7 @@ import java.util.Arrays;
 public class ORParameterList {
     private Object[] paramValues;
     private byte[][] byteValues;
+    private long[] fixedValues;
     private int[] dbTypes;
     private int paramCount;
     private boolean[] paramNoNull;
@@ -43,21 +45,12 @@ public class ORParameterList {
     public ORParameterList(int paramCount) {
         this.paramValues = new Object[paramCount];
         this.byteValues = new byte[paramCount][];
+        this.fixedValues = new long[paramCount];
         this.dbTypes = new int[paramCount];
         this.paramNoNull = new boolean[paramCount];
         this.paramCount = paramCount;
     }
 
-    /**
-     * get param byte value
-     *
-     * @param index param index
-     * @return byte value
-     */
-    public byte[] getByteValue(int index) {
-        return byteValues[index];
-    }
-
     /**
      * set byte[] type parameters
      *
@@ -71,76 +64,86 @@ public class ORParameterList {
         this.dbTypes[index - 1] = dbType;
         this.paramValues[index - 1] = paramValue;
         this.paramNoNull[index - 1] = true;
+        this.byteValues[index - 1] = null;
         if (paramValue == null) {
-            byteValues[index - 1] = new byte[0];
             return;
         }
         switch (dbType) {
             case ORDataType.INT:
-                byteValues[index - 1] = orStream.getInteger4Bytes(Integer.valueOf(paramValue.toString()));
-                break;
-            case ORDataType.BIGINT:
-                byteValues[index - 1] = orStream.getInteger8Bytes(Long.valueOf(paramValue.toString()));
+                fixedValues[index - 1] = Integer.valueOf(paramValue.toString());
                 break;
             case ORDataType.REAL:
-                long lp = Double.doubleToRawLongBits(Double.valueOf(paramValue.toString()));
-                byteValues[index - 1] = orStream.getInteger8Bytes(lp);
+                fixedValues[index - 1] = Double.doubleToRawLongBits(Double.valueOf(paramValue.toString()));
                 break;
+            case ORDataType.BIGINT:
             case ORDataType.TIME:
-                byteValues[index - 1] = orStream.getInteger8Bytes(Long.valueOf(paramValue.toString()));
-                break;
             case ORDataType.DATE:
-                byteValues[index - 1] = orStream.getInteger8Bytes(Long.valueOf(paramValue.toString()));
-                break;
             case ORDataType.TIMESTAMP:
             case ORDataType.TIMESTAMP_LTZ:
-                byteValues[index - 1] = orStream.getInteger8Bytes(Long.valueOf(paramValue.toString()));
+                fixedValues[index - 1] = Long.valueOf(paramValue.toString());
                 break;
             case ORDataType.NUMERIC:
             case ORDataType.DECIMAL:
             case ORDataType.CHAR:
             case ORDataType.VARCHAR:
             case ORDataType.TEXT:
-                byte[] data = String.valueOf(paramValue).getBytes(orStream.getCharset());
-                byteValues[index - 1] = getParamBytes(orStream, data);
+                byteValues[index - 1] = String.valueOf(paramValue).getBytes(orStream.getCharset());
                 break;
             case ORDataType.VARBINARY:
             case ORDataType.BINARY:
             case ORDataType.RAW:
-                byteValues[index - 1] = getParamBytes(orStream, (byte[]) paramValue);
+                byteValues[index - 1] = (byte[]) paramValue;
                 break;
             default:
                 throw new SQLException("type " + ORDataType.getDataType(dbType)[0] + " is invalid.");
         }
     }
 
-    private byte[] getParamBytes(ORStream orStream, byte[] data) {
-        byte[] lenByte = orStream.getInteger4Bytes(data.length);
-        byte[] dataByte = data;
-        if (data.length % 4 != 0) {
-            int len = data.length + 4 - data.length % 4;
-            dataByte = new byte[len];
-            setParam(data, dataByte, 0);
+    /**
+     * get the number of bytes the param value takes on the wire
+     *
+     * @param index param index, starting from 0
+     * @return wire length, 0 for null
+     */
+    public int getWireLength(int index) {
+        if (paramValues[index] == null) {
+            return 0;
+        }
+        byte[] data = byteValues[index];
+        if (data != null) {
+            return 4 + align4(data.length);
         }
-        byte[] paramByte = new byte[lenByte.length + dataByte.length];
-        setParam(lenByte, paramByte, 0);
-        setParam(dataByte, paramByte, lenByte.length);
-        return paramByte;
+        return dbTypes[index] == ORDataType.INT ? 4 : 8;
     }
 
     /**
-     * copy byte array
+     * write the param value to the output buffer of the stream, variable length values are
+     * prefixed with their length and padded to 4 bytes
      *
-     * @param srcByte source bytes
-     * @param destByte dest bytes
-     * @param destPos dest position
+     * @param orStream data output processor
+     * @param index param index, starting from 0
+     * @throws IOException if an I/O error occurs
      */
-    public void setParam(byte[] srcByte, byte[] destByte, int destPos) {
-        for (int i = 0; i < srcByte.length; i++) {
-            destByte[i + destPos] = srcByte[i];
+    public void writeValue(ORStream orStream, int index) throws IOException {
+        if (paramValues[index] == null) {
+            return;
+        }
+        byte[] data = byteValues[index];
+        if (data != null) {
+            orStream.sendInteger4(data.length);
+            orStream.send(data);
+            orStream.sendZeros(align4(data.length) - data.length);
+        } else if (dbTypes[index] == ORDataType.INT) {
+            orStream.sendInteger4((int) fixedValues[index]);
+        } else {
+            orStream.sendInteger8(fixedValues[index]);
         }
     }
 
+    private static int align4(int len) {
+        return (len + 3) & ~3;
+    }
+
     /**
      * get param count
      *
@@ -188,6 +191,7 @@ public class ORParameterList {
      */
     public void clear() {
         Arrays.fill(paramValues, null);
+        Arrays.fill(byteValues, null);
         Arrays.fill(dbTypes, 0);
         Arrays.fill(paramNoNull, false);
     }
@@ -90,4 +90,14 @@ public interface ORQueryExecutor {
      * @throws IOException if an I/O error occurs
      */
     void fetch(ORCachedQuery cachedQuery) throws SQLException, IOException ;
+
+    /**
+     * send a fetch request without waiting for its response, the response is read by the next
+     * {@link #fetch} of the same resultSet, or kept aside for it before any other request is sent
+     *
+     * @param cachedQuery query info
+     * @throws SQLException if a database access error occurs
+     * @throws IOException if an I/O error occurs
+     */
+    void prefetch(ORCachedQuery cachedQuery) throws SQLException, IOException;
 }
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.core;
+
+import java.util.Arrays;
+
+/**
+ * Rows of one ogRAC result packet. All cell values are stored back to back in a single byte
+ * array, each cell is described by an offset and a length into it, a length of -1 means null.
+ */
+public class ORRowBatch {
+    private byte[] data;
+    private int dataLength;
+    private int[] offsets;
+    private int[] lengths;
+    private int[] rowStarts;
+    private int rowCount;
+    private int cellCount;
+
+    /**
+     * row batch constructor
+     *
+     * @param rows expected number of rows
+     * @param dataSize expected number of value bytes
+     */
+    public ORRowBatch(int rows, int dataSize) {
+        this.data = new byte[Math.max(dataSize, 0)];
+        this.rowStarts = new int[rows + 1];
+        this.offsets = new int[Math.max(rows, 1) * 4];
+        this.lengths = new int[this.offsets.length];
+    }
+
+    /**
+     * start a new row
+     *
+     * @param columns number of cells in the row
+     */
+    public void startRow(int columns) {
+        if (rowCount + 1 >= rowStarts.length) {
+            rowStarts = Arrays.copyOf(rowStarts, rowStarts.length * 2);
+        }
+        if (cellCount + columns > offsets.length) {
+            int size = Math.max(offsets.length * 2, cellCount + columns);
+            offsets = Arrays.copyOf(offsets, size);
+            lengths = Arrays.copyOf(lengths, size);
+        }
+        rowStarts[rowCount++] = cellCount;
+        rowStarts[rowCount] = cellCount;
+    }
+
+    /**
+     * add a null cell to the current row
+     */
+    public void addNull() {
+        offsets[cellCount] = dataLength;
+        lengths[cellCount++] = -1;
+        rowStarts[rowCount] = cellCount;
+    }
+
+    /**
+     * reserve room for a cell of the current row, the caller fills the returned range of
+     * {@link #getData()} with the value followed by its padding
+     *
+     * @param length value length
+     * @param padding bytes after the value that belong to the wire format
+     * @return offset of the value in {@link #getData()}
+     */
+    public int addValue(int length, int padding) {
+        int offset = dataLength;
+        int end = offset + length + padding;
+        if (end > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, end));
+        }
+        offsets[cellCount] = offset;
+        lengths[cellCount++] = length;
+        rowStarts[rowCount] = cellCount;
+        dataLength = end;
+        return offset;
+    }
+
+    /**
+     * get the buffer holding all values, it may be replaced while cells are added
+     *
+     * @return value buffer
+     */
+    public byte[] getData() {
+        return data;
+    }
+
+    /**
+     * get the number of value bytes held by the batch
+     *
+     * @return value bytes
+     */
+    public int getDataSize() {
+        return dataLength;
+    }
+
+    /**
+     * get row count
+     *
+     * @return row count
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    private int cell(int row, int column) {
+        return rowStarts[row] + column;
+    }
+
+    /**
+     * if the cell is null
+     *
+     * @param row row index, starting from 0
+     * @param column column index, starting from 0
+     * @return true if the value is null
+     */
+    public boolean isNull(int row, int column) {
+        return lengths[cell(row, column)] < 0;
+    }
+
+    /**
+     * get the value offset in {@link #getData()}
+     *
+     * @param row row index, starting from 0
+     * @param column column index, starting from 0
+     * @return value offset
+     */
+    public int getOffset(int row, int column) {
+        return offsets[cell(row, column)];
+    }
+
+    /**
+     * get the value length
+     *
+     * @param row row index, starting from 0
+     * @param column column index, starting from 0
+     * @return value length, -1 for null
+     */
+    public int getLength(int row, int column) {
+        return lengths[cell(row, column)];
+    }
+
+    /**
+     * copy the value out of the batch
+     *
+     * @param row row index, starting from 0
+     * @param column column index, starting from 0
+     * @return value bytes, null for null
+     */
+    public byte[] getValue(int row, int column) {
+        int cell = cell(row, column);
+        if (lengths[cell] < 0) {
+            return null;
+        }
+        return Arrays.copyOfRange(data, offsets[cell], offsets[cell] + lengths[cell]);
+    }
+}
@@ -46,7 +46,9 @@ import java.util.concurrent.locks.ReentrantLock;
 public class ORStream implements Closeable, Flushable {
     private static Log LOGGER = Logger.getLogger(ORStream.class.getName());
     private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_BUFFER_SIZE = 1024 * 1024;
     private static final int MAX_PARAMS_NUM = 65535;
+    private static final byte[] ZEROS = new byte[8];
 
     private ReentrantLock lock = new ReentrantLock();
     private SocketAddress socketAddress;
@@ -62,6 +64,10 @@ public class ORStream implements Closeable, Flushable {
     private OutputStream outputStream;
     private Writer encodingWriter;
     private Encoding encoding;
+    private final byte[] int8buf = new byte[8];
+    private final byte[] recvbuf = new byte[8];
+    private ORChannel channel;
+    private final HostSpec hostSpec;
 
     /**
      * input/output stream constructor
@@ -69,10 +75,20 @@ public class ORStream implements Closeable, Flushable {
      * @param hostSpec host address
      */
     public ORStream(HostSpec hostSpec) {
+        this.hostSpec = hostSpec;
         this.charset = Charset.forName("UTF-8");
         this.socketAddress = new InetSocketAddress(hostSpec.getHost(), hostSpec.getPort());
     }
 
+    /**
+     * get the host this stream connects to
+     *
+     * @return host address
+     */
+    public HostSpec getHostSpec() {
+        return hostSpec;
+    }
+
     /**
      * get server version
      *
@@ -89,6 +105,9 @@ public class ORStream implements Closeable, Flushable {
      */
     public void setBigEndian(boolean isBigEndian) {
         this.isBigEndian = isBigEndian;
+        if (channel != null) {
+            channel.setBigEndian(isBigEndian);
+        }
     }
 
     /**
@@ -181,6 +200,15 @@ public class ORStream implements Closeable, Flushable {
      * @throws PSQLException if a database access error occurs
      */
     public void connect(Properties properties, SocketFactory socketFactory) throws IOException, PSQLException {
+        int bufferSize = getBufferSize(properties, PGProperty.IO_BUFFER_SIZE, BUFFER_SIZE);
+        int maxBufferSize = getBufferSize(properties, PGProperty.MAX_IO_BUFFER_SIZE, MAX_BUFFER_SIZE);
+        if (PGProperty.SOCKET_CHANNEL.getBoolean(properties)) {
+            if (PGProperty.SOCKET_FACTORY.get(properties) == null) {
+                connectChannel(properties, bufferSize, maxBufferSize);
+                return;
+            }
+            LOGGER.debug("socketChannel is ignored because a socketFactory is configured.");
+        }
         Socket socketConn = socketFactory.createSocket();
         if (!socketConn.isConnected()) {
             socketConn.connect(this.socketAddress, getTimeout(properties));
@@ -191,12 +219,32 @@ public class ORStream implements Closeable, Flushable {
             setReceiveBufferSize(properties);
             setSendBufferSize(properties);
             socketConn.setTcpNoDelay(true);
-            visibleStream = new VisibleBufferedInputStream(socketConn.getInputStream(), BUFFER_SIZE);
-            outputStream = new BufferedOutputStream(socketConn.getOutputStream(), BUFFER_SIZE);
+            visibleStream = new VisibleBufferedInputStream(socketConn.getInputStream(), bufferSize);
+            outputStream = new BufferedOutputStream(socketConn.getOutputStream(), bufferSize);
             setEncoding(Encoding.getJVMEncoding("UTF-8"));
         }
     }
 
+    private void connectChannel(Properties properties, int bufferSize, int maxBufferSize)
+            throws IOException, PSQLException {
+        channel = new ORChannel(this.socketAddress, getTimeout(properties), bufferSize, maxBufferSize);
+        channel.setBigEndian(isBigEndian);
+        Socket socketConn = channel.socket();
+        this.localAddress = socketConn.getLocalAddress().toString();
+        socketConn.setKeepAlive(true);
+        this.socket = socketConn;
+        setSocketTimeout(properties);
+        setReceiveBufferSize(properties);
+        setSendBufferSize(properties);
+        socketConn.setTcpNoDelay(true);
+        this.encoding = Encoding.getJVMEncoding("UTF-8");
+    }
+
+    private static int getBufferSize(Properties props, PGProperty property, int defaultValue) throws PSQLException {
+        int size = property.getInt(props);
+        return size > 0 ? size : defaultValue;
+    }
+
     /**
      * set encoding
      *
@@ -254,6 +302,9 @@ public class ORStream implements Closeable, Flushable {
         }
         if (socketTimeout >= 0) {
             this.socket.setSoTimeout(socketTimeout * 1000);
+            if (channel != null) {
+                channel.setTimeout(socketTimeout * 1000);
+            }
         }
     }
 
@@ -281,6 +332,10 @@ public class ORStream implements Closeable, Flushable {
      * @throws IOException if an I/O error occurs
      */
     public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            return;
+        }
         if (encodingWriter != null) {
             encodingWriter.close();
         }
@@ -315,6 +370,10 @@ public class ORStream implements Closeable, Flushable {
      * @throws IOException if an I/O error occurs
      */
     public void flush() throws IOException {
+        if (channel != null) {
+            channel.flush();
+            return;
+        }
         if (encodingWriter != null) {
             encodingWriter.flush();
         }
@@ -343,8 +402,9 @@ public class ORStream implements Closeable, Flushable {
      * @throws IOException if a data I/O error occurs
      */
     public void receive(byte[] buf, int off, int size) throws IOException {
-        if (!visibleStream.ensureBytes(size)) {
-            throw new EOFException("EOF Exception");
+        if (channel != null) {
+            channel.read(buf, off, size);
+            return;
         }
         int s = 0;
         while (s < size) {
@@ -363,7 +423,11 @@ public class ORStream implements Closeable, Flushable {
      * @throws IOException if an I/O error occurs
      */
     public long receiveLong() throws IOException {
-        byte[] bs = receive(8);
+        if (channel != null) {
+            return channel.readLong();
+        }
+        byte[] bs = recvbuf;
+        receive(bs, 0, 8);
         long value = 0L;
         if (isBigEndian) {
             for (int i = 0; i < 8; i++) {
@@ -384,6 +448,9 @@ public class ORStream implements Closeable, Flushable {
      * @throws IOException if an I/O Error occurs
      */
     public int receiveChar() throws IOException {
+        if (channel != null) {
+            return channel.readByte();
+        }
         int c = visibleStream.read();
         if (c < 0) {
             throw new EOFException("EOF Exception");
@@ -398,11 +465,14 @@ public class ORStream implements Closeable, Flushable {
      * @throws IOException  if an I/O error occurs
      */
     public int receiveInteger2() throws IOException {
+        if (channel != null) {
+            return channel.readShort();
+        }
         if (!visibleStream.ensureBytes(2)) {
             throw new EOFException("EOF Exception");
         }
-        byte[] int2buf = new byte[2];
-        if (visibleStream.read(int2buf) != 2) {
+        byte[] int2buf = recvbuf;
+        if (visibleStream.read(int2buf, 0, 2) != 2) {
             throw new EOFException("EOF Exception");
         }
         if (isBigEndian) {
@@ -418,11 +488,14 @@ public class ORStream implements Closeable, Flushable {
      * @throws IOException if an I/O error occurs
      */
     public int receiveInteger4() throws IOException {
+        if (channel != null) {
+            return channel.readInt();
+        }
         if (!visibleStream.ensureBytes(4)) {
             throw new EOFException("EOF Exception");
         }
-        byte[] int4buf = new byte[4];
-        if (visibleStream.read(int4buf) != 4) {
+        byte[] int4buf = recvbuf;
+        if (visibleStream.read(int4buf, 0, 4) != 4) {
             throw new EOFException("EOF Exception");
         }
         if (isBigEndian) {
@@ -441,19 +514,45 @@ public class ORStream implements Closeable, Flushable {
      * @throws IOException if an I/O error occurs
      */
     public void sendInteger4(int val) throws IOException {
-        byte[] int4buf = new byte[4];
+        if (channel != null) {
+            channel.writeInt(val);
+            return;
+        }
         if (isBigEndian) {
-            int4buf[0] = (byte) (val >>> 24);
-            int4buf[1] = (byte) (val >>> 16);
-            int4buf[2] = (byte) (val >>> 8);
-            int4buf[3] = (byte) (val);
+            int8buf[0] = (byte) (val >>> 24);
+            int8buf[1] = (byte) (val >>> 16);
+            int8buf[2] = (byte) (val >>> 8);
+            int8buf[3] = (byte) (val);
         } else {
-            int4buf[0] = (byte) (val);
-            int4buf[1] = (byte) (val >>> 8);
-            int4buf[2] = (byte) (val >>> 16);
-            int4buf[3] = (byte) (val >>> 24);
+            int8buf[0] = (byte) (val);
+            int8buf[1] = (byte) (val >>> 8);
+            int8buf[2] = (byte) (val >>> 16);
+            int8buf[3] = (byte) (val >>> 24);
         }
-        outputStream.write(int4buf);
+        outputStream.write(int8buf, 0, 4);
+    }
+
+    /**
+     * Sends an 8-byte integer to the back end.
+     *
+     * @param val the long to be sent
+     * @throws IOException if an I/O error occurs
+     */
+    public void sendInteger8(long val) throws IOException {
+        if (channel != null) {
+            channel.writeLong(val);
+            return;
+        }
+        if (isBigEndian) {
+            for (int i = 7; i >= 0; i--) {
+                int8buf[7 - i] = (byte) (val >>> (i * 8));
+            }
+        } else {
+            for (int i = 0; i < 8; i++) {
+                int8buf[i] = (byte) (val >>> (i * 8));
+            }
+        }
+        outputStream.write(int8buf, 0, 8);
     }
 
     /**
@@ -533,6 +632,26 @@ public class ORStream implements Closeable, Flushable {
                 | (bytes[0] & 0xFF);
     }
 
+    /**
+     * Convert 4 bytes at the given position to int type value
+     *
+     * @param bytes byte array
+     * @param start start position
+     * @return int type value
+     */
+    public int bytesToInt(byte[] bytes, int start) {
+        if (isBigEndian) {
+            return (bytes[start] & 0xFF) << 24
+                    | (bytes[start + 1] & 0xFF) << 16
+                    | (bytes[start + 2] & 0xFF) << 8
+                    | (bytes[start + 3] & 0xFF);
+        }
+        return (bytes[start + 3] & 0xFF) << 24
+                | (bytes[start + 2] & 0xFF) << 16
+                | (bytes[start + 1] & 0xFF) << 8
+                | (bytes[start] & 0xFF);
+    }
+
     /**
      * Convert byte[8] to long type value
      *
@@ -556,6 +675,27 @@ public class ORStream implements Closeable, Flushable {
         return value;
     }
 
+    /**
+     * Convert 8 bytes at the given position to long type value
+     *
+     * @param bytes byte array
+     * @param start start position
+     * @return long type value
+     */
+    public long bytesToLong(byte[] bytes, int start) {
+        long value = 0L;
+        if (isBigEndian) {
+            for (int i = 0; i < 8; i++) {
+                value |= (bytes[start + i] & 0xFFL) << ((7 - i) * 8);
+            }
+        } else {
+            for (int i = 0; i < 8; i++) {
+                value |= (bytes[start + i] & 0xFFL) << (i * 8);
+            }
+        }
+        return value;
+    }
+
     /**
      * Convert long type value to byte[8]
      *
@@ -583,15 +723,18 @@ public class ORStream implements Closeable, Flushable {
      * @throws IOException if an I/O error occurs or {@code val} cannot be encoded in 2 bytes
      */
     public void sendInteger2(int val) throws IOException {
-        byte[] int2buf = new byte[2];
+        if (channel != null) {
+            channel.writeShort(val);
+            return;
+        }
         if (isBigEndian) {
-            int2buf[0] = (byte) (val >>> 8);
-            int2buf[1] = (byte) val;
+            int8buf[0] = (byte) (val >>> 8);
+            int8buf[1] = (byte) val;
         } else {
-            int2buf[0] = (byte) val;
-            int2buf[1] = (byte) (val >>> 8);
+            int8buf[0] = (byte) val;
+            int8buf[1] = (byte) (val >>> 8);
         }
-        outputStream.write(int2buf);
+        outputStream.write(int8buf, 0, 2);
     }
 
     /**
@@ -623,6 +766,10 @@ public class ORStream implements Closeable, Flushable {
      * @throws IOException if an I/O error occurs
      */
     public void sendChar(int val) throws IOException {
+        if (channel != null) {
+            channel.writeByte(val);
+            return;
+        }
         outputStream.write(val);
     }
 
@@ -633,7 +780,35 @@ public class ORStream implements Closeable, Flushable {
      * @throws IOException if an I/O error occurs
      */
     public void send(byte[] buf) throws IOException {
-        outputStream.write(buf);
+        send(buf, 0, buf.length);
+    }
+
+    /**
+     * Send a part of an array of bytes to the backend.
+     *
+     * @param buf The array of bytes to be sent
+     * @param off offset in the array
+     * @param len number of bytes to send
+     * @throws IOException if an I/O error occurs
+     */
+    public void send(byte[] buf, int off, int len) throws IOException {
+        if (channel != null) {
+            channel.write(buf, off, len);
+            return;
+        }
+        outputStream.write(buf, off, len);
+    }
+
+    /**
+     * Send zero bytes to the backend, used to pad values to the 4-byte alignment.
+     *
+     * @param len number of zero bytes, at most 8
+     * @throws IOException if an I/O error occurs
+     */
+    public void sendZeros(int len) throws IOException {
+        if (len > 0) {
+            send(ZEROS, 0, len);
+        }
     }
 
     /**
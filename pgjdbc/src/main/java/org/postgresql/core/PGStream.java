@@ -47,8 +47,13 @@ public class PGStream implements Closeable, Flushable {
 
   private Encoding encoding;
   private Writer encodingWriter;
+  private ProtocolTrace protocolTrace;
+
+  /**
+   * Largest number of bind parameters a single Bind message can carry.
+   */
+  public static final int MAX_PARAMS_NUM = 65535;
 
-  private final int MAX_PARAMS_NUM = 65535;
   /**
    * Constructor: Connect to the PostgreSQL back end and return a stream connection.
    *
@@ -306,7 +311,7 @@ public class PGStream implements Closeable, Flushable {
   public int peekChar() throws IOException {
     int c = pg_input.peek();
     if (c < 0) {
-      throw new EOFException("EOF Exception");
+      throw eof();
     }
     return c;
   }
@@ -320,7 +325,7 @@ public class PGStream implements Closeable, Flushable {
   public int receiveChar() throws IOException {
     int c = pg_input.read();
     if (c < 0) {
-      throw new EOFException("EOF Exception");
+      throw eof();
     }
     return c;
   }
@@ -333,7 +338,7 @@ public class PGStream implements Closeable, Flushable {
    */
   public int receiveInteger4() throws IOException {
     if (pg_input.read(_int4buf) != 4) {
-      throw new EOFException("EOF Exception");
+      throw eof();
     }
 
     return (_int4buf[0] & 0xFF) << 24 | (_int4buf[1] & 0xFF) << 16 | (_int4buf[2] & 0xFF) << 8
@@ -360,7 +365,7 @@ public class PGStream implements Closeable, Flushable {
    */
   public int receiveInteger2() throws IOException {
     if (pg_input.read(_int2buf) != 2) {
-      throw new EOFException("EOF Exception");
+      throw eof();
     }
 
     return (_int2buf[0] & 0xFF) << 8 | _int2buf[1] & 0xFF;
@@ -374,8 +379,12 @@ public class PGStream implements Closeable, Flushable {
    * @throws IOException if something wrong happens
    */
   public String receiveString(int len) throws IOException {
+    if (!pg_input.fits(len)) {
+      // too large for the receive buffer: decode from a temporary copy instead of growing it
+      return encoding.decode(receive(len));
+    }
     if (!pg_input.ensureBytes(len)) {
-      throw new EOFException("EOF Exception");
+      throw eof();
     }
 
     String res = encoding.decode(pg_input.getBuffer(), pg_input.getIndex(), len);
@@ -392,24 +401,32 @@ public class PGStream implements Closeable, Flushable {
    * @throws IOException if something wrong happens
    */
   public EncodingPredictor.DecodeResult receiveErrorString(int len) throws IOException {
+    if (!pg_input.fits(len)) {
+      return decodeErrorString(receive(len), 0, len);
+    }
     if (!pg_input.ensureBytes(len)) {
-      throw new EOFException("EOF Exception");
+      throw eof();
     }
 
+    EncodingPredictor.DecodeResult res = decodeErrorString(pg_input.getBuffer(), pg_input.getIndex(), len);
+    pg_input.skip(len);
+    return res;
+  }
+
+  private EncodingPredictor.DecodeResult decodeErrorString(byte[] buf, int off, int len) throws IOException {
     EncodingPredictor.DecodeResult res;
     try {
-      String value = encoding.decode(pg_input.getBuffer(), pg_input.getIndex(), len);
+      String value = encoding.decode(buf, off, len);
       // no autodetect warning as the message was converted on its own
       res = new EncodingPredictor.DecodeResult(value, null);
     } catch (IOException e) {
-      res = EncodingPredictor.decode(pg_input.getBuffer(), pg_input.getIndex(), len);
+      res = EncodingPredictor.decode(buf, off, len);
       if (res == null) {
         Encoding enc = Encoding.defaultEncoding();
-        String value = enc.decode(pg_input.getBuffer(), pg_input.getIndex(), len);
+        String value = enc.decode(buf, off, len);
         res = new EncodingPredictor.DecodeResult(value, enc.name());
       }
     }
-    pg_input.skip(len);
     return res;
   }
 
@@ -488,12 +505,28 @@ public class PGStream implements Closeable, Flushable {
     while (s < siz) {
       int w = pg_input.read(buf, off + s, siz - s);
       if (w < 0) {
-        throw new EOFException("EOF Exception");
+        throw eof();
       }
       s += w;
     }
   }
 
+  /**
+   * Shrinks the receive buffer back to its configured size after a large message made it grow.
+   */
+  public void shrinkReceiveBuffer() {
+    pg_input.shrink();
+  }
+
+  /**
+   * Returns the number of times the receive buffer had to grow.
+   *
+   * @return number of growth events
+   */
+  public int getReceiveBufferGrowthCount() {
+    return pg_input.getGrowthCount();
+  }
+
   public void skip(int size) throws IOException {
     long s = 0;
     while (s < size) {
@@ -585,6 +618,24 @@ public class PGStream implements Closeable, Flushable {
     connection.close();
   }
 
+  private EOFException eof() {
+    if (protocolTrace != null) {
+      protocolTrace.backend("EOF");
+    }
+    return new EOFException("EOF Exception");
+  }
+
+  /**
+   * @return trace of the protocol messages exchanged over this stream, or null if none is set
+   */
+  public ProtocolTrace getProtocolTrace() {
+    return protocolTrace;
+  }
+
+  public void setProtocolTrace(ProtocolTrace protocolTrace) {
+    this.protocolTrace = protocolTrace;
+  }
+
   public void setNetworkTimeout(int milliseconds) throws IOException {
     connection.setSoTimeout(milliseconds);
   }
@@ -66,6 +66,42 @@ public interface ParameterList {
    */
   void setIntParameter(int index, int value) throws SQLException;
 
+  /**
+   * Binds a short value to a parameter. The type of the parameter is implicitly 'int2'.
+   *
+   * @param index the 1-based parameter index to bind.
+   * @param value the short value to use.
+   * @throws SQLException on error or if <code>index</code> is out of range
+   */
+  void setShortParameter(int index, short value) throws SQLException;
+
+  /**
+   * Binds a long value to a parameter. The type of the parameter is implicitly 'int8'.
+   *
+   * @param index the 1-based parameter index to bind.
+   * @param value the long value to use.
+   * @throws SQLException on error or if <code>index</code> is out of range
+   */
+  void setLongParameter(int index, long value) throws SQLException;
+
+  /**
+   * Binds a float value to a parameter. The type of the parameter is implicitly 'float4'.
+   *
+   * @param index the 1-based parameter index to bind.
+   * @param value the float value to use.
+   * @throws SQLException on error or if <code>index</code> is out of range
+   */
+  void setFloatParameter(int index, float value) throws SQLException;
+
+  /**
+   * Binds a double value to a parameter. The type of the parameter is implicitly 'float8'.
+   *
+   * @param index the 1-based parameter index to bind.
+   * @param value the double value to use.
+   * @throws SQLException on error or if <code>index</code> is out of range
+   */
+  void setDoubleParameter(int index, double value) throws SQLException;
+
   /**
    * Binds a String value that is an unquoted literal to the server's query parser (for example, a
    * bare integer) to a parameter. Associated with the parameter is a typename for the parameter
@@ -90,6 +126,32 @@ public interface ParameterList {
    */
   void setStringParameter(int index, String value, int oid) throws SQLException;
 
+  /**
+   * Returns the buffer a text value of the parameter is formatted into as ASCII bytes, for example
+   * by {@link org.postgresql.jdbc.TimestampCodec}, before it is bound with
+   * {@link #setAsciiParameter(int, int, int)}. The value starts at offset 0. The buffer belongs to
+   * the parameter and is reused by the next value formatted for it, so binding a date/time value
+   * does not allocate.
+   *
+   * @param index the 1-based parameter index.
+   * @param capacity the maximum length of the formatted value.
+   * @return buffer of at least {@code capacity} bytes
+   * @throws SQLException if <code>index</code> is out of range
+   */
+  byte[] getAsciiBuffer(int index, int capacity) throws SQLException;
+
+  /**
+   * Binds the text value that was formatted into {@link #getAsciiBuffer(int, int)}. ASCII is valid
+   * in every client encoding, so the bytes are sent as is and no String is created unless the
+   * value is logged. The literal value for client logic is not saved.
+   *
+   * @param index the 1-based parameter index to bind.
+   * @param length the length of the formatted value.
+   * @param oid the type OID of the parameter, or <code>0</code> to infer the type.
+   * @throws SQLException on error or if <code>index</code> is out of range
+   */
+  void setAsciiParameter(int index, int length, int oid) throws SQLException;
+
   /**
    * Binds a binary bytea value stored as a bytearray to a parameter. The parameter's type is
    * implicitly set to 'bytea'. The bytearray's contains should remain unchanged until query
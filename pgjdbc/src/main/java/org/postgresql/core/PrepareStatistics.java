@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.core;
+
+import org.postgresql.util.CanEstimateSize;
+import org.postgresql.util.LruCache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Execution counts per statement shared by all connections that talk to the same server,
+ * database, user and schema, which in practice means all connections of one data source or pool.
+ * It is enabled with {@code adaptivePrepare=true}.</p>
+ *
+ * <p>{@code prepareThreshold} is counted per connection, so statements of a large pool may never
+ * reach it on any single connection. With adaptive prepare a statement that reached the threshold
+ * on the scope as a whole is hot, and every connection uses a named server-side statement for it
+ * from its first execution on. Statements that are executed only a few times stay unnamed.</p>
+ *
+ * <p>The statistics live as long as a connection of the scope uses them.</p>
+ */
+public final class PrepareStatistics {
+  private static final ScopeRegistry<PrepareStatistics> STATISTICS =
+      new ScopeRegistry<PrepareStatistics>();
+
+  private final LruCache<Object, Counter> counters;
+  private final AtomicLong executions = new AtomicLong();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong promotions = new AtomicLong();
+  private final AtomicLong serverStatements = new AtomicLong();
+
+  PrepareStatistics(int maxQueries, long maxBytes) {
+    this.counters = new LruCache<Object, Counter>(maxQueries, maxBytes, true);
+  }
+
+  /**
+   * Returns the statistics for the given scope, creating them on first use. The size limits are
+   * only applied when the statistics are created.
+   *
+   * @param host server the connection is attached to
+   * @param database database name
+   * @param user user name
+   * @param schema configured {@code currentSchema}, or null
+   * @param maxQueries maximum number of statements to track
+   * @param maxBytes maximum estimated size of the tracked statements
+   * @return shared statistics for the scope
+   */
+  public static PrepareStatistics forScope(Object host, String database, String user,
+      String schema, final int maxQueries, final long maxBytes) {
+    String scope = host + "/" + database + "?user=" + user + "&currentSchema=" + schema;
+    return STATISTICS.get(scope, new ScopeRegistry.Factory<PrepareStatistics>() {
+      @Override
+      public PrepareStatistics create() {
+        return new PrepareStatistics(maxQueries, maxBytes);
+      }
+    });
+  }
+
+  /**
+   * @return number of scopes that have statistics
+   */
+  static int getScopeCount() {
+    return STATISTICS.size();
+  }
+
+  /**
+   * Counts one execution of a statement and tells whether it should use a named server-side
+   * statement.
+   *
+   * @param key statement cache key, {@link String} or {@link CanEstimateSize}
+   * @param localCount number of executions of the statement on the calling connection, including
+   *     this one
+   * @param prepareThreshold executions after which a statement is prepared, must be positive
+   * @return true if the statement is hot on the scope or on the calling connection
+   */
+  public boolean recordExecution(Object key, int localCount, int prepareThreshold) {
+    Counter counter = counters.get(key);
+    if (counter == null) {
+      counter = new Counter(key);
+      counters.put(key, counter);
+    }
+    int previous = counter.count.getAndIncrement();
+    executions.incrementAndGet();
+    if (previous + 1 < prepareThreshold && localCount < prepareThreshold) {
+      return false;
+    }
+    if (previous >= prepareThreshold) {
+      hits.incrementAndGet();
+      if (localCount < prepareThreshold) {
+        promotions.incrementAndGet();
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Records a named statement prepared on the server.
+   */
+  public void statementPrepared() {
+    serverStatements.incrementAndGet();
+  }
+
+  /**
+   * Records named statements that were closed on the server, or dropped with their connection.
+   *
+   * @param count number of closed statements
+   */
+  public void statementsClosed(int count) {
+    serverStatements.addAndGet(-count);
+  }
+
+  /**
+   * @return number of executions counted
+   */
+  public long getExecutionCount() {
+    return executions.get();
+  }
+
+  /**
+   * @return number of executions of statements that were already hot on the scope
+   */
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  /**
+   * @return share of executions of statements that were already hot on the scope
+   */
+  public double getHitRate() {
+    long total = executions.get();
+    return total == 0 ? 0 : (double) hits.get() / total;
+  }
+
+  /**
+   * @return number of executions that used a named statement only because the statement was hot
+   *     on other connections
+   */
+  public long getPromotionCount() {
+    return promotions.get();
+  }
+
+  /**
+   * @return number of named statements currently prepared by the connections of the scope
+   */
+  public long getServerStatementCount() {
+    return serverStatements.get();
+  }
+
+  private static final class Counter implements CanEstimateSize {
+    private final long size;
+    private final AtomicInteger count = new AtomicInteger();
+
+    Counter(Object key) {
+      long keySize = key instanceof CanEstimateSize ? ((CanEstimateSize) key).getSize()
+          : key.toString().length() * 2L;
+      this.size = keySize + 50L;
+    }
+
+    @Override
+    public long getSize() {
+      return size;
+    }
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.core;
+
+import org.postgresql.log.Log;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * <p>Traces the protocol messages of one connection. Events are given as a constant message name
+ * plus optional details, and the log line is only built when the logger is at trace level, so
+ * tracing costs nothing per message when it is disabled.</p>
+ *
+ * <p>With {@code protocolTraceCapture} the most recent events are also kept in a ring buffer
+ * without formatting them. The buffer is written to the log when the connection fails, which
+ * shows the conversation that led to the failure without running at trace level. Details are
+ * kept as given until they are overwritten, so callers pass names, strings and numbers, never the
+ * protocol objects themselves.</p>
+ */
+public final class ProtocolTrace {
+  private static final long NO_VALUE = Long.MIN_VALUE;
+  private static final String FRONTEND = " FE=> ";
+  private static final String BACKEND = " <=BE ";
+
+  private final Log logger;
+  private final String address;
+  private final int capacity;
+  private final long[] times;
+  private final String[] directions;
+  private final String[] messages;
+  private final Object[] details;
+  private final long[] values;
+  private long count;
+
+  /**
+   * @param logger logger of the class that handles the protocol
+   * @param address connection address used as prefix of the log lines
+   * @param capacity number of most recent events to keep, 0 to keep none
+   */
+  public ProtocolTrace(Log logger, String address, int capacity) {
+    this.logger = logger;
+    this.address = address;
+    this.capacity = Math.max(0, capacity);
+    this.times = new long[this.capacity];
+    this.directions = new String[this.capacity];
+    this.messages = new String[this.capacity];
+    this.details = new Object[this.capacity];
+    this.values = new long[this.capacity];
+  }
+
+  /**
+   * Tells whether events are logged or captured. Callers that have to compute details before
+   * reporting an event should check this first.
+   *
+   * @return true if events are logged or captured
+   */
+  public boolean isEnabled() {
+    return capacity > 0 || logger.isTraceEnabled();
+  }
+
+  public void frontend(String message) {
+    event(FRONTEND, message, null, NO_VALUE);
+  }
+
+  public void frontend(String message, Object detail) {
+    event(FRONTEND, message, detail, NO_VALUE);
+  }
+
+  public void frontend(String message, long value) {
+    event(FRONTEND, message, null, value);
+  }
+
+  public void frontend(String message, Object detail, long value) {
+    event(FRONTEND, message, detail, value);
+  }
+
+  public void backend(String message) {
+    event(BACKEND, message, null, NO_VALUE);
+  }
+
+  public void backend(String message, Object detail) {
+    event(BACKEND, message, detail, NO_VALUE);
+  }
+
+  public void backend(String message, long value) {
+    event(BACKEND, message, null, value);
+  }
+
+  public void backend(String message, Object detail, long value) {
+    event(BACKEND, message, detail, value);
+  }
+
+  private void event(String direction, String message, Object detail, long value) {
+    if (capacity > 0) {
+      synchronized (this) {
+        int i = (int) (count++ % capacity);
+        times[i] = System.currentTimeMillis();
+        directions[i] = direction;
+        messages[i] = message;
+        details[i] = detail;
+        values[i] = value;
+      }
+    }
+    if (logger.isTraceEnabled()) {
+      StringBuilder sb = new StringBuilder();
+      sb.append('[').append(address).append(']');
+      format(sb, direction, message, detail, value);
+      logger.trace(sb.toString());
+    }
+  }
+
+  private static void format(StringBuilder sb, String direction, String message, Object detail,
+      long value) {
+    sb.append(direction).append(message);
+    if (detail != null || value != NO_VALUE) {
+      sb.append('(');
+      if (detail != null) {
+        sb.append(detail);
+      }
+      if (value != NO_VALUE) {
+        if (detail != null) {
+          sb.append(',');
+        }
+        sb.append(value);
+      }
+      sb.append(')');
+    }
+  }
+
+  /**
+   * @return the captured events, oldest first, or an empty list if capture is disabled
+   */
+  public synchronized List<String> getCapturedEvents() {
+    int size = (int) Math.min(count, capacity);
+    List<String> events = new ArrayList<String>(size);
+    SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss.SSS");
+    for (long n = count - size; n < count; n++) {
+      int i = (int) (n % capacity);
+      StringBuilder sb = new StringBuilder(timeFormat.format(new Date(times[i])));
+      format(sb, directions[i], messages[i], details[i], values[i]);
+      events.add(sb.toString());
+    }
+    return events;
+  }
+
+  /**
+   * Writes the captured events to the log. It does nothing if nothing was captured.
+   *
+   * @param reason why the events are logged
+   */
+  public void logCapturedEvents(String reason) {
+    List<String> events = getCapturedEvents();
+    if (events.isEmpty()) {
+      return;
+    }
+    StringBuilder sb = new StringBuilder();
+    sb.append('[').append(address).append("] ").append(reason)
+        .append(", last ").append(events.size()).append(" protocol messages:");
+    for (String event : events) {
+      sb.append("\n  ").append(event);
+    }
+    logger.warn(sb.toString());
+  }
+}
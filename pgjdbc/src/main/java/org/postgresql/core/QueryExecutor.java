@@ -450,6 +450,56 @@ public interface QueryExecutor extends TypeTransferModeRegistry {
    * @return true if we are going to quote identifier provided in the returning array default is true
    */
   boolean getQuoteReturningIdentifiers();
+
+  /**
+   * Returns the cache shared with other connections of the same server, database, user and schema.
+   *
+   * @return shared cache or null if {@code sharedMetadataCache} is disabled
+   */
+  SharedMetadataCache getSharedMetadataCache();
+
+  /**
+   * Returns the execution statistics shared with other connections of the same server, database,
+   * user and schema.
+   *
+   * @return shared statistics or null if {@code adaptivePrepare} is disabled
+   */
+  PrepareStatistics getPrepareStatistics();
+
+  /**
+   * Returns the number of named statements this connection holds on the server, including the
+   * ones that are no longer used and wait for their Close message.
+   *
+   * @return number of server-side statements
+   */
+  int getServerStatementCount();
+
+  /**
+   * Returns the number of statements and portals that are no longer used and wait for their Close
+   * message. They are closed along with the following queries, see {@code closeBudget}.
+   *
+   * @return number of pending Close messages
+   */
+  int getPendingCloseCount();
+
+  /**
+   * Sends every pending Close message with the next query instead of the {@code closeBudget}
+   * share. Meant for idle moments, such as connection validation, when latency does not matter.
+   */
+  void flushPendingCloses();
+
+  /**
+   * Returns the type entries this connection may read from and publish to the shared cache.
+   *
+   * @return shared type entries, or null if the shared cache is disabled, session setup is not
+   *     complete yet, or this session changed settings that affect type name resolution
+   */
+  SharedMetadataCache.TypeEntries getSharedTypes();
+
+  /**
+   * Starts sharing type entries once session setup is complete.
+   */
+  void shareTypes();
  /**
    * Returns backend timezone in java format.
    * @return backend timezone in java format.
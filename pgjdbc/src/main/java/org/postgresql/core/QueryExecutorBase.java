@@ -19,10 +19,12 @@ import org.postgresql.log.Logger;
 import org.postgresql.log.Log;
 
 import java.io.IOException;
+import java.net.SocketTimeoutException;
 import java.sql.SQLException;
 import java.sql.SQLWarning;
 import java.util.ArrayList;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 
 public abstract class QueryExecutorBase implements QueryExecutor {
@@ -56,6 +58,9 @@ public abstract class QueryExecutorBase implements QueryExecutor {
 
   private final LruCache<Object, CachedQuery> statementCache;
   private final CachedQueryCreateAction cachedQueryCreateAction;
+  private final SharedMetadataCache sharedMetadataCache;
+  private final PrepareStatistics prepareStatistics;
+  private volatile boolean typesShared;
 
   protected QueryExecutorBase(PGStream pgStream, String user,
                               String database, int cancelSignalTimeout, Properties info) throws SQLException {
@@ -71,9 +76,25 @@ public abstract class QueryExecutorBase implements QueryExecutor {
     this.autoSave = AutoSave.of(PGProperty.AUTOSAVE.get(info));
     this.cachedQueryCreateAction = new CachedQueryCreateAction(this);
     this.props = info;
+    int maxCachedQueries = Math.max(0, PGProperty.PREPARED_STATEMENT_CACHE_QUERIES.getInt(info));
+    long maxCachedBytes =
+        Math.max(0, PGProperty.PREPARED_STATEMENT_CACHE_SIZE_MIB.getInt(info) * 1024 * 1024);
+    if (PGProperty.SHARED_METADATA_CACHE.getBoolean(info)) {
+      this.sharedMetadataCache = SharedMetadataCache.forScope(pgStream.getHostSpec(), database,
+          user, PGProperty.CURRENT_SCHEMA.get(info), PGProperty.OPTIONS.get(info),
+          maxCachedQueries, maxCachedBytes);
+    } else {
+      this.sharedMetadataCache = null;
+    }
+    if (PGProperty.ADAPTIVE_PREPARE.getBoolean(info)) {
+      this.prepareStatistics = PrepareStatistics.forScope(pgStream.getHostSpec(), database,
+          user, PGProperty.CURRENT_SCHEMA.get(info), maxCachedQueries, maxCachedBytes);
+    } else {
+      this.prepareStatistics = null;
+    }
     statementCache = new LruCache<Object, CachedQuery>(
-        Math.max(0, PGProperty.PREPARED_STATEMENT_CACHE_QUERIES.getInt(info)),
-        Math.max(0, PGProperty.PREPARED_STATEMENT_CACHE_SIZE_MIB.getInt(info) * 1024 * 1024),
+        maxCachedQueries,
+        maxCachedBytes,
         false,
         cachedQueryCreateAction,
         new LruCache.EvictAction<CachedQuery>() {
@@ -116,6 +137,43 @@ public abstract class QueryExecutorBase implements QueryExecutor {
     return user;
   }
 
+  @Override
+  public SharedMetadataCache getSharedMetadataCache() {
+    return sharedMetadataCache;
+  }
+
+  @Override
+  public PrepareStatistics getPrepareStatistics() {
+    return prepareStatistics;
+  }
+
+  @Override
+  public SharedMetadataCache.TypeEntries getSharedTypes() {
+    return typesShared ? sharedMetadataCache.getTypes() : null;
+  }
+
+  @Override
+  public void shareTypes() {
+    typesShared = sharedMetadataCache != null;
+  }
+
+  /**
+   * Keeps the shared cache consistent with commands completed on this connection.
+   *
+   * @param status command tag as reported by CommandComplete
+   */
+  protected void onCommandStatus(String status) {
+    if (sharedMetadataCache == null) {
+      return;
+    }
+    if (SharedMetadataCache.changesTypes(status)) {
+      sharedMetadataCache.invalidateTypes();
+    } else if (typesShared && SharedMetadataCache.changesSession(status)) {
+      LOGGER.debug("Session settings changed, type metadata is no longer shared");
+      typesShared = false;
+    }
+  }
+
   @Override
   public String getDatabase() {
     return database;
@@ -178,24 +236,42 @@ public abstract class QueryExecutorBase implements QueryExecutor {
       return;
     }
 
+    final int pid = cancelPid;
+    final int key = cancelKey;
+    CancelDispatcher.getInstance().cancel(pgStream.getHostSpec(), pid,
+        new CancelDispatcher.CancelRequest() {
+          @Override
+          public void send() throws SQLException {
+            sendQueryCancel(pid, key);
+          }
+        });
+  }
+
+  private void sendQueryCancel(int pid, int key) throws SQLException {
     PGStream cancelStream = null;
+    // cancelSignalTimeout bounds the whole request, not the connect and the reply separately
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(cancelSignalTimeout);
 
     // Now we need to construct and send a cancel packet
     try {
       if (LOGGER.isTraceEnabled()) {
-        LOGGER.trace(" FE=> CancelRequest(pid=" + cancelPid + ",ckey=" + cancelKey +")");
+        LOGGER.trace(" FE=> CancelRequest(pid=" + pid + ",ckey=" + key +")");
       }
 
       cancelStream =
               new PGStream(pgStream.getSocketFactory(), pgStream.getHostSpec(), cancelSignalTimeout);
       if (cancelSignalTimeout > 0) {
-        cancelStream.getSocket().setSoTimeout(cancelSignalTimeout);
+        long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remaining <= 0) {
+          throw new SocketTimeoutException("Cancel request deadline exceeded after connect");
+        }
+        cancelStream.getSocket().setSoTimeout((int) remaining);
       }
       cancelStream.sendInteger4(16);
       cancelStream.sendInteger2(1234);
       cancelStream.sendInteger2(5678);
-      cancelStream.sendInteger4(cancelPid);
-      cancelStream.sendInteger4(cancelKey);
+      cancelStream.sendInteger4(pid);
+      cancelStream.sendInteger4(key);
       cancelStream.flush();
       cancelStream.receiveEOF();
     } catch (IOException e) {
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.core;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of objects shared by the connections of one scope. Entries are only weakly held, the
+ * connections keep their scope object alive, so a scope without open connections is collected and
+ * its entry removed on a later lookup.
+ *
+ * @param <V> type of the shared objects
+ */
+final class ScopeRegistry<V> {
+  /**
+   * Creates the shared object of a scope that has none.
+   *
+   * @param <V> type of the shared objects
+   */
+  interface Factory<V> {
+    V create();
+  }
+
+  private final ConcurrentMap<String, ScopeReference<V>> scopes =
+      new ConcurrentHashMap<String, ScopeReference<V>>();
+  private final ReferenceQueue<V> queue = new ReferenceQueue<V>();
+
+  /**
+   * Returns the shared object of the scope, creating it if the scope has none.
+   *
+   * @param scope scope key
+   * @param factory creates the shared object if the scope has none
+   * @return shared object
+   */
+  V get(String scope, Factory<V> factory) {
+    expunge();
+    while (true) {
+      ScopeReference<V> ref = scopes.get(scope);
+      V value = ref == null ? null : ref.get();
+      if (value != null) {
+        return value;
+      }
+      V created = factory.create();
+      ScopeReference<V> createdRef = new ScopeReference<V>(scope, created, queue);
+      if (ref == null ? scopes.putIfAbsent(scope, createdRef) == null
+          : scopes.replace(scope, ref, createdRef)) {
+        return created;
+      }
+    }
+  }
+
+  /**
+   * @return number of registered scopes, including collected ones not yet removed
+   */
+  int size() {
+    expunge();
+    return scopes.size();
+  }
+
+  private void expunge() {
+    Object ref;
+    while ((ref = queue.poll()) != null) {
+      ScopeReference<?> scopeRef = (ScopeReference<?>) ref;
+      scopes.remove(scopeRef.scope, scopeRef);
+    }
+  }
+
+  private static final class ScopeReference<V> extends WeakReference<V> {
+    private final String scope;
+
+    ScopeReference(String scope, V value, ReferenceQueue<V> queue) {
+      super(value, queue);
+      this.scope = scope;
+    }
+  }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.core;
+
+import org.postgresql.util.CanEstimateSize;
+import org.postgresql.util.LruCache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>Parse results and resolved type metadata shared by all connections that talk to the same
+ * server, database, user, schema and startup options, which in practice means all connections of
+ * one data source or pool. It is enabled with {@code sharedMetadataCache=true}. The cache lives as
+ * long as a connection of the scope uses it.</p>
+ *
+ * <p>Each connection keeps its own statement cache and {@code TypeInfoCache}; this cache only
+ * serves their misses, so a freshly opened connection does not parse the same SQL or run the same
+ * {@code pg_type} lookups again. Type entries are dropped when any connection of the scope
+ * completes a command that may change type definitions, see {@link #changesTypes(String)}.</p>
+ */
+public final class SharedMetadataCache {
+  private static final ScopeRegistry<SharedMetadataCache> CACHES =
+      new ScopeRegistry<SharedMetadataCache>();
+
+  private static final String[] TYPE_DDL_PREFIXES = {"CREATE ", "ALTER ", "DROP "};
+  private static final String[] TYPE_DDL_OBJECTS = {
+      "TYPE", "DOMAIN", "TABLE", "VIEW", "SCHEMA", "EXTENSION"};
+
+  private final LruCache<ParseKey, ParsedSql> parsed;
+  private volatile TypeEntries types = new TypeEntries();
+
+  private SharedMetadataCache(int maxQueries, long maxBytes) {
+    this.parsed = new LruCache<ParseKey, ParsedSql>(maxQueries, maxBytes, true);
+  }
+
+  /**
+   * Returns the cache for the given scope, creating it on first use. The size limits are only
+   * applied when the cache is created. The caller must keep a reference to the cache for as long
+   * as it uses it.
+   *
+   * @param host server the connection is attached to
+   * @param database database name
+   * @param user user name
+   * @param schema configured {@code currentSchema}, or null
+   * @param options configured startup {@code options} such as {@code -c search_path=...}, or null
+   * @param maxQueries maximum number of parse results to keep
+   * @param maxBytes maximum estimated size of parse results to keep
+   * @return shared cache for the scope
+   */
+  public static SharedMetadataCache forScope(Object host, String database, String user,
+      String schema, String options, final int maxQueries, final long maxBytes) {
+    String scope = host + "/" + database + "?user=" + user + "&currentSchema=" + schema
+        + "&options=" + options;
+    return CACHES.get(scope, new ScopeRegistry.Factory<SharedMetadataCache>() {
+      @Override
+      public SharedMetadataCache create() {
+        return new SharedMetadataCache(maxQueries, maxBytes);
+      }
+    });
+  }
+
+  /**
+   * @return number of scopes that have a cache
+   */
+  static int getScopeCount() {
+    return CACHES.size();
+  }
+
+  /**
+   * Returns a previously published parse result. The returned queries are private copies, so the
+   * caller may rewrite their SQL (as client logic does).
+   *
+   * @param key parse key
+   * @return parse result or null if not cached
+   */
+  public ParsedSql getParsed(ParseKey key) {
+    ParsedSql value = parsed.get(key);
+    return value == null ? null : value.copy();
+  }
+
+  /**
+   * Publishes a parse result for other connections.
+   *
+   * @param key parse key
+   * @param value parse result; it is copied so the caller may keep using it
+   */
+  public void putParsed(ParseKey key, ParsedSql value) {
+    parsed.put(key, value.copy());
+  }
+
+  /**
+   * Returns the current generation of shared type entries. Callers should capture it before a
+   * catalog lookup and publish into the same instance, so a result read before an invalidation is
+   * never published after it.
+   *
+   * @return current type entries
+   */
+  public TypeEntries getTypes() {
+    return types;
+  }
+
+  /**
+   * Drops all shared type entries.
+   */
+  public void invalidateTypes() {
+    types = new TypeEntries();
+  }
+
+  /**
+   * Tells if a completed command may have changed which type a name resolves to, or the
+   * definition of an existing type.
+   *
+   * @param commandStatus command tag as reported by CommandComplete
+   * @return true if shared type entries should be dropped
+   */
+  public static boolean changesTypes(String commandStatus) {
+    for (String prefix : TYPE_DDL_PREFIXES) {
+      if (commandStatus.startsWith(prefix)) {
+        String object = commandStatus.substring(prefix.length());
+        for (String ddl : TYPE_DDL_OBJECTS) {
+          if (object.startsWith(ddl)) {
+            return true;
+          }
+        }
+        return false;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Tells if a completed command may have changed session settings that affect type name
+   * resolution (such as {@code search_path}). Such sessions stop sharing type entries.
+   *
+   * @param commandStatus command tag as reported by CommandComplete
+   * @return true if the session may no longer resolve names like the rest of its scope
+   */
+  public static boolean changesSession(String commandStatus) {
+    String tag = commandStatus.toUpperCase(Locale.ROOT);
+    return tag.equals("SET") || tag.equals("RESET") || tag.startsWith("DISCARD");
+  }
+
+  /**
+   * Key of a parse result. It includes every connection setting the parser depends on.
+   */
+  public static final class ParseKey {
+    private final Object queryKey;
+    private final int flags;
+    private final int serverVersionNum;
+    private final int protocolVersion;
+
+    /**
+     * @param queryKey statement cache key, {@link String} or {@link BaseQueryKey}
+     * @param flags bit set of the parser switches used for this connection
+     * @param serverVersionNum server version number
+     * @param protocolVersion protocol version
+     */
+    public ParseKey(Object queryKey, int flags, int serverVersionNum, int protocolVersion) {
+      this.queryKey = queryKey;
+      this.flags = flags;
+      this.serverVersionNum = serverVersionNum;
+      this.protocolVersion = protocolVersion;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof ParseKey)) {
+        return false;
+      }
+      ParseKey that = (ParseKey) o;
+      return flags == that.flags && serverVersionNum == that.serverVersionNum
+          && protocolVersion == that.protocolVersion && queryKey.equals(that.queryKey);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = queryKey.hashCode();
+      result = 31 * result + flags;
+      result = 31 * result + serverVersionNum;
+      return 31 * result + protocolVersion;
+    }
+  }
+
+  /**
+   * Output of {@link Parser} for one statement cache key.
+   */
+  public static final class ParsedSql implements CanEstimateSize {
+    public final List<NativeQuery> queries;
+    public final boolean isFunction;
+    public final boolean isACompatibilityFunction;
+
+    public ParsedSql(List<NativeQuery> queries, boolean isFunction,
+        boolean isACompatibilityFunction) {
+      this.queries = queries;
+      this.isFunction = isFunction;
+      this.isACompatibilityFunction = isACompatibilityFunction;
+    }
+
+    ParsedSql copy() {
+      List<NativeQuery> copies;
+      if (queries.isEmpty()) {
+        copies = Collections.emptyList();
+      } else {
+        copies = new ArrayList<NativeQuery>(queries.size());
+        for (NativeQuery query : queries) {
+          // bindPositions and command are never modified, only nativeSql is
+          copies.add(new NativeQuery(query.nativeSql, query.bindPositions, query.multiStatement,
+              query.command));
+        }
+      }
+      return new ParsedSql(copies, isFunction, isACompatibilityFunction);
+    }
+
+    @Override
+    public long getSize() {
+      long size = 100L;
+      for (NativeQuery query : queries) {
+        size += query.nativeSql.length() * 2L + query.bindPositions.length * 4L + 50L;
+      }
+      return size;
+    }
+  }
+
+  /**
+   * One generation of shared type entries. Only positive lookups are stored.
+   */
+  public static final class TypeEntries {
+    private final ConcurrentMap<String, ResolvedType> byName =
+        new ConcurrentHashMap<String, ResolvedType>();
+    private final ConcurrentMap<Integer, String> names = new ConcurrentHashMap<Integer, String>();
+    private final ConcurrentMap<String, Integer> sqlTypes = new ConcurrentHashMap<String, Integer>();
+
+    TypeEntries() {
+    }
+
+    public ResolvedType getByName(String pgTypeName) {
+      return byName.get(pgTypeName);
+    }
+
+    public void putByName(String pgTypeName, ResolvedType type) {
+      byName.put(pgTypeName, type);
+    }
+
+    public String getName(int oid) {
+      return names.get(oid);
+    }
+
+    public void putName(int oid, String pgTypeName) {
+      names.put(oid, pgTypeName);
+    }
+
+    public Integer getSQLType(String pgTypeName) {
+      return sqlTypes.get(pgTypeName);
+    }
+
+    public void putSQLType(String pgTypeName, int sqlType) {
+      sqlTypes.put(pgTypeName, sqlType);
+    }
+  }
+
+  /**
+   * A {@code pg_type} row as resolved from a type name.
+   */
+  public static final class ResolvedType {
+    public final int oid;
+    public final String internalName;
+    public final String typtype;
+    public final int typelem;
+
+    public ResolvedType(int oid, String internalName, String typtype, int typelem) {
+      this.oid = oid;
+      this.internalName = internalName;
+      this.typtype = typtype;
+      this.typelem = typelem;
+    }
+  }
+}
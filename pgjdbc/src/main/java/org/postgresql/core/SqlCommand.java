@@ -66,9 +66,10 @@ public class SqlCommand {
       int priorQueryCount) {
     commandType = type;
     parsedSQLhasRETURNINGKeyword = isPresent;
+    // RETURNING follows the values blocks, so a rewritten insert returns the rows of every block
     boolean batchedReWriteCompatible = (type == INSERT) && isBatchedReWriteConfigured
         && valuesBraceOpenPosition >= 0 && valuesBraceClosePosition > valuesBraceOpenPosition
-        && !isPresent && priorQueryCount == 0;
+        && priorQueryCount == 0;
     this.valuesBraceOpenPosition = batchedReWriteCompatible ? valuesBraceOpenPosition : -1;
     this.valuesBraceClosePosition = batchedReWriteCompatible ? valuesBraceClosePosition : -1;
   }
@@ -14,11 +14,15 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Collection of utilities used by the protocol-level code.
  */
 public class Utils {
+  private static final Map<String, Charset> CHARSETS = new ConcurrentHashMap<String, Charset>();
+
   /**
    * Turn a bytearray into a printable form, representing each byte in hex.
    *
@@ -60,7 +64,23 @@ public class Utils {
     // for performance measurements.
     // In OracleJDK 6u65, 7u55, and 8u40 String.getBytes(Charset) is
     // 3 times faster than other JDK approaches.
-    return str.getBytes(Charset.forName(encoding));
+    return str.getBytes(charsetForName(encoding));
+  }
+
+  /**
+   * Look up a charset by name. Lookups are cached, as {@link Charset#forName(String)} is too slow
+   * to call for every parameter.
+   *
+   * @param encoding charset name
+   * @return the charset
+   */
+  public static Charset charsetForName(String encoding) {
+    Charset charset = CHARSETS.get(encoding);
+    if (charset == null) {
+      charset = Charset.forName(encoding);
+      CHARSETS.put(encoding, charset);
+    }
+    return charset;
   }
 
   /**
@@ -8,6 +8,7 @@ package org.postgresql.core;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A faster version of BufferedInputStream. Does no synchronisation and allows direct access to the
@@ -29,6 +30,11 @@ public class VisibleBufferedInputStream extends InputStream {
    */
   private static final int STRING_SCAN_SPAN = 1024;
 
+  /**
+   * Number of times any buffer had to grow.
+   */
+  private static final AtomicLong TOTAL_GROWTH_COUNT = new AtomicLong();
+
   /**
    * The wrapped input stream.
    */
@@ -49,6 +55,16 @@ public class VisibleBufferedInputStream extends InputStream {
    */
   private int endIndex;
 
+  /**
+   * The configured size of the buffer, which it shrinks back to.
+   */
+  private final int bufferSize;
+
+  /**
+   * Number of times this buffer had to grow.
+   */
+  private int growthCount;
+
   /**
    * Creates a new buffer around the given stream.
    *
@@ -57,7 +73,8 @@ public class VisibleBufferedInputStream extends InputStream {
    */
   public VisibleBufferedInputStream(InputStream in, int bufferSize) {
     wrapped = in;
-    buffer = new byte[bufferSize < MINIMUM_READ ? MINIMUM_READ : bufferSize];
+    this.bufferSize = bufferSize < MINIMUM_READ ? MINIMUM_READ : bufferSize;
+    buffer = new byte[this.bufferSize];
   }
 
   /**
@@ -152,6 +169,53 @@ public class VisibleBufferedInputStream extends InputStream {
     byte[] buf = new byte[buffer.length * 2];
     moveBufferTo(buf);
     buffer = buf;
+    growthCount++;
+    TOTAL_GROWTH_COUNT.incrementAndGet();
+  }
+
+  /**
+   * Shrinks a buffer that had to grow back to its configured size, if the unread bytes fit. Called
+   * when the connection goes idle, so that one large message does not keep a large buffer alive
+   * for the lifetime of the connection.
+   *
+   * @return true if the buffer was shrunk
+   */
+  public boolean shrink() {
+    if (buffer.length <= bufferSize || endIndex - index > bufferSize) {
+      return false;
+    }
+    byte[] buf = new byte[bufferSize];
+    moveBufferTo(buf);
+    buffer = buf;
+    return true;
+  }
+
+  /**
+   * Whether n bytes can be made available in the buffer without growing it.
+   *
+   * @param n number of bytes
+   * @return true if the buffer is large enough
+   */
+  public boolean fits(int n) {
+    return n <= buffer.length;
+  }
+
+  /**
+   * Returns the number of times this buffer had to grow.
+   *
+   * @return number of growth events
+   */
+  public int getGrowthCount() {
+    return growthCount;
+  }
+
+  /**
+   * Returns the number of times any buffer had to grow.
+   *
+   * @return number of growth events of all buffers
+   */
+  public static long getTotalGrowthCount() {
+    return TOTAL_GROWTH_COUNT.get();
   }
 
   /**
@@ -7,8 +7,12 @@ package org.postgresql.core.v3;
 
 import org.postgresql.core.CachedQuery;
 import org.postgresql.core.NativeQuery;
+import org.postgresql.core.PGStream;
 import org.postgresql.core.ParameterList;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Purpose of this object is to support batched query re write behaviour. Responsibility for
  * tracking the batch size and implement the clean up of the query fragments after the batch execute
@@ -25,7 +29,7 @@ public class BatchedQuery extends SimpleQuery {
   private final int valuesBraceOpenPosition;
   private final int valuesBraceClosePosition;
   private final int batchSize;
-  private BatchedQuery[] blocks;
+  private Map<Integer, BatchedQuery> blocks;
 
     // record the origin query of the rewrite query
     private CachedQuery originalPrepareQuery;
@@ -45,6 +49,13 @@ public class BatchedQuery extends SimpleQuery {
     this.batchSize = batchSize;
   }
 
+  /**
+   * Returns the query that inserts {@code valueBlock} rows at once. Derived queries are cached, so
+   * callers should keep the number of distinct block sizes small.
+   *
+   * @param valueBlock number of values blocks of the derived query
+   * @return the derived query
+   */
   public BatchedQuery deriveForMultiBatch(int valueBlock) {
     if (getBatchSize() != 1) {
       throw new IllegalStateException("Only the original decorator can be derived.");
@@ -52,19 +63,18 @@ public class BatchedQuery extends SimpleQuery {
     if (valueBlock == 1) {
       return this;
     }
-    int index = Integer.numberOfTrailingZeros(valueBlock) - 1;
-    if (valueBlock > 128 || valueBlock != (1 << (index + 1))) {
+    if (valueBlock < 1 || (long) valueBlock * getBindCount() > PGStream.MAX_PARAMS_NUM) {
       throw new IllegalArgumentException(
-          "Expected value block should be a power of 2 smaller or equal to 128. Actual block is "
-              + valueBlock);
+          "Expected value block should be positive and have at most " + PGStream.MAX_PARAMS_NUM
+              + " binds. Actual block is " + valueBlock);
     }
     if (blocks == null) {
-      blocks = new BatchedQuery[7];
+      blocks = new HashMap<Integer, BatchedQuery>();
     }
-    BatchedQuery bq = blocks[index];
+    BatchedQuery bq = blocks.get(valueBlock);
     if (bq == null) {
       bq = new BatchedQuery(this, valueBlock);
-      blocks[index] = bq;
+      blocks.put(valueBlock, bq);
     }
     return bq;
   }
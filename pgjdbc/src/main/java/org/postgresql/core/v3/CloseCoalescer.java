@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.core.v3;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+
+/**
+ * Collects the names of server-side statements and portals that are no longer used and hands them
+ * out for Close messages a few at a time. Each round trip carries at most {@code budget} Close
+ * messages, so a burst of dead statements does not slow down a single query; the rest follows with
+ * later queries, or all at once after {@link #flushAll()} at an idle moment such as connection
+ * validation.
+ */
+final class CloseCoalescer {
+  /**
+   * Sends the Close messages.
+   */
+  interface Sender {
+    void closeStatement(String statementName) throws IOException;
+
+    void closePortal(String portalName) throws IOException;
+  }
+
+  private final int budget;
+  private final ArrayDeque<String> statements = new ArrayDeque<String>();
+  private final ArrayDeque<String> portals = new ArrayDeque<String>();
+  private boolean flushAll;
+
+  /**
+   * @param budget maximum number of Close messages per round trip, 0 for no limit
+   */
+  CloseCoalescer(int budget) {
+    this.budget = budget;
+  }
+
+  void addStatement(String statementName) {
+    statements.add(statementName);
+  }
+
+  void addPortal(String portalName) {
+    portals.add(portalName);
+  }
+
+  /**
+   * Lets the next {@link #send(Sender)} close everything that is pending.
+   */
+  void flushAll() {
+    flushAll = true;
+  }
+
+  /**
+   * @return number of statements that wait for a Close message
+   */
+  int getPendingStatementCount() {
+    return statements.size();
+  }
+
+  /**
+   * @return number of statements and portals that wait for a Close message
+   */
+  int getPendingCount() {
+    return statements.size() + portals.size();
+  }
+
+  /**
+   * Sends the Close messages of one round trip. Portals go first as they may hold open cursors and
+   * snapshots on the server.
+   *
+   * @param sender writes the messages
+   * @throws IOException if a message cannot be written
+   */
+  void send(Sender sender) throws IOException {
+    int remaining = flushAll || budget <= 0 ? Integer.MAX_VALUE : budget;
+    flushAll = false;
+    while (remaining > 0 && !portals.isEmpty()) {
+      sender.closePortal(portals.poll());
+      remaining--;
+    }
+    while (remaining > 0 && !statements.isEmpty()) {
+      sender.closeStatement(statements.poll());
+      remaining--;
+    }
+  }
+
+  /**
+   * Forgets everything pending, the server drops statements and portals with the session.
+   *
+   * @return number of statements that were pending
+   */
+  int clear() {
+    int count = statements.size();
+    statements.clear();
+    portals.clear();
+    return count;
+  }
+}
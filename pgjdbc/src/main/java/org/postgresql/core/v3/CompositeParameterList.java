@@ -82,6 +82,26 @@ class CompositeParameterList implements V3ParameterList {
     subparams[sub].setIntParameter(index - offsets[sub], value);
   }
 
+  public void setShortParameter(int index, short value) throws SQLException {
+    int sub = findSubParam(index);
+    subparams[sub].setShortParameter(index - offsets[sub], value);
+  }
+
+  public void setLongParameter(int index, long value) throws SQLException {
+    int sub = findSubParam(index);
+    subparams[sub].setLongParameter(index - offsets[sub], value);
+  }
+
+  public void setFloatParameter(int index, float value) throws SQLException {
+    int sub = findSubParam(index);
+    subparams[sub].setFloatParameter(index - offsets[sub], value);
+  }
+
+  public void setDoubleParameter(int index, double value) throws SQLException {
+    int sub = findSubParam(index);
+    subparams[sub].setDoubleParameter(index - offsets[sub], value);
+  }
+
   public void setLiteralParameter(int index, String value, int oid) throws SQLException {
     int sub = findSubParam(index);
     subparams[sub].setStringParameter(index - offsets[sub], value, oid);
@@ -92,6 +112,16 @@ class CompositeParameterList implements V3ParameterList {
     subparams[sub].setStringParameter(index - offsets[sub], value, oid);
   }
 
+  public byte[] getAsciiBuffer(int index, int capacity) throws SQLException {
+    int sub = findSubParam(index);
+    return subparams[sub].getAsciiBuffer(index - offsets[sub], capacity);
+  }
+
+  public void setAsciiParameter(int index, int length, int oid) throws SQLException {
+    int sub = findSubParam(index);
+    subparams[sub].setAsciiParameter(index - offsets[sub], length, oid);
+  }
+
   public void setBinaryParameter(int index, byte[] value, int oid) throws SQLException {
     int sub = findSubParam(index);
     subparams[sub].setBinaryParameter(index - offsets[sub], value, oid);
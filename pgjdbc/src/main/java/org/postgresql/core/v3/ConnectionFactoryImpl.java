@@ -11,6 +11,7 @@ import org.postgresql.clusterchooser.ClusterStatus;
 import org.postgresql.clusterchooser.GlobalClusterStatusTracker;
 import org.postgresql.clusterhealthy.ClusterNodeCache;
 import org.postgresql.core.ConnectionFactory;
+import org.postgresql.core.ConnectionRacer;
 import org.postgresql.core.PGStream;
 import org.postgresql.core.QueryExecutor;
 import org.postgresql.core.ServerVersion;
@@ -34,7 +35,7 @@ import java.io.IOException;
 import java.net.ConnectException;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
@@ -42,6 +43,7 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.TimeZone;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.net.SocketFactory;
 
@@ -170,16 +172,28 @@ public class ConnectionFactoryImpl extends ConnectionFactory {
     this.connection = connection;
     SocketFactory socketFactory = SocketFactoryFactory.getSocketFactory(info);
     Iterator<ClusterSpec> cluster = GlobalClusterStatusTracker.getClusterFromHostSpecs(hostSpecs, info);
+    int parallelAttempts = PGProperty.PARALLEL_CONNECT_ATTEMPTS.getInt(info);
     while (cluster.hasNext()) {
       HostSpec[] currentSpecs = cluster.next().getHostSpecs();
       HostChooser hostChooser =
               HostChooserFactory.createHostChooser(currentSpecs, HostRequirement.any, info);
       Iterator<CandidateHost> hostIter = hostChooser.iterator();
+      if (parallelAttempts > 1 && currentSpecs.length > 1) {
+        try {
+          raceORConnection(hostIter, info, socketFactory, parallelAttempts);
+          return;
+        } catch (SQLException e) {
+          if (!cluster.hasNext()) {
+            throw e;
+          }
+          LOGGER.error("No host of cluster " + Arrays.toString(currentSpecs) + " could be connected", e);
+          continue;
+        }
+      }
       while (hostIter.hasNext()) {
         CandidateHost candidateHost = hostIter.next();
         boolean isSuccessed = createConnection(candidateHost, info, socketFactory);
         if (isSuccessed) {
-          this.connection.setHostSpec(candidateHost.hostSpec);
           return;
         }
         if (!hostIter.hasNext()) {
@@ -192,27 +206,85 @@ public class ConnectionFactoryImpl extends ConnectionFactory {
   private boolean createConnection(CandidateHost candidateHost, Properties info,
                                    SocketFactory socketFactory) {
     HostSpec hostSpec = candidateHost.hostSpec;
-    ORStream orStream = null;
+    ORStream orStream;
+    try {
+      orStream = connectORHost(hostSpec, info, socketFactory);
+    } catch (SQLException e) {
+      LOGGER.error("SQLException occur, connect to host " + hostSpec + " failed.", e);
+      return false;
+    }
+    useORStream(orStream, info);
+    return true;
+  }
+
+  /**
+   * Connects to the candidate hosts in parallel, see {@link PGProperty#PARALLEL_CONNECT_ATTEMPTS}.
+   */
+  private void raceORConnection(Iterator<CandidateHost> hostIter, final Properties info,
+                                final SocketFactory socketFactory, int parallelAttempts)
+          throws SQLException {
+    List<CandidateHost> candidates = new ArrayList<CandidateHost>();
+    while (hostIter.hasNext()) {
+      candidates.add(hostIter.next());
+    }
+    ORStream orStream;
     try {
-      orStream = tryORConnect(hostSpec, info, socketFactory);
+      orStream = ConnectionRacer.getInstance().race(candidates, parallelAttempts,
+          PGProperty.PARALLEL_CONNECT_DELAY.getInt(info),
+          new ConnectionRacer.Attempt<ORStream>() {
+            @Override
+            public ORStream connect(CandidateHost candidate) throws SQLException {
+              return connectORHost(candidate.hostSpec, info, socketFactory);
+            }
+          },
+          new ConnectionRacer.Discard<ORStream>() {
+            @Override
+            public void discard(ORStream loser) {
+              closeStream(loser);
+            }
+          });
+    } catch (SQLException e) {
+      throw new SQLException("Connection refused, all hosts failed to connect.", e);
+    }
+    if (orStream == null) {
+      throw new SQLException("Connection refused, all hosts failed to connect.");
+    }
+    useORStream(orStream, info);
+  }
+
+  private void useORStream(ORStream orStream, Properties info) {
+    connection.setOrStream(orStream);
+    ORQueryExecutor queryExecutor = new ORQueryExecutorImpl(orStream, connection,
+        PGProperty.PROTOCOL_TRACE_CAPTURE.getIntNoCheck(info));
+    connection.setQueryExecutor(queryExecutor);
+    connection.setHostSpec(orStream.getHostSpec());
+    LOGGER.info("connect to host " + orStream.getHostSpec() + " success.");
+  }
+
+  private ORStream connectORHost(HostSpec hostSpec, Properties info, SocketFactory socketFactory)
+          throws SQLException {
+    long connectStart = System.nanoTime();
+    try {
+      ORStream orStream = tryORConnect(hostSpec, info, socketFactory);
+      GlobalHostStatusTracker.reportConnectTime(hostSpec, System.nanoTime() - connectStart, false);
+      return orStream;
     } catch (SQLException | IOException e) {
       LOGGER.warn("the connection attempt failed, target host: " + hostSpec);
-      try {
-        orStream = tryORConnect(hostSpec, info, socketFactory);
-      } catch (SQLException e2) {
-        LOGGER.error("SQLException occur, connect to host " + hostSpec + " failed.", e2);
-        closeStream(orStream);
-        return false;
-      } catch (IOException e3) {
-        LOGGER.error("IOException occur, connect to host " + hostSpec + " failed.", e3);
-        closeStream(orStream);
-        return false;
+      GlobalHostStatusTracker.reportConnectTime(hostSpec, System.nanoTime() - connectStart, true);
+    }
+    connectStart = System.nanoTime();
+    try {
+      ORStream orStream = tryORConnect(hostSpec, info, socketFactory);
+      GlobalHostStatusTracker.reportConnectTime(hostSpec, System.nanoTime() - connectStart, false);
+      return orStream;
+    } catch (SQLException | IOException e) {
+      GlobalHostStatusTracker.reportConnectTime(hostSpec, System.nanoTime() - connectStart, true);
+      if (e instanceof SQLException) {
+        throw (SQLException) e;
       }
+      throw new PSQLException(GT.tr("The connection attempt failed."),
+              PSQLState.CONNECTION_UNABLE_TO_CONNECT, e);
     }
-    ORQueryExecutor queryExecutor = new ORQueryExecutorImpl(orStream, connection);
-    connection.setQueryExecutor(queryExecutor);
-    LOGGER.info("connect to host " + hostSpec + " success.");
-    return true;
   }
 
   private void closeStream(ORStream orStream) {
@@ -228,10 +300,14 @@ public class ConnectionFactoryImpl extends ConnectionFactory {
   private ORStream tryORConnect(HostSpec hostSpec, Properties info, SocketFactory socketFactory)
           throws SQLException, IOException {
     ORStream orStream = new ORStream(hostSpec);
-    orStream.connect(info, socketFactory);
-    connection.setOrStream(orStream);
-    ORConnectionHandler handler = new ORConnectionHandler(connection, orStream);
-    handler.loginDB();
+    try {
+      orStream.connect(info, socketFactory);
+      ORConnectionHandler handler = new ORConnectionHandler(connection, orStream);
+      handler.loginDB();
+    } catch (SQLException | IOException e) {
+      closeStream(orStream);
+      throw e;
+    }
     return orStream;
   }
 
@@ -261,8 +337,12 @@ public class ConnectionFactoryImpl extends ConnectionFactory {
     SocketFactory socketFactory = SocketFactoryFactory.getSocketFactory(info);
 
     Iterator<ClusterSpec> clusterIter = GlobalClusterStatusTracker.getClusterFromHostSpecs(hostSpecs, info);
-    Map<HostSpec, HostStatus> knownStates = new HashMap<>();
+    Map<HostSpec, HostStatus> knownStates = new ConcurrentHashMap<>();
     Exception exception = new Exception();
+    int parallelAttempts = PGProperty.PARALLEL_CONNECT_ATTEMPTS.getInt(info);
+    boolean isRacingAllowed = parallelAttempts > 1
+            && PGProperty.PRIORITY_SERVERS.get(info) == null
+            && targetServerType != HostRequirement.preferSecondary;
     while (clusterIter.hasNext()) {
       ClusterSpec clusterSpec = clusterIter.next();
       HostSpec[] currentHostSpecs = clusterSpec.getHostSpecs();
@@ -273,6 +353,24 @@ public class ConnectionFactoryImpl extends ConnectionFactory {
       HostChooser hostChooser =
               HostChooserFactory.createHostChooser(currentHostSpecs, targetServerType, info);
       Iterator<CandidateHost> hostIter = hostChooser.iterator();
+      if (isRacingAllowed && currentHostSpecs.length > 1) {
+        // race the hosts of this cluster, the next cluster is tried when none of them is usable
+        try {
+          return raceConnection(hostIter, user, database, info, socketFactory, sslMode,
+                  targetServerType, knownStates);
+        } catch (SQLException se) {
+          GlobalClusterStatusTracker.reportClusterStatus(clusterSpec, ClusterStatus.ConnectFail);
+          if (!clusterIter.hasNext()) {
+            if (exception.getSuppressed().length > 0) {
+              se.addSuppressed(exception);
+            }
+            throw se;
+          }
+          LOGGER.info("No host of cluster " + Arrays.toString(currentHostSpecs) + " could be connected", se);
+          exception.addSuppressed(se);
+          continue;
+        }
+      }
       boolean isMasterCluster = false;
       boolean isFirstIter = true;
       while (hostIter.hasNext()) {
@@ -302,68 +400,11 @@ public class ConnectionFactoryImpl extends ConnectionFactory {
         //
         connectInfo = UUID.randomUUID().toString(); // this is used to trace the time taken to establish the connection.
         LOGGER.info("[" + connectInfo + "]" + " Try to connect." + " IP: " + hostSpec.toString());
+        long connectStart = System.nanoTime();
         PGStream newStream = null;
         try {
-          try {
-            newStream = tryConnect(user, database, info, socketFactory, hostSpec, sslMode);
-          } catch (SQLException e) {
-            if (sslMode == SslMode.PREFER
-                    && PSQLState.INVALID_AUTHORIZATION_SPECIFICATION.getState().equals(e.getSQLState())) {
-              // Try non-SSL connection to cover case like "non-ssl only db"
-              // Note: PREFER allows loss of encryption, so no significant harm is made
-              Throwable ex = null;
-              try {
-                newStream =
-                        tryConnect(user, database, info, socketFactory, hostSpec, SslMode.DISABLE);
-                LOGGER.debug("Downgraded to non-encrypted connection for host " + hostSpec);
-              } catch (SQLException ee) {
-                ex = ee;
-              } catch (IOException ee) {
-                ex = ee; // Can't use multi-catch in Java 6 :(
-              }
-              if (ex != null) {
-                LOGGER.debug("sslMode==PREFER, however non-SSL connection failed as well", ex);
-                // non-SSL failed as well, so re-throw original exception
-                throw e;
-              }
-            } else if (sslMode == SslMode.ALLOW
-                    && PSQLState.INVALID_AUTHORIZATION_SPECIFICATION.getState().equals(e.getSQLState())) {
-              // Try using SSL
-              Throwable ex = null;
-              try {
-                newStream =
-                        tryConnect(user, database, info, socketFactory, hostSpec, SslMode.REQUIRE);
-                LOGGER.debug("Upgraded to encrypted connection for host " +
-                        hostSpec);
-              } catch (SQLException ee) {
-                ex = ee;
-              } catch (IOException ee) {
-                ex = ee; // Can't use multi-catch in Java 6 :(
-              }
-              if (ex != null) {
-                LOGGER.debug("sslMode==ALLOW, however SSL connection failed as well", ex);
-                // non-SSL failed as well, so re-throw original exception
-                throw e;
-              }
-
-            } else {
-              throw e;
-            }
-          }
-
-          int cancelSignalTimeout = Integer.parseInt(PGProperty.CANCEL_SIGNAL_TIMEOUT.getDefaultValue());
-          if (PGProperty.CANCEL_SIGNAL_TIMEOUT.getInt(info) <= Integer.MAX_VALUE / 1000) {
-            cancelSignalTimeout = PGProperty.CANCEL_SIGNAL_TIMEOUT.getInt(info) * 1000;
-          } else {
-            LOGGER.debug("integer cancelSignalTimeout is too large, it will occur error after multiply by 1000.");
-          }
-          LOGGER.info("[" + newStream.getSecConnectInfo() + "]" + " Connection is established. ID: " + connectInfo);
-          // Do final startup.
-          QueryExecutor queryExecutor = new QueryExecutorImpl(newStream, user, database,
-                  cancelSignalTimeout, info);
-          queryExecutor.setProtocolVersion(this.protocolVerion);
-          // set encoding for queryExecutor
-          queryExecutor.setClientEncoding(this.CLIENT_ENCODING);
+          newStream = connectWithFallback(user, database, info, socketFactory, hostSpec, sslMode);
+          QueryExecutor queryExecutor = createQueryExecutor(newStream, user, database, info);
           //Check MasterCluster or SecondaryCluster
           if (PGProperty.PRIORITY_SERVERS.get(info) != null) {
             ClusterStatus currentClusterStatus = queryClusterStatus(queryExecutor);
@@ -387,6 +428,7 @@ public class ConnectionFactoryImpl extends ConnectionFactory {
             LOGGER.info("Known status of host " + hostSpec + " is " + hostStatus);
           }
           GlobalHostStatusTracker.reportHostStatus(hostSpec, hostStatus, info);
+          GlobalHostStatusTracker.reportConnectTime(hostSpec, System.nanoTime() - connectStart, false);
           knownStates.put(hostSpec, hostStatus);
           if (!candidateHost.targetServerType.allowConnectingTo(hostStatus)) {
             queryExecutor.close();
@@ -394,19 +436,7 @@ public class ConnectionFactoryImpl extends ConnectionFactory {
             continue;
           }
 
-          // query and update statements cause logical replication to fail, temporarily evade
-          if (info.getProperty("replication") == null) {
-            runInitialQueries(queryExecutor, info);
-            String queryGaussdbVersionResult = queryGaussdbVersion(queryExecutor);
-            queryExecutor.setGaussdbVersion(queryGaussdbVersionResult);
-            // get database compatibility mode
-            queryExecutor.setCompatibilityMode(queryDataBaseDatcompatibility(queryExecutor, database));
-          }
-          if (MultiHostChooser.isUsingAutoLoadBalance(info)) {
-            QueryCNListUtils.runRereshCNListQueryies(queryExecutor, info);
-          }
-
-          LOGGER.info("Connect complete. ID: " + connectInfo);
+          finishConnect(queryExecutor, database, info);
           // And we're done.
           return queryExecutor;
         } catch (ConnectException cex) {
@@ -414,6 +444,7 @@ public class ConnectionFactoryImpl extends ConnectionFactory {
           // ConnectException is thrown when the connection cannot be made.
           // we trap this an return a more meaningful message for the end user
           GlobalHostStatusTracker.reportHostStatus(hostSpec, HostStatus.ConnectFail, info);
+          GlobalHostStatusTracker.reportConnectTime(hostSpec, System.nanoTime() - connectStart, true);
           knownStates.put(hostSpec, HostStatus.ConnectFail);
           if (hostIter.hasNext() || clusterIter.hasNext()) {
             LOGGER.info("ConnectException occured while connecting to {0}" + hostSpec, cex);
@@ -432,6 +463,7 @@ public class ConnectionFactoryImpl extends ConnectionFactory {
         } catch (IOException ioe) {
           closeStream(newStream);
           GlobalHostStatusTracker.reportHostStatus(hostSpec, HostStatus.ConnectFail, info);
+          GlobalHostStatusTracker.reportConnectTime(hostSpec, System.nanoTime() - connectStart, true);
           knownStates.put(hostSpec, HostStatus.ConnectFail);
           if (hostIter.hasNext() || clusterIter.hasNext()) {
             LOGGER.info("IOException occured while connecting to " + hostSpec, ioe);
@@ -449,6 +481,7 @@ public class ConnectionFactoryImpl extends ConnectionFactory {
         } catch (SQLException se) {
           closeStream(newStream);
           GlobalHostStatusTracker.reportHostStatus(hostSpec, HostStatus.ConnectFail, info);
+          GlobalHostStatusTracker.reportConnectTime(hostSpec, System.nanoTime() - connectStart, true);
           knownStates.put(hostSpec, HostStatus.ConnectFail);
           if (hostIter.hasNext() || clusterIter.hasNext()) {
             LOGGER.info("SQLException occured while connecting to " + hostSpec, se);
@@ -488,6 +521,206 @@ public class ConnectionFactoryImpl extends ConnectionFactory {
 
   }
 
+  /**
+   * Connects to the candidate hosts in parallel, see {@link PGProperty#PARALLEL_CONNECT_ATTEMPTS}.
+   * The first host that passes authentication and the host role check is initialized and
+   * returned, connections that complete later are closed.
+   */
+  private QueryExecutor raceConnection(Iterator<CandidateHost> hostIter, final String user,
+      final String database, final Properties info, final SocketFactory socketFactory,
+      final SslMode sslMode, HostRequirement targetServerType,
+      final Map<HostSpec, HostStatus> knownStates) throws SQLException {
+    List<CandidateHost> candidates = new ArrayList<CandidateHost>();
+    while (hostIter.hasNext()) {
+      candidates.add(hostIter.next());
+    }
+    final CandidateHost first = candidates.isEmpty() ? null : candidates.get(0);
+    connectInfo = UUID.randomUUID().toString(); // this is used to trace the time taken to establish the connection.
+    LOGGER.info("[" + connectInfo + "]" + " Try to connect to " + candidates.size() + " hosts in parallel.");
+    QueryExecutor queryExecutor = ConnectionRacer.getInstance().race(candidates,
+        PGProperty.PARALLEL_CONNECT_ATTEMPTS.getInt(info),
+        PGProperty.PARALLEL_CONNECT_DELAY.getInt(info),
+        new ConnectionRacer.Attempt<QueryExecutor>() {
+          @Override
+          public QueryExecutor connect(CandidateHost candidate) throws SQLException {
+            return connectCandidate(candidate, candidate != first, user, database, info,
+                socketFactory, sslMode, knownStates);
+          }
+        },
+        new ConnectionRacer.Discard<QueryExecutor>() {
+          @Override
+          public void discard(QueryExecutor loser) {
+            loser.close();
+            ConnectionManager.getInstance().decrementCachedCreatingConnectionSize(loser.getHostSpec(), info);
+          }
+        });
+    if (queryExecutor == null) {
+      LOGGER.info("Could not find a server with specified targetServerType: " + targetServerType + ". The current server known status is: " + knownStates.entrySet().toString());
+      throw new PSQLException(GT
+              .tr("Could not find a server with specified targetServerType: {0}", targetServerType),
+              PSQLState.CONNECTION_UNABLE_TO_CONNECT);
+    }
+    try {
+      finishConnect(queryExecutor, database, info);
+    } catch (IOException ioe) {
+      queryExecutor.close();
+      ConnectionManager.getInstance().decrementCachedCreatingConnectionSize(queryExecutor.getHostSpec(), info);
+      throw new PSQLException(GT.tr("The connection attempt failed."),
+              PSQLState.CONNECTION_UNABLE_TO_CONNECT, ioe);
+    } catch (SQLException se) {
+      queryExecutor.close();
+      ConnectionManager.getInstance().decrementCachedCreatingConnectionSize(queryExecutor.getHostSpec(), info);
+      throw se;
+    }
+    return queryExecutor;
+  }
+
+  /**
+   * One attempt of {@link #raceConnection}, runs on a connect thread.
+   *
+   * @return the connection, or null if the host role does not match the requirement
+   */
+  private QueryExecutor connectCandidate(CandidateHost candidateHost, boolean isCounted,
+      String user, String database, Properties info, SocketFactory socketFactory,
+      SslMode sslMode, Map<HostSpec, HostStatus> knownStates) throws SQLException {
+    HostSpec hostSpec = candidateHost.hostSpec;
+    if (isCounted) {
+      ConnectionManager.getInstance().incrementCachedCreatingConnectionSize(hostSpec, info);
+    }
+    LOGGER.info("[" + connectInfo + "]" + " Try to connect." + " IP: " + hostSpec.toString());
+    long connectStart = System.nanoTime();
+    PGStream newStream = null;
+    try {
+      newStream = connectWithFallback(user, database, info, socketFactory, hostSpec, sslMode);
+      QueryExecutor queryExecutor = createQueryExecutor(newStream, user, database, info);
+      HostStatus hostStatus = HostStatus.ConnectOK;
+      if (candidateHost.targetServerType != HostRequirement.any) {
+        hostStatus = isMaster(queryExecutor) ? HostStatus.Master : HostStatus.Secondary;
+        LOGGER.info("Known status of host " + hostSpec + " is " + hostStatus);
+      }
+      GlobalHostStatusTracker.reportHostStatus(hostSpec, hostStatus, info);
+      GlobalHostStatusTracker.reportConnectTime(hostSpec, System.nanoTime() - connectStart, false);
+      knownStates.put(hostSpec, hostStatus);
+      if (!candidateHost.targetServerType.allowConnectingTo(hostStatus)) {
+        queryExecutor.close();
+        ConnectionManager.getInstance().decrementCachedCreatingConnectionSize(hostSpec, info);
+        return null;
+      }
+      return queryExecutor;
+    } catch (ConnectException cex) {
+      GlobalHostStatusTracker.reportHostStatus(hostSpec, HostStatus.ConnectFail, info);
+      GlobalHostStatusTracker.reportConnectTime(hostSpec, System.nanoTime() - connectStart, true);
+      knownStates.put(hostSpec, HostStatus.ConnectFail);
+      ConnectionManager.getInstance().decrementCachedCreatingConnectionSize(hostSpec, info);
+      throw new PSQLException(GT.tr(
+              "Connection to {0} refused. Check that the hostname and port are correct and that the postmaster is accepting TCP/IP connections.",
+              hostSpec), PSQLState.CONNECTION_UNABLE_TO_CONNECT, cex);
+    } catch (IOException ioe) {
+      closeStream(newStream);
+      GlobalHostStatusTracker.reportHostStatus(hostSpec, HostStatus.ConnectFail, info);
+      GlobalHostStatusTracker.reportConnectTime(hostSpec, System.nanoTime() - connectStart, true);
+      knownStates.put(hostSpec, HostStatus.ConnectFail);
+      ConnectionManager.getInstance().decrementCachedCreatingConnectionSize(hostSpec, info);
+      throw new PSQLException(GT.tr("The connection attempt failed."),
+              PSQLState.CONNECTION_UNABLE_TO_CONNECT, ioe);
+    } catch (SQLException se) {
+      closeStream(newStream);
+      GlobalHostStatusTracker.reportHostStatus(hostSpec, HostStatus.ConnectFail, info);
+      GlobalHostStatusTracker.reportConnectTime(hostSpec, System.nanoTime() - connectStart, true);
+      knownStates.put(hostSpec, HostStatus.ConnectFail);
+      ConnectionManager.getInstance().decrementCachedCreatingConnectionSize(hostSpec, info);
+      throw se;
+    }
+  }
+
+  private PGStream connectWithFallback(String user, String database, Properties info,
+      SocketFactory socketFactory, HostSpec hostSpec, SslMode sslMode)
+      throws SQLException, IOException {
+    PGStream newStream = null;
+    try {
+      newStream = tryConnect(user, database, info, socketFactory, hostSpec, sslMode);
+    } catch (SQLException e) {
+      if (sslMode == SslMode.PREFER
+              && PSQLState.INVALID_AUTHORIZATION_SPECIFICATION.getState().equals(e.getSQLState())) {
+        // Try non-SSL connection to cover case like "non-ssl only db"
+        // Note: PREFER allows loss of encryption, so no significant harm is made
+        Throwable ex = null;
+        try {
+          newStream =
+                  tryConnect(user, database, info, socketFactory, hostSpec, SslMode.DISABLE);
+          LOGGER.debug("Downgraded to non-encrypted connection for host " + hostSpec);
+        } catch (SQLException ee) {
+          ex = ee;
+        } catch (IOException ee) {
+          ex = ee; // Can't use multi-catch in Java 6 :(
+        }
+        if (ex != null) {
+          LOGGER.debug("sslMode==PREFER, however non-SSL connection failed as well", ex);
+          // non-SSL failed as well, so re-throw original exception
+          throw e;
+        }
+      } else if (sslMode == SslMode.ALLOW
+              && PSQLState.INVALID_AUTHORIZATION_SPECIFICATION.getState().equals(e.getSQLState())) {
+        // Try using SSL
+        Throwable ex = null;
+        try {
+          newStream =
+                  tryConnect(user, database, info, socketFactory, hostSpec, SslMode.REQUIRE);
+          LOGGER.debug("Upgraded to encrypted connection for host " +
+                  hostSpec);
+        } catch (SQLException ee) {
+          ex = ee;
+        } catch (IOException ee) {
+          ex = ee; // Can't use multi-catch in Java 6 :(
+        }
+        if (ex != null) {
+          LOGGER.debug("sslMode==ALLOW, however SSL connection failed as well", ex);
+          // non-SSL failed as well, so re-throw original exception
+          throw e;
+        }
+
+      } else {
+        throw e;
+      }
+    }
+    return newStream;
+  }
+
+  private QueryExecutor createQueryExecutor(PGStream newStream, String user, String database,
+      Properties info) throws SQLException, IOException {
+    int cancelSignalTimeout = Integer.parseInt(PGProperty.CANCEL_SIGNAL_TIMEOUT.getDefaultValue());
+    if (PGProperty.CANCEL_SIGNAL_TIMEOUT.getInt(info) <= Integer.MAX_VALUE / 1000) {
+      cancelSignalTimeout = PGProperty.CANCEL_SIGNAL_TIMEOUT.getInt(info) * 1000;
+    } else {
+      LOGGER.debug("integer cancelSignalTimeout is too large, it will occur error after multiply by 1000.");
+    }
+    LOGGER.info("[" + newStream.getSecConnectInfo() + "]" + " Connection is established. ID: " + connectInfo);
+    // Do final startup.
+    QueryExecutor queryExecutor = new QueryExecutorImpl(newStream, user, database,
+            cancelSignalTimeout, info);
+    queryExecutor.setProtocolVersion(this.protocolVerion);
+    // set encoding for queryExecutor
+    queryExecutor.setClientEncoding(this.CLIENT_ENCODING);
+    return queryExecutor;
+  }
+
+  private void finishConnect(QueryExecutor queryExecutor, String database, Properties info)
+      throws SQLException, IOException {
+    // query and update statements cause logical replication to fail, temporarily evade
+    if (info.getProperty("replication") == null) {
+      runInitialQueries(queryExecutor, info);
+      String queryGaussdbVersionResult = queryGaussdbVersion(queryExecutor);
+      queryExecutor.setGaussdbVersion(queryGaussdbVersionResult);
+      // get database compatibility mode
+      queryExecutor.setCompatibilityMode(queryDataBaseDatcompatibility(queryExecutor, database));
+    }
+    if (MultiHostChooser.isUsingAutoLoadBalance(info)) {
+      QueryCNListUtils.runRereshCNListQueryies(queryExecutor, info);
+    }
+
+    LOGGER.info("Connect complete. ID: " + connectInfo);
+  }
+
   private List<String[]> getParametersForStartup(String user, String database, Properties info) {
     List<String[]> paramList = new ArrayList<String[]>();
     paramList.add(new String[]{"user", user});
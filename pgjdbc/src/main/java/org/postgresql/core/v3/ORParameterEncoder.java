@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.core.v3;
+
+import org.postgresql.core.ORDataType;
+import org.postgresql.core.ORParameterList;
+import org.postgresql.core.ORStream;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Encodes the parameter section of an ogRAC execute request. It starts with one type byte per
+ * parameter, then each row follows with its size, one null sign byte per parameter and the non
+ * null values. The type bytes and the null signs are padded to 4 bytes.
+ */
+final class ORParameterEncoder {
+    static final int NULL_SIGN = 65;
+    static final int NON_NULL_SIGN = 64;
+
+    private ORParameterEncoder() {
+    }
+
+    /**
+     * Counts the leading batch rows that are bound with the same types as the first one, only
+     * those are sent in one request.
+     */
+    static int getEncodableRows(List<ORParameterList> batchParameters) {
+        if (batchParameters == null || batchParameters.isEmpty()) {
+            return 0;
+        }
+        int paramCount = batchParameters.get(0).getParamCount();
+        int[] typeMode = batchParameters.get(0).getDbTypes();
+        int rows = 0;
+        for (ORParameterList paramList : batchParameters) {
+            int[] dbTypes = paramList.getDbTypes();
+            for (int i = 0; i < paramCount; i++) {
+                if (typeMode[i] != dbTypes[i]) {
+                    return rows;
+                }
+            }
+            rows++;
+        }
+        return rows;
+    }
+
+    private static int align4(int len) {
+        return (len + 3) & ~3;
+    }
+
+    /**
+     * Computes the wire size of the parameter section: the type row, then for each row its size,
+     * its null mask and its non null values.
+     */
+    static int getParamsLength(List<ORParameterList> batchParameters, int rows) {
+        if (rows == 0) {
+            return 0;
+        }
+        int paramCount = batchParameters.get(0).getParamCount();
+        int byte4Count = align4(paramCount);
+        int len = byte4Count;
+        for (int row = 0; row < rows; row++) {
+            len += getRowLength(batchParameters.get(row), paramCount, byte4Count);
+        }
+        return len;
+    }
+
+    private static int getRowLength(ORParameterList paramList, int paramCount, int byte4Count) {
+        int len = 4 + byte4Count;
+        for (int i = 0; i < paramCount; i++) {
+            len += paramList.getWireLength(i);
+        }
+        return len;
+    }
+
+    /**
+     * Writes the parameter section straight into the output buffer of the stream, so every value
+     * is copied once.
+     */
+    static void writeParams(ORStream orStream, List<ORParameterList> batchParameters, int rows)
+            throws IOException {
+        if (rows == 0) {
+            return;
+        }
+        int paramCount = batchParameters.get(0).getParamCount();
+        int byte4Count = align4(paramCount);
+        int[] typeMode = batchParameters.get(0).getDbTypes();
+        for (int i = 0; i < paramCount; i++) {
+            orStream.sendChar(typeMode[i] == ORDataType.TIME ? ORDataType.TIMESTAMP : typeMode[i]);
+        }
+        orStream.sendZeros(byte4Count - paramCount);
+        for (int row = 0; row < rows; row++) {
+            ORParameterList paramList = batchParameters.get(row);
+            orStream.sendInteger4(getRowLength(paramList, paramCount, byte4Count));
+            Object[] values = paramList.getParamValues();
+            for (int i = 0; i < paramCount; i++) {
+                orStream.sendChar(values[i] == null ? NULL_SIGN : NON_NULL_SIGN);
+            }
+            orStream.sendZeros(byte4Count - paramCount);
+            for (int i = 0; i < paramCount; i++) {
+                paramList.writeValue(orStream, i);
+            }
+        }
+    }
+}
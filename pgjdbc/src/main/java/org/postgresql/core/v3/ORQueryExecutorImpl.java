@@ -20,8 +20,10 @@ import org.postgresql.core.ORCachedQuery;
 import org.postgresql.core.ORQueryExecutor;
 import org.postgresql.core.ORStream;
 import org.postgresql.core.ORParameterList;
+import org.postgresql.core.ORRowBatch;
 import org.postgresql.core.ORField;
 import org.postgresql.core.ORDataType;
+import org.postgresql.core.ProtocolTrace;
 import org.postgresql.util.ORPackageHead;
 import org.postgresql.util.PSQLState;
 import org.postgresql.util.GT;
@@ -32,7 +34,6 @@ import org.postgresql.log.Log;
 import org.postgresql.log.Logger;
 
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.io.IOException;
@@ -46,8 +47,6 @@ import java.io.IOException;
 public class ORQueryExecutorImpl implements ORQueryExecutor {
     private static Log LOGGER = Logger.getLogger(ORQueryExecutorImpl.class.getName());
     private static final int AGENT = 256;
-    private static final int NULL_SIGN = 65;
-    private static final int NON_NULL_SIGN = 64;
     private static final int LEN_OPERATION = 16777200;
     private static final int QUERY_FLAG_OPERATION = 4 * 1024 - 1;
     private static final int QUERY_MODE_OPERATION = 4 * 1024;
@@ -58,8 +57,12 @@ public class ORQueryExecutorImpl implements ORQueryExecutor {
     private static final int COLUMNS_THRESHOLD = 13;
 
     private ORStream orStream;
+    private byte[] lenMark = new byte[3];
     private ORBaseConnection connection;
     private boolean isClosed = false;
+    private ORCachedQuery pendingFetch;
+    private ORPackageHead pendingFetchHead;
+    private final ProtocolTrace protocolTrace;
 
     /**
      * query executor constructor
@@ -69,8 +72,21 @@ public class ORQueryExecutorImpl implements ORQueryExecutor {
      * @throws IOException if an I/O error occurs
      */
     public ORQueryExecutorImpl(ORStream orStream, ORBaseConnection connection) {
+        this(orStream, connection, 0);
+    }
+
+    /**
+     * query executor constructor
+     *
+     * @param orStream  orStream
+     * @param connection connection
+     * @param protocolTraceCapture number of most recent protocol messages to keep, 0 to keep none
+     */
+    public ORQueryExecutorImpl(ORStream orStream, ORBaseConnection connection, int protocolTraceCapture) {
         this.orStream = orStream;
         this.connection = connection;
+        this.protocolTrace = new ProtocolTrace(LOGGER, String.valueOf(orStream.getHostSpec()),
+                protocolTraceCapture);
     }
 
     @Override
@@ -78,6 +94,7 @@ public class ORQueryExecutorImpl implements ORQueryExecutor {
             throws SQLException {
         orStream.getLock().lock();
         try {
+            drainPendingFetch();
             ORPackageHead packageHead = new ORPackageHead();
             short statId = (short) cachedQuery.getCtStatement().getMark();
             if (cachedQuery.isPrepare() && statId != -1) {
@@ -98,6 +115,7 @@ public class ORQueryExecutorImpl implements ORQueryExecutor {
                         PSQLState.DATA_ERROR);
             }
         } catch (IOException e) {
+            protocolTrace.logCapturedEvents("I/O error");
             try {
                 orStream.getSocket().close();
             } catch (IOException e2) {
@@ -125,35 +143,50 @@ public class ORQueryExecutorImpl implements ORQueryExecutor {
     }
 
     @Override
-    public synchronized void commit() throws IOException, SQLException {
-        ORPackageHead commitPackageHead = new ORPackageHead();
-        commitPackageHead.setExecCmd((byte) ORRequestCommand.COMMIT);
-        transactionHandle(commitPackageHead);
-        processResults(null, commitPackageHead);
+    public void commit() throws IOException, SQLException {
+        orStream.getLock().lock();
+        try {
+            drainPendingFetch();
+            ORPackageHead commitPackageHead = new ORPackageHead();
+            commitPackageHead.setExecCmd((byte) ORRequestCommand.COMMIT);
+            transactionHandle(commitPackageHead);
+            processResults(null, commitPackageHead);
+        } finally {
+            orStream.getLock().unlock();
+        }
     }
 
     @Override
-    public synchronized void rollback() throws IOException, SQLException {
-        ORPackageHead rollbackPackageHead = new ORPackageHead();
-        rollbackPackageHead.setExecCmd((byte) ORRequestCommand.ROLLBACK);
-        transactionHandle(rollbackPackageHead);
-        processResults(null, rollbackPackageHead);
+    public void rollback() throws IOException, SQLException {
+        orStream.getLock().lock();
+        try {
+            drainPendingFetch();
+            ORPackageHead rollbackPackageHead = new ORPackageHead();
+            rollbackPackageHead.setExecCmd((byte) ORRequestCommand.ROLLBACK);
+            transactionHandle(rollbackPackageHead);
+            processResults(null, rollbackPackageHead);
+        } finally {
+            orStream.getLock().unlock();
+        }
     }
 
     @Override
     public void close() {
-        if (isClosed) {
-            return;
-        }
+        orStream.getLock().lock();
         try {
+            if (isClosed) {
+                return;
+            }
             ORPackageHead closePackageHead = new ORPackageHead();
             closePackageHead.setExecCmd((byte) ORRequestCommand.LOGOUT);
             transactionHandle(closePackageHead);
             orStream.close();
         } catch (IOException ioe) {
             LOGGER.trace("Discarding IOException on close:", ioe);
+        } finally {
+            isClosed = true;
+            orStream.getLock().unlock();
         }
-        isClosed = true;
     }
 
     @Override
@@ -168,21 +201,81 @@ public class ORQueryExecutorImpl implements ORQueryExecutor {
 
     @Override
     public void fetch(ORCachedQuery cachedQuery) throws SQLException, IOException {
-        ORPackageHead fetchRowPackageHead = new ORPackageHead();
+        orStream.getLock().lock();
+        try {
+            if (cachedQuery.usePrefetchedRows()) {
+                return;
+            }
+            if (pendingFetch != null && pendingFetch.getRs() == cachedQuery.getRs()) {
+                ORPackageHead fetchRowPackageHead = pendingFetchHead;
+                pendingFetch = null;
+                pendingFetchHead = null;
+                processResults(cachedQuery, fetchRowPackageHead);
+                return;
+            }
+            drainPendingFetch();
+            ORPackageHead fetchRowPackageHead = new ORPackageHead();
+            sendFetch(cachedQuery, fetchRowPackageHead);
+            processResults(cachedQuery, fetchRowPackageHead);
+        } finally {
+            orStream.getLock().unlock();
+        }
+    }
+
+    @Override
+    public void prefetch(ORCachedQuery cachedQuery) throws SQLException, IOException {
+        orStream.getLock().lock();
+        try {
+            drainPendingFetch();
+            ORPackageHead fetchRowPackageHead = new ORPackageHead();
+            sendFetch(cachedQuery, fetchRowPackageHead);
+            pendingFetch = cachedQuery;
+            pendingFetchHead = fetchRowPackageHead;
+        } finally {
+            orStream.getLock().unlock();
+        }
+    }
+
+    private void sendFetch(ORCachedQuery cachedQuery, ORPackageHead fetchRowPackageHead) throws IOException {
         fetchRowPackageHead.setExecCmd((byte) ORRequestCommand.FETCH);
         fetchRowPackageHead.setRequestCount(orStream.addRequestCount());
         byte[] headBytes = getHeadBytes(fetchRowPackageHead);
         orStream.sendInteger4(PACKAGE_HEAD_SIZE + 4);
         orStream.send(headBytes);
         short statId = (short) cachedQuery.getCtStatement().getMark();
+        protocolTrace.frontend("Fetch", statId);
         orStream.sendInteger2(statId);
         orStream.sendChar(0);
         orStream.sendChar(0);
         orStream.flush();
-        processResults(cachedQuery, fetchRowPackageHead);
+    }
+
+    /**
+     * Reads the response of an outstanding fetch ahead before another request is sent, its rows
+     * are kept aside in the resultSet that asked for them. A server error is handed to that
+     * resultSet as well, so it does not fail an unrelated request. Every path that sends on the
+     * stream holds the stream lock and calls this first.
+     */
+    private void drainPendingFetch() throws IOException {
+        if (pendingFetch == null) {
+            return;
+        }
+        ORCachedQuery cachedQuery = pendingFetch;
+        ORPackageHead fetchRowPackageHead = pendingFetchHead;
+        pendingFetch = null;
+        pendingFetchHead = null;
+        cachedQuery.setPrefetch(true);
+        SQLException error = null;
+        try {
+            processResults(cachedQuery, fetchRowPackageHead);
+        } catch (SQLException e) {
+            error = e;
+        }
+        cachedQuery.prefetchDone(error);
     }
 
     private void transactionHandle(ORPackageHead packageHead) throws IOException {
+        protocolTrace.frontend("Command", packageHead.getExecCmd());
         packageHead.setRequestCount(orStream.addRequestCount());
         byte[] headBytes = getHeadBytes(packageHead);
         orStream.sendInteger4(PACKAGE_HEAD_SIZE);
@@ -192,19 +285,26 @@ public class ORQueryExecutorImpl implements ORQueryExecutor {
 
     @Override
     public void freeStatement(ORStatement stat) throws IOException, SQLException {
-        ORPackageHead freePackageHead = new ORPackageHead();
-        freePackageHead.setExecCmd((byte) ORRequestCommand.FREE_STMT);
-        freePackageHead.setRequestCount(orStream.addRequestCount());
-        byte[] headBytes = getHeadBytes(freePackageHead);
-
-        orStream.sendInteger4(PACKAGE_HEAD_SIZE + 4);
-        orStream.send(headBytes);
-        short statId = (short) stat.getMark();
-        orStream.sendInteger2(statId);
-        orStream.sendChar(0);
-        orStream.sendChar(0);
-        orStream.flush();
-        processResults(null, freePackageHead);
+        orStream.getLock().lock();
+        try {
+            drainPendingFetch();
+            ORPackageHead freePackageHead = new ORPackageHead();
+            freePackageHead.setExecCmd((byte) ORRequestCommand.FREE_STMT);
+            freePackageHead.setRequestCount(orStream.addRequestCount());
+            byte[] headBytes = getHeadBytes(freePackageHead);
+
+            orStream.sendInteger4(PACKAGE_HEAD_SIZE + 4);
+            orStream.send(headBytes);
+            short statId = (short) stat.getMark();
+            protocolTrace.frontend("FreeStatement", statId);
+            orStream.sendInteger2(statId);
+            orStream.sendChar(0);
+            orStream.sendChar(0);
+            orStream.flush();
+            processResults(null, freePackageHead);
+        } finally {
+            orStream.getLock().unlock();
+        }
     }
 
     private void sendQuery(ORCachedQuery cachedQuery, ORPackageHead packageHead,
@@ -216,26 +316,17 @@ public class ORQueryExecutorImpl implements ORQueryExecutor {
             msgLen += 4;
             msgLen += 4;
 
-            String sql = cachedQuery.getSql();
-            byte[] sqlData = sql.getBytes(this.orStream.getCharset());
-            int align4BytesSqlLength = sqlData.length % 4 == 0 ? sqlData.length
-                    : sqlData.length + (4 - sqlData.length % 4);
-            byte[] tempSql = new byte[align4BytesSqlLength];
-            System.arraycopy(sqlData, 0, tempSql, 0, sqlData.length);
-            msgLen = msgLen + 4 + tempSql.length;
+            byte[] sqlData = cachedQuery.getAlignedSqlBytes(this.orStream.getCharset());
+            msgLen = msgLen + 4 + sqlData.length;
 
             msgLen += 4;
             msgLen++;
             msgLen += 3;
 
-            List<byte[]> byteParams = getBytesParam(batchParameters);
-            int executeSize = 1;
-            if (!byteParams.isEmpty()) {
-                executeSize = byteParams.size();
-            }
-            for (byte[] param : byteParams) {
-                msgLen += param.length;
-            }
+            int rows = ORParameterEncoder.getEncodableRows(batchParameters);
+            int executeSize = rows == 0 ? 1 : rows;
+            msgLen += ORParameterEncoder.getParamsLength(batchParameters, rows);
+            protocolTrace.frontend("PrepareAndExecute", cachedQuery.getSql(), executeSize);
             byte[] headData = getHeadBytes(packageHead);
             orStream.sendInteger4(msgLen);
             orStream.send(headData);
@@ -243,10 +334,9 @@ public class ORQueryExecutorImpl implements ORQueryExecutor {
             orStream.sendInteger2(statId);
             orStream.sendChar(0);
             orStream.sendChar(0);
-            byte[] bs = orStream.getInteger4Bytes(0);
-            orStream.send(bs);
-            orStream.sendInteger4(sqlData.length);
-            orStream.send(tempSql);
+            orStream.sendInteger4(0);
+            orStream.sendInteger4(cachedQuery.getSqlByteLength());
+            orStream.send(sqlData);
             orStream.sendInteger2(executeSize);
             int fetchSize = cachedQuery.getCtStatement().getFetchSize();
             orStream.sendInteger2(fetchSize);
@@ -255,87 +345,13 @@ public class ORQueryExecutorImpl implements ORQueryExecutor {
             orStream.sendChar(0);
             orStream.sendChar(0);
             orStream.sendChar(0);
-            for (byte[] paramToServer : byteParams) {
-                orStream.send(paramToServer);
-            }
+            ORParameterEncoder.writeParams(orStream, batchParameters, rows);
             orStream.flush();
         } catch (IOException | SQLException e) {
             throw e;
         }
     }
 
-    private List<byte[]> getBytesParam(List<ORParameterList> batchParameters) throws SQLException {
-        if (batchParameters == null || batchParameters.isEmpty()) {
-            return new ArrayList<>();
-        }
-        int paramCount = batchParameters.get(0).getParamCount();
-        int byte4Count = paramCount % 4 == 0 ? paramCount : paramCount + (4 - paramCount % 4);
-        byte[] paramType = new byte[byte4Count];
-        int[] typeMode = batchParameters.get(0).getDbTypes();
-        for (int i = 0; i < paramCount; i++) {
-            if (typeMode[i] == ORDataType.TIME) {
-                paramType[i] = ORDataType.TIMESTAMP;
-            } else {
-                paramType[i] = (byte) typeMode[i];
-            }
-        }
-
-        return encodeParam(batchParameters, paramCount, typeMode, byte4Count, paramType);
-    }
-
-    private List<byte[]> encodeParam(List<ORParameterList> batchParameters, int paramCount,
-                                     int[] typeMode, int byte4Count, byte[] paramType) {
-        List<byte[]> byteParams = new ArrayList<>();
-        boolean isHead = true;
-        for (ORParameterList paramList : batchParameters) {
-            for (int i = 0; i < paramCount; i++) {
-                if (typeMode[i] != paramList.getDbTypes()[i]) {
-                    return byteParams;
-                }
-            }
-            List<byte[]> byteParam = new ArrayList<>();
-            int size = 0;
-            byte[] nullSign = new byte[byte4Count];
-            int count = paramList.getParamCount();
-            for (int i = 0; i < count; i++) {
-                if (paramList.getParamValues()[i] == null) {
-                    nullSign[i] = NULL_SIGN;
-                } else {
-                    nullSign[i] = NON_NULL_SIGN;
-                }
-                byte[] param = paramList.getByteValue(i);
-                size += param.length;
-                byteParam.add(param);
-            }
-            byte[] allParam = new byte[size];
-            int index = 0;
-            for (byte[] p : byteParam) {
-                System.arraycopy(p, 0, allParam, index, p.length);
-                index += p.length;
-            }
-
-            int point = 0;
-            size += 4;
-            size += byte4Count;
-            byte[] sizeByte = orStream.getInteger4Bytes(size);
-            byte[] paramData = new byte[size];
-            if (isHead) {
-                size += byte4Count;
-                paramData = new byte[size];
-                paramList.setParam(paramType, paramData, 0);
-                point = paramType.length;
-            }
-            paramList.setParam(sizeByte, paramData, point);
-            point += sizeByte.length;
-            paramList.setParam(nullSign, paramData, point);
-            point += nullSign.length;
-            paramList.setParam(allParam, paramData, point);
-            byteParams.add(paramData);
-            isHead = false;
-        }
-        return byteParams;
-    }
-
     private void sendPrepareQuery(ORCachedQuery cachedQuery, ORPackageHead packageHead,
                                   List<ORParameterList> batchParameters) throws SQLException, IOException {
         packageHead.setExecCmd((byte) ORRequestCommand.EXECUTE);
@@ -345,18 +361,16 @@ public class ORQueryExecutorImpl implements ORQueryExecutor {
             msgLen += 6;
             msgLen++;
             msgLen++;
-            List<byte[]> byteParams = getBytesParam(batchParameters);
-            int executeSize = 1;
-            if (!byteParams.isEmpty()) {
-                executeSize = byteParams.size();
-            }
-            for (byte[] param : byteParams) {
-                msgLen += param.length;
+            int rows = ORParameterEncoder.getEncodableRows(batchParameters);
+            int executeSize = rows == 0 ? 1 : rows;
+            msgLen += ORParameterEncoder.getParamsLength(batchParameters, rows);
+            int statId = cachedQuery.getCtStatement().getMark();
+            if (protocolTrace.isEnabled()) {
+                protocolTrace.frontend("Execute", "stmt=" + statId, executeSize);
             }
             byte[] headData = getHeadBytes(packageHead);
             orStream.sendInteger4(msgLen);
             orStream.send(headData);
-            int statId = cachedQuery.getCtStatement().getMark();
             orStream.sendInteger2(statId);
             orStream.sendInteger2(executeSize);
             int fetchSize = cachedQuery.getCtStatement().getFetchSize();
@@ -364,9 +378,7 @@ public class ORQueryExecutorImpl implements ORQueryExecutor {
             int autoCommit = cachedQuery.getConn().getAutoCommit() ? 1 : 0;
             orStream.sendChar(autoCommit);
             orStream.sendChar(0);
-            for (byte[] paramToServer : byteParams) {
-                orStream.send(paramToServer);
-            }
+            ORParameterEncoder.writeParams(orStream, batchParameters, rows);
             orStream.flush();
         } catch (IOException | SQLException e) {
             throw e;
@@ -405,6 +417,11 @@ public class ORQueryExecutorImpl implements ORQueryExecutor {
             packageHead.setVersion2((byte) orStream.receiveChar());
             orStream.receiveChar();
             packageHead.setRequestCount(orStream.receiveInteger4());
+            if (protocolTrace.isEnabled()) {
+                protocolTrace.backend("Response", "cmd=" + packageHead.getExecCmd() + ",result="
+                        + packageHead.getExecResult() + ",request=" + packageHead.getRequestCount(),
+                        packageHead.getSize());
+            }
             int remainLen = packageHead.getSize() - PACKAGE_HEAD_SIZE;
             int requestCount = orStream.getRequestCount();
             if (packageHead.getRequestCount() == requestCount && remainLen > 0) {
@@ -447,11 +464,9 @@ public class ORQueryExecutorImpl implements ORQueryExecutor {
                 int remain = orStream.receiveChar();
                 orStream.receiveChar();
                 if (total > 0) {
-                    List<int[]> valueLens = new ArrayList<>();
-                    List<byte[][]> rows = new ArrayList<>();
-                    this.getByteData(valueLens, rows, total);
+                    ORRowBatch rows = getRowBatch(total, remainLen - 8);
                     boolean hasRemain = remain == 1;
-                    cachedQuery.setNewData(total, valueLens, rows, hasRemain);
+                    cachedQuery.setNewData(rows, hasRemain);
                 }
             } else if (packageHead.getExecCmd() == ORRequestCommand.EXECUTE) {
                 int queryMode = cachedQuery.getCtStatement().getQueryMode();
@@ -461,15 +476,15 @@ public class ORQueryExecutorImpl implements ORQueryExecutor {
                     orStream.receiveInteger4();
                     int updateCount = orStream.receiveInteger4();
                     cachedQuery.getCtStatement().setUpdateCount(updateCount);
-                    this.handleResult(cachedQuery, cachedQuery.getCtStatement().getField());
+                    this.handleResult(cachedQuery, cachedQuery.getCtStatement().getField(), remainLen);
                 }
             } else {
-                handleData(cachedQuery);
+                handleData(cachedQuery, remainLen);
             }
         }
     }
 
-    private void handleData(ORCachedQuery cachedQuery) throws SQLException, IOException {
+    private void handleData(ORCachedQuery cachedQuery, int remainLen) throws SQLException, IOException {
         ORStatement stat = cachedQuery.getCtStatement();
         int id = orStream.receiveInteger2();
         stat.setMark(id);
@@ -493,7 +508,7 @@ public class ORQueryExecutorImpl implements ORQueryExecutor {
             orStream.receiveInteger4();
             int updateCount = orStream.receiveInteger4();
             stat.setUpdateCount(updateCount);
-            handleResult(cachedQuery, fields);
+            handleResult(cachedQuery, fields, remainLen);
         }
     }
 
@@ -525,7 +540,8 @@ public class ORQueryExecutorImpl implements ORQueryExecutor {
         }
     }
 
-    private void handleResult(ORCachedQuery cachedQuery, ORField[] fields) throws SQLException, IOException {
+    private void handleResult(ORCachedQuery cachedQuery, ORField[] fields, int remainLen)
+            throws SQLException, IOException {
         byte[] totalBytes = orStream.receive(2);
         int total = orStream.bytesToShort(totalBytes);
         int remain = orStream.receiveChar();
@@ -533,34 +549,45 @@ public class ORQueryExecutorImpl implements ORQueryExecutor {
         orStream.receiveChar();
         orStream.receiveInteger2();
         orStream.receiveInteger2();
-        List<int[]> valueLens = new ArrayList<>();
-        List<byte[][]> rows = new ArrayList<>();
         if (fields.length > 0) {
+            ORRowBatch rows;
             if (total > 0) {
-                this.getByteData(valueLens, rows, total);
+                rows = getRowBatch(total, remainLen);
+            } else {
+                rows = new ORRowBatch(0, 0);
             }
-            cachedQuery.handleResultRows(fields, valueLens, rows, hasRemain);
+            cachedQuery.handleResultRows(fields, rows, hasRemain);
         }
     }
 
-    private void getByteData(List<int[]> valueLens, List<byte[][]> rows, int total) throws IOException {
+    /**
+     * Reads the rows of a result packet into one batch buffer.
+     *
+     * @param total number of rows
+     * @param sizeHint remaining packet length, an upper bound of the value bytes
+     */
+    private ORRowBatch getRowBatch(int total, int sizeHint) throws IOException {
+        ORRowBatch rows = new ORRowBatch(total, sizeHint);
         for (int i = 0; i < total; i++) {
-            getRow(valueLens, rows);
+            getRow(rows);
         }
+        return rows;
     }
 
-    private void getRow(List<int[]> valueLens, List<byte[][]> rows) throws IOException {
+    private void getRow(ORRowBatch rows) throws IOException {
         orStream.receiveInteger2();
         int columns = orStream.receiveInteger2();
-        int[] lens = new int[columns];
-        byte[][] value = new byte[columns][];
         int lenOperation = 3;
         if (columns >= COLUMNS_THRESHOLD) {
             lenOperation += ((columns + 3 & LEN_OPERATION) / 4);
         }
 
         orStream.receiveChar();
-        byte[] lenMark = orStream.receive(lenOperation);
+        if (lenMark.length < lenOperation) {
+            lenMark = new byte[lenOperation];
+        }
+        orStream.receive(lenMark, 0, lenOperation);
+        rows.startRow(columns);
         int index = 0;
         int colIndex = 0;
         while (true) {
@@ -572,7 +599,7 @@ public class ORQueryExecutorImpl implements ORQueryExecutor {
                     break;
                 }
                 int lenId = mark & 3;
-                handleValue(lenId, lens, value, k);
+                handleValue(lenId, rows);
                 mark = mark >> 2;
                 colIndex = k;
             }
@@ -581,25 +608,22 @@ public class ORQueryExecutorImpl implements ORQueryExecutor {
             }
             index++;
         }
-        valueLens.add(lens);
-        rows.add(value);
     }
 
-    private void handleValue(int lenId, int[] valueLen, byte[][] value, int k) throws IOException {
+    private void handleValue(int lenId, ORRowBatch rows) throws IOException {
         if (lenId == BYTE0_SIGN) {
-            valueLen[k] = -1;
-            value[k] = new byte[0];
+            rows.addNull();
         } else if (lenId == BYTE4_SIGN) {
-            valueLen[k] = 4;
-            value[k] = orStream.receive(4);
+            int offset = rows.addValue(4, 0);
+            orStream.receive(rows.getData(), offset, 4);
         } else if (lenId == BYTE8_SIGN) {
-            valueLen[k] = 8;
-            value[k] = orStream.receive(8);
+            int offset = rows.addValue(8, 0);
+            orStream.receive(rows.getData(), offset, 8);
         } else {
             int len = orStream.receiveInteger2();
-            valueLen[k] = len;
             int byte4Len = (4 - (len + 2) % 4) % 4;
-            value[k] = orStream.receive(byte4Len + len);
+            int offset = rows.addValue(len, byte4Len);
+            orStream.receive(rows.getData(), offset, byte4Len + len);
         }
     }
 }
@@ -11,6 +11,7 @@ import org.postgresql.copy.CopyIn;
 import org.postgresql.copy.CopyOperation;
 import org.postgresql.copy.CopyOut;
 import org.postgresql.core.CachedQuery;
+import org.postgresql.core.ClientEncoder;
 import org.postgresql.core.CommandCompleteParser;
 import org.postgresql.core.Encoding;
 import org.postgresql.core.EncodingPredictor;
@@ -21,6 +22,8 @@ import org.postgresql.core.PGBindException;
 import org.postgresql.core.PGStream;
 import org.postgresql.core.ParameterList;
 import org.postgresql.core.Parser;
+import org.postgresql.core.PrepareStatistics;
+import org.postgresql.core.ProtocolTrace;
 import org.postgresql.core.Query;
 import org.postgresql.core.QueryExecutor;
 import org.postgresql.core.QueryExecutorBase;
@@ -117,6 +120,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
   private String socketAddress;
 
   private String secSocketAddress; // 脱敏地址
+  private final ProtocolTrace protocolTrace;
 
   private String gaussdbVersion;
 
@@ -125,6 +129,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
   private boolean enableOutparamOveride;
 
   private String clientEncoding;
+  private ClientEncoder clientEncoder;
 
   private long sendTime;
 
@@ -179,9 +184,13 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 
     this.allowEncodingChanges = PGProperty.ALLOW_ENCODING_CHANGES.getBoolean(info);
     this.cleanupSavePoints = PGProperty.CLEANUP_SAVEPOINTS.getBoolean(info);
+    this.closeCoalescer = new CloseCoalescer(Math.max(0, PGProperty.CLOSE_BUDGET.getInt(info)));
     this.replicationProtocol = new V3ReplicationProtocol(this, pgStream);
     this.socketAddress = pgStream.getConnectInfo();
     this.secSocketAddress = pgStream.getSecConnectInfo();
+    this.protocolTrace = new ProtocolTrace(LOGGER, secSocketAddress,
+        PGProperty.PROTOCOL_TRACE_CAPTURE.getInt(info));
+    pgStream.setProtocolTrace(protocolTrace);
     readStartupMessages();
   }
 
@@ -239,6 +248,20 @@ public class QueryExecutorImpl extends QueryExecutorBase {
     return this.clientEncoding;
   }
 
+  /**
+   * Get the encoder of the client encoding, created on first use.
+   *
+   * @return encoder of the client encoding
+   */
+  ClientEncoder getClientEncoder() {
+    ClientEncoder encoder = clientEncoder;
+    if (encoder == null || !encoder.name().equals(clientEncoding)) {
+      encoder = new ClientEncoder(clientEncoding);
+      clientEncoder = encoder;
+    }
+    return encoder;
+  }
+
   public boolean getWaitNexttime() {
     return waitNexttime;
   }
@@ -462,6 +485,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
       }
     } catch (IOException e) {
       String socketStatus = pgStream.getSocketStatus();
+      protocolTrace.logCapturedEvents("I/O error");
       abort();
       handler.handleError(
               new PSQLException(GT.tr("[" + secSocketAddress + "] " + socketStatus + "An I/O error occured while sending to the backend." + "detail:" + e.getMessage() + "; "),
@@ -630,6 +654,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
       }
     } catch (IOException e) {
       String socketStatus = pgStream.getSocketStatus();
+      protocolTrace.logCapturedEvents("I/O error");
       abort();
       handler.handleError(
               new PSQLException(GT.tr("[" + secSocketAddress + "] " + socketStatus + "An I/O error occured while sending to the backend." + "detail:" + e.getMessage() + "; "),
@@ -697,6 +722,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
       }
     } catch (IOException e) {
       String socketStatus = pgStream.getSocketStatus();
+      protocolTrace.logCapturedEvents("I/O error");
       abort();
       handler.handleError(
               new PSQLException(
@@ -720,6 +746,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
     // First, send CloseStatements for finalized SimpleQueries that had statement names assigned.
     processDeadParsedQueries();
     processDeadPortals();
+    sendPendingCloses();
 
     // Send BEGIN on first statement in transaction.
     if ((flags & QueryExecutor.QUERY_SUPPRESS_BEGIN) != 0
@@ -830,8 +857,8 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 
   private void sendFastpathCall(int fnid, SimpleParameterList params)
           throws SQLException, IOException {
-    if (LOGGER.isTraceEnabled()) {
-      LOGGER.trace(" FE=> FunctionCall(" + fnid + ", " + params.getParameterCount() + " params)");
+    if (protocolTrace.isEnabled()) {
+      protocolTrace.frontend("FunctionCall", fnid + ", " + params.getParameterCount() + " params");
     }
 
     //
@@ -842,12 +869,14 @@ public class QueryExecutorImpl extends QueryExecutorBase {
     // + 2 (result format)
 
     int paramCount = params.getParameterCount();
+    int[] lengths = new int[paramCount];
     int encodedSize = 0;
     for (int i = 1; i <= paramCount; ++i) {
       if (params.isNull(i)) {
         encodedSize += 4;
       } else {
-        encodedSize += 4 + params.getV3Length(i, getClientEncoding());
+        lengths[i - 1] = params.getV3Length(i, getClientEncoder());
+        encodedSize += 4 + lengths[i - 1];
       }
     }
 
@@ -864,8 +893,8 @@ public class QueryExecutorImpl extends QueryExecutorBase {
       if (params.isNull(i)) {
         pgStream.sendInteger4(-1);
       } else {
-        pgStream.sendInteger4(params.getV3Length(i, getClientEncoding())); // Parameter size
-        params.writeV3Value(i, pgStream, getClientEncoding());
+        pgStream.sendInteger4(lengths[i - 1]); // Parameter size
+        params.writeV3Value(i, pgStream, getClientEncoder());
       }
     }
     pgStream.sendInteger2(1); // Binary result format
@@ -1003,7 +1032,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
           int msgLen = pgStream.receiveInteger4();
           int valueLen = pgStream.receiveInteger4();
 
-          LOGGER.trace(" <=BE FunctionCallResponse(" + valueLen + " bytes)");
+          protocolTrace.backend("FunctionCallResponse", valueLen);
 
           if (valueLen != -1) {
             byte[] buf = new byte[valueLen];
@@ -1045,10 +1074,10 @@ public class QueryExecutorImpl extends QueryExecutorBase {
     if (!suppressBegin) {
       doSubprotocolBegin();
     }
-    byte[] buf = Utils.encodeUTF8(sql, getClientEncoding());
+    byte[] buf = getClientEncoder().encode(sql);
 
     try {
-      LOGGER.trace(" FE=> Query(CopyStart)");
+      protocolTrace.frontend("Query", "CopyStart");
 
       pgStream.sendChar('Q');
       pgStream.sendInteger4(buf.length + 4 + 1);
@@ -1104,7 +1133,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
     try {
       if (op instanceof CopyIn) {
         synchronized (this) {
-          LOGGER.trace("FE => CopyFail");
+          protocolTrace.frontend("CopyFail");
           final byte[] msg = Utils.encodeUTF8("Copy cancel requested");
           pgStream.sendChar('f'); // CopyFail
           pgStream.sendInteger4(5 + msg.length);
@@ -1172,7 +1201,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
     }
 
     try {
-      LOGGER.trace(" FE=> CopyDone");
+      protocolTrace.frontend("CopyDone");
 
       pgStream.sendChar('c'); // CopyDone
       pgStream.sendInteger4(4);
@@ -1205,7 +1234,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
               PSQLState.OBJECT_NOT_IN_STATE);
     }
 
-    LOGGER.trace(" FE=> CopyData(" + siz + ")");
+    protocolTrace.frontend("CopyData", siz);
 
     try {
       pgStream.sendChar('d');
@@ -1288,7 +1317,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
         int c = pgStream.peekChar();
         if (c == 'C') {
           // CommandComplete;
-          LOGGER.trace(" <=BE CommandStatus, Ignored until CopyDone");
+          protocolTrace.backend("CommandStatus", "ignored until CopyDone");
           break;
         }
       }
@@ -1298,14 +1327,14 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 
         case 'A': // Asynchronous Notify
 
-          LOGGER.trace(" <=BE Asynchronous Notification while copying");
+          protocolTrace.backend("AsyncNotify", "while copying");
 
           receiveAsyncNotify();
           break;
 
         case 'N': // Notice Response
 
-          LOGGER.trace(" <=BE Notification while copying");
+          protocolTrace.backend("NoticeResponse", "while copying");
 
           addWarning(receiveNoticeResponse());
           break;
@@ -1339,7 +1368,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 
         case 'G': // CopyInResponse
 
-          LOGGER.trace(" <=BE CopyInResponse");
+          protocolTrace.backend("CopyInResponse");
 
 
           if (op != null) {
@@ -1354,7 +1383,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 
         case 'H': // CopyOutResponse
 
-          LOGGER.trace(" <=BE CopyOutResponse");
+          protocolTrace.backend("CopyOutResponse");
 
           if (op != null) {
             error = new PSQLException(GT.tr("Got CopyOutResponse from server during an active {0}",
@@ -1368,7 +1397,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 
         case 'W': // CopyBothResponse
 
-          LOGGER.trace(" <=BE CopyBothResponse");
+          protocolTrace.backend("CopyBothResponse");
 
 
           if (op != null) {
@@ -1383,7 +1412,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 
         case 'd': // CopyData
 
-          LOGGER.trace(" <=BE CopyData");
+          protocolTrace.backend("CopyData");
 
           len = pgStream.receiveInteger4() - 4;
           byte[] buf = pgStream.receive(len);
@@ -1402,7 +1431,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 
         case 'c': // CopyDone (expected after all copydata received)
 
-          LOGGER.trace(" <=BE CopyDone");
+          protocolTrace.backend("CopyDone");
 
           len = pgStream.receiveInteger4() - 4;
           if (len > 0) {
@@ -1439,13 +1468,13 @@ public class QueryExecutorImpl extends QueryExecutorBase {
         // If the user sends a non-copy query, we've got to handle some additional things.
         //
         case 'T': // Row Description (response to Describe)
-          LOGGER.trace(" <=BE RowDescription (during copy ignored)");
+          protocolTrace.backend("RowDescription", "during copy ignored");
 
           skipMessage();
           break;
 
         case 'D': // DataRow
-          LOGGER.trace(" <=BE DataRow (during copy ignored)");
+          protocolTrace.backend("DataRow", "during copy ignored");
 
           skipMessage();
           break;
@@ -1491,13 +1520,14 @@ public class QueryExecutorImpl extends QueryExecutorBase {
       /*
        * Estimate the response size of the fields and add it to the expected response size.
        *
-       * It's impossible for us to estimate the rowcount. We'll assume one row, as that's the common
-       * case for batches and we're leaving plenty of breathing room in this approach. It's still
-       * not deadlock-proof though; see pgjdbc github issues #194 and #195.
+       * It's impossible for us to estimate the rowcount. We'll assume one row per values block,
+       * as that's the common case for batches and we're leaving plenty of breathing room in this
+       * approach. It's still not deadlock-proof though; see pgjdbc github issues #194 and #195.
        */
       int maxResultRowSize = sq.getMaxResultRowSize();
       if (maxResultRowSize >= 0) {
-        estimatedReceiveBufferBytes += maxResultRowSize;
+        estimatedReceiveBufferBytes += (int) Math.min((long) maxResultRowSize * sq.getBatchSize(),
+            MAX_BUFFERED_RECV_BYTES);
       } else {
         LOGGER.trace("Couldn't estimate result size or result size unbounded, "
                 + "disabling batching for this query.");
@@ -1657,8 +1687,12 @@ public class QueryExecutorImpl extends QueryExecutorBase {
   // Message sending
   //
 
+  private void sendPendingCloses() throws IOException {
+    closeCoalescer.send(closeSender);
+  }
+
   private void sendSync() throws IOException {
-    LOGGER.debug("[" + secSocketAddress + "]" + " FE=> Sync");
+    protocolTrace.frontend("Sync");
 
     pgStream.sendChar('S'); // Sync
     pgStream.sendInteger4(4); // Length
@@ -1736,7 +1770,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
       }
     }
     if (LOGGER.isTraceEnabled()) {
-      StringBuilder sbuf = new StringBuilder(" FE=> Parse(stmt=" + statementName + ",query=\"");
+      StringBuilder sbuf = new StringBuilder("stmt=" + statementName + ",query=\"");
       sbuf.append(nativeSql);
       sbuf.append("\",oids={");
       for (int i = 1; i <= params.getParameterCount(); ++i) {
@@ -1754,15 +1788,17 @@ public class QueryExecutorImpl extends QueryExecutorBase {
           sbuf.append(paramFlags[i - 1]);
         }
       }
-      sbuf.append("})");
-      LOGGER.trace("[" + secSocketAddress + "] " + sbuf.toString());
+      sbuf.append("}");
+      protocolTrace.frontend("Parse", sbuf.toString());
+    } else {
+      protocolTrace.frontend("Parse", statementName);
     }
 
     //
     // Send Parse.
     //
 
-    byte[] queryUtf8 = Utils.encodeUTF8(nativeSql, getClientEncoding());
+    byte[] queryUtf8 = getClientEncoder().encode(nativeSql);
 
     // Total size = 4 (size field)
     // + N + 1 (statement name, zero-terminated)
@@ -1814,14 +1850,15 @@ public class QueryExecutorImpl extends QueryExecutorBase {
     byte[] encodedPortalName = (portal == null ? null : portal.getEncodedPortalName());
 
     if (LOGGER.isTraceEnabled()) {
-      StringBuilder sbuf = new StringBuilder(" FE=> Bind(stmt=" + statementName + ",portal=" + portal);
+      StringBuilder sbuf = new StringBuilder("stmt=" + statementName + ",portal=" + portal);
       for (int i = 1; i <= params.getParameterCount(); ++i) {
         sbuf.append(",$").append(i).append("=<")
                 .append(params.toString(i,true))
                 .append(">,type=").append(Oid.toString(params.getTypeOID(i)));
       }
-      sbuf.append(")");
-      LOGGER.trace("[" + secSocketAddress + "] " + sbuf.toString());
+      protocolTrace.frontend("Bind", sbuf.toString());
+    } else {
+      protocolTrace.frontend("Bind", portal == null ? null : portal.getPortalName());
     }
 
     // Total size = 4 (size field) + N + 1 (destination portal)
@@ -1829,12 +1866,15 @@ public class QueryExecutorImpl extends QueryExecutorBase {
     // + 2 (param format code count) + N * 2 (format codes)
     // + 2 (param value count) + N (encoded param value size)
     // + 2 (result format code count, 0)
+    // the parameter lengths are computed once, they are needed again when the values are sent
+    int[] lengths = new int[params.getParameterCount()];
     long encodedSize = 0;
     for (int i = 1; i <= params.getParameterCount(); ++i) {
       if (params.isNull(i)) {
         encodedSize += 4;
       } else {
-        encodedSize += (long) 4 + params.getV3Length(i, getClientEncoding());
+        lengths[i - 1] = params.getV3Length(i, getClientEncoder());
+        encodedSize += (long) 4 + lengths[i - 1];
       }
     }
 
@@ -1914,9 +1954,9 @@ public class QueryExecutorImpl extends QueryExecutorBase {
       if (params.isNull(i)) {
         pgStream.sendInteger4(-1); // Magic size of -1 means NULL
       } else {
-        pgStream.sendInteger4(params.getV3Length(i, getClientEncoding())); // Parameter size
+        pgStream.sendInteger4(lengths[i - 1]); // Parameter size
         try {
-          params.writeV3Value(i, pgStream, getClientEncoding()); // Parameter value
+          params.writeV3Value(i, pgStream, getClientEncoder()); // Parameter value
         } catch (PGBindException be) {
           bindException = be;
         }
@@ -1955,14 +1995,18 @@ public class QueryExecutorImpl extends QueryExecutorBase {
     V3ParameterList parameters = (V3ParameterList) parameterLists[0];
     params = (SimpleParameterList) parameters;
 
+    // the parameter lengths are computed once, they are needed again when the values are sent
+    int[][] lengths = new int[parameterLists.length][];
     long encodedSize = 0;
     for (int j = 0; j < parameterLists.length; j++) {
       SimpleParameterList tmpParameters = (SimpleParameterList) parameterLists[j];
+      lengths[j] = new int[tmpParameters.getParameterCount()];
       for (int i = 1; i <= tmpParameters.getParameterCount(); ++i) {
         if (tmpParameters.isNull(i)) {
           encodedSize += 4;
         } else {
-          encodedSize += (long) 4 + tmpParameters.getV3Length(i, getClientEncoding());
+          lengths[j][i - 1] = tmpParameters.getV3Length(i, getClientEncoder());
+          encodedSize += (long) 4 + lengths[j][i - 1];
         }
       }
     }
@@ -2064,9 +2108,9 @@ public class QueryExecutorImpl extends QueryExecutorBase {
         if (params.isNull(i)) {
           pgStream.sendInteger4(-1); // Magic size of -1 means NULL
         } else {
-          pgStream.sendInteger4(params.getV3Length(i, getClientEncoding())); // Parameter size
+          pgStream.sendInteger4(lengths[j][i - 1]); // Parameter size
           try {
-            params.writeV3Value(i, pgStream, getClientEncoding()); // Parameter value
+            params.writeV3Value(i, pgStream, getClientEncoder()); // Parameter value
           } catch (PGBindException be) {
             bindException = be;
           }
@@ -2107,7 +2151,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
     // Send Describe.
     //
 
-    LOGGER.trace("[" + secSocketAddress + "]" + " FE=> Describe(portal=" + portal + ")");
+    protocolTrace.frontend("DescribePortal", portal == null ? null : portal.getPortalName());
 
     byte[] encodedPortalName = (portal == null ? null : portal.getEncodedPortalName());
 
@@ -2130,7 +2174,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
                                      boolean describeOnly) throws IOException {
     // Send Statement Describe
 
-    LOGGER.trace("[" + secSocketAddress + "]" + " FE=> Describe(statement=" + query.getStatementName() + ")");
+    protocolTrace.frontend("DescribeStatement", query.getStatementName());
 
     byte[] encodedStatementName = query.getEncodedStatementName();
 
@@ -2158,9 +2202,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
     //
     // Send Execute.
     //
-    if (LOGGER.isTraceEnabled()) {
-      LOGGER.trace("[" + secSocketAddress + "]" + " FE=> Execute(portal=" + portal + ",limit=" + limit + ")");
-    }
+    protocolTrace.frontend("Execute", portal == null ? null : portal.getPortalName(), limit);
 
     byte[] encodedPortalName = (portal == null ? null : portal.getEncodedPortalName());
     int encodedSize = (encodedPortalName == null ? 0 : encodedPortalName.length);
@@ -2182,7 +2224,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
     // Send Close.
     //
 
-    LOGGER.trace("[" + secSocketAddress + "]" + " FE=> ClosePortal(" + portalName + ")");
+    protocolTrace.frontend("ClosePortal", portalName);
 
     byte[] encodedPortalName = (portalName == null ? null : Utils.encodeUTF8(portalName, getClientEncoding()));
     int encodedSize = (encodedPortalName == null ? 0 : encodedPortalName.length);
@@ -2202,7 +2244,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
     // Send Close.
     //
 
-    LOGGER.trace("[" + secSocketAddress + "]" + " FE=> CloseStatement(" + statementName + ")");
+    protocolTrace.frontend("CloseStatement", statementName);
 
     byte[] encodedStatementName = Utils.encodeUTF8(statementName, getClientEncoding());
 
@@ -2421,7 +2463,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
   private void sendSimpleQuery(SimpleQuery query, SimpleParameterList params) throws IOException {
     String nativeSql = query.toString(params);
 
-    LOGGER.trace("[" + secSocketAddress + "]" + " FE=> SimpleQuery(query=\"" + nativeSql + "\")");
+    protocolTrace.frontend("SimpleQuery", nativeSql);
     Encoding encoding = pgStream.getEncoding();
 
     byte[] encoded = encoding.encode(nativeSql);
@@ -2455,7 +2497,8 @@ public class QueryExecutorImpl extends QueryExecutorBase {
   // Periodically (currently, just before query execution), the parsedQueryCleanupQueue
   // is polled. For each enqueued PhantomReference we find, we remove the corresponding
   // entry from parsedQueryMap, obtaining the name of the underlying statement in the
-  // process. Then we send a message to the backend to deallocate that statement.
+  // process. The name is handed to the closeCoalescer, which sends the messages that
+  // deallocate statements along with the following queries, a limited number per query.
   //
 
   private final HashMap<PhantomReference<SimpleQuery>, String> parsedQueryMap =
@@ -2472,17 +2515,81 @@ public class QueryExecutorImpl extends QueryExecutorBase {
             new PhantomReference<SimpleQuery>(query, parsedQueryCleanupQueue);
     parsedQueryMap.put(cleanupRef, statementName);
     query.setCleanupRef(cleanupRef);
+    PrepareStatistics statistics = getPrepareStatistics();
+    if (statistics != null) {
+      statistics.statementPrepared();
+    }
   }
 
-  private void processDeadParsedQueries() throws IOException {
+  private final CloseCoalescer closeCoalescer;
+
+  private final CloseCoalescer.Sender closeSender = new CloseCoalescer.Sender() {
+    @Override
+    public void closeStatement(String statementName) throws IOException {
+      sendCloseStatement(statementName);
+      PrepareStatistics statistics = getPrepareStatistics();
+      if (statistics != null) {
+        statistics.statementsClosed(1);
+      }
+    }
+
+    @Override
+    public void closePortal(String portalName) throws IOException {
+      sendClosePortal(portalName);
+    }
+  };
+
+  private void processDeadParsedQueries() {
     Reference<? extends SimpleQuery> deadQuery;
     while ((deadQuery = parsedQueryCleanupQueue.poll()) != null) {
       String statementName = parsedQueryMap.remove(deadQuery);
-      sendCloseStatement(statementName);
+      closeCoalescer.addStatement(statementName);
       deadQuery.clear();
     }
   }
 
+  /**
+   * Statements of a closed connection are gone on the server without a Close message.
+   */
+  private void releaseParsedQueries() {
+    int count = parsedQueryMap.size() + closeCoalescer.clear();
+    parsedQueryMap.clear();
+    PrepareStatistics statistics = getPrepareStatistics();
+    if (statistics != null && count > 0) {
+      statistics.statementsClosed(count);
+    }
+  }
+
+  @Override
+  public synchronized int getServerStatementCount() {
+    processDeadParsedQueries();
+    return parsedQueryMap.size() + closeCoalescer.getPendingStatementCount();
+  }
+
+  @Override
+  public synchronized int getPendingCloseCount() {
+    processDeadParsedQueries();
+    processDeadPortals();
+    return closeCoalescer.getPendingCount();
+  }
+
+  @Override
+  public synchronized void flushPendingCloses() {
+    closeCoalescer.flushAll();
+  }
+
+  @Override
+  public void close() {
+    releaseParsedQueries();
+    super.close();
+  }
+
+  @Override
+  public void abort() {
+    releaseParsedQueries();
+    super.abort();
+  }
+
   //
   // Essentially the same strategy is used for the cleanup of portals.
   // Note that each Portal holds a reference to the corresponding Query
@@ -2510,11 +2617,11 @@ public class QueryExecutorImpl extends QueryExecutorBase {
     portal.setCleanupRef(cleanupRef);
   }
 
-  private void processDeadPortals() throws IOException {
+  private void processDeadPortals() {
     Reference<? extends Portal> deadPortal;
     while ((deadPortal = openPortalCleanupQueue.poll()) != null) {
       String portalName = openPortalMap.remove(deadPortal);
-      sendClosePortal(portalName);
+      closeCoalescer.addPortal(portalName);
       deadPortal.clear();
     }
   }
@@ -2564,14 +2671,14 @@ public class QueryExecutorImpl extends QueryExecutorBase {
             SimpleQuery parsedQuery = pendingParseQueue.removeFirst();
             String parsedStatementName = parsedQuery.getStatementName();
 
-            LOGGER.trace("[" + secSocketAddress + "]" + " <=BE ParseComplete [" + parsedStatementName + "]");
+            protocolTrace.backend("ParseComplete", parsedStatementName);
 
             break;
 
           case 't': { // ParameterDescription
             pgStream.receiveInteger4(); // len, discarded
 
-            LOGGER.trace("[" + secSocketAddress + "]" + " <=BE ParameterDescription");
+            protocolTrace.backend("ParameterDescription");
 
 
             DescribeRequest describeData = pendingDescribeStatementQueue.getFirst();
@@ -2611,19 +2718,20 @@ public class QueryExecutorImpl extends QueryExecutorBase {
             pgStream.receiveInteger4(); // len, discarded
 
             Portal boundPortal = pendingBindQueue.removeFirst();
-            LOGGER.trace("[" + secSocketAddress + "]" + " <=BE BindComplete [" + boundPortal + "]");
+            protocolTrace.backend("BindComplete",
+                boundPortal == null ? null : boundPortal.getPortalName());
 
             registerOpenPortal(boundPortal);
             break;
 
           case '3': // Close Complete (response to Close)
             pgStream.receiveInteger4(); // len, discarded
-            LOGGER.trace("[" + secSocketAddress + "]" + " <=BE CloseComplete");
+            protocolTrace.backend("CloseComplete");
             break;
 
           case 'n': // No Data (response to Describe)
             pgStream.receiveInteger4(); // len, discarded
-            LOGGER.trace("[" + secSocketAddress + "]" + " <=BE NoData");
+            protocolTrace.backend("NoData");
 
             pendingDescribePortalQueue.removeFirst();
 
@@ -2646,7 +2754,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
             // Must be a SELECT if we suspended, so don't worry about it.
 
             pgStream.receiveInteger4(); // len, discarded
-            LOGGER.trace("[" + secSocketAddress + "]" + " <=BE PortalSuspended");
+            protocolTrace.backend("PortalSuspended");
 
 
             ExecuteRequest executeData = pendingExecuteQueue.removeFirst();
@@ -2763,7 +2871,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
               tuples.add(tuple);
             }
 
-            if (LOGGER.isTraceEnabled()) {
+            if (protocolTrace.isEnabled()) {
               int length;
               if (tuple == null) {
                 length = -1;
@@ -2776,6 +2884,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
                   length += aTuple.length;
                 }
               }
+              protocolTrace.backend("DataRow", length);
             }
 
             break;
@@ -2802,7 +2911,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
           case 'I': { // Empty Query (end of Execute)
             pgStream.receiveInteger4();
 
-            LOGGER.trace(" <=BE EmptyQuery");
+            protocolTrace.backend("EmptyQuery");
 
             ExecuteRequest executeData = pendingExecuteQueue.removeFirst();
             Portal currentPortal = executeData.portal;
@@ -2885,12 +2994,16 @@ public class QueryExecutorImpl extends QueryExecutorBase {
             // described on next execution
             while (!pendingDescribeStatementQueue.isEmpty()) {
               DescribeRequest request = pendingDescribeStatementQueue.removeFirst();
-              LOGGER.trace(" FE marking setStatementDescribed(false) for query " + request.query);
+              if (LOGGER.isTraceEnabled()) {
+                LOGGER.trace(" FE marking setStatementDescribed(false) for query " + request.query);
+              }
               request.query.setStatementDescribed(false);
             }
             while (!pendingDescribePortalQueue.isEmpty()) {
               SimpleQuery describePortalQuery = pendingDescribePortalQueue.removeFirst();
-              LOGGER.trace(" FE marking setPortalDescribed(false) for query " + describePortalQuery);
+              if (LOGGER.isTraceEnabled()) {
+                LOGGER.trace(" FE marking setPortalDescribed(false) for query " + describePortalQuery);
+              }
               describePortalQuery.setPortalDescribed(false);
             }
             pendingBindQueue.clear(); // No more BindComplete messages expected.
@@ -2898,8 +3011,8 @@ public class QueryExecutorImpl extends QueryExecutorBase {
             break;
 
           case 'G': // CopyInResponse
-            LOGGER.trace(" <=BE CopyInResponse");
-            LOGGER.trace(" FE=> CopyFail");
+            protocolTrace.backend("CopyInResponse");
+            protocolTrace.frontend("CopyFail");
 
             // COPY sub-protocol is not implemented yet
             // We'll send a CopyFail message for COPY FROM STDIN so that
@@ -2917,7 +3030,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
             break;
 
           case 'H': // CopyOutResponse
-            LOGGER.trace(" <=BE CopyOutResponse");
+            protocolTrace.backend("CopyOutResponse");
 
             skipMessage();
             // In case of CopyOutResponse, we cannot abort data transfer,
@@ -2929,12 +3042,12 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 
           case 'c': // CopyDone
             skipMessage();
-            LOGGER.trace(" <=BE CopyDone");
+            protocolTrace.backend("CopyDone");
             break;
 
           case 'd': // CopyData
             skipMessage();
-            LOGGER.trace(" <=BE CopyData");
+            protocolTrace.backend("CopyData");
             break;
 
           default:
@@ -2981,6 +3094,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
     try {
       processDeadParsedQueries();
       processDeadPortals();
+      sendPendingCloses();
 
       recordAndSendTrace(0);
       sendExecute(portal.getQuery(), portal, fetchSize);
@@ -3006,9 +3120,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
     int size = pgStream.receiveInteger2();
     Field[] fields = new Field[size];
 
-    if (LOGGER.isTraceEnabled()) {
-      LOGGER.trace("[" + secSocketAddress + "]" + " <=BE RowDescription(" + size + ")");
-    }
+    protocolTrace.backend("RowDescription", size);
     Map<Integer, String> pgTypes =  TypeInfoCache.getPGTypes();
 
     for (int i = 0; i < fields.length; i++) {
@@ -3030,7 +3142,9 @@ public class QueryExecutorImpl extends QueryExecutorBase {
               typeOid, typeLength, typeModifier, tableOid, positionInTable);
       fields[i].setFormat(formatType);
 
-      LOGGER.trace("[" + secSocketAddress + "]" + "  " + fields[i]);
+      if (LOGGER.isTraceEnabled()) {
+        LOGGER.trace("[" + secSocketAddress + "]" + "  " + fields[i]);
+      }
     }
 
     return fields;
@@ -3043,8 +3157,8 @@ public class QueryExecutorImpl extends QueryExecutorBase {
     String param = pgStream.receiveString();
     addNotification(new org.postgresql.core.Notification(msg, pid, param));
 
-    if (LOGGER.isTraceEnabled()) {
-      LOGGER.trace(" <=BE AsyncNotify(" + pid + "," + msg + "," + param + ")");
+    if (protocolTrace.isEnabled()) {
+      protocolTrace.backend("AsyncNotify", pid + "," + msg + "," + param);
     }
   }
 
@@ -3067,8 +3181,8 @@ public class QueryExecutorImpl extends QueryExecutorBase {
         query = pendingExecuteQueue.getFirst().query;
       }
       errorMsg.setErrorQuery(query.getNativeSql());
-      LOGGER.trace(" <=BE ErrorMessage(" + errorMsg.toString() + ")");
     }
+    protocolTrace.backend("ErrorMessage", errorMsg);
 
     PSQLException error = new PSQLException(errorMsg);
     if (transactionFailCause == null) {
@@ -3091,9 +3205,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
     }
     ServerErrorMessage warnMsg = new ServerErrorMessage(message);
 
-    if (LOGGER.isTraceEnabled()) {
-      LOGGER.trace("[" + secSocketAddress + "]" + " <=BE NoticeResponse(" + warnMsg.toString() + ")");
-    }
+    protocolTrace.backend("NoticeResponse", warnMsg);
 
     return new PSQLWarning(warnMsg);
   }
@@ -3106,7 +3218,8 @@ public class QueryExecutorImpl extends QueryExecutorBase {
     // now read and discard the trailing \0
     pgStream.receiveChar(); // Receive(1) would allocate new byte[1], so avoid it
 
-    LOGGER.trace("[" + secSocketAddress + "]" + " <=BE CommandStatus(" + status + ")");
+    protocolTrace.backend("CommandStatus", status);
+    onCommandStatus(status);
 
     return status;
   }
@@ -3136,14 +3249,11 @@ public class QueryExecutorImpl extends QueryExecutorBase {
     int charRecived = pgStream.receiveChar();
     char tStatus = (char) charRecived;
     if (receiveInteger4Value == 6) {
+      // client encryption extra byte code
       int charRecivedExtra = pgStream.receiveChar();
-      if (LOGGER.isDebugEnabled()) {
-        LOGGER.debug("[" + secSocketAddress + "]" + " <=BE ReadyForQuery client encryption extra byte code(" + charRecivedExtra + ")");
-      }
-    }
-
-    if (LOGGER.isDebugEnabled()) {
-      LOGGER.debug("[" + secSocketAddress + "]" + " <=BE ReadyForQuery(" + tStatus + ")");
+      protocolTrace.backend("ReadyForQuery", Character.valueOf(tStatus), charRecivedExtra);
+    } else {
+      protocolTrace.backend("ReadyForQuery", Character.valueOf(tStatus));
     }
 
     // Update connection state.
@@ -3163,6 +3273,9 @@ public class QueryExecutorImpl extends QueryExecutorBase {
         throw new IOException(
                 "unexpected transaction state in ReadyForQuery message: " + (int) tStatus);
     }
+
+    // the connection is idle now; do not keep a receive buffer grown by a large message
+    pgStream.shrinkReceiveBuffer();
   }
 
   protected void sendSupportTrace() throws IOException {
@@ -3197,8 +3310,8 @@ public class QueryExecutorImpl extends QueryExecutorBase {
           int pid = pgStream.receiveInteger4();
           int ckey = pgStream.receiveInteger4();
 
-          if (LOGGER.isTraceEnabled()) {
-            LOGGER.trace("[" + secSocketAddress + "]" + " <=BE BackendKeyData(pid=" + pid + ",ckey=" + ckey + ")");
+          if (protocolTrace.isEnabled()) {
+            protocolTrace.backend("BackendKeyData", "pid=" + pid + ",ckey=" + ckey);
           }
 
           setBackendKeyData(pid, ckey);
@@ -6,6 +6,7 @@
 
 package org.postgresql.core.v3;
 
+import org.postgresql.core.ClientEncoder;
 import org.postgresql.core.Oid;
 import org.postgresql.core.PGStream;
 import org.postgresql.core.ParameterList;
@@ -23,6 +24,7 @@ import org.postgresql.log.Log;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.sql.Struct;
 import java.util.Arrays;
@@ -46,8 +48,10 @@ class SimpleParameterList implements V3ParameterList {
   SimpleParameterList(int paramCount, TypeTransferModeRegistry transferModeRegistry) {
     this.paramLiteralValues = new String[paramCount];
     this.paramValues = new Object[paramCount];
+    this.primitiveValues = new long[paramCount];
     this.paramTypes = new int[paramCount];
     this.encoded = new byte[paramCount][];
+    this.asciiBuffers = new byte[paramCount][];
     this.flags = new byte[paramCount];
     this.transferModeRegistry = transferModeRegistry;
     this.compatibilityModes = new String[paramCount];
@@ -105,6 +109,17 @@ class SimpleParameterList implements V3ParameterList {
     pos = index + 1;
   }
 
+  /**
+   * Binds a binary int2, int4, int8, float4 or float8 value without allocating its wire form. The
+   * value is written straight to the stream by {@link #writeV3Value}; floating point values are
+   * kept as their raw bits.
+   */
+  private void bindPrimitive(int index, long value, int oid) throws SQLException {
+    bind(index, PRIMITIVE_OBJECT, oid, BINARY);
+    primitiveValues[index - 1] = value;
+    paramLiteralValues[index - 1] = null;
+  }
+
   public int getParameterCount() {
     return paramValues.length;
   }
@@ -135,9 +150,23 @@ class SimpleParameterList implements V3ParameterList {
   }
 
   public void setIntParameter(int index, int value) throws SQLException {
-    byte[] data = new byte[4];
-    ByteConverter.int4(data, 0, value);
-    bind(index, data, Oid.INT4, BINARY);
+    bindPrimitive(index, value, Oid.INT4);
+  }
+
+  public void setShortParameter(int index, short value) throws SQLException {
+    bindPrimitive(index, value, Oid.INT2);
+  }
+
+  public void setLongParameter(int index, long value) throws SQLException {
+    bindPrimitive(index, value, Oid.INT8);
+  }
+
+  public void setFloatParameter(int index, float value) throws SQLException {
+    bindPrimitive(index, Float.floatToRawIntBits(value), Oid.FLOAT4);
+  }
+
+  public void setDoubleParameter(int index, double value) throws SQLException {
+    bindPrimitive(index, Double.doubleToRawLongBits(value), Oid.FLOAT8);
   }
 
   public void setLiteralParameter(int index, String value, int oid) throws SQLException {
@@ -150,6 +179,27 @@ class SimpleParameterList implements V3ParameterList {
     saveLiteralValueForClientLogic(index, value);
   }
 
+  public byte[] getAsciiBuffer(int index, int capacity) throws SQLException {
+    if (index < 1 || index > paramValues.length) {
+      throw new PSQLException(
+          GT.tr("The column index is out of range: {0}, number of columns: {1}.",
+              index, paramValues.length),
+          PSQLState.INVALID_PARAMETER_VALUE);
+    }
+    byte[] buffer = asciiBuffers[index - 1];
+    if (buffer == null || buffer.length < capacity) {
+      buffer = new byte[capacity];
+      asciiBuffers[index - 1] = buffer;
+    }
+    return buffer;
+  }
+
+  public void setAsciiParameter(int index, int length, int oid) throws SQLException {
+    bind(index, ASCII_OBJECT, oid, TEXT);
+    primitiveValues[index - 1] = length;
+    paramLiteralValues[index - 1] = null;
+  }
+
   public void setBinaryParameter(int index, byte[] value, int oid) throws SQLException {
     bind(index, value, oid, BINARY);
   }
@@ -311,6 +361,32 @@ class SimpleParameterList implements V3ParameterList {
       return "?";
     } else if (paramValues[index] == NULL_OBJECT) {
       return "(NULL)";
+    } else if (paramValue == PRIMITIVE_OBJECT) {
+      long bits = primitiveValues[index];
+      switch (paramTypes[index]) {
+        case Oid.INT2:
+          return quoteAndCast(Short.toString((short) bits), "int2", standardConformingStrings);
+
+        case Oid.INT4:
+          return quoteAndCast(Integer.toString((int) bits), "int4", standardConformingStrings);
+
+        case Oid.FLOAT4:
+          float f = Float.intBitsToFloat((int) bits);
+          if (Float.isNaN(f)) {
+            return "('NaN'::real)";
+          }
+          return quoteAndCast(Float.toString(f), "float", standardConformingStrings);
+
+        case Oid.FLOAT8:
+          double d = Double.longBitsToDouble(bits);
+          if (Double.isNaN(d)) {
+            return "('NaN'::double precision)";
+          }
+          return quoteAndCast(Double.toString(d), "double precision", standardConformingStrings);
+
+        default:
+          return quoteAndCast(Long.toString(bits), "int8", standardConformingStrings);
+      }
     } else if ((flags[index] & BINARY) == BINARY) {
       // handle some of the numeric types
 
@@ -369,7 +445,7 @@ class SimpleParameterList implements V3ParameterList {
       Struct struct = (Struct) paramValues[index];
       return struct.toString();
     } else {
-      String param = paramValue.toString();
+      String param = paramValue == ASCII_OBJECT ? asciiToString(index) : paramValue.toString();
       int paramType = paramTypes[index];
       if (direction(index) == 1 | direction(index) == 3) {
         if (paramType == Oid.TIMESTAMP) {
@@ -501,7 +577,7 @@ class SimpleParameterList implements V3ParameterList {
     return (byte) (flags[index] & INOUT);
   }
 
-  int getV3Length(int index, String clientEncoding) {
+  int getV3Length(int index, ClientEncoder clientEncoder) {
     --index;
 
     // Null?
@@ -509,6 +585,11 @@ class SimpleParameterList implements V3ParameterList {
       throw new IllegalArgumentException("can't getV3Length() on a null parameter");
     }
 
+    // Primitive value?
+    if (paramValues[index] == PRIMITIVE_OBJECT) {
+      return primitiveLength(paramTypes[index]);
+    }
+
     // Directly encoded?
     if (paramValues[index] instanceof byte[]) {
       return ((byte[]) paramValues[index]).length;
@@ -519,23 +600,29 @@ class SimpleParameterList implements V3ParameterList {
       return ((StreamWrapper) paramValues[index]).getLength();
     }
 
-    // java.sql.Struct encoded?
-    if (paramValues[index] instanceof Struct) {
-      Struct struct = (Struct) paramValues[index];
-      String value = struct.toString();
-      return Utils.encodeUTF8(value, clientEncoding).length;
+    // Pre-formatted ASCII text?
+    if (paramValues[index] == ASCII_OBJECT) {
+      return (int) primitiveValues[index];
     }
 
     // Already encoded?
-    if (encoded[index] == null) {
-      // Encode value and compute actual length using UTF-8.
-      encoded[index] = Utils.encodeUTF8(paramValues[index].toString(), clientEncoding);
+    if (encoded[index] != null) {
+      return encoded[index].length;
     }
 
-    return encoded[index].length;
+    // java.sql.Struct, or a String that needs the charset encoder: encode it once and keep it for
+    // writeV3Value
+    String str = paramValues[index].toString();
+    if (paramValues[index] instanceof Struct || !clientEncoder.isDirect(str)) {
+      encoded[index] = clientEncoder.encode(str);
+      return encoded[index].length;
+    }
+
+    // String, measured without encoding it
+    return clientEncoder.length(str);
   }
 
-  void writeV3Value(int index, PGStream pgStream, String clientEncoding) throws IOException {
+  void writeV3Value(int index, PGStream pgStream, ClientEncoder clientEncoder) throws IOException {
     --index;
 
     // Null?
@@ -543,6 +630,24 @@ class SimpleParameterList implements V3ParameterList {
       throw new IllegalArgumentException("can't writeV3Value() on a null parameter");
     }
 
+    // Primitive value?
+    if (paramValues[index] == PRIMITIVE_OBJECT) {
+      long bits = primitiveValues[index];
+      switch (primitiveLength(paramTypes[index])) {
+        case 2:
+          pgStream.sendChar((int) (bits >>> 8) & 0xFF);
+          pgStream.sendChar((int) bits & 0xFF);
+          break;
+        case 4:
+          pgStream.sendInteger4((int) bits);
+          break;
+        default:
+          pgStream.sendLong(bits);
+          break;
+      }
+      return;
+    }
+
     // Directly encoded?
     if (paramValues[index] instanceof byte[]) {
       pgStream.send((byte[]) paramValues[index]);
@@ -555,28 +660,75 @@ class SimpleParameterList implements V3ParameterList {
       return;
     }
 
+    // Pre-formatted ASCII text?
+    if (paramValues[index] == ASCII_OBJECT) {
+      pgStream.send(asciiBuffers[index], 0, (int) primitiveValues[index]);
+      return;
+    }
+
+    // Already encoded by getV3Length?
+    if (encoded[index] != null) {
+      pgStream.send(encoded[index]);
+      return;
+    }
+
     // java.sql.Struct encoded?
     if (paramValues[index] instanceof Struct) {
-      Struct struct = (Struct) paramValues[index];
-      String value = struct.toString();
-      pgStream.send(Utils.encodeUTF8(value, clientEncoding));
+      encoded[index] = clientEncoder.encode(paramValues[index].toString());
+      pgStream.send(encoded[index]);
       return;
     }
 
-    // Encoded string.
-    if (encoded[index] == null) {
-      encoded[index] = Utils.encodeUTF8((String) paramValues[index], clientEncoding);
-    }
-    pgStream.send(encoded[index]);
+    // String, encoded straight into the stream
+    clientEncoder.write(paramValues[index].toString(), pgStream);
   }
 
+  /**
+   * Wire length of a primitive value. An int4 value whose parameter type was widened to int8
+   * afterwards is sent as int8.
+   */
+  private static int primitiveLength(int oid) {
+    switch (oid) {
+      case Oid.INT2:
+        return 2;
+      case Oid.INT4:
+      case Oid.FLOAT4:
+        return 4;
+      default:
+        return 8;
+    }
+  }
+
+  private byte[] primitiveToBytes(int index) {
+    long bits = primitiveValues[index];
+    byte[] data = new byte[primitiveLength(paramTypes[index])];
+    switch (data.length) {
+      case 2:
+        ByteConverter.int2(data, 0, (int) bits);
+        break;
+      case 4:
+        ByteConverter.int4(data, 0, (int) bits);
+        break;
+      default:
+        ByteConverter.int8(data, 0, bits);
+        break;
+    }
+    return data;
+  }
 
   public ParameterList copy() {
     SimpleParameterList newCopy = new SimpleParameterList(paramValues.length, transferModeRegistry);
     System.arraycopy(paramLiteralValues, 0, newCopy.paramLiteralValues, 0, paramLiteralValues.length);
     System.arraycopy(paramValues, 0, newCopy.paramValues, 0, paramValues.length);
+    System.arraycopy(primitiveValues, 0, newCopy.primitiveValues, 0, primitiveValues.length);
     System.arraycopy(paramTypes, 0, newCopy.paramTypes, 0, paramTypes.length);
     System.arraycopy(flags, 0, newCopy.flags, 0, flags.length);
+    // the ASCII buffers are reused by the next values bound to this list
+    for (int i = 0; i < paramValues.length; i++) {
+      if (paramValues[i] == ASCII_OBJECT) {
+        newCopy.asciiBuffers[i] = Arrays.copyOf(asciiBuffers[i], (int) primitiveValues[i]);
+      }
+    }
     newCopy.pos = pos;
     return newCopy;
   }
@@ -594,7 +746,16 @@ class SimpleParameterList implements V3ParameterList {
   }
 
   public Object[] getValues() {
-    return paramValues;
+    Object[] values = paramValues;
+    for (int i = 0; i < paramValues.length; i++) {
+      if (paramValues[i] == PRIMITIVE_OBJECT || paramValues[i] == ASCII_OBJECT) {
+        if (values == paramValues) {
+          values = paramValues.clone();
+        }
+        values[i] = paramValues[i] == ASCII_OBJECT ? asciiToString(i) : primitiveToBytes(i);
+      }
+    }
+    return values;
   }
 
   public int[] getParamTypes() {
@@ -622,10 +783,17 @@ class SimpleParameterList implements V3ParameterList {
               (pos + inParamCount), paramValues.length),
               PSQLState.INVALID_PARAMETER_VALUE);
       }
-      System.arraycopy(spl.getValues(), 0, this.paramValues, pos, inParamCount);
+      System.arraycopy(spl.paramValues, 0, this.paramValues, pos, inParamCount);
+      System.arraycopy(spl.primitiveValues, 0, this.primitiveValues, pos, inParamCount);
       System.arraycopy(spl.getParamTypes(), 0, this.paramTypes, pos, inParamCount);
       System.arraycopy(spl.getFlags(), 0, this.flags, pos, inParamCount);
       System.arraycopy(spl.getEncoding(), 0, this.encoded, pos, inParamCount);
+      for (int i = 0; i < inParamCount; i++) {
+        if (spl.paramValues[i] == ASCII_OBJECT) {
+          int length = (int) spl.primitiveValues[i];
+          System.arraycopy(spl.asciiBuffers[i], 0, getAsciiBuffer(pos + i + 1, length), 0, length);
+        }
+      }
       pos += inParamCount;
     }
   }
@@ -649,19 +817,37 @@ class SimpleParameterList implements V3ParameterList {
 
   private final String[] paramLiteralValues;
   private final Object[] paramValues;
+  private final long[] primitiveValues;
   private final int[] paramTypes;
   private final byte[] flags;
   private final byte[][] encoded;
+  private final byte[][] asciiBuffers;
   private final TypeTransferModeRegistry transferModeRegistry;
   private final boolean[] isACompatibilityFunctions;
   private final String[] compatibilityModes;
 
+  private String asciiToString(int index) {
+    return new String(asciiBuffers[index], 0, (int) primitiveValues[index],
+        StandardCharsets.ISO_8859_1);
+  }
+
   /**
    * Marker object representing NULL; this distinguishes "parameter never set" from "parameter set
    * to null".
    */
   private static final Object NULL_OBJECT = new Object();
 
+  /**
+   * Marker object for a value held in {@link #primitiveValues}.
+   */
+  private static final Object PRIMITIVE_OBJECT = new Object();
+
+  /**
+   * Marker object for a text value formatted into {@link #asciiBuffers}, its length is held in
+   * {@link #primitiveValues}.
+   */
+  private static final Object ASCII_OBJECT = new Object();
+
   private int pos = 0;
 
     @Override
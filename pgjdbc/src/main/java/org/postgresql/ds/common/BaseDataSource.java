@@ -297,6 +297,120 @@ public abstract class BaseDataSource implements CommonDataSource, Referenceable
     PGProperty.CONNECT_TIMEOUT.set(properties, connectTimeout);
   }
 
+  /**
+   * @return read load balance policy of statement load balancing
+   * @see PGProperty#READ_LOAD_BALANCE_POLICY
+   */
+  public String getReadLoadBalancePolicy() {
+    return PGProperty.READ_LOAD_BALANCE_POLICY.get(properties);
+  }
+
+  /**
+   * @param policy read load balance policy of statement load balancing
+   * @see PGProperty#READ_LOAD_BALANCE_POLICY
+   */
+  public void setReadLoadBalancePolicy(String policy) {
+    PGProperty.READ_LOAD_BALANCE_POLICY.set(properties, policy);
+  }
+
+  /**
+   * @return maximum replay lag of a read replica in milliseconds
+   * @see PGProperty#MAX_REPLICA_LAG
+   */
+  public int getMaxReplicaLag() {
+    return PGProperty.MAX_REPLICA_LAG.getIntNoCheck(properties);
+  }
+
+  /**
+   * @param maxReplicaLag maximum replay lag of a read replica in milliseconds
+   * @see PGProperty#MAX_REPLICA_LAG
+   */
+  public void setMaxReplicaLag(int maxReplicaLag) {
+    PGProperty.MAX_REPLICA_LAG.set(properties, maxReplicaLag);
+  }
+
+  /**
+   * @return true if reads after a write are routed to replicas that replayed the write
+   * @see PGProperty#READ_YOUR_WRITES
+   */
+  public boolean getReadYourWrites() {
+    return PGProperty.READ_YOUR_WRITES.getBoolean(properties);
+  }
+
+  /**
+   * @param readYourWrites route reads after a write to replicas that replayed the write
+   * @see PGProperty#READ_YOUR_WRITES
+   */
+  public void setReadYourWrites(boolean readYourWrites) {
+    PGProperty.READ_YOUR_WRITES.set(properties, readYourWrites);
+  }
+
+  /**
+   * @return maximum number of idle physical connections per host reused by read write splitting
+   *     connections
+   * @see PGProperty#ROUTED_CONNECTION_POOL_SIZE
+   */
+  public int getRoutedConnectionPoolSize() {
+    return PGProperty.ROUTED_CONNECTION_POOL_SIZE.getIntNoCheck(properties);
+  }
+
+  /**
+   * @param routedConnectionPoolSize maximum number of idle physical connections per host reused by
+   *     read write splitting connections
+   * @see PGProperty#ROUTED_CONNECTION_POOL_SIZE
+   */
+  public void setRoutedConnectionPoolSize(int routedConnectionPoolSize) {
+    PGProperty.ROUTED_CONNECTION_POOL_SIZE.set(properties, routedConnectionPoolSize);
+  }
+
+  /**
+   * @return true if repeated short ASCII column values share one String instance
+   * @see PGProperty#DEDUPLICATE_STRINGS
+   */
+  public boolean getDeduplicateStrings() {
+    return PGProperty.DEDUPLICATE_STRINGS.getBoolean(properties);
+  }
+
+  /**
+   * @param deduplicateStrings share one String instance between repeated short ASCII column values
+   * @see PGProperty#DEDUPLICATE_STRINGS
+   */
+  public void setDeduplicateStrings(boolean deduplicateStrings) {
+    PGProperty.DEDUPLICATE_STRINGS.set(properties, deduplicateStrings);
+  }
+
+  /**
+   * @return maximum number of hosts connected to at the same time
+   * @see PGProperty#PARALLEL_CONNECT_ATTEMPTS
+   */
+  public int getParallelConnectAttempts() {
+    return PGProperty.PARALLEL_CONNECT_ATTEMPTS.getIntNoCheck(properties);
+  }
+
+  /**
+   * @param parallelConnectAttempts maximum number of hosts connected to at the same time
+   * @see PGProperty#PARALLEL_CONNECT_ATTEMPTS
+   */
+  public void setParallelConnectAttempts(int parallelConnectAttempts) {
+    PGProperty.PARALLEL_CONNECT_ATTEMPTS.set(properties, parallelConnectAttempts);
+  }
+
+  /**
+   * @return delay in milliseconds before the next host is tried in parallel
+   * @see PGProperty#PARALLEL_CONNECT_DELAY
+   */
+  public int getParallelConnectDelay() {
+    return PGProperty.PARALLEL_CONNECT_DELAY.getIntNoCheck(properties);
+  }
+
+  /**
+   * @param parallelConnectDelay delay in milliseconds before the next host is tried in parallel
+   * @see PGProperty#PARALLEL_CONNECT_DELAY
+   */
+  public void setParallelConnectDelay(int parallelConnectDelay) {
+    PGProperty.PARALLEL_CONNECT_DELAY.set(properties, parallelConnectDelay);
+  }
+
   /**
    * @return protocol version
    * @see PGProperty#PROTOCOL_VERSION
@@ -369,6 +483,54 @@ public abstract class BaseDataSource implements CommonDataSource, Referenceable
     PGProperty.SEND_BUFFER_SIZE.set(properties, nbytes);
   }
 
+  /**
+   * @return true if the CT connection stream uses a socket channel
+   * @see PGProperty#SOCKET_CHANNEL
+   */
+  public boolean getSocketChannel() {
+    return PGProperty.SOCKET_CHANNEL.getBoolean(properties);
+  }
+
+  /**
+   * @param socketChannel true to use a socket channel for the CT connection stream
+   * @see PGProperty#SOCKET_CHANNEL
+   */
+  public void setSocketChannel(boolean socketChannel) {
+    PGProperty.SOCKET_CHANNEL.set(properties, socketChannel);
+  }
+
+  /**
+   * @return initial io buffer size
+   * @see PGProperty#IO_BUFFER_SIZE
+   */
+  public int getIoBufferSize() {
+    return PGProperty.IO_BUFFER_SIZE.getIntNoCheck(properties);
+  }
+
+  /**
+   * @param nbytes initial io buffer size
+   * @see PGProperty#IO_BUFFER_SIZE
+   */
+  public void setIoBufferSize(int nbytes) {
+    PGProperty.IO_BUFFER_SIZE.set(properties, nbytes);
+  }
+
+  /**
+   * @return maximum io buffer size
+   * @see PGProperty#MAX_IO_BUFFER_SIZE
+   */
+  public int getMaxIoBufferSize() {
+    return PGProperty.MAX_IO_BUFFER_SIZE.getIntNoCheck(properties);
+  }
+
+  /**
+   * @param nbytes maximum io buffer size
+   * @see PGProperty#MAX_IO_BUFFER_SIZE
+   */
+  public void setMaxIoBufferSize(int nbytes) {
+    PGProperty.MAX_IO_BUFFER_SIZE.set(properties, nbytes);
+  }
+
   /**
    * @param count prepare threshold
    * @see PGProperty#PREPARE_THRESHOLD
@@ -401,6 +563,71 @@ public abstract class BaseDataSource implements CommonDataSource, Referenceable
     PGProperty.PREPARED_STATEMENT_CACHE_QUERIES.set(properties, cacheSize);
   }
 
+  /**
+   * @return true if parsed SQL and type metadata are shared among connections
+   * @see PGProperty#SHARED_METADATA_CACHE
+   */
+  public boolean getSharedMetadataCache() {
+    return PGProperty.SHARED_METADATA_CACHE.getBoolean(properties);
+  }
+
+  /**
+   * @param shared true to share parsed SQL and type metadata among connections
+   * @see PGProperty#SHARED_METADATA_CACHE
+   */
+  public void setSharedMetadataCache(boolean shared) {
+    PGProperty.SHARED_METADATA_CACHE.set(properties, shared);
+  }
+
+  /**
+   * @return true if statement execution counts are shared among connections
+   * @see PGProperty#ADAPTIVE_PREPARE
+   */
+  public boolean getAdaptivePrepare() {
+    return PGProperty.ADAPTIVE_PREPARE.getBoolean(properties);
+  }
+
+  /**
+   * @param adaptivePrepare true to share statement execution counts among connections
+   * @see PGProperty#ADAPTIVE_PREPARE
+   */
+  public void setAdaptivePrepare(boolean adaptivePrepare) {
+    PGProperty.ADAPTIVE_PREPARE.set(properties, adaptivePrepare);
+  }
+
+  /**
+   * @return maximum number of Close messages sent along with one query
+   * @see PGProperty#CLOSE_BUDGET
+   */
+  public int getCloseBudget() {
+    return PGProperty.CLOSE_BUDGET.getIntNoCheck(properties);
+  }
+
+  /**
+   * @param closeBudget maximum number of Close messages sent along with one query, 0 for no limit
+   * @see PGProperty#CLOSE_BUDGET
+   */
+  public void setCloseBudget(int closeBudget) {
+    PGProperty.CLOSE_BUDGET.set(properties, closeBudget);
+  }
+
+  /**
+   * @return number of most recent protocol messages kept per connection
+   * @see PGProperty#PROTOCOL_TRACE_CAPTURE
+   */
+  public int getProtocolTraceCapture() {
+    return PGProperty.PROTOCOL_TRACE_CAPTURE.getIntNoCheck(properties);
+  }
+
+  /**
+   * @param protocolTraceCapture number of most recent protocol messages kept per connection, 0 to
+   *     disable
+   * @see PGProperty#PROTOCOL_TRACE_CAPTURE
+   */
+  public void setProtocolTraceCapture(int protocolTraceCapture) {
+    PGProperty.PROTOCOL_TRACE_CAPTURE.set(properties, protocolTraceCapture);
+  }
+
   /**
    * @return prepared statement cache size (number of megabytes per connection)
    * @see PGProperty#PREPARED_STATEMENT_CACHE_SIZE_MIB
@@ -843,6 +1070,22 @@ public abstract class BaseDataSource implements CommonDataSource, Referenceable
     return PGProperty.BINARY_TRANSFER.getBoolean(properties);
   }
 
+  /**
+   * @param enabled if common result types of prepared statements should be received in binary
+   * @see PGProperty#BINARY_TRANSFER_ADAPTIVE
+   */
+  public void setBinaryTransferAdaptive(boolean enabled) {
+    PGProperty.BINARY_TRANSFER_ADAPTIVE.set(properties, enabled);
+  }
+
+  /**
+   * @return true if common result types of prepared statements are received in binary
+   * @see PGProperty#BINARY_TRANSFER_ADAPTIVE
+   */
+  public boolean getBinaryTransferAdaptive() {
+    return PGProperty.BINARY_TRANSFER_ADAPTIVE.getBoolean(properties);
+  }
+
   /**
    * @param oidList list of OIDs that are allowed to use binary transfer
    * @see PGProperty#BINARY_TRANSFER_ENABLE
@@ -1463,6 +1706,22 @@ public abstract class BaseDataSource implements CommonDataSource, Referenceable
     PGProperty.REWRITE_BATCHED_INSERTS.set(properties, reWrite);
   }
 
+  /**
+   * @see PGProperty#REWRITE_BATCHED_INSERTS_SIZE
+   * @return maximum number of rows in one rewritten insert
+   */
+  public int getReWriteBatchedInsertsSize() {
+    return PGProperty.REWRITE_BATCHED_INSERTS_SIZE.getIntNoCheck(properties);
+  }
+
+  /**
+   * @see PGProperty#REWRITE_BATCHED_INSERTS_SIZE
+   * @param reWriteBatchedInsertsSize maximum number of rows in one rewritten insert
+   */
+  public void setReWriteBatchedInsertsSize(int reWriteBatchedInsertsSize) {
+    PGProperty.REWRITE_BATCHED_INSERTS_SIZE.set(properties, reWriteBatchedInsertsSize);
+  }
+
   public boolean isCleanupSavePoints() {
     return getCleanupSavepoints();
   }
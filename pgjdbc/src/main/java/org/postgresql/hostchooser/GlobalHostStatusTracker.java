@@ -12,6 +12,8 @@ import org.postgresql.PGProperty;
 import org.postgresql.util.HostSpec;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Keeps track of HostSpec targets in a global map.
@@ -19,6 +21,13 @@ import java.util.*;
 public class GlobalHostStatusTracker {
   private static final Map<HostSpec, HostSpecStatus> hostStatusMap =
           new HashMap<HostSpec, HostSpecStatus>();
+  private static final ConcurrentMap<HostSpec, HostConnectStats> hostStatsMap =
+          new ConcurrentHashMap<HostSpec, HostConnectStats>();
+
+  // weight of the newest connect attempt in the moving averages
+  private static final double DECAY = 0.2;
+  // share of the best weight that a slow or failing host keeps, so it is still tried now and then
+  private static final double MIN_WEIGHT_SHARE = 0.02;
 
   /**
    * Store the actual observed host status.
@@ -46,6 +55,53 @@ public class GlobalHostStatusTracker {
     }
   }
 
+  /**
+   * Store the duration and outcome of a connection attempt, used by weighted load balancing.
+   *
+   * @param hostSpec     The host that was connected to.
+   * @param connectNanos Time taken by the attempt in nanoseconds.
+   * @param isFailed     Whether the attempt failed.
+   */
+  public static void reportConnectTime(HostSpec hostSpec, long connectNanos, boolean isFailed) {
+    HostConnectStats stats = hostStatsMap.get(hostSpec);
+    if (stats == null) {
+      HostConnectStats created = new HostConnectStats();
+      stats = hostStatsMap.putIfAbsent(hostSpec, created);
+      if (stats == null) {
+        stats = created;
+      }
+    }
+    stats.update(connectNanos / 1000000.0, isFailed);
+  }
+
+  /**
+   * Computes the load balancing weight of each host from the observed connect time and error
+   * rate. Hosts without a successful connect get the best known weight reduced by their error
+   * rate, so new hosts are tried early.
+   *
+   * @param hosts   The hosts to weigh.
+   * @param weights Receives the weight of each host, at least as long as {@code hosts}.
+   */
+  static void getWeights(List<HostSpec> hosts, double[] weights) {
+    double best = 0;
+    for (int i = 0; i < hosts.size(); i++) {
+      HostConnectStats stats = hostStatsMap.get(hosts.get(i));
+      weights[i] = stats == null ? -1 : stats.weight();
+      best = Math.max(best, weights[i]);
+    }
+    if (best == 0) {
+      best = 1;
+    }
+    for (int i = 0; i < hosts.size(); i++) {
+      if (weights[i] < 0) {
+        HostConnectStats stats = hostStatsMap.get(hosts.get(i));
+        double health = stats == null ? 1 : stats.health();
+        weights[i] = best * health * health;
+      }
+      weights[i] = Math.max(weights[i], best * MIN_WEIGHT_SHARE);
+    }
+  }
+
   /**
    * To observe whether the status changes from standby to master
    *
@@ -87,6 +143,34 @@ public class GlobalHostStatusTracker {
     return candidates;
   }
 
+  /**
+   * Moving averages of the connect time and error rate of one host.
+   */
+  static class HostConnectStats {
+    private double connectMillis = -1;
+    private double errorRate;
+
+    synchronized void update(double millis, boolean isFailed) {
+      errorRate += DECAY * ((isFailed ? 1 : 0) - errorRate);
+      if (!isFailed) {
+        connectMillis = connectMillis < 0 ? millis : connectMillis + DECAY * (millis - connectMillis);
+      }
+    }
+
+    synchronized double health() {
+      return 1 - errorRate;
+    }
+
+    // -1 until the host has been connected to successfully
+    synchronized double weight() {
+      if (connectMillis < 0) {
+        return -1;
+      }
+      double health = 1 - errorRate;
+      return health * health / (connectMillis + 1);
+    }
+  }
+
   static class HostSpecStatus {
     final HostSpec host;
     HostStatus status;
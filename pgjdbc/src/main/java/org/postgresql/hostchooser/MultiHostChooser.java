@@ -20,12 +20,15 @@ import org.postgresql.util.PSQLException;
 import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Properties;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
@@ -44,10 +47,11 @@ public class MultiHostChooser implements HostChooser {
   private static final int MAX_CONNECT_NUM = 1 << 30;
 
   private enum LoadBalanceType {
-    Shuffle, RoundRobin, PriorityRoundRobin, LeastConn, ShufflePriority, NONE
+    Shuffle, RoundRobin, PriorityRoundRobin, LeastConn, ShufflePriority, Weighted, NONE
   }
 
-  private static Map<String, Integer> roundRobinCounter = new HashMap<>();
+  private static final ConcurrentMap<String, AtomicInteger> roundRobinCounter =
+      new ConcurrentHashMap<String, AtomicInteger>();
 
 
   MultiHostChooser(HostSpec[] hostSpecs, HostRequirement targetServerType,
@@ -74,6 +78,8 @@ public class MultiHostChooser implements HostChooser {
       return LoadBalanceType.PriorityRoundRobin;
     if (autoBalance.equals("leastconn"))
       return LoadBalanceType.LeastConn;
+    if (autoBalance.equals("weighted"))
+      return LoadBalanceType.Weighted;
     if (PGProperty.LOAD_BALANCE_HOSTS.getBoolean(info) || autoBalance.equals("shuffle"))
       return LoadBalanceType.Shuffle;
     if (autoBalance.contains("shufflePriority")) {
@@ -108,6 +114,9 @@ public class MultiHostChooser implements HostChooser {
       case ShufflePriority:
         allHosts = shufflePriority(allHosts);
         break;
+      case Weighted:
+        allHosts = weighted(allHosts);
+        break;
       default:
         isOutPutLog = false;
         break;
@@ -122,14 +131,18 @@ public class MultiHostChooser implements HostChooser {
   }
   
   // Returns a counter and increments it by one.
-  // Because it is possible to use it in multiple instances,  use synchronized (MultiHostChooser.class).
+  // The counter is shared by all instances for the same URL, so it is an atomic in a concurrent map.
   private int getRRIndex() {
-    synchronized (roundRobinCounter) {
-      int value = roundRobinCounter.getOrDefault(URLIdentifier, 0);
-      value = (value + 1) % MAX_CONNECT_NUM;
-      roundRobinCounter.put(URLIdentifier, value);
-      return value;
+    AtomicInteger counter = roundRobinCounter.get(URLIdentifier);
+    if (counter == null) {
+      AtomicInteger created = new AtomicInteger();
+      counter = roundRobinCounter.putIfAbsent(URLIdentifier, created);
+      if (counter == null) {
+        counter = created;
+      }
     }
+    // MAX_CONNECT_NUM is a power of two, masking keeps the index positive after overflow
+    return counter.incrementAndGet() & (MAX_CONNECT_NUM - 1);
   }
 
   /*
@@ -141,14 +154,36 @@ public class MultiHostChooser implements HostChooser {
     if (hostSpecs.size() <= 1) {
       return hostSpecs;
     }
-    int index = getRRIndex() % hostSpecs.size();
-    List<HostSpec> result = new ArrayList<HostSpec>(hostSpecs.size());
-    for (int i = 0; i < hostSpecs.size(); i++) {
-      int primitiveIndex = (index + i) % hostSpecs.size();
-      result.add(hostSpecs.get(primitiveIndex));
+    return new RotatedHostList(hostSpecs, getRRIndex() % hostSpecs.size());
+  }
+
+  /*
+   * Weighted random order, hosts that connect faster and fail less often are more likely to come
+   * first. Uses the connect times and errors collected by GlobalHostStatusTracker.
+   */
+  private List<HostSpec> weighted(List<HostSpec> hostSpecs) {
+    int size = hostSpecs.size();
+    double[] keys = new double[size];
+    GlobalHostStatusTracker.getWeights(hostSpecs, keys);
+    // Efraimidis-Spirakis: sorting by log(u) / weight gives a weighted random permutation
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    HostSpec[] result = hostSpecs.toArray(new HostSpec[size]);
+    for (int i = 0; i < size; i++) {
+      keys[i] = Math.log(1 - random.nextDouble()) / keys[i];
+    }
+    for (int i = 1; i < size; i++) {
+      HostSpec host = result[i];
+      double key = keys[i];
+      int j = i - 1;
+      while (j >= 0 && keys[j] < key) {
+        result[j + 1] = result[j];
+        keys[j + 1] = keys[j];
+        j--;
+      }
+      result[j + 1] = host;
+      keys[j + 1] = key;
     }
-    Collections.shuffle(result.subList(1, result.size()));
-    return result;
+    return Arrays.asList(result);
   }
   
   private List<HostSpec> leastConn(List<HostSpec> hostSpecs) {
@@ -184,7 +219,7 @@ public class MultiHostChooser implements HostChooser {
     List<HostSpec> priorityURLHostSpecs = getSurvivalPriorityURLHostSpecs(hostSpecs, urlHostSpecs, priorityCNNumber);
     List<HostSpec> nonPriorityHostSpecs = getNonPriorityHostSpecs(hostSpecs, priorityURLHostSpecs);
     if (priorityURLHostSpecs.size() > 0) {
-      List<HostSpec> resultHostSpecs = roundRobin(priorityURLHostSpecs);
+      List<HostSpec> resultHostSpecs = new ArrayList<>(roundRobin(priorityURLHostSpecs));
       shuffle(nonPriorityHostSpecs);
       resultHostSpecs.addAll(nonPriorityHostSpecs);
       return resultHostSpecs;
@@ -290,7 +325,8 @@ public class MultiHostChooser implements HostChooser {
   public static boolean isUsingAutoLoadBalance(Properties props) {
     String autoBalance = props.getProperty("autoBalance", "false");
     if (autoBalance.equals("shuffle") || autoBalance.equals("roundrobin") || autoBalance.contains("priority") ||
-            autoBalance.equals("leastconn") || autoBalance.equals("true") || autoBalance.equals("balance")) {
+            autoBalance.equals("leastconn") || autoBalance.equals("true") || autoBalance.equals("balance") ||
+            autoBalance.equals("weighted")) {
       return true;
     }
     return false;
@@ -372,6 +408,59 @@ public class MultiHostChooser implements HostChooser {
     };
   }
 
+  /**
+   * Hosts in round robin order without copying them: the host at the counter position comes first,
+   * the others follow in a random order, stepping through them with a random offset and a random
+   * stride coprime to their count. The second host, which takes over when the first one fails, is
+   * uniformly distributed over the others.
+   */
+  private static final class RotatedHostList extends AbstractList<HostSpec> {
+    private final List<HostSpec> hosts;
+    private final int first;
+    private final int offset;
+    private final int stride;
+
+    RotatedHostList(List<HostSpec> hosts, int first) {
+      this.hosts = hosts;
+      this.first = first;
+      int rest = hosts.size() - 1;
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      this.offset = random.nextInt(rest);
+      int step = 1 + random.nextInt(rest);
+      while (gcd(step, rest) != 1) {
+        step = step % rest + 1;
+      }
+      this.stride = step;
+    }
+
+    private static int gcd(int a, int b) {
+      while (b != 0) {
+        int t = a % b;
+        a = b;
+        b = t;
+      }
+      return a;
+    }
+
+    @Override
+    public HostSpec get(int index) {
+      int size = hosts.size();
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+      }
+      if (index == 0) {
+        return hosts.get(first);
+      }
+      int rest = (int) ((offset + (long) (index - 1) * stride) % (size - 1));
+      return hosts.get((first + 1 + rest) % size);
+    }
+
+    @Override
+    public int size() {
+      return hosts.size();
+    }
+  }
+
   private <T> List<T> rtrim(final int size, final List<T> a) {
     return new AbstractList<T>() {
       @Override
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.jdbc;
+
+import org.postgresql.core.Encoding;
+
+import java.io.IOException;
+
+/**
+ * Decodes the values of one result set column and hands out the same String instance for repeated
+ * short ASCII values, as found in status codes, country codes and other enum like columns. The
+ * cache is direct mapped and bounded: a value whose slot is taken by another value replaces it.
+ */
+final class ColumnStringCache {
+  /**
+   * Longest value in bytes that is cached.
+   */
+  static final int MAX_LENGTH = 32;
+
+  /**
+   * Number of slots, a power of two.
+   */
+  private static final int SIZE = 256;
+
+  private final String[] values = new String[SIZE];
+
+  /**
+   * Decode a column value, reusing a cached String if the value was seen before.
+   *
+   * @param bytes the encoded value
+   * @param encoding the connection encoding, must be ASCII compatible
+   * @return the decoded value
+   * @throws IOException if the value cannot be decoded
+   */
+  String decode(byte[] bytes, Encoding encoding) throws IOException {
+    if (bytes.length > MAX_LENGTH) {
+      return encoding.decode(bytes);
+    }
+    int hash = 0;
+    for (byte b : bytes) {
+      if (b < 0) {
+        return encoding.decode(bytes);
+      }
+      hash = 31 * hash + b;
+    }
+    // the same as String.hashCode() of the decoded ASCII value
+    int slot = (hash ^ (hash >>> 16)) & (SIZE - 1);
+    String cached = values[slot];
+    if (cached != null && matches(cached, bytes)) {
+      return cached;
+    }
+    String value = encoding.decode(bytes);
+    values[slot] = value;
+    return value;
+  }
+
+  private static boolean matches(String value, byte[] bytes) {
+    if (value.length() != bytes.length) {
+      return false;
+    }
+    for (int i = 0; i < bytes.length; i++) {
+      if (value.charAt(i) != bytes[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
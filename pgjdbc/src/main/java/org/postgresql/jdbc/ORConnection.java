@@ -57,12 +57,17 @@ import java.util.concurrent.Executor;
  * @since  2025-06-29
  */
 public class ORConnection implements ORBaseConnection {
+    private static final long DEFAULT_PREFETCH_MEMORY = 16L * 1024 * 1024;
+
     private final TimestampUtils timestampUtils;
     private ORQueryExecutor queryExecutor;
     private ORStream orStream;
     private Properties properties;
     private boolean isAutoCommit = true;
     private int fetchSize = -1;
+    private boolean isPrefetch;
+    private long prefetchMemory = DEFAULT_PREFETCH_MEMORY;
+    private long prefetchedBytes;
     private boolean isSsl;
     private String enabledCipherSuites;
     private boolean isOnlySSL;
@@ -88,6 +93,14 @@ public class ORConnection implements ORBaseConnection {
         } catch (NumberFormatException e) {
             throw new SQLException("fetchsize value error: " + e.getMessage());
         }
+        this.isPrefetch = Boolean.valueOf(info.getProperty("prefetch", "false"));
+        try {
+            if (info.getProperty("prefetchMemory") != null) {
+                prefetchMemory = Long.parseLong(info.getProperty("prefetchMemory"));
+            }
+        } catch (NumberFormatException e) {
+            throw new SQLException("prefetchMemory value error: " + e.getMessage());
+        }
         this.properties = info;
         this.isSsl = Boolean.valueOf(info.getProperty("ssl", "true"));
         this.enabledCipherSuites = info.getProperty("enabledCipherSuites", "");
@@ -110,6 +123,20 @@ public class ORConnection implements ORBaseConnection {
         return fetchSize;
     }
 
+    @Override
+    public synchronized boolean reservePrefetch(long bytes) {
+        if (!isPrefetch || prefetchedBytes + bytes > prefetchMemory) {
+            return false;
+        }
+        prefetchedBytes += bytes;
+        return true;
+    }
+
+    @Override
+    public synchronized void releasePrefetch(long bytes) {
+        prefetchedBytes -= bytes;
+    }
+
     @Override
     public HostSpec getHostSpec() {
         return hostSpec;
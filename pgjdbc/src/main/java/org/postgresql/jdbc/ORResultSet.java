@@ -22,6 +22,7 @@ import org.postgresql.core.types.PGBlob;
 import org.postgresql.core.types.PGClob;
 import org.postgresql.core.ORField;
 import org.postgresql.core.ORDataType;
+import org.postgresql.core.ORRowBatch;
 import org.postgresql.util.PSQLException;
 import org.postgresql.util.GT;
 import org.postgresql.util.PSQLState;
@@ -49,7 +50,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Locale;
 import java.util.UUID;
@@ -77,11 +77,17 @@ public class ORResultSet extends PgResultSet {
     private boolean isInsertRow = false;
     private ORField[] orFields;
     private int totalRows;
-    private List<int[]> valueLens;
     private boolean isClosed;
-    private List<byte[][]> dataRows;
+    private ORRowBatch dataRows;
     private boolean hasRemain;
     private int currentRow = -1;
+    // the fetch ahead state is set by the statement that reads it, always with the stream lock held
+    private boolean isPrefetching;
+    private boolean isPrefetchDone;
+    private long prefetchReserved;
+    private ORRowBatch prefetchRows;
+    private boolean prefetchRemain;
+    private SQLException prefetchError;
     private Map<String, Integer> columnNameIndexMap;
 
     /**
@@ -90,21 +96,19 @@ public class ORResultSet extends PgResultSet {
      * @param orStatement oGRAC statement
      * @param sql sql
      * @param fields column fields
-     * @param valueLens value length
      * @param dataRows dataRows
      * @param hasRemain hasRemain
      * @throws SQLException if a database access error occurs
      */
-    public ORResultSet(ORStatement orStatement, String sql, ORField[] fields, List<int[]> valueLens,
-                       List<byte[][]> dataRows, boolean hasRemain) throws SQLException {
+    public ORResultSet(ORStatement orStatement, String sql, ORField[] fields, ORRowBatch dataRows,
+                       boolean hasRemain) throws SQLException {
         super();
         this.statement = orStatement;
         this.sql = sql;
-        this.valueLens = valueLens;
         this.dataRows = dataRows;
         this.hasRemain = hasRemain;
         this.orFields = fields;
-        this.totalRows = dataRows.size();
+        this.totalRows = dataRows.getRowCount();
         if (orStatement.getConnection() instanceof ORBaseConnection) {
             this.connection = (ORBaseConnection) orStatement.getConnection();
         }
@@ -113,19 +117,40 @@ public class ORResultSet extends PgResultSet {
     /**
      * update fetch data to the resultSet
      *
-     * @param total rows total
-     * @param valueLens value length
      * @param dataRows data rows
      * @param hasRemain is there still data available
      */
-    public void setFetchInfo(int total, List<int[]> valueLens, List<byte[][]> dataRows, boolean hasRemain) {
-        this.totalRows = total;
-        this.valueLens = valueLens;
+    public void setFetchInfo(ORRowBatch dataRows, boolean hasRemain) {
+        this.totalRows = dataRows.getRowCount();
         this.hasRemain = hasRemain;
         this.dataRows = dataRows;
         this.currentRow = -1;
     }
 
+    /**
+     * keep the rows of a fetch ahead until the current rows are used up
+     *
+     * @param dataRows data rows
+     * @param hasRemain is there still data available
+     */
+    public void setPrefetchInfo(ORRowBatch dataRows, boolean hasRemain) {
+        if (isClosed) {
+            return;
+        }
+        this.prefetchRows = dataRows;
+        this.prefetchRemain = hasRemain;
+    }
+
+    /**
+     * the response of the fetch ahead has been read
+     *
+     * @param error error returned by the server, or null
+     */
+    public void prefetchDone(SQLException error) {
+        this.isPrefetchDone = true;
+        this.prefetchError = error;
+    }
+
     @Override
     public void beforeFirst() throws SQLException {
         checkClosed();
@@ -157,20 +182,21 @@ public class ORResultSet extends PgResultSet {
     }
 
     private String getNumber(int columnIndex) {
-        byte[] byteValue = getByteValue(columnIndex);
-        if (byteValue[0] < 2) {
+        byte[] byteValue = dataRows.getData();
+        int offset = getOffset(columnIndex);
+        if (byteValue[offset] < 2) {
             return "0";
         }
         StringBuilder value = new StringBuilder();
-        boolean isMinus = byteValue[0] % 2 == 1;
+        boolean isMinus = byteValue[offset] % 2 == 1;
         if (isMinus) {
             value.append('-');
         }
         List<Integer> segments = new ArrayList<>();
         int i = 1;
-        int segmentCount = byteValue[0] / 2;
+        int segmentCount = byteValue[offset] / 2;
         while (i <= segmentCount) {
-            int segment = connection.getORStream().bytesToShort(byteValue, i * 2);
+            int segment = connection.getORStream().bytesToShort(byteValue, offset + i * 2);
             segments.add(segment);
             if (i == 1) {
                 value.append(segment);
@@ -184,8 +210,8 @@ public class ORResultSet extends PgResultSet {
             i++;
         }
 
-        int e = byteValue[1] * 4;
-        if (byteValue[1] != 0) {
+        int e = byteValue[offset + 1] * 4;
+        if (byteValue[offset + 1] != 0) {
             value.append("E").append(e);
         }
 
@@ -204,7 +230,7 @@ public class ORResultSet extends PgResultSet {
         }
         int num = mark + e;
         String valueStr = value.toString();
-        if (num <= 1 || num + byteValue[0] % 2 <= 40) {
+        if (num <= 1 || num + byteValue[offset] % 2 <= 40) {
             return new BigDecimal(valueStr).stripTrailingZeros().toPlainString();
         }
 
@@ -228,10 +254,10 @@ public class ORResultSet extends PgResultSet {
             return null;
         }
         PGBlob blob = new PGBlob();
-        byte[] bs = Arrays.copyOf(getByteValue(i), getLen(i));
-        int dataLen = connection.getORStream().bytesToInt(bs);
+        int offset = getOffset(i);
+        int dataLen = connection.getORStream().bytesToInt(dataRows.getData(), offset);
         byte[] value = new byte[dataLen];
-        System.arraycopy(bs, 12, value, 0, dataLen);
+        System.arraycopy(dataRows.getData(), offset + 12, value, 0, dataLen);
         blob.setBytes(1, value);
         return blob;
     }
@@ -243,13 +269,13 @@ public class ORResultSet extends PgResultSet {
             return null;
         }
         Calendar calendar = cal == null ? getDefaultCalendar() : cal;
-        long value = connection.getORStream().bytesToLong(getByteValue(i));
+        long value = getLongValue(i);
         Timestamp result = connection.getTimestampUtils().getTimestamp(value, calendar);
         return new Date(((java.util.Date) result).getTime());
     }
 
     private LocalTime getLocalTime(int i) {
-        long value = connection.getORStream().bytesToLong(getByteValue(i));
+        long value = getLongValue(i);
         Instant instant = Instant.ofEpochMilli(value);
         return instant.atZone(ZoneId.systemDefault()).toLocalTime();
     }
@@ -277,7 +303,7 @@ public class ORResultSet extends PgResultSet {
         }
 
         Calendar calendar = cal == null ? getDefaultCalendar() : cal;
-        long value = connection.getORStream().bytesToLong(getByteValue(i));
+        long value = getLongValue(i);
         return connection.getTimestampUtils().getTimestamp(value, calendar);
     }
 
@@ -469,7 +495,7 @@ public class ORResultSet extends PgResultSet {
             return null;
         }
         Calendar calendar = cal == null ? getDefaultCalendar() : cal;
-        long value = connection.getORStream().bytesToLong(getByteValue(i));
+        long value = getLongValue(i);
         Timestamp result = connection.getTimestampUtils().getTimestamp(value, calendar);
         return new Time(((java.util.Date) result).getTime());
     }
@@ -480,11 +506,9 @@ public class ORResultSet extends PgResultSet {
         if (wasNullFlag) {
             return null;
         }
-        byte[] value = Arrays.copyOf(getByteValue(i), getLen(i));
-        int dataLen = connection.getORStream().bytesToInt(value);
-        byte[] data = new byte[dataLen];
-        System.arraycopy(value, 12, data, 0, dataLen);
-        String str = new String(data, connection.getORStream().getCharset());
+        int offset = getOffset(i);
+        int dataLen = connection.getORStream().bytesToInt(dataRows.getData(), offset);
+        String str = new String(dataRows.getData(), offset + 12, dataLen, connection.getORStream().getCharset());
         PGClob clob = new PGClob();
         clob.setString(1, str);
         return clob;
@@ -552,16 +576,89 @@ public class ORResultSet extends PgResultSet {
         boolean hasNext = this.hasNext();
         if (!hasNext && hasRemain) {
             try {
-                statement.fetch(this, sql);
+                fetchRows();
             } catch (IOException e) {
                 throw new PSQLException(GT.tr("fetch more rows failed."),
                         PSQLState.IO_ERROR);
             }
             hasNext = hasNext();
         }
+        if (hasNext && currentRow == 0 && hasRemain && !isPrefetching) {
+            prefetch();
+        }
         return hasNext;
     }
 
+    private void fetchRows() throws SQLException, IOException {
+        try {
+            statement.fetch(this, sql);
+        } finally {
+            endPrefetch();
+        }
+    }
+
+    /**
+     * Moves the rows of a fetch ahead that was already read, see {@link #prefetchDone}, to the
+     * current rows. It is called by the fetch with the stream lock held, the lock the fetch ahead
+     * is read under, so another statement cannot read it between this check and a new fetch.
+     *
+     * @return true if the fetch ahead was read, false if a fetch has to be sent
+     * @throws SQLException if the fetch ahead failed
+     */
+    public boolean usePrefetchedRows() throws SQLException {
+        if (!isPrefetchDone) {
+            return false;
+        }
+        if (prefetchError != null) {
+            throw prefetchError;
+        }
+        if (prefetchRows != null) {
+            setFetchInfo(prefetchRows, prefetchRemain);
+        } else {
+            this.hasRemain = false;
+        }
+        return true;
+    }
+
+    /**
+     * Asks for the next rows as soon as the current ones are handed out, so they travel while the
+     * application works on these. The expected size is reserved from the prefetch memory of the
+     * connection and the fetch ahead is skipped when it does not fit.
+     */
+    private void prefetch() throws SQLException {
+        if (connection == null) {
+            return;
+        }
+        long estimate = dataRows.getDataSize();
+        if (!connection.reservePrefetch(estimate)) {
+            return;
+        }
+        isPrefetching = true;
+        prefetchReserved = estimate;
+        try {
+            statement.prefetch(this, sql);
+        } catch (IOException e) {
+            endPrefetch();
+            throw new PSQLException(GT.tr("fetch more rows failed."),
+                    PSQLState.IO_ERROR);
+        } catch (SQLException e) {
+            endPrefetch();
+            throw e;
+        }
+    }
+
+    private void endPrefetch() {
+        if (!isPrefetching) {
+            return;
+        }
+        isPrefetching = false;
+        isPrefetchDone = false;
+        prefetchRows = null;
+        prefetchError = null;
+        connection.releasePrefetch(prefetchReserved);
+        prefetchReserved = 0;
+    }
+
     private boolean hasNext() {
         boolean hasNext = false;
         if (currentRow + 1 < totalRows) {
@@ -574,8 +671,8 @@ public class ORResultSet extends PgResultSet {
 
     @Override
     public void close() throws SQLException {
+        endPrefetch();
         dataRows = null;
-        valueLens = null;
         isClosed = true;
     }
 
@@ -596,7 +693,7 @@ public class ORResultSet extends PgResultSet {
         }
         Object[] type = this.orFields[columnIndex - 1].getTypeInfo();
         if ("RAW".equals(type[0])) {
-            byte[] rawbs = Arrays.copyOf(getByteValue(columnIndex), getLen(columnIndex));
+            byte[] rawbs = getCopyValue(columnIndex);
             return byteToString(rawbs);
         }
         int sqlType = Integer.parseInt(type[2].toString());
@@ -634,8 +731,8 @@ public class ORResultSet extends PgResultSet {
                 if (valueLen < 0) {
                     return null;
                 }
-                byte[] bs = Arrays.copyOf(getByteValue(columnIndex), valueLen);
-                return new String(bs, this.connection.getORStream().getCharset());
+                return new String(dataRows.getData(), getOffset(columnIndex), valueLen,
+                        this.connection.getORStream().getCharset());
         }
     }
 
@@ -678,7 +775,7 @@ public class ORResultSet extends PgResultSet {
         if (wasNullFlag) {
             return false;
         }
-        int value = connection.getORStream().bytesToInt(getByteValue(columnIndex));
+        int value = getIntValue(columnIndex);
         BigDecimal number = new BigDecimal(value);
         return number.floatValue() != 0.0F;
     }
@@ -688,9 +785,9 @@ public class ORResultSet extends PgResultSet {
         int type = Integer.parseInt(fieldDef.getTypeInfo()[2].toString());
         long value = 0L;
         if (type == Types.INTEGER) {
-            value = connection.getORStream().bytesToInt(getByteValue(columnIndex));
+            value = getIntValue(columnIndex);
         } else if (type == Types.BIGINT) {
-            value = connection.getORStream().bytesToLong(getByteValue(columnIndex));
+            value = getLongValue(columnIndex);
         } else {
             throw new SQLException("conversion to int type from " + fieldDef.getTypeInfo()[0] + " is not supported.");
         }
@@ -730,8 +827,7 @@ public class ORResultSet extends PgResultSet {
     }
 
     private double getReal(int columnIndex) {
-        byte[] bs = getByteValue(columnIndex);
-        long value = connection.getORStream().bytesToLong(bs);
+        long value = getLongValue(columnIndex);
         return Double.longBitsToDouble(value);
     }
 
@@ -781,7 +877,7 @@ public class ORResultSet extends PgResultSet {
             case ORDataType.TEXT:
             case ORDataType.CHAR:
             case ORDataType.VARCHAR:
-                return Arrays.copyOf(getByteValue(columnIndex), getLen(columnIndex));
+                return getCopyValue(columnIndex);
             default:
                 throw new PSQLException(GT.tr("conversion to bytes value from " + type[3] + " is not supported."),
                         PSQLState.NUMERIC_VALUE_OUT_OF_RANGE);
@@ -852,18 +948,27 @@ public class ORResultSet extends PgResultSet {
         return Float.valueOf(num);
     }
 
-    private byte[] getByteValue(int columnIndex) {
-        if (this.dataRows == null) {
-            return null;
-        }
-        return this.dataRows.get(this.currentRow)[columnIndex - 1];
+    private int getOffset(int columnIndex) {
+        return this.dataRows.getOffset(this.currentRow, columnIndex - 1);
     }
 
     private int getLen(int columnIndex) {
         if (this.dataRows == null) {
             return 0;
         }
-        return this.valueLens.get(currentRow)[columnIndex - 1];
+        return this.dataRows.getLength(currentRow, columnIndex - 1);
+    }
+
+    private byte[] getCopyValue(int columnIndex) {
+        return this.dataRows.getValue(this.currentRow, columnIndex - 1);
+    }
+
+    private int getIntValue(int columnIndex) {
+        return connection.getORStream().bytesToInt(dataRows.getData(), getOffset(columnIndex));
+    }
+
+    private long getLongValue(int columnIndex) {
+        return connection.getORStream().bytesToLong(dataRows.getData(), getOffset(columnIndex));
     }
 
     @Override
@@ -959,8 +1064,13 @@ public class ORResultSet extends PgResultSet {
                     GT.tr("ResultSet not positioned properly, perhaps you need to call next."),
                     PSQLState.INVALID_CURSOR_STATE);
         }
+        if (currentRow < 0 || currentRow >= totalRows) {
+            throw new PSQLException(
+                    GT.tr("ResultSet not positioned properly, perhaps you need to call next."),
+                    PSQLState.INVALID_CURSOR_STATE);
+        }
         checkColumnIndex(column);
-        wasNullFlag = (dataRows.get(currentRow)[column - 1] == null);
+        wasNullFlag = dataRows.isNull(currentRow, column - 1);
     }
 
     @Override
@@ -394,6 +394,20 @@ public class ORStatement implements Statement {
         connection.getQueryExecutor().fetch(cachedQuery);
     }
 
+    /**
+     * send a fetch request for the next rows of the resultSet without waiting for them
+     *
+     * @param rs resultSet
+     * @param sql execute sql
+     * @throws IOException if an I/O error occurs
+     * @throws SQLException if a database access error occurs
+     */
+    public void prefetch(ORResultSet rs, String sql) throws IOException, SQLException {
+        ORCachedQuery cachedQuery = new ORCachedQuery(connection, this, sql, false);
+        cachedQuery.setRs(rs);
+        connection.getQueryExecutor().prefetch(cachedQuery);
+    }
+
     @Override
     public boolean isClosed() throws SQLException {
         return isClosed;
@@ -6,6 +6,7 @@
 package org.postgresql.jdbc;
 
 import org.postgresql.Driver;
+import org.postgresql.core.CachedQuery;
 import org.postgresql.core.Oid;
 import org.postgresql.core.ParameterList;
 import org.postgresql.core.Query;
@@ -90,6 +91,12 @@ class PgCallableStatement extends PgPreparedStatement implements CallableStateme
     return getObjectImpl(s, map);
   }
 
+  @Override
+  protected boolean isAdaptiveBinaryQuery(CachedQuery cachedQuery) {
+    // out parameters are read from the first row, keep the formats the caller registered
+    return false;
+  }
+
   @Override
   public boolean executeWithFlags(int flags) throws SQLException {
     boolean hasResultSet = super.executeWithFlags(flags);
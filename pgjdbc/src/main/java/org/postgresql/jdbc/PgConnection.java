@@ -15,6 +15,7 @@ import org.postgresql.core.CachedQuery;
 import org.postgresql.core.ConnectionFactory;
 import org.postgresql.core.Encoding;
 import org.postgresql.core.Oid;
+import org.postgresql.core.PrepareStatistics;
 import org.postgresql.core.Provider;
 import org.postgresql.core.Query;
 import org.postgresql.core.QueryExecutor;
@@ -157,6 +158,9 @@ public class PgConnection implements BaseConnection {
   // Default forcebinary option.
   protected boolean forcebinary = false;
 
+  // Receive common result types of prepared statements in binary.
+  private boolean binaryTransferAdaptive = false;
+
   private int rsHoldability = ResultSet.CLOSE_CURSORS_AT_COMMIT;
   private int savepointId = 0;
   // Connection's autocommit state.
@@ -182,6 +186,8 @@ public class PgConnection implements BaseConnection {
 
   // True if bit to string else bit to boolean.
   private boolean bitToString = false;
+  private boolean deduplicateStrings = false;
+  private int reWriteBatchedInsertsSize;
 
   // Timer for scheduling TimerTasks for this connection.
   // Only instantiated if a task is actually scheduled.
@@ -281,6 +287,8 @@ public class PgConnection implements BaseConnection {
     setProps(info);
 
     bitToString = PGProperty.BIT_TO_STRING.getBoolean(info);
+    deduplicateStrings = PGProperty.DEDUPLICATE_STRINGS.getBoolean(info);
+    reWriteBatchedInsertsSize = Math.max(1, PGProperty.REWRITE_BATCHED_INSERTS_SIZE.getInt(info));
     setDefaultFetchSize(PGProperty.DEFAULT_ROW_FETCH_SIZE.getInt(info));
 
     setPrepareThreshold(PGProperty.PREPARE_THRESHOLD.getInt(info));
@@ -303,6 +311,11 @@ public class PgConnection implements BaseConnection {
 
     Set<Integer> useBinaryReceiveForOids = new HashSet<Integer>(binaryOids);
 
+    binaryTransferAdaptive = PGProperty.BINARY_TRANSFER_ADAPTIVE.getBoolean(info);
+    if (binaryTransferAdaptive) {
+      useBinaryReceiveForOids.addAll(getAdaptiveBinaryOids(info));
+    }
+
     /*
      * Does not pass unit tests because unit tests expect setDate to have millisecond accuracy
      * whereas the binary transfer only supports date accuracy.
@@ -497,6 +510,8 @@ public class PgConnection implements BaseConnection {
 
     adaptiveSetSQLType = PGProperty.ADAPTIVE_SET_SQL_TYPE.getBoolean(info);
 
+    // Session setup is complete, later SETs make this session stop sharing type metadata
+    queryExecutor.shareTypes();
     initClientLogic(info);
   }
 
@@ -548,6 +563,7 @@ public class PgConnection implements BaseConnection {
       binaryOids.add(Oid.INT8);
       binaryOids.add(Oid.FLOAT4);
       binaryOids.add(Oid.FLOAT8);
+      binaryOids.add(Oid.NUMERIC);
       binaryOids.add(Oid.TIME);
       binaryOids.add(Oid.DATE);
       binaryOids.add(Oid.TIMETZ);
@@ -570,6 +586,26 @@ public class PgConnection implements BaseConnection {
     return binaryOids;
   }
 
+  /**
+   * Result types received in binary by {@link PGProperty#BINARY_TRANSFER_ADAPTIVE}: the ones that
+   * are most costly to format on the server and parse in the driver.
+   */
+  static Set<Integer> getAdaptiveBinaryOids(Properties info) throws PSQLException {
+    Set<Integer> binaryOids = new HashSet<Integer>(16);
+    binaryOids.add(Oid.BYTEA);
+    binaryOids.add(Oid.INT2);
+    binaryOids.add(Oid.INT4);
+    binaryOids.add(Oid.INT8);
+    binaryOids.add(Oid.FLOAT4);
+    binaryOids.add(Oid.FLOAT8);
+    binaryOids.add(Oid.NUMERIC);
+    binaryOids.add(Oid.TIMESTAMP);
+    binaryOids.add(Oid.TIMESTAMPTZ);
+    binaryOids.add(Oid.UUID);
+    binaryOids.removeAll(getOidSet(PGProperty.BINARY_TRANSFER_DISABLE.get(info)));
+    return binaryOids;
+  }
+
   private static Set<Integer> getOidSet(String oidList) throws PSQLException {
     Set<Integer> oids = new HashSet<Integer>();
     StringTokenizer tokenizer = new StringTokenizer(oidList, ",");
@@ -1339,6 +1375,36 @@ public class PgConnection implements BaseConnection {
       return bitToString;
   }
 
+  @Override
+  public boolean getDeduplicateStrings() {
+    return deduplicateStrings;
+  }
+
+  @Override
+  public int getReWriteBatchedInsertsSize() {
+    return reWriteBatchedInsertsSize;
+  }
+
+  /**
+   * Returns the statement execution statistics of {@link PGProperty#ADAPTIVE_PREPARE}.
+   *
+   * @return statistics shared with other connections of the same server, database, user and
+   *     schema, or null if adaptive prepare is disabled
+   */
+  public PrepareStatistics getPrepareStatistics() {
+    return queryExecutor.getPrepareStatistics();
+  }
+
+  /**
+   * Returns the number of named statements this connection holds on the server, including the
+   * ones that wait for their Close message, see {@link PGProperty#CLOSE_BUDGET}.
+   *
+   * @return number of server-side statements
+   */
+  public int getServerStatementCount() {
+    return queryExecutor.getServerStatementCount();
+  }
+
   public int getPrepareThreshold() {
     return prepareThreshold;
   }
@@ -1368,6 +1434,10 @@ public class PgConnection implements BaseConnection {
     this.forcebinary = newValue;
   }
 
+  public boolean getBinaryTransferAdaptive() {
+    return binaryTransferAdaptive;
+  }
+
   public void setTypeMapImpl(Map<String, Class<?>> map) throws SQLException {
     typemap = map;
   }
@@ -1704,6 +1774,8 @@ public class PgConnection implements BaseConnection {
         if (checkConnectionQuery == null) {
           checkConnectionQuery = prepareStatement("");
         }
+        // validation happens while the connection is idle, a good time to close unused statements
+        queryExecutor.flushPendingCloses();
         checkConnectionQuery.setQueryTimeout(timeout);
         checkConnectionQuery.executeUpdate();
       }
@@ -9,10 +9,12 @@ import org.postgresql.Driver;
 import org.postgresql.core.BaseConnection;
 import org.postgresql.core.CachedQuery;
 import org.postgresql.core.Oid;
+import org.postgresql.core.PGStream;
 import org.postgresql.core.ParameterList;
 import org.postgresql.core.Query;
 import org.postgresql.core.QueryExecutor;
 import org.postgresql.core.ServerVersion;
+import org.postgresql.core.SqlCommand;
 import org.postgresql.core.TypeInfo;
 import org.postgresql.core.types.PGBlob;
 import org.postgresql.core.v3.BatchedQuery;
@@ -102,7 +104,8 @@ class PgPreparedStatement extends PgStatement implements PreparedStatement {
   }
 
   final int maximumNumberOfParameters() {
-    return connection.getPreferQueryMode() == PreferQueryMode.SIMPLE ? Integer.MAX_VALUE : 65535;
+    return connection.getPreferQueryMode() == PreferQueryMode.SIMPLE ? Integer.MAX_VALUE
+        : PGStream.MAX_PARAMS_NUM;
   }
 
   public java.sql.ResultSet executeQuery(String p_sql) throws SQLException {
@@ -181,6 +184,15 @@ class PgPreparedStatement extends PgStatement implements PreparedStatement {
     return super.isOneShotQuery(cachedQuery);
   }
 
+  @Override
+  protected boolean isAdaptiveBinaryQuery(CachedQuery cachedQuery) {
+    if (!getBinaryTransferAdaptive() || concurrency != ResultSet.CONCUR_READ_ONLY) {
+      return false;
+    }
+    SqlCommand command = cachedQuery.query.getSqlCommand();
+    return command != null && command.returnsRows();
+  }
+
   @Override
   public void closeImpl() throws SQLException {
     if (preparedQuery != null) {
@@ -256,10 +268,8 @@ class PgPreparedStatement extends PgStatement implements PreparedStatement {
   public void setShort(int parameterIndex, short x) throws SQLException {
     checkClosed();
     if (connection.binaryTransferSend(Oid.INT2)) {
-      byte[] val = new byte[2];
-      ByteConverter.int2(val, 0, x);
-      bindBytes(parameterIndex, val, Oid.INT2);
-      preparedParameters.saveLiteralValueForClientLogic(parameterIndex, Integer.toString(x));
+      preparedParameters.setShortParameter(parameterIndex, x);
+      saveLiteralValueForClientLogic(parameterIndex, x);
       return;
     }
     bindLiteral(parameterIndex, Integer.toString(x), Oid.INT2);
@@ -268,10 +278,8 @@ class PgPreparedStatement extends PgStatement implements PreparedStatement {
     public void setTiny(int parameterIndex, short x) throws SQLException {
         checkClosed();
         if (connection.binaryTransferSend(Oid.INT1)) {
-            byte[] val = new byte[2];
-            ByteConverter.int2(val, 0, x);
-            bindBytes(parameterIndex, val, Oid.INT2);
-            preparedParameters.saveLiteralValueForClientLogic(parameterIndex, Integer.toString(x));
+            preparedParameters.setShortParameter(parameterIndex, x);
+            saveLiteralValueForClientLogic(parameterIndex, x);
             return;
         }
         bindLiteral(parameterIndex, Integer.toString(x), Oid.INT2);
@@ -280,10 +288,8 @@ class PgPreparedStatement extends PgStatement implements PreparedStatement {
   public void setInt(int parameterIndex, int x) throws SQLException {
     checkClosed();
     if (connection.binaryTransferSend(Oid.INT4)) {
-      byte[] val = new byte[4];
-      ByteConverter.int4(val, 0, x);
-      bindBytes(parameterIndex, val, Oid.INT4);
-      preparedParameters.saveLiteralValueForClientLogic(parameterIndex, Integer.toString(x));
+      preparedParameters.setIntParameter(parameterIndex, x);
+      saveLiteralValueForClientLogic(parameterIndex, x);
       return;
     }
     bindLiteral(parameterIndex, Integer.toString(x), Oid.INT4);
@@ -292,10 +298,8 @@ class PgPreparedStatement extends PgStatement implements PreparedStatement {
   public void setLong(int parameterIndex, long x) throws SQLException {
     checkClosed();
     if (connection.binaryTransferSend(Oid.INT8)) {
-      byte[] val = new byte[8];
-      ByteConverter.int8(val, 0, x);
-      bindBytes(parameterIndex, val, Oid.INT8);
-      preparedParameters.saveLiteralValueForClientLogic(parameterIndex, Long.toString(x));
+      preparedParameters.setLongParameter(parameterIndex, x);
+      saveLiteralValueForClientLogic(parameterIndex, x);
       return;
     }
     switchOidIntToInt8(parameterIndex);
@@ -329,10 +333,8 @@ class PgPreparedStatement extends PgStatement implements PreparedStatement {
   public void setFloat(int parameterIndex, float x) throws SQLException {
     checkClosed();
     if (connection.binaryTransferSend(Oid.FLOAT4)) {
-      byte[] val = new byte[4];
-      ByteConverter.float4(val, 0, x);
-      bindBytes(parameterIndex, val, Oid.FLOAT4);
-      preparedParameters.saveLiteralValueForClientLogic(parameterIndex, Float.toString(x));
+      preparedParameters.setFloatParameter(parameterIndex, x);
+      saveLiteralValueForClientLogic(parameterIndex, x);
       return;
     }
     bindLiteral(parameterIndex, Float.toString(x), Oid.FLOAT8);
@@ -341,15 +343,34 @@ class PgPreparedStatement extends PgStatement implements PreparedStatement {
   public void setDouble(int parameterIndex, double x) throws SQLException {
     checkClosed();
     if (connection.binaryTransferSend(Oid.FLOAT8)) {
-      byte[] val = new byte[8];
-      ByteConverter.float8(val, 0, x);
-      bindBytes(parameterIndex, val, Oid.FLOAT8);
-      preparedParameters.saveLiteralValueForClientLogic(parameterIndex, Double.toString(x));
+      preparedParameters.setDoubleParameter(parameterIndex, x);
+      saveLiteralValueForClientLogic(parameterIndex, x);
       return;
     }
     bindLiteral(parameterIndex, Double.toString(x), Oid.FLOAT8);
   }
 
+  /**
+   * Client logic needs the text form of binary bound numbers; skip building it otherwise.
+   */
+  private void saveLiteralValueForClientLogic(int parameterIndex, long x) throws SQLException {
+    if (connection.getClientLogic() != null) {
+      preparedParameters.saveLiteralValueForClientLogic(parameterIndex, Long.toString(x));
+    }
+  }
+
+  private void saveLiteralValueForClientLogic(int parameterIndex, float x) throws SQLException {
+    if (connection.getClientLogic() != null) {
+      preparedParameters.saveLiteralValueForClientLogic(parameterIndex, Float.toString(x));
+    }
+  }
+
+  private void saveLiteralValueForClientLogic(int parameterIndex, double x) throws SQLException {
+    if (connection.getClientLogic() != null) {
+      preparedParameters.saveLiteralValueForClientLogic(parameterIndex, Double.toString(x));
+    }
+  }
+
   public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
     setNumber(parameterIndex, x);
   }
@@ -544,6 +565,18 @@ class PgPreparedStatement extends PgStatement implements PreparedStatement {
     checkClosed();
     if (x == null) {
       setNull(parameterIndex, Types.DECIMAL);
+    } else if (x instanceof BigDecimal && connection.binaryTransferSend(Oid.NUMERIC)) {
+      byte[] val;
+      try {
+        val = ByteConverter.numeric((BigDecimal) x);
+      } catch (IllegalArgumentException e) {
+        throw new PSQLException(GT.tr("Bad value for type {0} : {1}", "BigDecimal", x),
+            PSQLState.NUMERIC_VALUE_OUT_OF_RANGE, e);
+      }
+      if (connection.getClientLogic() != null) {
+        preparedParameters.saveLiteralValueForClientLogic(parameterIndex, x.toString());
+      }
+      bindBytes(parameterIndex, val, Oid.NUMERIC);
     } else {
       bindLiteral(parameterIndex, x.toString(), Oid.NUMERIC);
     }
@@ -1097,6 +1130,31 @@ class PgPreparedStatement extends PgStatement implements PreparedStatement {
    preparedParameters.setStringParameter(paramIndex, s, oid);
  }
 
+ /**
+  * This version is for date/time values that {@link TimestampUtils} already formatted into their
+  * ASCII wire form, in the buffer of the parameter from {@link #asciiBuffer(int)}. The bytes are
+  * sent without building and encoding a String. Client logic needs the literal value, so it keeps
+  * using the String path.
+  *
+  * @param paramIndex parameter index
+  * @param buf buffer holding the formatted value
+  * @param length length of the formatted value
+  * @param oid type oid
+  * @throws SQLException if something goes wrong
+  */
+ private void bindAscii(int paramIndex, byte[] buf, int length, int oid) throws SQLException {
+   if (connection.getClientLogic() != null) {
+     bindString(paramIndex,
+         new String(buf, 0, length, java.nio.charset.StandardCharsets.ISO_8859_1), oid);
+     return;
+   }
+   preparedParameters.setAsciiParameter(paramIndex, length, oid);
+ }
+
+ private byte[] asciiBuffer(int paramIndex) throws SQLException {
+   return preparedParameters.getAsciiBuffer(paramIndex, TimestampCodec.MAX_FORMATTED_LENGTH);
+ }
+
  public boolean isUseServerPrepare() {
    return (preparedQuery != null && m_prepareThreshold != 0
        && preparedQuery.getExecuteCount() + 1 >= m_prepareThreshold);
@@ -1351,7 +1409,8 @@ class PgPreparedStatement extends PgStatement implements PreparedStatement {
    if (cal == null) {
      cal = getDefaultCalendar();
    }
-   bindString(i, connection.getTimestampUtils().toString(cal, d), Oid.UNSPECIFIED);
+   byte[] buf = asciiBuffer(i);
+   bindAscii(i, buf, connection.getTimestampUtils().format(cal, d, buf, 0), Oid.UNSPECIFIED);
  }
 
  public void setTime(int i, Time t, java.util.Calendar cal) throws SQLException {
@@ -1378,7 +1437,8 @@ class PgPreparedStatement extends PgStatement implements PreparedStatement {
    if (cal == null) {
      cal = getDefaultCalendar();
    }
-   bindString(i, connection.getTimestampUtils().toString(cal, t), oid);
+   byte[] buf = asciiBuffer(i);
+   bindAscii(i, buf, connection.getTimestampUtils().format(cal, t, buf, 0), oid);
  }
 
  public void setTimestamp(int i, Timestamp t, java.util.Calendar cal) throws SQLException {
@@ -1434,29 +1494,34 @@ class PgPreparedStatement extends PgStatement implements PreparedStatement {
    if (cal == null) {
      cal = getDefaultCalendar();
    }
-   bindString(i, connection.getTimestampUtils().toString(cal, t), oid);
+   byte[] buf = asciiBuffer(i);
+   bindAscii(i, buf, connection.getTimestampUtils().format(cal, t, buf, 0), oid);
  }
 
   private void setDate(int i, LocalDate localDate) throws SQLException {
     int oid = Oid.DATE;
-    bindString(i, connection.getTimestampUtils().toString(localDate), oid);
+    byte[] buf = asciiBuffer(i);
+    bindAscii(i, buf, connection.getTimestampUtils().format(localDate, buf, 0), oid);
   }
 
   private void setTime(int i, LocalTime localTime) throws SQLException {
     int oid = Oid.TIME;
-    bindString(i, connection.getTimestampUtils().toString(localTime), oid);
+    byte[] buf = asciiBuffer(i);
+    bindAscii(i, buf, connection.getTimestampUtils().format(localTime, buf, 0), oid);
   }
 
   private void setTimestamp(int i, LocalDateTime localDateTime)
           throws SQLException {
     int oid = Oid.TIMESTAMP;
-    bindString(i, connection.getTimestampUtils().toString(localDateTime), oid);
+    byte[] buf = asciiBuffer(i);
+    bindAscii(i, buf, connection.getTimestampUtils().format(localDateTime, buf, 0), oid);
   }
 
   private void setTimestamp(int i, OffsetDateTime offsetDateTime)
           throws SQLException {
     int oid = Oid.TIMESTAMPTZ;
-    bindString(i, connection.getTimestampUtils().toString(offsetDateTime), oid);
+    byte[] buf = asciiBuffer(i);
+    bindAscii(i, buf, connection.getTimestampUtils().format(offsetDateTime, buf, 0), oid);
   }
 
  public ParameterMetaData createParameterMetaData(BaseConnection conn, int[] oids)
@@ -1705,16 +1770,15 @@ class PgPreparedStatement extends PgStatement implements PreparedStatement {
      return;
    }
    BatchedQuery originalQuery = (BatchedQuery) preparedQuery.query;
-   // Single query cannot have more than {@link Short#MAX_VALUE} binds, thus
-   // the number of multi-values blocks should be capped.
-   // Typically, it does not make much sense to batch more than 128 rows: performance
-   // does not improve much after updating 128 statements with 1 multi-valued one, thus
-   // we cap maximum batch size and split there.
+   // A single query cannot have more than PGStream.MAX_PARAMS_NUM binds, even when it is sent
+   // with the simple protocol, and the number of rows of one block is capped by
+   // reWriteBatchedInsertsSize.
+   // Full blocks use the largest size allowed, the rest of the batch is split into power of two
+   // blocks, so a statement needs at most a handful of distinct server-side prepared statements.
    final int bindCount = originalQuery.getBindCount();
-   final int highestBlockCount = 128;
-   final int maxValueBlocks = bindCount == 0 ? 1024 /* if no binds, use 1024 rows */
-           : Integer.highestOneBit( // deriveForMultiBatch supports powers of two only
-           Math.min(Math.max(1, maximumNumberOfParameters() / bindCount), highestBlockCount));
+   final int maxRows = connection.getReWriteBatchedInsertsSize();
+   final int maxValueBlocks = bindCount == 0 ? maxRows
+           : Math.min(Math.max(1, PGStream.MAX_PARAMS_NUM / bindCount), maxRows);
    int unprocessedBatchCount = batchParameters.size();
    final int fullValueBlocksCount = unprocessedBatchCount / maxValueBlocks;
    final int partialValueBlocksCount = Integer.bitCount(unprocessedBatchCount % maxValueBlocks);
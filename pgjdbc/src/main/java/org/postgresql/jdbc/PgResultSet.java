@@ -119,6 +119,7 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
   protected ResultCursor cursor; // Cursor for fetching additional data.
 
   private Map<String, Integer> columnNameIndexMap; // Speed up findColumn by caching lookups
+  private ColumnStringCache[] stringCaches; // Per column String deduplication, if enabled
 
   private ResultSetMetaData rsMetaData;
 
@@ -663,7 +664,7 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
       }
     }
 
-    return connection.getTimestampUtils().toDate(cal, new String(this_row[i - 1]));
+    return connection.getTimestampUtils().toDate(cal, this_row[i - 1]);
   }
 
 
@@ -703,6 +704,9 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
       }
     }
 
+    if (isDateTimeOid(fields[i - 1].getOID())) {
+      return connection.getTimestampUtils().toTime(cal, this_row[i - 1]);
+    }
     String string = getString(i);
     return connection.getTimestampUtils().toTime(cal, string);
   }
@@ -726,6 +730,9 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
       }
     }
 
+    if (isDateTimeOid(fields[i - 1].getOID())) {
+      return connection.getTimestampUtils().toLocalTime(value);
+    }
     String string = getString(i);
     return connection.getTimestampUtils().toLocalTime(string);
   }
@@ -767,11 +774,14 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
     // If this is actually a timestamptz, the server-provided timezone will override
     // the one we pass in, which is the desired behaviour. Otherwise, we'll
     // interpret the timezone-less value in the provided timezone.
-    String string = getString(i);
     if (oid == Oid.TIME || oid == Oid.TIMETZ) {
       // If server sends us a TIME, we ensure java counterpart has date of 1970-01-01
-      return new Timestamp(connection.getTimestampUtils().toTime(cal, string).getTime());
+      return new Timestamp(connection.getTimestampUtils().toTime(cal, this_row[col]).getTime());
     }
+    if (isDateTimeOid(oid)) {
+      return connection.getTimestampUtils().toTimestamp(cal, this_row[col]);
+    }
+    String string = getString(i);
     return connection.getTimestampUtils().toTimestamp(cal, string);
   }
 
@@ -805,14 +815,17 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
     // If this is actually a timestamptz, the server-provided timezone will override
     // the one we pass in, which is the desired behaviour. Otherwise, we'll
     // interpret the timezone-less value in the provided timezone.
-    String string = getString(i);
     if (oid == Oid.TIMETZ) {
       // JDBC spec says timetz must be supported
       // If server sends us a TIMETZ, we ensure java counterpart has date of 1970-01-01
       Calendar cal = getDefaultCalendar();
-      Time time = connection.getTimestampUtils().toTime(cal, string);
+      Time time = connection.getTimestampUtils().toTime(cal, value);
       return connection.getTimestampUtils().toOffsetDateTime(time);
     }
+    if (isDateTimeOid(oid)) {
+      return connection.getTimestampUtils().toOffsetDateTime(value);
+    }
+    String string = getString(i);
     return connection.getTimestampUtils().toOffsetDateTime(string);
   }
 
@@ -834,8 +847,17 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
       return connection.getTimestampUtils().toLocalDateTimeBin(value);
     }
 
-    String string = getString(i);
-    return connection.getTimestampUtils().toLocalDateTime(string);
+    // the column is known to be a timestamp, so the raw value is plain ASCII
+    return connection.getTimestampUtils().toLocalDateTime(value);
+  }
+
+  /**
+   * Date/time values are always sent as ASCII, so text values of these types can be parsed
+   * straight from the row buffer without decoding them into a String first.
+   */
+  private static boolean isDateTimeOid(int oid) {
+    return oid == Oid.DATE || oid == Oid.TIME || oid == Oid.TIMETZ || oid == Oid.TIMESTAMP
+        || oid == Oid.TIMESTAMPTZ;
   }
 
   public java.sql.Date getDate(String c, java.util.Calendar cal) throws SQLException {
@@ -2097,7 +2119,7 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
     Encoding encoding = connection.getEncoding();
     try {
       String typeName = getPGType(columnIndex);
-      String result = trimString(columnIndex, encoding.decode(this_row[columnIndex - 1]));
+      String result = trimString(columnIndex, decodeString(columnIndex, encoding));
       if (("blob".equals(typeName))) {
         if (connection.unwrap(PgConnection.class).isDolphinCmpt()) {
           return new String(toBytes(result));
@@ -2124,6 +2146,23 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
     }
   }
 
+  private String decodeString(int columnIndex, Encoding encoding) throws IOException {
+    byte[] value = this_row[columnIndex - 1];
+    if (value.length > ColumnStringCache.MAX_LENGTH || !connection.getDeduplicateStrings()
+        || !encoding.isAsciiCompatible()) {
+      return encoding.decode(value);
+    }
+    if (stringCaches == null) {
+      stringCaches = new ColumnStringCache[fields.length];
+    }
+    ColumnStringCache cache = stringCaches[columnIndex - 1];
+    if (cache == null) {
+      cache = new ColumnStringCache();
+      stringCaches[columnIndex - 1] = cache;
+    }
+    return cache.decode(value, encoding);
+  }
+
   /**
    * Processing of Blob related types
    */
@@ -2172,6 +2211,10 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
     if ("hstore".equals(getPGType(columnIndex))) {
       return HStoreConverter.toString((Map<?, ?>) obj);
     }
+    // numeric text output never uses exponent notation
+    if (obj instanceof BigDecimal) {
+      return trimString(columnIndex, ((BigDecimal) obj).toPlainString());
+    }
     return trimString(columnIndex, obj.toString());
   }
 
@@ -2602,15 +2645,19 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
   }
 
     private Object getBigDecimal(int columnIndex, Field field) throws SQLException {
+        int scale = field.getMod() == -1 ? -1 : Math.max((short) ((field.getMod() - 4) & 0xffff), -1);
+        if (isBinary(columnIndex) && field.getOID() == Oid.NUMERIC) {
+            Number value = readNumericValue(columnIndex);
+            if (value instanceof BigDecimal) {
+                return scaleBigDecimal((BigDecimal) value, scale);
+            }
+            return value;
+        }
         String stringValue = this.getFixedString(columnIndex);
         if ("NaN".equalsIgnoreCase(stringValue)) {
             return Double.NaN;
         }
-        if (field.getMod() == -1) {
-            return getBigDecimal(columnIndex, -1);
-        }
-        int scale = (short) ((field.getMod() - 4) & 0xffff);
-        return getBigDecimal(columnIndex, (Math.max(scale, -1)));
+        return getBigDecimal(columnIndex, scale);
     }
 
   public BigDecimal getBigDecimal(int columnIndex, int scale) throws SQLException {
@@ -2621,6 +2668,14 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
     }
 
     if (isBinary(columnIndex)) {
+      if (fields[columnIndex - 1].getOID() == Oid.NUMERIC) {
+        Number value = readNumericValue(columnIndex);
+        if (value instanceof BigDecimal) {
+          return scaleBigDecimal((BigDecimal) value, scale);
+        }
+        throw new PSQLException(GT.tr("Bad value for type {0} : {1}", "BigDecimal", value),
+            PSQLState.NUMERIC_VALUE_OUT_OF_RANGE);
+      }
       int sqlType = getSQLType(columnIndex);
       if (sqlType != Types.NUMERIC && sqlType != Types.DECIMAL) {
         Object obj = internalGetObject(columnIndex, fields[columnIndex - 1]);
@@ -3368,11 +3423,29 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
         return ByteConverter.float4(bytes, 0);
       case Oid.FLOAT8:
         return ByteConverter.float8(bytes, 0);
+      case Oid.NUMERIC:
+        return ByteConverter.numeric(bytes).doubleValue();
     }
     throw new PSQLException(GT.tr("Cannot convert the column of type {0} to requested type {1}.",
         Oid.toString(oid), targetType), PSQLState.DATA_TYPE_MISMATCH);
   }
 
+  /**
+   * Decodes a binary numeric column.
+   *
+   * @param columnIndex the column index
+   * @return the value as {@link BigDecimal} or {@link Double#NaN}
+   * @throws PSQLException if the bytes are not a valid numeric value
+   */
+  private Number readNumericValue(int columnIndex) throws PSQLException {
+    try {
+      return ByteConverter.numeric(this_row[columnIndex - 1]);
+    } catch (IllegalArgumentException e) {
+      throw new PSQLException(GT.tr("Bad value for type {0} : {1}", "BigDecimal", e.getMessage()),
+          PSQLState.NUMERIC_VALUE_OUT_OF_RANGE, e);
+    }
+  }
+
   /**
    * <p>Converts any numeric binary field to long value.</p>
    *
@@ -3412,6 +3485,15 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
       case Oid.FLOAT8:
         val = (long) ByteConverter.float8(bytes, 0);
         break;
+      case Oid.NUMERIC:
+        Number num = ByteConverter.numeric(bytes);
+        if (!(num instanceof BigDecimal) || ((BigDecimal) num).compareTo(BigDecimal.valueOf(minVal)) < 0
+            || ((BigDecimal) num).compareTo(BigDecimal.valueOf(maxVal)) > 0) {
+          throw new PSQLException(GT.tr("Bad value for type {0} : {1}", targetType, num),
+              PSQLState.NUMERIC_VALUE_OUT_OF_RANGE);
+        }
+        val = num.longValue();
+        break;
       default:
         throw new PSQLException(
             GT.tr("Cannot convert the column of type {0} to requested type {1}.",
@@ -40,6 +40,7 @@ public class PgStatement implements Statement, BaseStatement {
       Boolean.getBoolean("org.postgresql.forceBinary");
   // only for testing purposes. even single shot statements will use binary transfers
   private boolean forceBinaryTransfers = DEFAULT_FORCE_BINARY_TRANSFERS;
+  private final boolean binaryTransferAdaptive;
   
   protected ArrayList<Query> batchStatements = null;
   protected ArrayList<ParameterList> batchParameters = null;
@@ -142,6 +143,7 @@ public class PgStatement implements Statement, BaseStatement {
       throws SQLException {
     this.connection = c;
     forceBinaryTransfers |= c.getForceBinary();
+    binaryTransferAdaptive = c.getBinaryTransferAdaptive();
     resultsettype = rsType;
     concurrency = rsConcurrency;
     setFetchSize(c.getDefaultFetchSize());
@@ -386,10 +388,37 @@ public class PgStatement implements Statement, BaseStatement {
       return true;
     }
     cachedQuery.increaseExecuteCount();
-    if ((m_prepareThreshold == 0 || cachedQuery.getExecuteCount() < m_prepareThreshold)
-        && !getForceBinaryTransfer()) {
+    if (getForceBinaryTransfer()) {
+      return false;
+    }
+    if (m_prepareThreshold == 0) {
       return true;
     }
+    if (cachedQuery.getExecuteCount() >= m_prepareThreshold) {
+      return false;
+    }
+    // The shared counters are only consulted while the statement is unnamed. A statement that is
+    // hot on the scope counts as having reached the threshold here, so it stays named.
+    PrepareStatistics statistics = connection.getQueryExecutor().getPrepareStatistics();
+    if (statistics != null
+        && statistics.recordExecution(cachedQuery.key, cachedQuery.getExecuteCount(),
+            m_prepareThreshold)) {
+      cachedQuery.increaseExecuteCount(m_prepareThreshold);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Returns true if the results of the query should be received in binary format by
+   * {@link PGProperty#BINARY_TRANSFER_ADAPTIVE}. That takes a named statement and a describe on
+   * the first execution, which only pays off for statements that are executed again, so plain
+   * statements never qualify.
+   *
+   * @param cachedQuery to check
+   * @return true if the query is prepared server side and described on first execution
+   */
+  protected boolean isAdaptiveBinaryQuery(CachedQuery cachedQuery) {
     return false;
   }
 
@@ -494,11 +523,12 @@ public class PgStatement implements Statement, BaseStatement {
         }
       }
 
-      if (isOneShotQuery(cachedQuery)) {
-        flags |= QueryExecutor.QUERY_ONESHOT;
-      }
       // Only use named statements after we hit the threshold. Note that only
       // named statements can be transferred in binary format.
+      boolean adaptiveBinary = isAdaptiveBinaryQuery(cachedQuery);
+      if (isOneShotQuery(cachedQuery) && !adaptiveBinary) {
+        flags |= QueryExecutor.QUERY_ONESHOT;
+      }
 
       if (connection.getAutoCommit()) {
         flags |= QueryExecutor.QUERY_SUPPRESS_BEGIN;
@@ -515,11 +545,12 @@ public class PgStatement implements Statement, BaseStatement {
         flags |= QueryExecutor.QUERY_SUPPRESS_BEGIN;
       }
 
-      if (!queryToExecute.isStatementDescribed() && forceBinaryTransfers
+      if (!queryToExecute.isStatementDescribed() && (forceBinaryTransfers || adaptiveBinary)
               && (flags & QueryExecutor.QUERY_EXECUTE_AS_SIMPLE) == 0) {
         // Simple 'Q' execution does not need to know parameter types
         // When binaryTransfer is forced, then we need to know resulting parameter and column types,
-        // thus sending a describe request.
+        // thus sending a describe request. In adaptive mode the described column types are kept
+        // with the named statement, so later executions bind binary result formats directly.
         int flags2 = flags | QueryExecutor.QUERY_DESCRIBE_ONLY;
         StatementResultHandler handler2 = new StatementResultHandler();
         if (clientLogic != null) {
@@ -1053,7 +1084,10 @@ public class PgStatement implements Statement, BaseStatement {
       result = null;
     }
 
-    if(((PgConnection)this.connection).isBatchInsert() && parameterLists != null && checkParameterList(parameterLists)) {
+    // batch bind sends every parameter list with the first query, rewritten inserts of different
+    // block sizes are pipelined instead
+    if(((PgConnection)this.connection).isBatchInsert() && parameterLists != null && checkParameterList(parameterLists)
+        && isSingleQuery(queries)) {
     	try {
     		startTimer();
 			connection.getQueryExecutor().executeBatch(queries,
@@ -1123,18 +1157,19 @@ public class PgStatement implements Statement, BaseStatement {
     if (batchStatements == null || batchStatements.isEmpty()) {
       return new int[0];
     }
-    
-    if (this.connection instanceof PgConnection) {
-      PgConnection con = (PgConnection) this.connection;
-      if (con.isBatchInsert() && batchStatements.get(0).getSqlCommand().isBatchedReWriteCompatible()) {
-        throw new PSQLException(GT.tr("batchMode and reWriteBatchedInserts can not both set true!"),
-                PSQLState.NOT_IMPLEMENTED);
-      }
-    }
 
     return internalExecuteBatch().getUpdateCount();
   }
 
+  private static boolean isSingleQuery(Query[] queries) {
+    for (int i = 1; i < queries.length; i++) {
+      if (queries[i] != queries[0]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
 	public boolean checkParameterList(ParameterList[] paramlist){
 		for(int i=0; i< paramlist.length; i++){
 			if(paramlist[i] == null){
@@ -1218,16 +1253,22 @@ public class PgStatement implements Statement, BaseStatement {
 
     TimerTask cancelTask = new TimerTask() {
       public void run() {
-        try {
-          if (!connection.getTimerUpdater().compareAndSet(PgStatement.this, this, null)) {
-            // Nothing to do here, statement has already finished and cleared
-            // cancelTimerTask reference
-            return;
-          }
-          PgStatement.this.cancel();
-        } catch (SQLException e) {
-            LOGGER.trace("Catch SQLException while cancel this Statement. ", e);
+        if (!connection.getTimerUpdater().compareAndSet(PgStatement.this, this, null)) {
+          // Nothing to do here, statement has already finished and cleared
+          // cancelTimerTask reference
+          return;
         }
+        // Cancel needs a new connection to the server, keep it off the shared timer thread
+        CancelDispatcher.getInstance().execute(new Runnable() {
+          @Override
+          public void run() {
+            try {
+              PgStatement.this.cancel();
+            } catch (SQLException e) {
+              LOGGER.trace("Catch SQLException while cancel this Statement. ", e);
+            }
+          }
+        });
       }
     };
 
@@ -1301,6 +1342,10 @@ public class PgStatement implements Statement, BaseStatement {
     return forceBinaryTransfers;
   }
 
+  protected boolean getBinaryTransferAdaptive() {
+    return binaryTransferAdaptive;
+  }
+
   @Override
   public long getLargeUpdateCount() throws SQLException {
     synchronized (this) {
@@ -6,6 +6,7 @@ package org.postgresql.jdbc;
 
 import org.postgresql.readwritesplitting.ReadWriteSplittingPgConnection;
 import org.postgresql.readwritesplitting.SqlRouteEngine;
+import org.postgresql.util.HostSpec;
 
 import java.io.InputStream;
 import java.io.Reader;
@@ -38,6 +39,10 @@ import java.util.Calendar;
 public class ReadWriteSplittingPgPreparedStatement implements PreparedStatement {
     private final PreparedStatement pgPreparedStatement;
 
+    private final ReadWriteSplittingPgConnection readWriteSplittingPgConnection;
+
+    private final HostSpec routedHostSpec;
+
     /**
      * Constructor.
      *
@@ -47,8 +52,11 @@ public class ReadWriteSplittingPgPreparedStatement implements PreparedStatement
      */
     public ReadWriteSplittingPgPreparedStatement(ReadWriteSplittingPgConnection readWriteSplittingPgConnection,
                                                  String sql) throws SQLException {
-        Connection pgConnection = SqlRouteEngine.getRoutedConnection(readWriteSplittingPgConnection, sql);
-        pgPreparedStatement = pgConnection.prepareStatement(sql);
+        this.readWriteSplittingPgConnection = readWriteSplittingPgConnection;
+        routedHostSpec = SqlRouteEngine.route(sql, readWriteSplittingPgConnection);
+        Connection pgConnection = SqlRouteEngine.getConnection(readWriteSplittingPgConnection, routedHostSpec);
+        pgPreparedStatement = readWriteSplittingPgConnection.getConnectionManager().register(
+                pgConnection.prepareStatement(sql));
     }
 
     /**
@@ -61,8 +69,11 @@ public class ReadWriteSplittingPgPreparedStatement implements PreparedStatement
      */
     public ReadWriteSplittingPgPreparedStatement(ReadWriteSplittingPgConnection readWriteSplittingPgConnection,
                                                  String sql, int autoGeneratedKeys) throws SQLException {
-        Connection pgConnection = SqlRouteEngine.getRoutedConnection(readWriteSplittingPgConnection, sql);
-        pgPreparedStatement = pgConnection.prepareStatement(sql, autoGeneratedKeys);
+        this.readWriteSplittingPgConnection = readWriteSplittingPgConnection;
+        routedHostSpec = SqlRouteEngine.route(sql, readWriteSplittingPgConnection);
+        Connection pgConnection = SqlRouteEngine.getConnection(readWriteSplittingPgConnection, routedHostSpec);
+        pgPreparedStatement = readWriteSplittingPgConnection.getConnectionManager().register(
+                pgConnection.prepareStatement(sql, autoGeneratedKeys));
     }
 
     /**
@@ -76,8 +87,11 @@ public class ReadWriteSplittingPgPreparedStatement implements PreparedStatement
      */
     public ReadWriteSplittingPgPreparedStatement(ReadWriteSplittingPgConnection readWriteSplittingPgConnection,
         String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
-        Connection pgConnection = SqlRouteEngine.getRoutedConnection(readWriteSplittingPgConnection, sql);
-        pgPreparedStatement = pgConnection.prepareStatement(sql, resultSetType, resultSetConcurrency);
+        this.readWriteSplittingPgConnection = readWriteSplittingPgConnection;
+        routedHostSpec = SqlRouteEngine.route(sql, readWriteSplittingPgConnection);
+        Connection pgConnection = SqlRouteEngine.getConnection(readWriteSplittingPgConnection, routedHostSpec);
+        pgPreparedStatement = readWriteSplittingPgConnection.getConnectionManager().register(
+                pgConnection.prepareStatement(sql, resultSetType, resultSetConcurrency));
     }
 
     /**
@@ -90,8 +104,11 @@ public class ReadWriteSplittingPgPreparedStatement implements PreparedStatement
      */
     public ReadWriteSplittingPgPreparedStatement(ReadWriteSplittingPgConnection readWriteSplittingPgConnection,
                                                  String sql, int[] columnIndexes) throws SQLException {
-        Connection pgConnection = SqlRouteEngine.getRoutedConnection(readWriteSplittingPgConnection, sql);
-        pgPreparedStatement = pgConnection.prepareStatement(sql, columnIndexes);
+        this.readWriteSplittingPgConnection = readWriteSplittingPgConnection;
+        routedHostSpec = SqlRouteEngine.route(sql, readWriteSplittingPgConnection);
+        Connection pgConnection = SqlRouteEngine.getConnection(readWriteSplittingPgConnection, routedHostSpec);
+        pgPreparedStatement = readWriteSplittingPgConnection.getConnectionManager().register(
+                pgConnection.prepareStatement(sql, columnIndexes));
     }
 
     /**
@@ -104,8 +121,11 @@ public class ReadWriteSplittingPgPreparedStatement implements PreparedStatement
      */
     public ReadWriteSplittingPgPreparedStatement(ReadWriteSplittingPgConnection readWriteSplittingPgConnection,
                                                  String sql, String[] columnNames) throws SQLException {
-        Connection pgConnection = SqlRouteEngine.getRoutedConnection(readWriteSplittingPgConnection, sql);
-        pgPreparedStatement = pgConnection.prepareStatement(sql, columnNames);
+        this.readWriteSplittingPgConnection = readWriteSplittingPgConnection;
+        routedHostSpec = SqlRouteEngine.route(sql, readWriteSplittingPgConnection);
+        Connection pgConnection = SqlRouteEngine.getConnection(readWriteSplittingPgConnection, routedHostSpec);
+        pgPreparedStatement = readWriteSplittingPgConnection.getConnectionManager().register(
+                pgConnection.prepareStatement(sql, columnNames));
     }
 
     /**
@@ -121,19 +141,21 @@ public class ReadWriteSplittingPgPreparedStatement implements PreparedStatement
     public ReadWriteSplittingPgPreparedStatement(ReadWriteSplittingPgConnection readWriteSplittingPgConnection,
                                                  String sql, int resultSetType, int resultSetConcurrency,
                                                  int resultSetHoldability) throws SQLException {
-        Connection pgConnection = SqlRouteEngine.getRoutedConnection(readWriteSplittingPgConnection, sql);
-        pgPreparedStatement = pgConnection.prepareStatement(sql, resultSetType, resultSetConcurrency,
-                resultSetHoldability);
+        this.readWriteSplittingPgConnection = readWriteSplittingPgConnection;
+        routedHostSpec = SqlRouteEngine.route(sql, readWriteSplittingPgConnection);
+        Connection pgConnection = SqlRouteEngine.getConnection(readWriteSplittingPgConnection, routedHostSpec);
+        pgPreparedStatement = readWriteSplittingPgConnection.getConnectionManager().register(
+                pgConnection.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability));
     }
 
     @Override
     public ResultSet executeQuery() throws SQLException {
-        return pgPreparedStatement.executeQuery();
+        return readWriteSplittingPgConnection.execute(routedHostSpec, pgPreparedStatement::executeQuery);
     }
 
     @Override
     public int executeUpdate() throws SQLException {
-        return pgPreparedStatement.executeUpdate();
+        return readWriteSplittingPgConnection.execute(routedHostSpec, pgPreparedStatement::executeUpdate);
     }
 
     @Override
@@ -238,7 +260,7 @@ public class ReadWriteSplittingPgPreparedStatement implements PreparedStatement
 
     @Override
     public boolean execute() throws SQLException {
-        return pgPreparedStatement.execute();
+        return readWriteSplittingPgConnection.execute(routedHostSpec, pgPreparedStatement::execute);
     }
 
 
@@ -534,7 +556,7 @@ public class ReadWriteSplittingPgPreparedStatement implements PreparedStatement
 
     @Override
     public int[] executeBatch() throws SQLException {
-        return pgPreparedStatement.executeBatch();
+        return readWriteSplittingPgConnection.execute(routedHostSpec, pgPreparedStatement::executeBatch);
     }
 
     @Override
@@ -0,0 +1,1087 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.jdbc;
+
+import org.postgresql.PGStatement;
+import org.postgresql.util.GT;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.PSQLState;
+
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.chrono.IsoEra;
+import java.time.temporal.ChronoField;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.SimpleTimeZone;
+import java.util.TimeZone;
+
+/**
+ * <p>Thread-safe codec for the text representation of date/time values.</p>
+ *
+ * <p>Values are parsed straight from the ASCII bytes of a row buffer and formatted straight into
+ * a caller-supplied byte array, so no intermediate {@link String} or shared {@link Calendar} is
+ * needed. The only state is the configured nano format and a single-entry zone rules cache that
+ * holds immutable entries, so one instance can be used by any number of threads without
+ * locking.</p>
+ *
+ * <p>Wall-clock to instant conversions go through {@link ZoneRules} for dates from the first
+ * transition of the zone or 1900 on, whichever is later, that are not in a DST gap or overlap.
+ * Everything else (older dates that the rules give in local mean time, gaps, overlaps, zones
+ * without rules) falls back to a fresh {@link GregorianCalendar} so the results stay identical to the
+ * historical {@link Calendar} based implementation.</p>
+ */
+public final class TimestampCodec {
+  /**
+   * Upper bound of the number of bytes written by any of the {@code format} methods.
+   */
+  public static final int MAX_FORMATTED_LENGTH = 48;
+
+  private static final long MILLIS_PER_DAY = 24 * 3600 * 1000L;
+  private static final int SECONDS_PER_DAY = 24 * 3600;
+  // 1582-10-15, the first day of the Gregorian calendar as used by GregorianCalendar
+  private static final long GREGORIAN_CUTOVER_MILLIS = -12219292800000L;
+  private static final int FIRST_GREGORIAN_YEAR = 1583;
+  // 1900-01-01T00:00Z, TimeZone does not know the transitions of the tz database before 1900
+  private static final long TIME_ZONE_HISTORY_START_SECONDS = -2208988800L;
+  private static final int MAX_NANOS_BEFORE_WRAP_ON_ROUND = 999999500;
+  private static final java.time.Duration ONE_MICROSECOND = java.time.Duration.ofNanos(1000);
+  // LocalTime.MAX is 23:59:59.999_999_999, and it wraps to 24:00:00 when nanos exceed 999_999_499
+  // since PostgreSQL has microsecond resolution only
+  private static final LocalTime MAX_TIME = LocalTime.MAX.minus(java.time.Duration.ofNanos(500));
+  private static final OffsetDateTime MAX_OFFSET_DATETIME =
+      OffsetDateTime.MAX.minus(java.time.Duration.ofMillis(500));
+  private static final LocalDateTime MAX_LOCAL_DATETIME =
+      LocalDateTime.MAX.minus(java.time.Duration.ofMillis(500));
+  // low value for dates is   4713 BC
+  private static final LocalDate MIN_LOCAL_DATE =
+      LocalDate.of(4713, 1, 1).with(ChronoField.ERA, IsoEra.BCE.getValue());
+  private static final LocalDateTime MIN_LOCAL_DATETIME = MIN_LOCAL_DATE.atStartOfDay();
+  private static final OffsetDateTime MIN_OFFSET_DATETIME =
+      MIN_LOCAL_DATETIME.atOffset(ZoneOffset.UTC);
+
+  private static final byte[] INFINITY = {'i', 'n', 'f', 'i', 'n', 'i', 't', 'y'};
+  private static final byte[] NEGATIVE_INFINITY = {'-', 'i', 'n', 'f', 'i', 'n', 'i', 't', 'y'};
+  private static final byte[] TIME_24 = {'2', '4', ':', '0', '0', ':', '0', '0'};
+
+  private final int timestampNanoFormat;
+
+  private volatile ZoneEntry zoneCache;
+
+  public TimestampCodec(int timestampNanoFormat) {
+    this.timestampNanoFormat = timestampNanoFormat;
+  }
+
+  public int getTimestampNanoFormat() {
+    return timestampNanoFormat;
+  }
+
+  /**
+   * Result of parsing a backend date/time literal. Instances are never shared between threads.
+   */
+  static final class ParsedTimestamp {
+    boolean hasDate = false;
+    int era = GregorianCalendar.AD;
+    int year = 1970;
+    int month = 1;
+
+    boolean hasTime = false;
+    int day = 1;
+    int hour = 0;
+    int minute = 0;
+    int second = 0;
+    int nanos = 0;
+
+    boolean hasOffset = false;
+    int offsetSeconds = 0;
+  }
+
+  /**
+   * Immutable pairing of a {@link TimeZone} instance with its rules, {@code rules} is null when
+   * the zone cannot be represented by {@link ZoneRules} faithfully. Before {@code rulesFrom}
+   * (local epoch seconds) the rules use local mean time and the like, which {@link TimeZone} does
+   * not, so older wall clock times go through the calendar.
+   */
+  private static final class ZoneEntry {
+    final TimeZone tz;
+    final ZoneRules rules;
+    final long rulesFrom;
+
+    ZoneEntry(TimeZone tz, ZoneRules rules, long rulesFrom) {
+      this.tz = tz;
+      this.rules = rules;
+      this.rulesFrom = rulesFrom;
+    }
+  }
+
+  //
+  // Parsing
+  //
+
+  static boolean isPositiveInfinity(byte[] s, int off, int len) {
+    return matches(INFINITY, s, off, len);
+  }
+
+  static boolean isNegativeInfinity(byte[] s, int off, int len) {
+    return matches(NEGATIVE_INFINITY, s, off, len);
+  }
+
+  private static boolean matches(byte[] expected, byte[] s, int off, int len) {
+    if (len != expected.length) {
+      return false;
+    }
+    for (int i = 0; i < len; i++) {
+      if (s[off + i] != expected[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Parses a backend date/time literal. All fields are optional (but some combinations don't make
+   * sense, e.g. if you have both date and time then they must be whitespace-separated), at least
+   * one of date and time must be present:
+   * leading whitespace, yyyy-mm-dd, whitespace, hh:mm:ss[.fraction], whitespace, timezone in one
+   * of the formats +hh, -hh, +hh:mm, -hh:mm, +hh:mm:ss, whitespace, era (AD or BC, only with a
+   * date), trailing whitespace.
+   *
+   * @param s buffer holding the ASCII encoded literal
+   * @param off offset of the literal in {@code s}
+   * @param len length of the literal
+   * @return parsed fields
+   * @throws SQLException if the literal is malformed
+   */
+  ParsedTimestamp parse(byte[] s, int off, int len) throws SQLException {
+    ParsedTimestamp result = new ParsedTimestamp();
+    int slen = off + len;
+
+    try {
+      int start = firstDigit(s, off, slen); // Skip leading whitespace
+      int end = firstNonDigit(s, start, slen);
+      int sep;
+
+      // Possibly read date.
+      if (charAt(s, end, slen) == '-') {
+        result.hasDate = true;
+
+        // year
+        result.year = number(s, start, end);
+        start = end + 1; // Skip '-'
+
+        // month
+        end = firstNonDigit(s, start, slen);
+        result.month = number(s, start, end);
+
+        sep = charAt(s, end, slen);
+        if (sep != '-') {
+          throw new NumberFormatException("Expected date to be dash-separated, got '" + (char) sep + "'");
+        }
+
+        start = end + 1; // Skip '-'
+
+        // day of month
+        end = firstNonDigit(s, start, slen);
+        result.day = number(s, start, end);
+
+        start = skipWhitespace(s, end, slen); // Skip trailing whitespace
+      } else if (slen == end) {
+        result.year = number(s, start, end);
+        result.month = 1;
+        result.day = 1;
+        return result;
+      }
+
+      // Possibly read time.
+      if (isDigit(charAt(s, start, slen))) {
+        result.hasTime = true;
+
+        // hours
+        end = firstNonDigit(s, start, slen);
+        result.hour = number(s, start, end);
+
+        sep = charAt(s, end, slen);
+        if (sep != ':') {
+          throw new NumberFormatException("Expected time to be colon-separated, got '" + (char) sep + "'");
+        }
+
+        start = end + 1; // Skip ':'
+
+        // minutes
+        end = firstNonDigit(s, start, slen);
+        result.minute = number(s, start, end);
+
+        sep = charAt(s, end, slen);
+        if (sep != ':') {
+          throw new NumberFormatException("Expected time to be colon-separated, got '" + (char) sep + "'");
+        }
+
+        start = end + 1; // Skip ':'
+
+        // seconds
+        end = firstNonDigit(s, start, slen);
+        result.second = number(s, start, end);
+        start = end;
+
+        // Fractional seconds.
+        if (charAt(s, start, slen) == '.') {
+          end = firstNonDigit(s, start + 1, slen); // Skip '.'
+          int num = number(s, start + 1, end);
+
+          for (int numlength = (end - (start + 1)); numlength < 9; ++numlength) {
+            num *= 10;
+          }
+
+          result.nanos = num;
+          start = end;
+        }
+
+        start = skipWhitespace(s, start, slen); // Skip trailing whitespace
+      }
+
+      // Possibly read timezone.
+      sep = charAt(s, start, slen);
+      if (sep == '-' || sep == '+') {
+        int tzsign = (sep == '-') ? -1 : 1;
+        int tzhr;
+        int tzmin = 0;
+        int tzsec = 0;
+
+        end = firstNonDigit(s, start + 1, slen); // Skip +/-
+        tzhr = number(s, start + 1, end);
+        start = end;
+
+        if (charAt(s, start, slen) == ':') {
+          end = firstNonDigit(s, start + 1, slen); // Skip ':'
+          tzmin = number(s, start + 1, end);
+          start = end;
+        }
+
+        if (charAt(s, start, slen) == ':') {
+          end = firstNonDigit(s, start + 1, slen); // Skip ':'
+          tzsec = number(s, start + 1, end);
+          start = end;
+        }
+
+        result.hasOffset = true;
+        result.offsetSeconds = tzsign * ((tzhr * 60 + tzmin) * 60 + tzsec);
+
+        start = skipWhitespace(s, start, slen); // Skip trailing whitespace
+      }
+
+      if (result.hasDate && start + 1 < slen) {
+        if (s[start] == 'A' && s[start + 1] == 'D') {
+          result.era = GregorianCalendar.AD;
+          start += 2;
+        } else if (s[start] == 'B' && s[start + 1] == 'C') {
+          result.era = GregorianCalendar.BC;
+          start += 2;
+        }
+      }
+
+      if (start < slen) {
+        throw new NumberFormatException(
+            "Trailing junk on timestamp: '" + ascii(s, start, slen - start) + "'");
+      }
+
+      if (!result.hasTime && !result.hasDate) {
+        throw new NumberFormatException("Timestamp has neither date nor time");
+      }
+
+    } catch (NumberFormatException nfe) {
+      throw new PSQLException(
+          GT.tr("Bad value for type timestamp/date/time: {1}", ascii(s, off, len)),
+          PSQLState.BAD_DATETIME_FORMAT, nfe);
+    }
+
+    return result;
+  }
+
+  /**
+   * Parses a text timestamp. A time zone contained in the literal takes precedence over
+   * {@code tz}.
+   *
+   * @param tz time zone used for literals without offset, never null
+   * @param s buffer holding the ASCII encoded literal
+   * @param off offset of the literal in {@code s}
+   * @param len length of the literal
+   * @return parsed timestamp
+   * @throws SQLException if the literal is malformed
+   */
+  public Timestamp toTimestamp(TimeZone tz, byte[] s, int off, int len) throws SQLException {
+    if (isPositiveInfinity(s, off, len)) {
+      return new Timestamp(PGStatement.DATE_POSITIVE_INFINITY);
+    }
+    if (isNegativeInfinity(s, off, len)) {
+      return new Timestamp(PGStatement.DATE_NEGATIVE_INFINITY);
+    }
+
+    ParsedTimestamp ts = parse(s, off, len);
+    int year = ts.year;
+    if (len == 2 || len == 1) {
+      if (year <= 69) {
+        year += 100;
+      }
+      year += 1900;
+    }
+    Timestamp result = new Timestamp(toEpochMillis(ts, tz, ts.era, year, ts.month, ts.day));
+    result.setNanos(ts.nanos);
+    return result;
+  }
+
+  /**
+   * Parses a text date, the result is truncated to midnight in {@code tz}.
+   *
+   * @param tz time zone of the resulting date, never null
+   * @param s buffer holding the ASCII encoded literal
+   * @param off offset of the literal in {@code s}
+   * @param len length of the literal
+   * @return parsed date
+   * @throws SQLException if the literal is malformed
+   */
+  public Date toDate(TimeZone tz, byte[] s, int off, int len) throws SQLException {
+    Timestamp timestamp = toTimestamp(tz, s, off, len);
+    return convertToDate(timestamp.getTime(), tz);
+  }
+
+  /**
+   * Parses a text time, the date part of the result is 1970-01-01.
+   *
+   * @param tz time zone used for literals without offset, never null
+   * @param s buffer holding the ASCII encoded literal
+   * @param off offset of the literal in {@code s}
+   * @param len length of the literal
+   * @return parsed time
+   * @throws SQLException if the literal is malformed
+   */
+  public Time toTime(TimeZone tz, byte[] s, int off, int len) throws SQLException {
+    ParsedTimestamp ts = parse(s, off, len);
+    if (ts.hasOffset) {
+      // When time zone is given, we just pick the time part and assume date to be 1970-01-01
+      // this is used for time, timez, and timestamptz parsing
+      long millis = toEpochMillis(ts, tz, GregorianCalendar.AD, 1970, 1, 1);
+      return new Time(millis + ts.nanos / 1000000);
+    }
+    // When no time zone provided (e.g. time or timestamp) we get the year-month-day from the
+    // string, then truncate the day to 1970-01-01. This cannot be merged with the branch above
+    // since timestamps at which the time flips to/from DST depend on the date
+    long millis = toEpochMillis(ts, tz, ts.era, ts.year, ts.month, ts.day) + ts.nanos / 1000000;
+    if (ts.year == 1970 && ts.era == GregorianCalendar.AD) {
+      return new Time(millis);
+    }
+    return convertToTime(millis, tz);
+  }
+
+  /**
+   * Parses a text timestamp ignoring its time zone, 2004-10-19 10:23:54+03:00 is
+   * 2004-10-19 10:23:54 locally.
+   *
+   * @param s buffer holding the ASCII encoded literal
+   * @param off offset of the literal in {@code s}
+   * @param len length of the literal
+   * @return parsed local date time
+   * @throws SQLException if the literal is malformed
+   */
+  public LocalDateTime toLocalDateTime(byte[] s, int off, int len) throws SQLException {
+    if (isPositiveInfinity(s, off, len)) {
+      return LocalDateTime.MAX;
+    }
+    if (isNegativeInfinity(s, off, len)) {
+      return LocalDateTime.MIN;
+    }
+
+    ParsedTimestamp ts = parse(s, off, len);
+    LocalDateTime result =
+        LocalDateTime.of(ts.year, ts.month, ts.day, ts.hour, ts.minute, ts.second, ts.nanos);
+    if (ts.era == GregorianCalendar.BC) {
+      return result.with(ChronoField.ERA, IsoEra.BCE.getValue());
+    }
+    return result;
+  }
+
+  /**
+   * Parses a text timestamp into an offset date time in UTC.
+   *
+   * @param s buffer holding the ASCII encoded literal
+   * @param off offset of the literal in {@code s}
+   * @param len length of the literal
+   * @return parsed offset date time
+   * @throws SQLException if the literal is malformed
+   */
+  public OffsetDateTime toOffsetDateTime(byte[] s, int off, int len) throws SQLException {
+    if (isPositiveInfinity(s, off, len)) {
+      return OffsetDateTime.MAX;
+    }
+    if (isNegativeInfinity(s, off, len)) {
+      return OffsetDateTime.MIN;
+    }
+
+    ParsedTimestamp ts = parse(s, off, len);
+    ZoneOffset zoneOffset = ZoneOffset.ofTotalSeconds(ts.hasOffset ? ts.offsetSeconds : 0);
+    // Postgres is always UTC
+    OffsetDateTime result = OffsetDateTime.of(ts.year, ts.month, ts.day, ts.hour, ts.minute,
+        ts.second, ts.nanos, zoneOffset).withOffsetSameInstant(ZoneOffset.UTC);
+    if (ts.era == GregorianCalendar.BC) {
+      return result.with(ChronoField.ERA, IsoEra.BCE.getValue());
+    }
+    return result;
+  }
+
+  /**
+   * Parses a text time.
+   *
+   * @param s buffer holding the ASCII encoded literal
+   * @param off offset of the literal in {@code s}
+   * @param len length of the literal
+   * @return parsed local time, {@link LocalTime#MAX} for 24:00:00
+   * @throws SQLException if the literal is malformed
+   */
+  public LocalTime toLocalTime(byte[] s, int off, int len) throws SQLException {
+    if (matches(TIME_24, s, off, len)) {
+      return LocalTime.MAX;
+    }
+    ParsedTimestamp ts = parse(s, off, len);
+    if (!ts.hasTime || ts.hasDate || ts.hasOffset) {
+      throw new PSQLException(
+          GT.tr("Bad value for type timestamp/date/time: {1}", ascii(s, off, len)),
+          PSQLState.BAD_DATETIME_FORMAT);
+    }
+    try {
+      return LocalTime.of(ts.hour, ts.minute, ts.second, ts.nanos);
+    } catch (DateTimeException e) {
+      throw new PSQLException(
+          GT.tr("Bad value for type timestamp/date/time: {1}", ascii(s, off, len)),
+          PSQLState.BAD_DATETIME_FORMAT, e);
+    }
+  }
+
+  //
+  // Wall clock <-> instant conversions
+  //
+
+  private long toEpochMillis(ParsedTimestamp ts, TimeZone tz, int era, int year, int month,
+      int day) {
+    if (ts.hasOffset) {
+      if (era == GregorianCalendar.AD && year >= FIRST_GREGORIAN_YEAR) {
+        long localSeconds = localEpochSeconds(year, month, day, ts.hour, ts.minute, ts.second);
+        return (localSeconds - ts.offsetSeconds) * 1000L;
+      }
+      // Setting offset does not seem to work correctly in all cases, so use a synthetic zone
+      TimeZone offsetZone = new SimpleTimeZone(ts.offsetSeconds * 1000, "GMT");
+      return calendarMillis(offsetZone, era, year, month, day, ts.hour, ts.minute, ts.second);
+    }
+    return toEpochMillis(tz, era, year, month, day, ts.hour, ts.minute, ts.second);
+  }
+
+  /**
+   * Converts wall clock fields in {@code tz} to epoch milliseconds with the lenient semantics of
+   * {@link GregorianCalendar}.
+   */
+  long toEpochMillis(TimeZone tz, int era, int year, int month, int day, int hour, int minute,
+      int second) {
+    if (era == GregorianCalendar.AD && year >= FIRST_GREGORIAN_YEAR && month >= 1 && month <= 12) {
+      ZoneEntry entry = getZoneEntry(tz);
+      ZoneRules rules = entry.rules;
+      long localSeconds = localEpochSeconds(year, month, day, hour, minute, second);
+      if (rules != null && localSeconds >= entry.rulesFrom) {
+        LocalDateTime local = LocalDateTime.ofEpochSecond(localSeconds, 0, ZoneOffset.UTC);
+        // Gaps and overlaps are resolved differently by java.time and Calendar
+        if (rules.getTransition(local) == null) {
+          return (localSeconds - rules.getOffset(local).getTotalSeconds()) * 1000L;
+        }
+      }
+    }
+    return calendarMillis(tz, era, year, month, day, hour, minute, second);
+  }
+
+  /**
+   * Given a timestamp {@code millis} that renders as some wall clock time in UTC, returns the
+   * timestamp that renders as the same wall clock time in {@code tz}.
+   *
+   * @param millis source timestamp
+   * @param tz desired time zone, never null
+   * @return timestamp that would be rendered in {@code tz} like {@code millis} in UTC
+   */
+  long withZoneSameLocal(long millis, TimeZone tz) {
+    long epochDay = Math.floorDiv(millis, MILLIS_PER_DAY);
+    int millisOfDay = (int) Math.floorMod(millis, MILLIS_PER_DAY);
+    int era;
+    int year;
+    int month;
+    int day;
+    if (millis >= GREGORIAN_CUTOVER_MILLIS) {
+      LocalDate date = LocalDate.ofEpochDay(epochDay);
+      era = GregorianCalendar.AD;
+      year = date.getYear();
+      month = date.getMonthValue();
+      day = date.getDayOfMonth();
+    } else {
+      Calendar utc = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+      utc.setTimeInMillis(millis);
+      era = utc.get(Calendar.ERA);
+      year = utc.get(Calendar.YEAR);
+      month = utc.get(Calendar.MONTH) + 1;
+      day = utc.get(Calendar.DAY_OF_MONTH);
+    }
+    int secondOfDay = millisOfDay / 1000;
+    return toEpochMillis(tz, era, year, month, day, secondOfDay / 3600, secondOfDay / 60 % 60,
+        secondOfDay % 60) + millisOfDay % 1000;
+  }
+
+  private static long localEpochSeconds(int year, int month, int day, int hour, int minute,
+      int second) {
+    // day, hour, minute and second may overflow their ranges (e.g. 24:00:00), the same way
+    // lenient Calendar handles them
+    long epochDay = LocalDate.of(year, month, 1).toEpochDay() + day - 1;
+    return epochDay * SECONDS_PER_DAY + hour * 3600L + minute * 60L + second;
+  }
+
+  private static long calendarMillis(TimeZone tz, int era, int year, int month, int day,
+      int hour, int minute, int second) {
+    Calendar cal = new GregorianCalendar(tz);
+    cal.clear();
+    cal.set(Calendar.ERA, era);
+    cal.set(Calendar.YEAR, year);
+    cal.set(Calendar.MONTH, month - 1);
+    cal.set(Calendar.DAY_OF_MONTH, day);
+    cal.set(Calendar.HOUR_OF_DAY, hour);
+    cal.set(Calendar.MINUTE, minute);
+    cal.set(Calendar.SECOND, second);
+    cal.set(Calendar.MILLISECOND, 0);
+    return cal.getTimeInMillis();
+  }
+
+  private ZoneEntry getZoneEntry(TimeZone tz) {
+    ZoneEntry entry = zoneCache;
+    if (entry != null && entry.tz == tz) {
+      return entry;
+    }
+    ZoneRules rules;
+    long rulesFrom = Long.MIN_VALUE;
+    if (tz instanceof SimpleTimeZone) {
+      // SimpleTimeZone may carry custom DST rules that are unknown to the zone rules provider
+      rules = tz.useDaylightTime() ? null : ZoneOffset.ofTotalSeconds(tz.getRawOffset() / 1000).getRules();
+    } else {
+      try {
+        rules = tz.toZoneId().getRules();
+      } catch (DateTimeException e) {
+        rules = null;
+      }
+      if (rules != null && !rules.isFixedOffset()) {
+        // use the calendar up to the first transition of the zone, and in any case before 1900;
+        // the extra day covers the difference between local and UTC seconds
+        ZoneOffsetTransition first = rules.nextTransition(Instant.MIN);
+        long firstSeconds = first == null ? Long.MIN_VALUE : first.toEpochSecond();
+        rulesFrom = Math.max(firstSeconds, TIME_ZONE_HISTORY_START_SECONDS) + SECONDS_PER_DAY;
+      }
+    }
+    entry = new ZoneEntry(tz, rules, rulesFrom);
+    zoneCache = entry;
+    return entry;
+  }
+
+  private static boolean isSimpleTimeZone(String id) {
+    return id.startsWith("GMT") || id.startsWith("UTC");
+  }
+
+  /**
+   * Extracts the date part from a timestamp, i.e. truncates it to midnight in {@code tz}.
+   *
+   * @param millis The timestamp from which to extract the date.
+   * @param tz The time zone of the date, never null.
+   * @return The extracted date.
+   */
+  public Date convertToDate(long millis, TimeZone tz) {
+    // no adjustments for the infinity hack values
+    if (millis <= PGStatement.DATE_NEGATIVE_INFINITY
+        || millis >= PGStatement.DATE_POSITIVE_INFINITY) {
+      return new Date(millis);
+    }
+    if (isSimpleTimeZone(tz.getID())) {
+      // Truncate to 00:00 of the day: shift to local time, truncate, shift back
+      int offset = tz.getRawOffset();
+      millis += offset;
+      millis = millis / MILLIS_PER_DAY * MILLIS_PER_DAY;
+      millis -= offset;
+      return new Date(millis);
+    }
+    if (millis >= GREGORIAN_CUTOVER_MILLIS) {
+      long localMillis = millis + tz.getOffset(millis);
+      LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(localMillis, MILLIS_PER_DAY));
+      if (date.getYear() >= FIRST_GREGORIAN_YEAR) {
+        return new Date(toEpochMillis(tz, GregorianCalendar.AD, date.getYear(),
+            date.getMonthValue(), date.getDayOfMonth(), 0, 0, 0));
+      }
+    }
+    Calendar cal = new GregorianCalendar(tz);
+    cal.setTimeInMillis(millis);
+    cal.set(Calendar.HOUR_OF_DAY, 0);
+    cal.set(Calendar.MINUTE, 0);
+    cal.set(Calendar.SECOND, 0);
+    cal.set(Calendar.MILLISECOND, 0);
+    return new Date(cal.getTimeInMillis());
+  }
+
+  /**
+   * Extracts the time part from a timestamp. This method ensures the date part of output timestamp
+   * looks like 1970-01-01 in given timezone.
+   *
+   * @param millis The timestamp from which to extract the time.
+   * @param tz timezone to use, never null.
+   * @return The extracted time.
+   */
+  public Time convertToTime(long millis, TimeZone tz) {
+    if (isSimpleTimeZone(tz.getID())) {
+      // Leave just time part of the day: shift to local time, truncate, shift back
+      int offset = tz.getRawOffset();
+      millis += offset;
+      millis = millis % MILLIS_PER_DAY;
+      millis -= offset;
+      return new Time(millis);
+    }
+    if (millis >= GREGORIAN_CUTOVER_MILLIS) {
+      long localMillis = millis + tz.getOffset(millis);
+      long millisOfDay = Math.floorMod(localMillis, MILLIS_PER_DAY);
+      int secondOfDay = (int) (millisOfDay / 1000);
+      long result = toEpochMillis(tz, GregorianCalendar.AD, 1970, 1, 1, secondOfDay / 3600,
+          secondOfDay / 60 % 60, secondOfDay % 60);
+      return new Time(result + millisOfDay % 1000);
+    }
+    Calendar cal = new GregorianCalendar(tz);
+    cal.setTimeInMillis(millis);
+    cal.set(Calendar.ERA, GregorianCalendar.AD);
+    cal.set(Calendar.YEAR, 1970);
+    cal.set(Calendar.MONTH, 0);
+    cal.set(Calendar.DAY_OF_MONTH, 1);
+    return new Time(cal.getTimeInMillis());
+  }
+
+  //
+  // Formatting
+  //
+
+  /**
+   * Formats a timestamp the way the backend expects it in text mode.
+   *
+   * @param tz time zone to render the timestamp in, never null
+   * @param x the timestamp
+   * @param withTimeZone whether the offset of {@code tz} should be appended
+   * @param dst destination buffer with at least {@link #MAX_FORMATTED_LENGTH} bytes available
+   * @param off offset in {@code dst}
+   * @return the number of bytes written
+   */
+  public int format(TimeZone tz, Timestamp x, boolean withTimeZone, byte[] dst, int off) {
+    long timeMillis = x.getTime();
+    if (timeMillis == PGStatement.DATE_POSITIVE_INFINITY) {
+      return put(INFINITY, dst, off);
+    } else if (timeMillis == PGStatement.DATE_NEGATIVE_INFINITY) {
+      return put(NEGATIVE_INFINITY, dst, off);
+    }
+
+    // Round to microseconds
+    int nanos = x.getNanos();
+    if (nanos >= MAX_NANOS_BEFORE_WRAP_ON_ROUND) {
+      nanos = 0;
+      timeMillis++;
+    } else if (nanosExceed499(nanos)) {
+      // PostgreSQL does not support nanosecond resolution yet, and appendTime will just ignore
+      // 0..999 part of the nanoseconds, however we subtract nanos % 1000 to make the value
+      // a little bit saner for debugging reasons
+      nanos += 1000 - nanos % 1000;
+    }
+
+    Fields f = fields(tz, timeMillis);
+    int pos = off;
+    pos = putDate(dst, pos, f.year, f.month, f.day);
+    dst[pos++] = ' ';
+    pos = putTime(dst, pos, f.hour, f.minute, f.second, nanos, timestampNanoFormat);
+    if (withTimeZone) {
+      pos = putTimeZone(dst, pos, f.offsetSeconds);
+    }
+    if (f.bc) {
+      pos = putEra(dst, pos);
+    }
+    return pos - off;
+  }
+
+  /**
+   * Formats a date the way the backend expects it in text mode.
+   *
+   * @param tz time zone to render the date in, never null
+   * @param x the date
+   * @param withTimeZone whether the offset of {@code tz} should be appended
+   * @param dst destination buffer with at least {@link #MAX_FORMATTED_LENGTH} bytes available
+   * @param off offset in {@code dst}
+   * @return the number of bytes written
+   */
+  public int format(TimeZone tz, Date x, boolean withTimeZone, byte[] dst, int off) {
+    long timeMillis = x.getTime();
+    if (timeMillis == PGStatement.DATE_POSITIVE_INFINITY) {
+      return put(INFINITY, dst, off);
+    } else if (timeMillis == PGStatement.DATE_NEGATIVE_INFINITY) {
+      return put(NEGATIVE_INFINITY, dst, off);
+    }
+
+    Fields f = fields(tz, timeMillis);
+    int pos = off;
+    pos = putDate(dst, pos, f.year, f.month, f.day);
+    if (f.bc) {
+      pos = putEra(dst, pos);
+    }
+    if (withTimeZone) {
+      dst[pos++] = ' ';
+      pos = putTimeZone(dst, pos, f.offsetSeconds);
+    }
+    return pos - off;
+  }
+
+  /**
+   * Formats a time the way the backend expects it in text mode.
+   *
+   * @param tz time zone to render the time in, never null
+   * @param x the time
+   * @param withTimeZone whether the offset of {@code tz} should be appended
+   * @param dst destination buffer with at least {@link #MAX_FORMATTED_LENGTH} bytes available
+   * @param off offset in {@code dst}
+   * @return the number of bytes written
+   */
+  public int format(TimeZone tz, Time x, boolean withTimeZone, byte[] dst, int off) {
+    Fields f = fields(tz, x.getTime());
+    int pos = off;
+    pos = putTime(dst, pos, f.hour, f.minute, f.second, f.millis * 1000000, timestampNanoFormat);
+    if (withTimeZone) {
+      pos = putTimeZone(dst, pos, f.offsetSeconds);
+    }
+    return pos - off;
+  }
+
+  /**
+   * Formats a local date the way the backend expects it in text mode.
+   *
+   * @param localDate the date
+   * @param dst destination buffer with at least {@link #MAX_FORMATTED_LENGTH} bytes available
+   * @param off offset in {@code dst}
+   * @return the number of bytes written
+   */
+  public int format(LocalDate localDate, byte[] dst, int off) {
+    if (LocalDate.MAX.equals(localDate)) {
+      return put(INFINITY, dst, off);
+    } else if (localDate.isBefore(MIN_LOCAL_DATE)) {
+      return put(NEGATIVE_INFINITY, dst, off);
+    }
+    int pos = putDate(dst, off, localDate);
+    if (isBc(localDate)) {
+      pos = putEra(dst, pos);
+    }
+    return pos - off;
+  }
+
+  /**
+   * Formats a local time the way the backend expects it in text mode.
+   *
+   * @param localTime the time
+   * @param dst destination buffer with at least {@link #MAX_FORMATTED_LENGTH} bytes available
+   * @param off offset in {@code dst}
+   * @return the number of bytes written
+   */
+  public int format(LocalTime localTime, byte[] dst, int off) {
+    if (localTime.isAfter(MAX_TIME)) {
+      return put(TIME_24, dst, off);
+    }
+    if (nanosExceed499(localTime.getNano())) {
+      // Technically speaking this is not a proper rounding, however
+      // it relies on the fact that putTime just truncates 000..999 nanosecond part
+      localTime = localTime.plus(ONE_MICROSECOND);
+    }
+    int pos = putTime(dst, off, localTime.getHour(), localTime.getMinute(),
+        localTime.getSecond(), localTime.getNano(), timestampNanoFormat);
+    return pos - off;
+  }
+
+  /**
+   * Formats an offset date time the way the backend expects it in text mode.
+   *
+   * @param offsetDateTime the value
+   * @param dst destination buffer with at least {@link #MAX_FORMATTED_LENGTH} bytes available
+   * @param off offset in {@code dst}
+   * @return the number of bytes written
+   */
+  public int format(OffsetDateTime offsetDateTime, byte[] dst, int off) {
+    if (offsetDateTime.isAfter(MAX_OFFSET_DATETIME)) {
+      return put(INFINITY, dst, off);
+    } else if (offsetDateTime.isBefore(MIN_OFFSET_DATETIME)) {
+      return put(NEGATIVE_INFINITY, dst, off);
+    }
+
+    if (nanosExceed499(offsetDateTime.getNano())) {
+      // Technically speaking this is not a proper rounding, however
+      // it relies on the fact that putTime just truncates 000..999 nanosecond part
+      offsetDateTime = offsetDateTime.plus(ONE_MICROSECOND);
+    }
+    LocalDateTime localDateTime = offsetDateTime.toLocalDateTime();
+    LocalDate localDate = localDateTime.toLocalDate();
+    int pos = putDate(dst, off, localDate);
+    dst[pos++] = ' ';
+    pos = putTime(dst, pos, localDateTime.getHour(), localDateTime.getMinute(),
+        localDateTime.getSecond(), localDateTime.getNano(), timestampNanoFormat);
+    pos = putTimeZone(dst, pos, offsetDateTime.getOffset().getTotalSeconds());
+    if (isBc(localDate)) {
+      pos = putEra(dst, pos);
+    }
+    return pos - off;
+  }
+
+  /**
+   * Formats a local date time to be sent to the backend, it is rendered with the offset of
+   * {@code tz} so the backend can decide between timestamp and timestamptz.
+   *
+   * @param tz time zone used to derive the offset, never null
+   * @param localDateTime the value
+   * @param dst destination buffer with at least {@link #MAX_FORMATTED_LENGTH} bytes available
+   * @param off offset in {@code dst}
+   * @return the number of bytes written
+   */
+  public int format(TimeZone tz, LocalDateTime localDateTime, byte[] dst, int off) {
+    if (localDateTime.isAfter(MAX_LOCAL_DATETIME)) {
+      return put(INFINITY, dst, off);
+    } else if (localDateTime.isBefore(MIN_LOCAL_DATETIME)) {
+      return put(NEGATIVE_INFINITY, dst, off);
+    }
+    return format(localDateTime.atZone(tz.toZoneId()).toOffsetDateTime(), dst, off);
+  }
+
+  /**
+   * Returns true when microsecond part of the time should be increased when rounding to
+   * microseconds.
+   */
+  private static boolean nanosExceed499(int nanos) {
+    return nanos % 1000 > 499;
+  }
+
+  /**
+   * Calendar fields of an instant rendered in a time zone.
+   */
+  private static final class Fields {
+    boolean bc;
+    int year;
+    int month;
+    int day;
+    int hour;
+    int minute;
+    int second;
+    int millis;
+    int offsetSeconds;
+  }
+
+  private static Fields fields(TimeZone tz, long timeMillis) {
+    Fields f = new Fields();
+    f.offsetSeconds = tz.getOffset(timeMillis) / 1000;
+    long localMillis = timeMillis + f.offsetSeconds * 1000L;
+    if (timeMillis >= GREGORIAN_CUTOVER_MILLIS) {
+      long epochDay = Math.floorDiv(localMillis, MILLIS_PER_DAY);
+      long millisOfDay = Math.floorMod(localMillis, MILLIS_PER_DAY);
+      LocalDate date = LocalDate.ofEpochDay(epochDay);
+      if (date.getYear() >= FIRST_GREGORIAN_YEAR) {
+        f.year = date.getYear();
+        f.month = date.getMonthValue();
+        f.day = date.getDayOfMonth();
+        f.hour = (int) (millisOfDay / 3600000);
+        f.minute = (int) (millisOfDay / 60000 % 60);
+        f.second = (int) (millisOfDay / 1000 % 60);
+        f.millis = (int) (millisOfDay % 1000);
+        return f;
+      }
+    }
+    // Julian calendar applies, let GregorianCalendar deal with it
+    Calendar cal = new GregorianCalendar(tz);
+    cal.setTimeInMillis(timeMillis);
+    f.bc = cal.get(Calendar.ERA) == GregorianCalendar.BC;
+    f.year = cal.get(Calendar.YEAR);
+    f.month = cal.get(Calendar.MONTH) + 1;
+    f.day = cal.get(Calendar.DAY_OF_MONTH);
+    f.hour = cal.get(Calendar.HOUR_OF_DAY);
+    f.minute = cal.get(Calendar.MINUTE);
+    f.second = cal.get(Calendar.SECOND);
+    f.millis = cal.get(Calendar.MILLISECOND);
+    f.offsetSeconds = (cal.get(Calendar.ZONE_OFFSET) + cal.get(Calendar.DST_OFFSET)) / 1000;
+    return f;
+  }
+
+  private static boolean isBc(LocalDate localDate) {
+    return localDate.get(ChronoField.ERA) == IsoEra.BCE.getValue();
+  }
+
+  private static int put(byte[] src, byte[] dst, int off) {
+    System.arraycopy(src, 0, dst, off, src.length);
+    return src.length;
+  }
+
+  private static int putDate(byte[] dst, int pos, LocalDate localDate) {
+    return putDate(dst, pos, localDate.get(ChronoField.YEAR_OF_ERA), localDate.getMonthValue(),
+        localDate.getDayOfMonth());
+  }
+
+  private static int putDate(byte[] dst, int pos, int year, int month, int day) {
+    // always use at least four digits for the year so very
+    // early years, like 2, don't get misinterpreted
+    pos = putNumber(dst, pos, year, 4);
+    dst[pos++] = '-';
+    pos = putNumber(dst, pos, month, 2);
+    dst[pos++] = '-';
+    return putNumber(dst, pos, day, 2);
+  }
+
+  /**
+   * Writes the time part in PostgreSQL-compatible format. The function truncates {@code nanos} to
+   * microseconds. The value is expected to be rounded beforehand.
+   */
+  private static int putTime(byte[] dst, int pos, int hours, int minutes, int seconds, int nanos,
+      int format) {
+    pos = putNumber(dst, pos, hours, 2);
+    dst[pos++] = ':';
+    pos = putNumber(dst, pos, minutes, 2);
+    dst[pos++] = ':';
+    pos = putNumber(dst, pos, seconds, 2);
+
+    if (nanos < 1000 && format != 0) {
+      return pos;
+    }
+    dst[pos++] = '.';
+    pos = putNumber(dst, pos, nanos / 1000, 6);
+    // drop trailing zeros, but keep at least one fractional digit
+    int minEnd = pos - 5;
+    while (pos > minEnd && dst[pos - 1] == '0') {
+      pos--;
+    }
+    return pos;
+  }
+
+  private static int putTimeZone(byte[] dst, int pos, int offset) {
+    int absoff = Math.abs(offset);
+    int hours = absoff / 60 / 60;
+    int mins = (absoff - hours * 60 * 60) / 60;
+    int secs = absoff - hours * 60 * 60 - mins * 60;
+
+    dst[pos++] = (byte) (offset >= 0 ? '+' : '-');
+    pos = putNumber(dst, pos, hours, 2);
+    if (mins == 0 && secs == 0) {
+      return pos;
+    }
+    dst[pos++] = ':';
+    pos = putNumber(dst, pos, mins, 2);
+    if (secs != 0) {
+      dst[pos++] = ':';
+      pos = putNumber(dst, pos, secs, 2);
+    }
+    return pos;
+  }
+
+  private static int putEra(byte[] dst, int pos) {
+    dst[pos++] = ' ';
+    dst[pos++] = 'B';
+    dst[pos++] = 'C';
+    return pos;
+  }
+
+  /**
+   * Writes a non-negative number left padded with zeros to at least {@code minDigits} digits.
+   */
+  private static int putNumber(byte[] dst, int pos, int value, int minDigits) {
+    int digits = 1;
+    for (int v = value / 10; v != 0; v /= 10) {
+      digits++;
+    }
+    int width = Math.max(digits, minDigits);
+    int end = pos + width;
+    for (int i = end - 1; i >= pos; i--) {
+      dst[i] = (byte) ('0' + value % 10);
+      value /= 10;
+    }
+    return end;
+  }
+
+  //
+  // Byte scanning helpers
+  //
+
+  private static boolean isDigit(int c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isSpace(int c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+  }
+
+  private static int skipWhitespace(byte[] s, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (!isSpace(s[i])) {
+        return i;
+      }
+    }
+    return end;
+  }
+
+  private static int firstDigit(byte[] s, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (isDigit(s[i])) {
+        return i;
+      }
+    }
+    return end;
+  }
+
+  private static int firstNonDigit(byte[] s, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (!isDigit(s[i])) {
+        return i;
+      }
+    }
+    return end;
+  }
+
+  private static int number(byte[] s, int start, int end) {
+    if (start >= end) {
+      throw new NumberFormatException();
+    }
+    int n = 0;
+    for (int i = start; i < end; i++) {
+      n = 10 * n + (s[i] - '0');
+    }
+    return n;
+  }
+
+  private static int charAt(byte[] s, int pos, int end) {
+    if (pos >= 0 && pos < end) {
+      return s[pos];
+    }
+    return '\0';
+  }
+
+  private static String ascii(byte[] s, int off, int len) {
+    return new String(s, off, len, java.nio.charset.StandardCharsets.ISO_8859_1);
+  }
+}
@@ -17,6 +17,7 @@ import org.postgresql.log.Logger;
 import org.postgresql.log.Log;
 
 import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
 import java.sql.Date;
 import java.sql.SQLException;
 import java.sql.Time;
@@ -28,43 +29,22 @@ import java.time.OffsetDateTime;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
-import java.util.SimpleTimeZone;
 import java.util.TimeZone;
 
 /**
  * Misc utils for handling time and date values.
  */
 public class TimestampUtils {
-  /**
-   * Number of milliseconds in one day.
-   */
-  private static final int ONEDAY = 24 * 3600 * 1000;
   private static final int DAYS = 730120;
   private static final int NON_LEAP_DAYS = 365;
   private static final int LEAP_DAYS = 366;
   private static final int MONTH = 12;
   private static final int DAYS_PER_MONTH = 31;
-  private static final char[] ZEROS = {'0', '0', '0', '0', '0', '0', '0', '0', '0'};
   private static final char[][] NUMBERS;
   private static final HashMap<String, TimeZone> GMT_ZONES = new HashMap<String, TimeZone>();
-  private static final int MAX_NANOS_BEFORE_WRAP_ON_ROUND = 999999500;
-  private static final java.time.Duration ONE_MICROSECOND = java.time.Duration.ofNanos(1000);
-  // LocalTime.MAX is 23:59:59.999_999_999, and it wraps to 24:00:00 when nanos exceed 999_999_499
-  // since PostgreSQL has microsecond resolution only
-  private static final LocalTime MAX_TIME = LocalTime.MAX.minus(java.time.Duration.ofNanos(500));
-  private static final OffsetDateTime MAX_OFFSET_DATETIME = OffsetDateTime.MAX.minus(java.time.Duration.ofMillis(500));
-  private static final LocalDateTime MAX_LOCAL_DATETIME = LocalDateTime.MAX.minus(java.time.Duration.ofMillis(500));
-  // low value for dates is   4713 BC
-  private static final LocalDate MIN_LOCAL_DATE = LocalDate.of(4713, 1, 1).with(java.time.temporal.ChronoField.ERA, java.time.chrono.IsoEra.BCE.getValue());
-  private static final LocalDateTime MIN_LOCAL_DATETIME = MIN_LOCAL_DATE.atStartOfDay();
-  private static final OffsetDateTime MIN_OFFSET_DATETIME = MIN_LOCAL_DATETIME.atOffset(java.time.ZoneOffset.UTC);
   private static final Field DEFAULT_TIME_ZONE_FIELD;
   private static Log LOGGER = Logger.getLogger(TimestampUtils.class.getName());
 
-  private TimeZone prevDefaultZoneFieldValue;
-  private TimeZone defaultTimeZoneCache;
-  private int timestampNanoFormat = 0;
-
   private boolean isDolphin = false;
 
   public void setDolphin(boolean isDolphin) {
@@ -121,15 +101,20 @@ public class TimestampUtils {
     DEFAULT_TIME_ZONE_FIELD = tzField;
   }
 
-  private final StringBuilder sbuf = new StringBuilder();
-
   // This calendar is used when user provides calendar in setX(, Calendar) method.
   // It ensures calendar is Gregorian.
   private final Calendar calendarWithUserTz = new GregorianCalendar();
-  private final TimeZone utcTz = TimeZone.getTimeZone("UTC");
 
-  private Calendar calCache;
-  private int calCacheZone;
+  /**
+   * Text codec doing the actual parsing and formatting, it holds no mutable state so the
+   * text conversions below need no synchronization.
+   */
+  private volatile TimestampCodec codec = new TimestampCodec(0);
+
+  /**
+   * Last observed value of the default time zone field along with its public clone.
+   */
+  private volatile DefaultZone defaultZone;
 
   /**
    * True if the backend uses doubles for time values. False if long is used.
@@ -141,52 +126,28 @@ public class TimestampUtils {
     this.usesDouble = usesDouble;
     this.timeZoneProvider = timeZoneProvider;
   }
-  
+
   public void setTimestampNanoFormat(int format) {
-    this.timestampNanoFormat = format;
+    this.codec = new TimestampCodec(format);
   }
 
-  private Calendar getCalendar(int sign, int hr, int min, int sec) {
-    int rawOffset = sign * (((hr * 60 + min) * 60 + sec) * 1000);
-    if (calCache != null && calCacheZone == rawOffset) {
-      return calCache;
-    }
-
-    StringBuilder zoneID = new StringBuilder("GMT");
-    zoneID.append(sign < 0 ? '-' : '+');
-    if (hr < 10) {
-      zoneID.append('0');
-    }
-    zoneID.append(hr);
-    if (min < 10) {
-      zoneID.append('0');
-    }
-    zoneID.append(min);
-    if (sec < 10) {
-      zoneID.append('0');
-    }
-    zoneID.append(sec);
-
-    TimeZone syntheticTZ = new SimpleTimeZone(rawOffset, zoneID.toString());
-    calCache = new GregorianCalendar(syntheticTZ);
-    calCacheZone = rawOffset;
-    return calCache;
+  /**
+   * Returns the thread-safe codec used for the text representation of date/time values.
+   *
+   * @return the text codec
+   */
+  public TimestampCodec getCodec() {
+    return codec;
   }
 
-  private static class ParsedTimestamp {
-    boolean hasDate = false;
-    int era = GregorianCalendar.AD;
-    int year = 1970;
-    int month = 1;
+  private static final class DefaultZone {
+    final TimeZone fieldValue;
+    final TimeZone timeZone;
 
-    boolean hasTime = false;
-    int day = 1;
-    int hour = 0;
-    int minute = 0;
-    int second = 0;
-    int nanos = 0;
-
-    Calendar tz = null;
+    DefaultZone(TimeZone fieldValue, TimeZone timeZone) {
+      this.fieldValue = fieldValue;
+      this.timeZone = timeZone;
+    }
   }
 
   private static class ParsedBinaryTimestamp {
@@ -200,189 +161,12 @@ public class TimestampUtils {
     NEGATIVE;
   }
 
-  /**
-   * Load date/time information into the provided calendar returning the fractional seconds.
-   */
-  private ParsedTimestamp parseBackendTimestamp(String str) throws SQLException {
-    char[] s = str.toCharArray();
-    int slen = s.length;
-
-    // This is pretty gross..
-    ParsedTimestamp result = new ParsedTimestamp();
-
-    // We try to parse these fields in order; all are optional
-    // (but some combinations don't make sense, e.g. if you have
-    // both date and time then they must be whitespace-separated).
-    // At least one of date and time must be present.
-
-    // leading whitespace
-    // yyyy-mm-dd
-    // whitespace
-    // hh:mm:ss
-    // whitespace
-    // timezone in one of the formats: +hh, -hh, +hh:mm, -hh:mm
-    // whitespace
-    // if date is present, an era specifier: AD or BC
-    // trailing whitespace
-
-    try {
-      int start = firstDigit(s, 0); // Skip leading whitespace
-      int end = firstNonDigit(s, start);
-      int num;
-      char sep;
-
-      // Possibly read date.
-      if (charAt(s, end) == '-') {
-        //
-        // Date
-        //
-        result.hasDate = true;
-
-        // year
-        result.year = number(s, start, end);
-        start = end + 1; // Skip '-'
-
-        // month
-        end = firstNonDigit(s, start);
-        result.month = number(s, start, end);
-
-        sep = charAt(s, end);
-        if (sep != '-') {
-          throw new NumberFormatException("Expected date to be dash-separated, got '" + sep + "'");
-        }
-
-        start = end + 1; // Skip '-'
-
-        // day of month
-        end = firstNonDigit(s, start);
-        result.day = number(s, start, end);
-
-        start = skipWhitespace(s, end); // Skip trailing whitespace
-      } else if (s.length == end) {
-        result.year = number(s, start, end);
-        result.month = 1;
-        result.day = 1;
-        return result;
-      }
-
-      // Possibly read time.
-      if (Character.isDigit(charAt(s, start))) {
-        //
-        // Time.
-        //
-
-        result.hasTime = true;
-
-        // Hours
-
-        end = firstNonDigit(s, start);
-        result.hour = number(s, start, end);
-
-        sep = charAt(s, end);
-        if (sep != ':') {
-          throw new NumberFormatException("Expected time to be colon-separated, got '" + sep + "'");
-        }
-
-        start = end + 1; // Skip ':'
-
-        // minutes
-
-        end = firstNonDigit(s, start);
-        result.minute = number(s, start, end);
-
-        sep = charAt(s, end);
-        if (sep != ':') {
-          throw new NumberFormatException("Expected time to be colon-separated, got '" + sep + "'");
-        }
-
-        start = end + 1; // Skip ':'
-
-        // seconds
-
-        end = firstNonDigit(s, start);
-        result.second = number(s, start, end);
-        start = end;
-
-        // Fractional seconds.
-        if (charAt(s, start) == '.') {
-          end = firstNonDigit(s, start + 1); // Skip '.'
-          num = number(s, start + 1, end);
-
-          for (int numlength = (end - (start + 1)); numlength < 9; ++numlength) {
-            num *= 10;
-          }
-
-          result.nanos = num;
-          start = end;
-        }
-
-        start = skipWhitespace(s, start); // Skip trailing whitespace
-      }
-
-      // Possibly read timezone.
-      sep = charAt(s, start);
-      if (sep == '-' || sep == '+') {
-        int tzsign = (sep == '-') ? -1 : 1;
-        int tzhr;
-        int tzmin;
-        int tzsec;
-
-        end = firstNonDigit(s, start + 1); // Skip +/-
-        tzhr = number(s, start + 1, end);
-        start = end;
-
-        sep = charAt(s, start);
-        if (sep == ':') {
-          end = firstNonDigit(s, start + 1); // Skip ':'
-          tzmin = number(s, start + 1, end);
-          start = end;
-        } else {
-          tzmin = 0;
-        }
-
-        tzsec = 0;
-        sep = charAt(s, start);
-        if (sep == ':') {
-          end = firstNonDigit(s, start + 1); // Skip ':'
-          tzsec = number(s, start + 1, end);
-          start = end;
-        }
-
-        // Setting offset does not seem to work correctly in all
-        // cases.. So get a fresh calendar for a synthetic timezone
-        // instead
-        result.tz = getCalendar(tzsign, tzhr, tzmin, tzsec);
-
-        start = skipWhitespace(s, start); // Skip trailing whitespace
-      }
-
-      if (result.hasDate && start < slen) {
-        String eraString = new String(s, start, slen - start);
-        if (eraString.startsWith("AD")) {
-          result.era = GregorianCalendar.AD;
-          start += 2;
-        } else if (eraString.startsWith("BC")) {
-          result.era = GregorianCalendar.BC;
-          start += 2;
-        }
-      }
-
-      if (start < slen) {
-        throw new NumberFormatException(
-            "Trailing junk on timestamp: '" + new String(s, start, slen - start) + "'");
-      }
-
-      if (!result.hasTime && !result.hasDate) {
-        throw new NumberFormatException("Timestamp has neither date nor time");
-      }
-
-    } catch (NumberFormatException nfe) {
-      throw new PSQLException(
-          GT.tr("Bad value for type timestamp/date/time: {1}", str),
-          PSQLState.BAD_DATETIME_FORMAT, nfe);
-    }
+  private static byte[] asciiBytes(String s) {
+    return s.getBytes(StandardCharsets.ISO_8859_1);
+  }
 
-    return result;
+  private TimeZone timeZoneOf(Calendar cal) {
+    return cal == null ? getDefaultTz() : cal.getTimeZone();
   }
 
   /**
@@ -393,47 +177,26 @@ public class TimestampUtils {
    * @return null if s is null or a timestamp of the parsed string s.
    * @throws SQLException if there is a problem parsing s.
    */
-  public synchronized Timestamp toTimestamp(Calendar cal, String s) throws SQLException {
+  public Timestamp toTimestamp(Calendar cal, String s) throws SQLException {
     if (s == null) {
       return null;
     }
-
-    int slen = s.length();
-
-    // convert postgres's infinity values to internal infinity magic value
-    if (slen == 8 && s.equals("infinity")) {
-      return new Timestamp(PGStatement.DATE_POSITIVE_INFINITY);
-    }
-
-    if (slen == 9 && s.equals("-infinity")) {
-      return new Timestamp(PGStatement.DATE_NEGATIVE_INFINITY);
-    }
-
-    ParsedTimestamp ts = parseBackendTimestamp(s);
-    Calendar useCal = ts.tz != null ? ts.tz : setupCalendar(cal);
-    useCal.set(Calendar.ERA, ts.era);
-    useCal.set(Calendar.YEAR, getYear(ts.year, slen));
-    useCal.set(Calendar.MONTH, ts.month - 1);
-    useCal.set(Calendar.DAY_OF_MONTH, ts.day);
-    useCal.set(Calendar.HOUR_OF_DAY, ts.hour);
-    useCal.set(Calendar.MINUTE, ts.minute);
-    useCal.set(Calendar.SECOND, ts.second);
-    useCal.set(Calendar.MILLISECOND, 0);
-
-    Timestamp result = new Timestamp(useCal.getTimeInMillis());
-    result.setNanos(ts.nanos);
-    return result;
+    return toTimestamp(cal, asciiBytes(s));
   }
 
-  private int getYear(int tsYear, int slen) {
-    int year = tsYear;
-    if (slen == 2 || slen == 1) {
-      if (year <= 69) {
-        year += 100;
-      }
-      year += 1900;
+  /**
+   * Parse the ASCII bytes of a text value and return a timestamp representing its value.
+   *
+   * @param cal calendar to be used to parse the input, or null for the default time zone
+   * @param bytes The ISO formated date bytes to parse.
+   * @return null if bytes is null or a timestamp of the parsed bytes.
+   * @throws SQLException if there is a problem parsing bytes.
+   */
+  public Timestamp toTimestamp(Calendar cal, byte[] bytes) throws SQLException {
+    if (bytes == null) {
+      return null;
     }
-    return year;
+    return codec.toTimestamp(timeZoneOf(cal), bytes, 0, bytes.length);
   }
 
   /**
@@ -447,19 +210,21 @@ public class TimestampUtils {
     if (s == null) {
       return null;
     }
+    return toLocalTime(asciiBytes(s));
+  }
 
-    if (s.equals("24:00:00")) {
-      return LocalTime.MAX;
-    }
-
-    try {
-      return LocalTime.parse(s);
-    } catch (java.time.format.DateTimeParseException nfe) {
-      throw new PSQLException(
-              GT.tr("Bad value for type timestamp/date/time: {1}", s),
-              PSQLState.BAD_DATETIME_FORMAT, nfe);
+  /**
+   * Parse the ASCII bytes of a text value and return a LocalTime representing its value.
+   *
+   * @param bytes The ISO formated time bytes to parse.
+   * @return null if bytes is null or a LocalTime of the parsed bytes.
+   * @throws SQLException if there is a problem parsing bytes.
+   */
+  public LocalTime toLocalTime(byte[] bytes) throws SQLException {
+    if (bytes == null) {
+      return null;
     }
-
+    return codec.toLocalTime(bytes, 0, bytes.length);
   }
 
   /**
@@ -473,28 +238,21 @@ public class TimestampUtils {
     if (s == null) {
       return null;
     }
+    return toLocalDateTime(asciiBytes(s));
+  }
 
-    int slen = s.length();
-
-    // convert postgres's infinity values to internal infinity magic value
-    if (slen == 8 && s.equals("infinity")) {
-      return LocalDateTime.MAX;
-    }
-
-    if (slen == 9 && s.equals("-infinity")) {
-      return LocalDateTime.MIN;
-    }
-
-    ParsedTimestamp ts = parseBackendTimestamp(s);
-
-    // intentionally ignore time zone
-    // 2004-10-19 10:23:54+03:00 is 2004-10-19 10:23:54 locally
-    LocalDateTime result = LocalDateTime.of(ts.year, ts.month, ts.day, ts.hour, ts.minute, ts.second, ts.nanos);
-    if (ts.era == GregorianCalendar.BC) {
-      return result.with(java.time.temporal.ChronoField.ERA, java.time.chrono.IsoEra.BCE.getValue());
-    } else {
-      return result;
+  /**
+   * Parse the ASCII bytes of a text value and return a LocalDateTime representing its value.
+   *
+   * @param bytes The ISO formated date bytes to parse.
+   * @return null if bytes is null or a LocalDateTime of the parsed bytes.
+   * @throws SQLException if there is a problem parsing bytes.
+   */
+  public LocalDateTime toLocalDateTime(byte[] bytes) throws SQLException {
+    if (bytes == null) {
+      return null;
     }
+    return codec.toLocalDateTime(bytes, 0, bytes.length);
   }
 
   /**
@@ -509,38 +267,22 @@ public class TimestampUtils {
     if (s == null) {
       return null;
     }
+    return toOffsetDateTime(asciiBytes(s));
+  }
 
-    int slen = s.length();
-
-    // convert postgres's infinity values to internal infinity magic value
-    if (slen == 8 && s.equals("infinity")) {
-      return OffsetDateTime.MAX;
-    }
-
-    if (slen == 9 && s.equals("-infinity")) {
-      return OffsetDateTime.MIN;
-    }
-
-    ParsedTimestamp ts = parseBackendTimestamp(s);
-
-    Calendar tz = ts.tz;
-    int offsetSeconds;
-    if (tz == null) {
-      offsetSeconds = 0;
-    } else {
-      offsetSeconds = tz.get(Calendar.ZONE_OFFSET) / 1000;
-    }
-    java.time.ZoneOffset zoneOffset = java.time.ZoneOffset.ofTotalSeconds(offsetSeconds);
-    // Postgres is always UTC
-    OffsetDateTime result = OffsetDateTime.of(ts.year, ts.month, ts.day, ts.hour, ts.minute, ts.second, ts.nanos, zoneOffset)
-            .withOffsetSameInstant(java.time.ZoneOffset.UTC);
-    if (ts.era == GregorianCalendar.BC) {
-      return result.with(java.time.temporal.ChronoField.ERA, java.time.chrono.IsoEra.BCE.getValue());
-    } else {
-      return result;
+  /**
+   * Parse the ASCII bytes of a text value and return an OffsetDateTime in UTC.
+   *
+   * @param bytes The ISO formated date bytes to parse.
+   * @return null if bytes is null or an OffsetDateTime of the parsed bytes.
+   * @throws SQLException if there is a problem parsing bytes.
+   */
+  public OffsetDateTime toOffsetDateTime(byte[] bytes) throws SQLException {
+    if (bytes == null) {
+      return null;
     }
+    return codec.toOffsetDateTime(bytes, 0, bytes.length);
   }
-
   /**
    * Returns the offset date time object matching the given bytes with Oid#TIMETZ.
    *
@@ -574,65 +316,49 @@ public class TimestampUtils {
     return OffsetDateTime.ofInstant(instant, java.time.ZoneOffset.UTC);
   }
 
-  public synchronized Time toTime(Calendar cal, String s) throws SQLException {
-    // 1) Parse backend string
+  public Time toTime(Calendar cal, String s) throws SQLException {
     if (s == null) {
       return null;
     }
-    ParsedTimestamp ts = parseBackendTimestamp(s);
-    Calendar useCal = ts.tz != null ? ts.tz : setupCalendar(cal);
-    if (ts.tz == null) {
-      // When no time zone provided (e.g. time or timestamp)
-      // We get the year-month-day from the string, then truncate the day to 1970-01-01
-      // This is used for timestamp -> time conversion
-      // Note: this cannot be merged with "else" branch since
-      // timestamps at which the time flips to/from DST depend on the date
-      // For instance, 2000-03-26 02:00:00 is invalid timestamp in Europe/Moscow time zone
-      // and the valid one is 2000-03-26 03:00:00. That is why we parse full timestamp
-      // then set year to 1970 later
-      useCal.set(Calendar.ERA, ts.era);
-      useCal.set(Calendar.YEAR, ts.year);
-      useCal.set(Calendar.MONTH, ts.month - 1);
-      useCal.set(Calendar.DAY_OF_MONTH, ts.day);
-    } else {
-      // When time zone is given, we just pick the time part and assume date to be 1970-01-01
-      // this is used for time, timez, and timestamptz parsing
-      useCal.set(Calendar.ERA, GregorianCalendar.AD);
-      useCal.set(Calendar.YEAR, 1970);
-      useCal.set(Calendar.MONTH, Calendar.JANUARY);
-      useCal.set(Calendar.DAY_OF_MONTH, 1);
-    }
-    useCal.set(Calendar.HOUR_OF_DAY, ts.hour);
-    useCal.set(Calendar.MINUTE, ts.minute);
-    useCal.set(Calendar.SECOND, ts.second);
-    useCal.set(Calendar.MILLISECOND, 0);
-
-    long timeMillis = useCal.getTimeInMillis() + ts.nanos / 1000000;
-    if (ts.tz != null || (ts.year == 1970 && ts.era == GregorianCalendar.AD)) {
-      // time with time zone has proper time zone, so the value can be returned as is
-      return new Time(timeMillis);
-    }
-
-    // 2) Truncate date part so in given time zone the date would be formatted as 01/01/1970
-    return convertToTime(timeMillis, useCal == null ? null : useCal.getTimeZone());
+    return toTime(cal, asciiBytes(s));
   }
 
-  public synchronized Date toDate(Calendar cal, String s) throws SQLException {
-    // 1) Parse backend string
-    Timestamp timestamp = toTimestamp(cal, s);
-
-    if (timestamp == null) {
+  /**
+   * Parse the ASCII bytes of a text value and return a time, its date part is 1970-01-01.
+   *
+   * @param cal calendar to be used to parse the input, or null for the default time zone
+   * @param bytes The ISO formated time bytes to parse.
+   * @return null if bytes is null or a time of the parsed bytes.
+   * @throws SQLException if there is a problem parsing bytes.
+   */
+  public Time toTime(Calendar cal, byte[] bytes) throws SQLException {
+    if (bytes == null) {
       return null;
     }
+    return codec.toTime(timeZoneOf(cal), bytes, 0, bytes.length);
+  }
 
-    // Note: infinite dates are handled in convertToDate
-    // 2) Truncate date part so in given time zone the date would be formatted as 00:00
-    return convertToDate(timestamp.getTime(), cal == null ? null : cal.getTimeZone());
+  public Date toDate(Calendar cal, String s) throws SQLException {
+    if (s == null) {
+      return null;
+    }
+    return toDate(cal, asciiBytes(s));
   }
 
-  private Calendar setupCalendar(Calendar cal) {
-    TimeZone timeZone = cal == null ? null : cal.getTimeZone();
-    return getSharedCalendar(timeZone);
+  /**
+   * Parse the ASCII bytes of a text value and return a date truncated to 00:00 in the time zone of
+   * {@code cal}. Infinite dates are returned as is.
+   *
+   * @param cal calendar to be used to parse the input, or null for the default time zone
+   * @param bytes The ISO formated date bytes to parse.
+   * @return null if bytes is null or a date of the parsed bytes.
+   * @throws SQLException if there is a problem parsing bytes.
+   */
+  public Date toDate(Calendar cal, byte[] bytes) throws SQLException {
+    if (bytes == null) {
+      return null;
+    }
+    return codec.toDate(timeZoneOf(cal), bytes, 0, bytes.length);
   }
 
   /**
@@ -650,277 +376,56 @@ public class TimestampUtils {
     return tmp;
   }
 
-  /**
-   * Returns true when microsecond part of the time should be increased
-   * when rounding to microseconds
-   * @param nanos nanosecond part of the time
-   * @return true when microsecond part of the time should be increased when rounding to microseconds
-   */
-  private static boolean nanosExceed499(int nanos) {
-    return nanos % 1000 > 499;
+  private static String ascii(byte[] buf, int len) {
+    return new String(buf, 0, len, StandardCharsets.ISO_8859_1);
   }
 
-  public synchronized String toString(Calendar cal, Timestamp x) {
+  public String toString(Calendar cal, Timestamp x) {
     if (isDolphin) {
       return toString(cal, x, false);
     }
     return toString(cal, x, true);
   }
 
-  public synchronized String toString(Calendar cal, Timestamp x,
+  public String toString(Calendar cal, Timestamp x,
       boolean withTimeZone) {
-    if (x.getTime() == PGStatement.DATE_POSITIVE_INFINITY) {
-      return "infinity";
-    } else if (x.getTime() == PGStatement.DATE_NEGATIVE_INFINITY) {
-      return "-infinity";
-    }
-
-    cal = setupCalendar(cal);
-    long timeMillis = x.getTime();
-
-    // Round to microseconds
-    int nanos = x.getNanos();
-    if (nanos >= MAX_NANOS_BEFORE_WRAP_ON_ROUND) {
-      nanos = 0;
-      timeMillis++;
-    } else if (nanosExceed499(nanos)) {
-      // PostgreSQL does not support nanosecond resolution yet, and appendTime will just ignore
-      // 0..999 part of the nanoseconds, however we subtract nanos % 1000 to make the value
-      // a little bit saner for debugging reasons
-      nanos += 1000 - nanos % 1000;
-    }
-    cal.setTimeInMillis(timeMillis);
-
-    sbuf.setLength(0);
-
-    appendDate(sbuf, cal);
-    sbuf.append(' ');
-    appendTime(sbuf, cal, nanos, timestampNanoFormat);
-    if (withTimeZone) {
-      appendTimeZone(sbuf, cal);
-    }
-    appendEra(sbuf, cal);
-
-    return sbuf.toString();
+    byte[] buf = new byte[TimestampCodec.MAX_FORMATTED_LENGTH];
+    return ascii(buf, codec.format(timeZoneOf(cal), x, withTimeZone, buf, 0));
   }
 
-  public synchronized String toString(Calendar cal, Date x) {
+  public String toString(Calendar cal, Date x) {
     return toString(cal, x, true);
   }
 
-  public synchronized String toString(Calendar cal, Date x,
+  public String toString(Calendar cal, Date x,
       boolean withTimeZone) {
-    if (x.getTime() == PGStatement.DATE_POSITIVE_INFINITY) {
-      return "infinity";
-    } else if (x.getTime() == PGStatement.DATE_NEGATIVE_INFINITY) {
-      return "-infinity";
-    }
-
-    cal = setupCalendar(cal);
-    cal.setTime(x);
-
-    sbuf.setLength(0);
-
-    appendDate(sbuf, cal);
-    appendEra(sbuf, cal);
-    if (withTimeZone) {
-      sbuf.append(' ');
-      appendTimeZone(sbuf, cal);
-    }
-
-    return sbuf.toString();
+    byte[] buf = new byte[TimestampCodec.MAX_FORMATTED_LENGTH];
+    return ascii(buf, codec.format(timeZoneOf(cal), x, withTimeZone, buf, 0));
   }
 
-  public synchronized String toString(Calendar cal, Time x) {
+  public String toString(Calendar cal, Time x) {
     return toString(cal, x, true);
   }
 
-  public synchronized String toString(Calendar cal, Time x,
+  public String toString(Calendar cal, Time x,
       boolean withTimeZone) {
-    cal = setupCalendar(cal);
-    cal.setTime(x);
-
-    sbuf.setLength(0);
-
-    appendTime(sbuf, cal, cal.get(Calendar.MILLISECOND) * 1000000, timestampNanoFormat);
-
-    // The 'time' parser for <= 7.3 doesn't like timezones.
-    if (withTimeZone) {
-      appendTimeZone(sbuf, cal);
-    }
-
-    return sbuf.toString();
+    byte[] buf = new byte[TimestampCodec.MAX_FORMATTED_LENGTH];
+    return ascii(buf, codec.format(timeZoneOf(cal), x, withTimeZone, buf, 0));
   }
 
-  private static void appendDate(StringBuilder sb, Calendar cal) {
-    int l_year = cal.get(Calendar.YEAR);
-    int l_month = cal.get(Calendar.MONTH) + 1;
-    int l_day = cal.get(Calendar.DAY_OF_MONTH);
-    appendDate(sb, l_year, l_month, l_day);
+  public String toString(LocalDate localDate) {
+    byte[] buf = new byte[TimestampCodec.MAX_FORMATTED_LENGTH];
+    return ascii(buf, codec.format(localDate, buf, 0));
   }
 
-  private static void appendDate(StringBuilder sb, int year, int month, int day) {
-    // always use at least four digits for the year so very
-    // early years, like 2, don't get misinterpreted
-    //
-    int prevLength = sb.length();
-    sb.append(year);
-    int leadingZerosForYear = 4 - (sb.length() - prevLength);
-    if (leadingZerosForYear > 0) {
-      sb.insert(prevLength, ZEROS, 0, leadingZerosForYear);
-    }
-
-    sb.append('-');
-    sb.append(NUMBERS[month]);
-    sb.append('-');
-    sb.append(NUMBERS[day]);
+  public String toString(LocalTime localTime) {
+    byte[] buf = new byte[TimestampCodec.MAX_FORMATTED_LENGTH];
+    return ascii(buf, codec.format(localTime, buf, 0));
   }
 
-  private static void appendTime(StringBuilder sb, Calendar cal, int nanos, int format) {
-    int hours = cal.get(Calendar.HOUR_OF_DAY);
-    int minutes = cal.get(Calendar.MINUTE);
-    int seconds = cal.get(Calendar.SECOND);
-    appendTime(sb, hours, minutes, seconds, nanos, format);
-  }
-
-  /**
-   * Appends time part to the {@code StringBuilder} in PostgreSQL-compatible format.
-   * The function truncates {@param nanos} to microseconds. The value is expected to be rounded
-   * beforehand.
-   * @param sb destination
-   * @param hours hours
-   * @param minutes minutes
-   * @param seconds seconds
-   * @param nanos nanoseconds
-   */
-  private static void appendTime(StringBuilder sb, int hours, int minutes, int seconds, int nanos, int format) {
-    sb.append(NUMBERS[hours]);
-
-    sb.append(':');
-    sb.append(NUMBERS[minutes]);
-
-    sb.append(':');
-    sb.append(NUMBERS[seconds]);
-
-    // Add nanoseconds.
-    // This won't work for server versions < 7.2 which only want
-    // a two digit fractional second, but we don't need to support 7.1
-    // anymore and getting the version number here is difficult.
-    //
-    if (nanos < 1000 && format != 0) {
-      return;
-    }
-    sb.append('.');
-    int len = sb.length();
-    sb.append(nanos / 1000); // append microseconds
-    final int NANO_BITS = 6;
-    int needZeros = NANO_BITS - (sb.length() - len);
-    if (needZeros > 0) {
-      sb.insert(len, ZEROS, 0, needZeros);
-    }
-
-    int end = sb.length() - 1;
-    int needDelete = NANO_BITS - 1;
-    while (sb.charAt(end) == '0' && needDelete != 0) {
-      sb.deleteCharAt(end);
-      end--;
-      needDelete --;
-    }
-  }
-
-  private void appendTimeZone(StringBuilder sb, java.util.Calendar cal) {
-    int offset = (cal.get(Calendar.ZONE_OFFSET) + cal.get(Calendar.DST_OFFSET)) / 1000;
-
-    appendTimeZone(sb, offset);
-  }
-
-  private void appendTimeZone(StringBuilder sb, int offset) {
-    int absoff = Math.abs(offset);
-    int hours = absoff / 60 / 60;
-    int mins = (absoff - hours * 60 * 60) / 60;
-    int secs = absoff - hours * 60 * 60 - mins * 60;
-
-    sb.append((offset >= 0) ? "+" : "-");
-
-    sb.append(NUMBERS[hours]);
-
-    if (mins == 0 && secs == 0) {
-      return;
-    }
-    sb.append(':');
-
-    sb.append(NUMBERS[mins]);
-
-    if (secs != 0) {
-      sb.append(':');
-      sb.append(NUMBERS[secs]);
-    }
-  }
-
-  private static void appendEra(StringBuilder sb, Calendar cal) {
-    if (cal.get(Calendar.ERA) == GregorianCalendar.BC) {
-      sb.append(" BC");
-    }
-  }
-
-  public synchronized String toString(LocalDate localDate) {
-    if (LocalDate.MAX.equals(localDate)) {
-      return "infinity";
-    } else if (localDate.isBefore(MIN_LOCAL_DATE)) {
-      return "-infinity";
-    }
-
-    sbuf.setLength(0);
-
-    appendDate(sbuf, localDate);
-    appendEra(sbuf, localDate);
-
-    return sbuf.toString();
-  }
-
-  public synchronized String toString(LocalTime localTime) {
-
-    sbuf.setLength(0);
-
-    if (localTime.isAfter(MAX_TIME)) {
-      return "24:00:00";
-    }
-
-    int nano = localTime.getNano();
-    if (nanosExceed499(nano)) {
-      // Technically speaking this is not a proper rounding, however
-      // it relies on the fact that appendTime just truncates 000..999 nanosecond part
-      localTime = localTime.plus(ONE_MICROSECOND);
-    }
-    appendTime(sbuf, localTime, timestampNanoFormat);
-
-    return sbuf.toString();
-  }
-
-  public synchronized String toString(OffsetDateTime offsetDateTime) {
-    if (offsetDateTime.isAfter(MAX_OFFSET_DATETIME)) {
-      return "infinity";
-    } else if (offsetDateTime.isBefore(MIN_OFFSET_DATETIME)) {
-      return "-infinity";
-    }
-
-    sbuf.setLength(0);
-
-    int nano = offsetDateTime.getNano();
-    if (nanosExceed499(nano)) {
-      // Technically speaking this is not a proper rounding, however
-      // it relies on the fact that appendTime just truncates 000..999 nanosecond part
-      offsetDateTime = offsetDateTime.plus(ONE_MICROSECOND);
-    }
-    LocalDateTime localDateTime = offsetDateTime.toLocalDateTime();
-    LocalDate localDate = localDateTime.toLocalDate();
-    appendDate(sbuf, localDate);
-    sbuf.append(' ');
-    appendTime(sbuf, localDateTime.toLocalTime(), timestampNanoFormat);
-    appendTimeZone(sbuf, offsetDateTime.getOffset());
-    appendEra(sbuf, localDate);
-
-    return sbuf.toString();
+  public String toString(OffsetDateTime offsetDateTime) {
+    byte[] buf = new byte[TimestampCodec.MAX_FORMATTED_LENGTH];
+    return ascii(buf, codec.format(offsetDateTime, buf, 0));
   }
 
   /**
@@ -929,53 +434,110 @@ public class TimestampUtils {
    * @param localDateTime The local date to format as a String
    * @return The formatted local date
    */
-  public synchronized String toString(LocalDateTime localDateTime) {
-    if (localDateTime.isAfter(MAX_LOCAL_DATETIME)) {
-      return "infinity";
-    } else if (localDateTime.isBefore(MIN_LOCAL_DATETIME)) {
-      return "-infinity";
-    }
+  public String toString(LocalDateTime localDateTime) {
+    byte[] buf = new byte[TimestampCodec.MAX_FORMATTED_LENGTH];
+    return ascii(buf, codec.format(getDefaultTz(), localDateTime, buf, 0));
+  }
 
-    // LocalDateTime is always passed with time zone so backend can decide between timestamp and timestamptz
-    java.time.ZonedDateTime zonedDateTime = localDateTime.atZone(getDefaultTz().toZoneId());
-    return toString(zonedDateTime.toOffsetDateTime());
+  /**
+   * Same as {@link #toString(Calendar, Timestamp)}, but writes the ASCII bytes that are sent to
+   * the backend into the given buffer.
+   *
+   * @param cal calendar providing the time zone, or null for the default time zone
+   * @param x the value
+   * @param buf buffer with at least {@link TimestampCodec#MAX_FORMATTED_LENGTH} bytes from
+   *     {@code offset} on
+   * @param offset position of the first byte
+   * @return number of bytes written
+   */
+  public int format(Calendar cal, Timestamp x, byte[] buf, int offset) {
+    return codec.format(timeZoneOf(cal), x, !isDolphin, buf, offset);
   }
 
-  private static void appendDate(StringBuilder sb, LocalDate localDate) {
-    int year = localDate.get(java.time.temporal.ChronoField.YEAR_OF_ERA);
-    int month = localDate.getMonthValue();
-    int day = localDate.getDayOfMonth();
-    appendDate(sb, year, month, day);
+  /**
+   * Same as {@link #toString(Calendar, Date)}, but writes the ASCII bytes that are sent to
+   * the backend into the given buffer.
+   *
+   * @param cal calendar providing the time zone, or null for the default time zone
+   * @param x the value
+   * @param buf buffer with at least {@link TimestampCodec#MAX_FORMATTED_LENGTH} bytes from
+   *     {@code offset} on
+   * @param offset position of the first byte
+   * @return number of bytes written
+   */
+  public int format(Calendar cal, Date x, byte[] buf, int offset) {
+    return codec.format(timeZoneOf(cal), x, true, buf, offset);
   }
 
-  private static void appendTime(StringBuilder sb, LocalTime localTime, int format) {
-    int hours = localTime.getHour();
-    int minutes = localTime.getMinute();
-    int seconds = localTime.getSecond();
-    int nanos = localTime.getNano();
-    appendTime(sb, hours, minutes, seconds, nanos, format);
+  /**
+   * Same as {@link #toString(Calendar, Time)}, but writes the ASCII bytes that are sent to
+   * the backend into the given buffer.
+   *
+   * @param cal calendar providing the time zone, or null for the default time zone
+   * @param x the value
+   * @param buf buffer with at least {@link TimestampCodec#MAX_FORMATTED_LENGTH} bytes from
+   *     {@code offset} on
+   * @param offset position of the first byte
+   * @return number of bytes written
+   */
+  public int format(Calendar cal, Time x, byte[] buf, int offset) {
+    return codec.format(timeZoneOf(cal), x, true, buf, offset);
   }
 
-  private void appendTimeZone(StringBuilder sb, java.time.ZoneOffset offset) {
-    int offsetSeconds = offset.getTotalSeconds();
+  /**
+   * Same as {@link #toString(LocalDate)}, but writes the ASCII bytes that are sent to the
+   * backend into the given buffer.
+   *
+   * @param localDate the value
+   * @param buf buffer with at least {@link TimestampCodec#MAX_FORMATTED_LENGTH} bytes from
+   *     {@code offset} on
+   * @param offset position of the first byte
+   * @return number of bytes written
+   */
+  public int format(LocalDate localDate, byte[] buf, int offset) {
+    return codec.format(localDate, buf, offset);
+  }
 
-    appendTimeZone(sb, offsetSeconds);
+  /**
+   * Same as {@link #toString(LocalTime)}, but writes the ASCII bytes that are sent to the
+   * backend into the given buffer.
+   *
+   * @param localTime the value
+   * @param buf buffer with at least {@link TimestampCodec#MAX_FORMATTED_LENGTH} bytes from
+   *     {@code offset} on
+   * @param offset position of the first byte
+   * @return number of bytes written
+   */
+  public int format(LocalTime localTime, byte[] buf, int offset) {
+    return codec.format(localTime, buf, offset);
   }
 
-  private static void appendEra(StringBuilder sb, LocalDate localDate) {
-    if (localDate.get(java.time.temporal.ChronoField.ERA) == java.time.chrono.IsoEra.BCE.getValue()) {
-      sb.append(" BC");
-    }
+  /**
+   * Same as {@link #toString(LocalDateTime)}, but writes the ASCII bytes that are sent to the
+   * backend into the given buffer.
+   *
+   * @param localDateTime the value
+   * @param buf buffer with at least {@link TimestampCodec#MAX_FORMATTED_LENGTH} bytes from
+   *     {@code offset} on
+   * @param offset position of the first byte
+   * @return number of bytes written
+   */
+  public int format(LocalDateTime localDateTime, byte[] buf, int offset) {
+    return codec.format(getDefaultTz(), localDateTime, buf, offset);
   }
 
-  private static int skipWhitespace(char[] s, int start) {
-    int slen = s.length;
-    for (int i = start; i < slen; i++) {
-      if (!Character.isSpace(s[i])) {
-        return i;
-      }
-    }
-    return slen;
+  /**
+   * Same as {@link #toString(OffsetDateTime)}, but writes the ASCII bytes that are sent to the
+   * backend into the given buffer.
+   *
+   * @param offsetDateTime the value
+   * @param buf buffer with at least {@link TimestampCodec#MAX_FORMATTED_LENGTH} bytes from
+   *     {@code offset} on
+   * @param offset position of the first byte
+   * @return number of bytes written
+   */
+  public int format(OffsetDateTime offsetDateTime, byte[] buf, int offset) {
+    return codec.format(offsetDateTime, buf, offset);
   }
 
   /**
@@ -994,34 +556,6 @@ public class TimestampUtils {
     return slen;
   }
 
-  private static int firstNonDigit(char[] s, int start) {
-    int slen = s.length;
-    for (int i = start; i < slen; i++) {
-      if (!Character.isDigit(s[i])) {
-        return i;
-      }
-    }
-    return slen;
-  }
-
-  private static int number(char[] s, int start, int end) {
-    if (start >= end) {
-      throw new NumberFormatException();
-    }
-    int n = 0;
-    for (int i = start; i < end; i++) {
-      n = 10 * n + (s[i] - '0');
-    }
-    return n;
-  }
-
-  private static char charAt(char[] s, int pos) {
-    if (pos >= 0 && pos < s.length) {
-      return s[pos];
-    }
-    return '\0';
-  }
-
   /**
    * Returns the SQL Date object matching the given bytes with {@link Oid#DATE}.
    *
@@ -1060,18 +594,19 @@ public class TimestampUtils {
     if (DEFAULT_TIME_ZONE_FIELD != null) {
       try {
         TimeZone defaultTimeZone = (TimeZone) DEFAULT_TIME_ZONE_FIELD.get(null);
-        if (defaultTimeZone == prevDefaultZoneFieldValue) {
-          return defaultTimeZoneCache;
+        DefaultZone cached = defaultZone;
+        if (cached != null && defaultTimeZone == cached.fieldValue) {
+          return cached.timeZone;
         }
-        prevDefaultZoneFieldValue = defaultTimeZone;
+        TimeZone tz = TimeZone.getDefault();
+        defaultZone = new DefaultZone(defaultTimeZone, tz);
+        return tz;
       } catch (Exception e) {
           // If this were to fail, fallback on slow method.
           LOGGER.trace("Catch Exception while getting time zone. ", e);
       }
     }
-    TimeZone tz = TimeZone.getDefault();
-    defaultTimeZoneCache = tz;
-    return tz;
+    return TimeZone.getDefault();
   }
 
   public boolean hasFastDefaultTimeZone() {
@@ -1281,32 +816,9 @@ public class TimestampUtils {
       // For well-known non-DST time zones, just subtract offset
       return millis - tz.getRawOffset();
     }
-    // For all the other time zones, enjoy debugging Calendar API
-    // Here we do a straight-forward implementation that splits original timestamp into pieces and
-    // composes it back.
-    // Note: cal.setTimeZone alone is not sufficient as it would alter hour (it will try to keep the
-    // same time instant value)
-    Calendar cal = calendarWithUserTz;
-    cal.setTimeZone(utcTz);
-    cal.setTimeInMillis(millis);
-    int era = cal.get(Calendar.ERA);
-    int year = cal.get(Calendar.YEAR);
-    int month = cal.get(Calendar.MONTH);
-    int day = cal.get(Calendar.DAY_OF_MONTH);
-    int hour = cal.get(Calendar.HOUR_OF_DAY);
-    int min = cal.get(Calendar.MINUTE);
-    int sec = cal.get(Calendar.SECOND);
-    int ms = cal.get(Calendar.MILLISECOND);
-    cal.setTimeZone(tz);
-    cal.set(Calendar.ERA, era);
-    cal.set(Calendar.YEAR, year);
-    cal.set(Calendar.MONTH, month);
-    cal.set(Calendar.DAY_OF_MONTH, day);
-    cal.set(Calendar.HOUR_OF_DAY, hour);
-    cal.set(Calendar.MINUTE, min);
-    cal.set(Calendar.SECOND, sec);
-    cal.set(Calendar.MILLISECOND, ms);
-    return cal.getTimeInMillis();
+    // For all the other time zones split original timestamp into pieces and compose it back in
+    // the desired zone.
+    return codec.withZoneSameLocal(millis, tz);
   }
 
   private static boolean isSimpleTimeZone(String id) {
@@ -1321,39 +833,10 @@ public class TimestampUtils {
    * @return The extracted date.
    */
   public Date convertToDate(long millis, TimeZone tz) {
-
-    // no adjustments for the inifity hack values
-    if (millis <= PGStatement.DATE_NEGATIVE_INFINITY
-        || millis >= PGStatement.DATE_POSITIVE_INFINITY) {
-      return new Date(millis);
-    }
     if (tz == null) {
       tz = getDefaultTz();
     }
-    if (isSimpleTimeZone(tz.getID())) {
-      // Truncate to 00:00 of the day.
-      // Suppose the input date is 7 Jan 15:40 GMT+02:00 (that is 13:40 UTC)
-      // We want it to become 7 Jan 00:00 GMT+02:00
-      // 1) Make sure millis becomes 15:40 in UTC, so add offset
-      int offset = tz.getRawOffset();
-      millis += offset;
-      // 2) Truncate hours, minutes, etc. Day is always 86400 seconds, no matter what leap seconds
-      // are
-      millis = millis / ONEDAY * ONEDAY;
-      // 2) Now millis is 7 Jan 00:00 UTC, however we need that in GMT+02:00, so subtract some
-      // offset
-      millis -= offset;
-      // Now we have brand-new 7 Jan 00:00 GMT+02:00
-      return new Date(millis);
-    }
-    Calendar cal = calendarWithUserTz;
-    cal.setTimeZone(tz);
-    cal.setTimeInMillis(millis);
-    cal.set(Calendar.HOUR_OF_DAY, 0);
-    cal.set(Calendar.MINUTE, 0);
-    cal.set(Calendar.SECOND, 0);
-    cal.set(Calendar.MILLISECOND, 0);
-    return new Date(cal.getTimeInMillis());
+    return codec.convertToDate(millis, tz);
   }
 
   /**
@@ -1368,30 +851,7 @@ public class TimestampUtils {
     if (tz == null) {
       tz = getDefaultTz();
     }
-    if (isSimpleTimeZone(tz.getID())) {
-      // Leave just time part of the day.
-      // Suppose the input date is 2015 7 Jan 15:40 GMT+02:00 (that is 13:40 UTC)
-      // We want it to become 1970 1 Jan 15:40 GMT+02:00
-      // 1) Make sure millis becomes 15:40 in UTC, so add offset
-      int offset = tz.getRawOffset();
-      millis += offset;
-      // 2) Truncate year, month, day. Day is always 86400 seconds, no matter what leap seconds are
-      millis = millis % ONEDAY;
-      // 2) Now millis is 1970 1 Jan 15:40 UTC, however we need that in GMT+02:00, so subtract some
-      // offset
-      millis -= offset;
-      // Now we have brand-new 1970 1 Jan 15:40 GMT+02:00
-      return new Time(millis);
-    }
-    Calendar cal = calendarWithUserTz;
-    cal.setTimeZone(tz);
-    cal.setTimeInMillis(millis);
-    cal.set(Calendar.ERA, GregorianCalendar.AD);
-    cal.set(Calendar.YEAR, 1970);
-    cal.set(Calendar.MONTH, 0);
-    cal.set(Calendar.DAY_OF_MONTH, 1);
-
-    return new Time(cal.getTimeInMillis());
+    return codec.convertToTime(millis, tz);
   }
 
   /**
@@ -1403,18 +863,17 @@ public class TimestampUtils {
    * @return given time value as String
    */
   public String timeToString(java.util.Date time, boolean withTimeZone) {
-    Calendar cal = null;
-    if (withTimeZone) {
-      cal = calendarWithUserTz;
-      cal.setTimeZone(timeZoneProvider.get());
-    }
+    TimeZone tz = withTimeZone ? timeZoneProvider.get() : getDefaultTz();
+    byte[] buf = new byte[TimestampCodec.MAX_FORMATTED_LENGTH];
+    int len;
     if (time instanceof Timestamp) {
-      return toString(cal, (Timestamp) time, withTimeZone);
-    }
-    if (time instanceof Time) {
-      return toString(cal, (Time) time, withTimeZone);
+      len = codec.format(tz, (Timestamp) time, withTimeZone, buf, 0);
+    } else if (time instanceof Time) {
+      len = codec.format(tz, (Time) time, withTimeZone, buf, 0);
+    } else {
+      len = codec.format(tz, (Date) time, withTimeZone, buf, 0);
     }
-    return toString(cal, (Date) time, withTimeZone);
+    return ascii(buf, len);
   }
 
   /**
@@ -10,6 +10,7 @@ import org.postgresql.core.BaseStatement;
 import org.postgresql.core.Oid;
 import org.postgresql.core.QueryExecutor;
 import org.postgresql.core.ServerVersion;
+import org.postgresql.core.SharedMetadataCache;
 import org.postgresql.core.TypeInfo;
 import org.postgresql.util.GT;
 import org.postgresql.util.PGobject;
@@ -23,31 +24,38 @@ import java.sql.Types;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * <p>Caches type information of one connection.</p>
+ *
+ * <p>Every map is a concurrent map, so lookups of known types never lock. Updates and catalog
+ * queries for unknown types are serialized on the cache monitor, which also guards the prepared
+ * statements used for those queries.</p>
+ */
 public class TypeInfoCache implements TypeInfo {
 
   // pgname (String) -> java.sql.Types (Integer)
-  private Map<String, Integer> _pgNameToSQLType;
+  private final TypeMap<String, Integer> _pgNameToSQLType;
 
   // pgname (String) -> java class name (String)
   // ie "text" -> "java.lang.String"
-  private Map<String, String> _pgNameToJavaClass;
+  private final TypeMap<String, String> _pgNameToJavaClass;
 
   // oid (Integer) -> pgname (String)
-  private Map<Integer, String> _oidToPgName;
+  private final TypeMap<Integer, String> _oidToPgName;
   // pgname (String) -> oid (Integer)
-  private Map<String, Integer> _pgNameToOid;
+  private final TypeMap<String, Integer> _pgNameToOid;
 
   // pgname (String) -> extension pgobject (Class)
-  private Map<String, Class<? extends PGobject>> _pgNameToPgObject;
+  private final TypeMap<String, Class<? extends PGobject>> _pgNameToPgObject;
 
   // type array oid -> base type's oid
-  private Map<Integer, Integer> _pgArrayToPgType;
+  private final TypeMap<Integer, Integer> _pgArrayToPgType;
 
   // table of type -> base type's oid
-  private Map<Integer, Integer> _pgTableOfPgType;
+  private final TypeMap<Integer, Integer> _pgTableOfPgType;
 
   // array type oid -> base type array element delimiter
-  private Map<Integer, Character> _arrayOidToDelimiter;
+  private final TypeMap<Integer, Character> _arrayOidToDelimiter;
 
   private BaseConnection _conn;
   private final int _unknownLength;
@@ -61,7 +69,6 @@ public class TypeInfoCache implements TypeInfo {
   private PreparedStatement _getTypeInfoStatement;
 
     private PreparedStatement _getStructElementStatement;
-    private Map<Integer, List<Integer>> _pgStructToPgTypes;
 
   // cache the subscript of the current custom type in the statement and the struct of the custom type
   private ConcurrentHashMap<Integer, List<Object[]>> compositeTypeStructMap = new ConcurrentHashMap<>();
@@ -118,6 +125,16 @@ public class TypeInfoCache implements TypeInfo {
         {"refcursor", Oid.REF_CURSOR, Types.REF_CURSOR, "java.sql.ResultSet", Oid.REF_CURSOR_ARRAY}
     };
 
+  // maps of the basic types above, every connection starts with a copy of them
+  private static final CoreTypes BASE_TYPES = new CoreTypes();
+
+  static {
+    for (Object[] type : types) {
+      BASE_TYPES.add((String) type[0], (Integer) type[1], (Integer) type[2], (String) type[3],
+          (Integer) type[4]);
+    }
+  }
+
   /**
    * PG maps several alias to real type names. When we do queries against pg_catalog, we must use
    * the real type, not an alias, so use this mapping.
@@ -139,57 +156,27 @@ public class TypeInfoCache implements TypeInfo {
   public TypeInfoCache(BaseConnection conn, int unknownLength) {
     _conn = conn;
     _unknownLength = unknownLength;
-    _oidToPgName = new HashMap<Integer, String>();
-    _pgNameToOid = new HashMap<String, Integer>();
-    _pgNameToJavaClass = new HashMap<String, String>();
-    _pgNameToPgObject = new HashMap<String, Class<? extends PGobject>>();
-    _pgArrayToPgType = new HashMap<Integer, Integer>();
-    _pgTableOfPgType = new HashMap<Integer, Integer>();
-    _arrayOidToDelimiter = new HashMap<Integer, Character>();
-    _pgStructToPgTypes = new HashMap<>();
-
-    // needs to be synchronized because the iterator is returned
-    // from getPGTypeNamesWithSQLTypes()
-    _pgNameToSQLType = Collections.synchronizedMap(new HashMap<String, Integer>());
-
-    for (Object[] type : types) {
-      String pgTypeName = (String) type[0];
-      Integer oid = (Integer) type[1];
-      Integer sqlType = (Integer) type[2];
-      String javaClass = (String) type[3];
-      Integer arrayOid = (Integer) type[4];
-
-      addCoreType(pgTypeName, oid, sqlType, javaClass, arrayOid);
-    }
-
+    _oidToPgName = new TypeMap<Integer, String>(BASE_TYPES.oidToPgName);
+    _pgNameToOid = new TypeMap<String, Integer>(BASE_TYPES.pgNameToOid);
+    _pgNameToJavaClass = new TypeMap<String, String>(BASE_TYPES.pgNameToJavaClass);
+    _pgNameToPgObject = new TypeMap<String, Class<? extends PGobject>>(
+        Collections.<String, Class<? extends PGobject>>emptyMap());
+    _pgArrayToPgType = new TypeMap<Integer, Integer>(BASE_TYPES.pgArrayToPgType);
+    _pgTableOfPgType = new TypeMap<Integer, Integer>(Collections.<Integer, Integer>emptyMap());
+    _arrayOidToDelimiter = new TypeMap<Integer, Character>(BASE_TYPES.arrayOidToDelimiter);
+    _pgNameToSQLType = new TypeMap<String, Integer>(BASE_TYPES.pgNameToSQLType);
   }
 
   public synchronized void addCoreType(String pgTypeName, Integer oid, Integer sqlType,
       String javaClass, Integer arrayOid) {
-    _pgNameToJavaClass.put(pgTypeName, javaClass);
-    _pgNameToOid.put(pgTypeName, oid);
-    _oidToPgName.put(oid, pgTypeName);
-    _pgArrayToPgType.put(arrayOid, oid);
-    _pgNameToSQLType.put(pgTypeName, sqlType);
-
-    // Currently we hardcode all core types array delimiter
-    // to a comma. In a stock install the only exception is
-    // the box datatype and it's not a JDBC core type.
-    //
-    Character delim = ',';
-    _arrayOidToDelimiter.put(oid, delim);
-
-    String pgArrayTypeName = pgTypeName + "[]";
-    _pgNameToJavaClass.put(pgArrayTypeName, "java.sql.Array");
-    _pgNameToSQLType.put(pgArrayTypeName, Types.ARRAY);
-    _pgNameToOid.put(pgArrayTypeName, arrayOid);
-    pgArrayTypeName = "_" + pgTypeName;
-    if (!_pgNameToJavaClass.containsKey(pgArrayTypeName)) {
-      _pgNameToJavaClass.put(pgArrayTypeName, "java.sql.Array");
-      _pgNameToSQLType.put(pgArrayTypeName, Types.ARRAY);
-      _pgNameToOid.put(pgArrayTypeName, arrayOid);
-      _oidToPgName.put(arrayOid, pgArrayTypeName);
-    }
+    CoreTypes core = new CoreTypes(this);
+    core.add(pgTypeName, oid, sqlType, javaClass, arrayOid);
+    _pgNameToJavaClass.replace(core.pgNameToJavaClass);
+    _pgNameToOid.replace(core.pgNameToOid);
+    _oidToPgName.replace(core.oidToPgName);
+    _pgArrayToPgType.replace(core.pgArrayToPgType);
+    _pgNameToSQLType.replace(core.pgNameToSQLType);
+    _arrayOidToDelimiter.replace(core.arrayOidToDelimiter);
   }
 
 
@@ -200,14 +187,15 @@ public class TypeInfoCache implements TypeInfo {
   }
 
   public Iterator<String> getPGTypeNamesWithSQLTypes() {
-    return _pgNameToSQLType.keySet().iterator();
+    // weakly consistent, concurrent additions may or may not be seen
+    return _pgNameToSQLType.view().keySet().iterator();
   }
 
   public int getSQLType(int oid) throws SQLException {
     return getSQLType(getPGType(oid));
   }
 
-  public synchronized int getSQLType(String pgTypeName) throws SQLException {
+  public int getSQLType(String pgTypeName) throws SQLException {
     if (pgTypeName.endsWith("[]")) {
       return Types.ARRAY;
     }
@@ -215,6 +203,14 @@ public class TypeInfoCache implements TypeInfo {
     if (i != null) {
       return i;
     }
+    return loadSQLType(pgTypeName);
+  }
+
+  private synchronized int loadSQLType(String pgTypeName) throws SQLException {
+    Integer i = _pgNameToSQLType.get(pgTypeName);
+    if (i != null) {
+      return i;
+    }
 
     Integer type = null;
     if ("binary".equals(pgTypeName)) {
@@ -228,6 +224,15 @@ public class TypeInfoCache implements TypeInfo {
       return type;
     }
 
+    SharedMetadataCache.TypeEntries shared = _conn.getQueryExecutor().getSharedTypes();
+    if (shared != null) {
+      type = shared.getSQLType(pgTypeName);
+      if (type != null) {
+        _pgNameToSQLType.put(pgTypeName, type);
+        return type;
+      }
+    }
+
     if (_getTypeInfoStatement == null) {
       // There's no great way of telling what's an array type.
       // People can name their own types starting with _.
@@ -275,6 +280,9 @@ public class TypeInfoCache implements TypeInfo {
     rs.close();
 
     _pgNameToSQLType.put(pgTypeName, type);
+    if (shared != null) {
+      shared.putSQLType(pgTypeName, type);
+    }
     return type;
   }
 
@@ -426,35 +434,62 @@ public class TypeInfoCache implements TypeInfo {
     if (rs == null) {
       return;
     }
+    Map<String, Integer> nameToOid = new HashMap<String, Integer>(_pgNameToOid.view());
+    Map<Integer, String> oidToName = new HashMap<Integer, String>(_oidToPgName.view());
+    Map<Integer, Character> delimiters =
+        new HashMap<Integer, Character>(_arrayOidToDelimiter.view());
     while (rs.next()) {
       Integer oid = (int) rs.getLong(1);
       String typeName = rs.getString(2);
       pgTypes.put(oid, typeName);
-      _pgNameToOid.put(typeName, oid);
-      _oidToPgName.put(oid, typeName);
+      nameToOid.put(typeName, oid);
+      oidToName.put(oid, typeName);
       if (typeName.startsWith("_")) {
         String arrType = typeName.substring(1) + "[]";
-        _pgNameToOid.put(arrType, oid);
+        nameToOid.put(arrType, oid);
       }
 
       Character delim = ',';
-      _arrayOidToDelimiter.put(oid, delim);
+      delimiters.put(oid, delim);
     }
-    _pgArrayToPgType.put(_pgNameToOid.get("_uint1"), _pgNameToOid.get("uint1"));
-    _pgArrayToPgType.put(_pgNameToOid.get("_uint2"), _pgNameToOid.get("uint2"));
-    _pgArrayToPgType.put(_pgNameToOid.get("_uint4"), _pgNameToOid.get("uint4"));
-    _pgArrayToPgType.put(_pgNameToOid.get("_uint8"), _pgNameToOid.get("uint8"));
+    Map<Integer, Integer> arrayToType = new HashMap<Integer, Integer>(_pgArrayToPgType.view());
+    arrayToType.put(nameToOid.get("_uint1"), nameToOid.get("uint1"));
+    arrayToType.put(nameToOid.get("_uint2"), nameToOid.get("uint2"));
+    arrayToType.put(nameToOid.get("_uint4"), nameToOid.get("uint4"));
+    arrayToType.put(nameToOid.get("_uint8"), nameToOid.get("uint8"));
+    _pgNameToOid.replace(nameToOid);
+    _oidToPgName.replace(oidToName);
+    _arrayOidToDelimiter.replace(delimiters);
+    _pgArrayToPgType.replace(arrayToType);
   }
 
   public static Map<Integer, String> getPGTypes() {
     return pgTypes;
   }
 
-  public synchronized int getPGType(String pgTypeName) throws SQLException {
+  public int getPGType(String pgTypeName) throws SQLException {
     Integer oid = _pgNameToOid.get(pgTypeName);
     if (oid != null) {
       return oid;
     }
+    return loadPGType(pgTypeName);
+  }
+
+  private synchronized int loadPGType(String pgTypeName) throws SQLException {
+    Integer oid = _pgNameToOid.get(pgTypeName);
+    if (oid != null) {
+      return oid;
+    }
+
+    SharedMetadataCache.TypeEntries shared = _conn.getQueryExecutor().getSharedTypes();
+    if (shared != null) {
+      SharedMetadataCache.ResolvedType type = shared.getByName(pgTypeName);
+      if (type != null) {
+        addResolvedType(type);
+        _pgNameToOid.put(pgTypeName, type.oid);
+        return type.oid;
+      }
+    }
 
     PreparedStatement oidStatement = getOidStatement(pgTypeName);
 
@@ -466,20 +501,13 @@ public class TypeInfoCache implements TypeInfo {
     oid = Oid.UNSPECIFIED;
     ResultSet rs = oidStatement.getResultSet();
     if (rs.next()) {
-      oid = (int) rs.getLong(1);
-      String internalName = rs.getString(2);
-      String tytType = rs.getString(3);
-      int typElem = (int) rs.getLong(4);
-      // the tytType value of pgarray is b
-      if (tytType != null && tytType.equals("b")) {
-        _pgArrayToPgType.put(oid, typElem);
-      }
-      // the tytType value of pg table of type is o
-      if (tytType != null && tytType.equals("o")) {
-        _pgTableOfPgType.put(oid, typElem);
+      SharedMetadataCache.ResolvedType type = new SharedMetadataCache.ResolvedType(
+          (int) rs.getLong(1), rs.getString(2), rs.getString(3), (int) rs.getLong(4));
+      addResolvedType(type);
+      oid = type.oid;
+      if (shared != null) {
+        shared.putByName(pgTypeName, type);
       }
-      _oidToPgName.put(oid, internalName);
-      _pgNameToOid.put(internalName, oid);
     }
     _pgNameToOid.put(pgTypeName, oid);
     rs.close();
@@ -487,7 +515,20 @@ public class TypeInfoCache implements TypeInfo {
     return oid;
   }
 
-  public synchronized String getPGType(int oid) throws SQLException {
+  private void addResolvedType(SharedMetadataCache.ResolvedType type) {
+    // the tytType value of pgarray is b
+    if ("b".equals(type.typtype)) {
+      _pgArrayToPgType.put(type.oid, type.typelem);
+    }
+    // the tytType value of pg table of type is o
+    if ("o".equals(type.typtype)) {
+      _pgTableOfPgType.put(type.oid, type.typelem);
+    }
+    _oidToPgName.put(type.oid, type.internalName);
+    _pgNameToOid.put(type.internalName, type.oid);
+  }
+
+  public String getPGType(int oid) throws SQLException {
     if (oid == Oid.UNSPECIFIED) {
       return null;
     }
@@ -496,6 +537,23 @@ public class TypeInfoCache implements TypeInfo {
     if (pgTypeName != null) {
       return pgTypeName;
     }
+    return loadPGType(oid);
+  }
+
+  private synchronized String loadPGType(int oid) throws SQLException {
+    String pgTypeName = _oidToPgName.get(oid);
+    if (pgTypeName != null) {
+      return pgTypeName;
+    }
+    SharedMetadataCache.TypeEntries shared = _conn.getQueryExecutor().getSharedTypes();
+    if (shared != null) {
+      pgTypeName = shared.getName(oid);
+      if (pgTypeName != null) {
+        _pgNameToOid.put(pgTypeName, oid);
+        _oidToPgName.put(oid, pgTypeName);
+        return pgTypeName;
+      }
+    }
     if (_getTypeNameByOIDStatement == null) {
       String sql;
       sql = "SELECT n.nspname = ANY(current_schemas(true)), n.nspname, t.typname "
@@ -531,6 +589,9 @@ public class TypeInfoCache implements TypeInfo {
       }
       _pgNameToOid.put(pgTypeName, oid);
       _oidToPgName.put(oid, pgTypeName);
+      if (shared != null) {
+        shared.putName(oid, pgTypeName);
+      }
     }
     rs.close();
 
@@ -589,7 +650,7 @@ public class TypeInfoCache implements TypeInfo {
    * @param oid input oid
    * @return oid of the array's base element or the provided oid (if not array)
    */
-  protected synchronized int convertArrayToBaseOid(int oid) {
+  protected int convertArrayToBaseOid(int oid) {
     Integer i = _pgArrayToPgType.get(oid);
     if (i == null) {
       return oid;
@@ -597,11 +658,19 @@ public class TypeInfoCache implements TypeInfo {
     return i;
   }
 
-  public synchronized char getArrayDelimiter(int oid) throws SQLException {
+  public char getArrayDelimiter(int oid) throws SQLException {
     if (oid == Oid.UNSPECIFIED) {
       return ',';
     }
 
+    Character delim = _arrayOidToDelimiter.get(oid);
+    if (delim != null) {
+      return delim;
+    }
+    return loadArrayDelimiter(oid);
+  }
+
+  private synchronized char loadArrayDelimiter(int oid) throws SQLException {
     Character delim = _arrayOidToDelimiter.get(oid);
     if (delim != null) {
       return delim;
@@ -637,13 +706,22 @@ public class TypeInfoCache implements TypeInfo {
     return delim;
   }
 
-  public synchronized int getPGArrayElement(int oid) throws SQLException {
+  public int getPGArrayElement(int oid) throws SQLException {
     if (oid == Oid.UNSPECIFIED) {
       return Oid.UNSPECIFIED;
     }
 
     Integer pgType = _pgArrayToPgType.get(oid);
 
+    if (pgType != null) {
+      return pgType;
+    }
+    return loadPGArrayElement(oid);
+  }
+
+  private synchronized int loadPGArrayElement(int oid) throws SQLException {
+    Integer pgType = _pgArrayToPgType.get(oid);
+
     if (pgType != null) {
       return pgType;
     }
@@ -695,11 +773,11 @@ public class TypeInfoCache implements TypeInfo {
     return pgType;
   }
 
-  public synchronized Class<? extends PGobject> getPGobject(String type) {
+  public Class<? extends PGobject> getPGobject(String type) {
     return _pgNameToPgObject.get(type);
   }
 
-  public synchronized String getJavaClass(int oid) throws SQLException {
+  public String getJavaClass(int oid) throws SQLException {
     String pgTypeName = getPGType(oid);
 
     String result = _pgNameToJavaClass.get(pgTypeName);
@@ -709,7 +787,9 @@ public class TypeInfoCache implements TypeInfo {
 
     if (getSQLType(pgTypeName) == Types.ARRAY) {
       result = "java.sql.Array";
-      _pgNameToJavaClass.put(pgTypeName, result);
+      synchronized (this) {
+        _pgNameToJavaClass.put(pgTypeName, result);
+      }
     }
 
     return result;
@@ -1073,6 +1153,14 @@ public class TypeInfoCache implements TypeInfo {
     if (oid == 0) {
       return null;
     }
+    List<Object[]> list = this.compositeTypeStructMap.get(oid);
+    if (list != null) {
+      return list;
+    }
+    return loadCompositeTypeStruct(oid);
+  }
+
+  private synchronized List<Object[]> loadCompositeTypeStruct(int oid) throws SQLException {
     List<Object[]> list = this.compositeTypeStructMap.get(oid);
     if (list != null) {
       return list;
@@ -1110,4 +1198,106 @@ public class TypeInfoCache implements TypeInfo {
     compositeTypeStructMap.put(oid, compositeType);
     return compositeType;
   }
+
+  /**
+   * A concurrent map whose contents can also be replaced as a whole, so reads need no locking.
+   * Updates must be made while holding the {@link TypeInfoCache} monitor. The map is always a
+   * private copy, and null keys and values are ignored.
+   */
+  private static final class TypeMap<K, V> {
+    private volatile ConcurrentHashMap<K, V> map;
+
+    TypeMap(Map<K, V> initial) {
+      map = copyOf(initial);
+    }
+
+    V get(Object key) {
+      return key == null ? null : map.get(key);
+    }
+
+    /**
+     * @return read-only view of the current contents
+     */
+    Map<K, V> view() {
+      return Collections.unmodifiableMap(map);
+    }
+
+    void put(K key, V value) {
+      if (key != null && value != null) {
+        map.put(key, value);
+      }
+    }
+
+    void replace(Map<K, V> values) {
+      map = copyOf(values);
+    }
+
+    private static <K, V> ConcurrentHashMap<K, V> copyOf(Map<K, V> values) {
+      ConcurrentHashMap<K, V> copy = new ConcurrentHashMap<K, V>(Math.max(16, values.size() * 2));
+      for (Map.Entry<K, V> entry : values.entrySet()) {
+        if (entry.getKey() != null && entry.getValue() != null) {
+          copy.put(entry.getKey(), entry.getValue());
+        }
+      }
+      return copy;
+    }
+  }
+
+  /**
+   * Working copy of the maps filled by {@link #addCoreType}.
+   */
+  private static final class CoreTypes {
+    final Map<String, String> pgNameToJavaClass;
+    final Map<String, Integer> pgNameToOid;
+    final Map<Integer, String> oidToPgName;
+    final Map<Integer, Integer> pgArrayToPgType;
+    final Map<String, Integer> pgNameToSQLType;
+    final Map<Integer, Character> arrayOidToDelimiter;
+
+    CoreTypes() {
+      pgNameToJavaClass = new HashMap<String, String>();
+      pgNameToOid = new HashMap<String, Integer>();
+      oidToPgName = new HashMap<Integer, String>();
+      pgArrayToPgType = new HashMap<Integer, Integer>();
+      pgNameToSQLType = new HashMap<String, Integer>();
+      arrayOidToDelimiter = new HashMap<Integer, Character>();
+    }
+
+    CoreTypes(TypeInfoCache cache) {
+      pgNameToJavaClass = new HashMap<String, String>(cache._pgNameToJavaClass.view());
+      pgNameToOid = new HashMap<String, Integer>(cache._pgNameToOid.view());
+      oidToPgName = new HashMap<Integer, String>(cache._oidToPgName.view());
+      pgArrayToPgType = new HashMap<Integer, Integer>(cache._pgArrayToPgType.view());
+      pgNameToSQLType = new HashMap<String, Integer>(cache._pgNameToSQLType.view());
+      arrayOidToDelimiter = new HashMap<Integer, Character>(cache._arrayOidToDelimiter.view());
+    }
+
+    void add(String pgTypeName, Integer oid, Integer sqlType, String javaClass,
+        Integer arrayOid) {
+      pgNameToJavaClass.put(pgTypeName, javaClass);
+      pgNameToOid.put(pgTypeName, oid);
+      oidToPgName.put(oid, pgTypeName);
+      pgArrayToPgType.put(arrayOid, oid);
+      pgNameToSQLType.put(pgTypeName, sqlType);
+
+      // Currently we hardcode all core types array delimiter
+      // to a comma. In a stock install the only exception is
+      // the box datatype and it's not a JDBC core type.
+      //
+      Character delim = ',';
+      arrayOidToDelimiter.put(oid, delim);
+
+      String pgArrayTypeName = pgTypeName + "[]";
+      pgNameToJavaClass.put(pgArrayTypeName, "java.sql.Array");
+      pgNameToSQLType.put(pgArrayTypeName, Types.ARRAY);
+      pgNameToOid.put(pgArrayTypeName, arrayOid);
+      pgArrayTypeName = "_" + pgTypeName;
+      if (!pgNameToJavaClass.containsKey(pgArrayTypeName)) {
+        pgNameToJavaClass.put(pgArrayTypeName, "java.sql.Array");
+        pgNameToSQLType.put(pgArrayTypeName, Types.ARRAY);
+        pgNameToOid.put(pgArrayTypeName, arrayOid);
+        oidToPgName.put(arrayOid, pgArrayTypeName);
+      }
+    }
+  }
 }
@@ -31,7 +31,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -40,8 +39,10 @@ import java.util.Properties;
 import java.util.Queue;
 import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -55,6 +56,12 @@ public class Cluster {
 
     private static final int MIN_RESERVED_CON_UNSET_PARAMS = -1;
 
+    // Deadline of the probes of one check, half of the period of checkClusterStateHeartBeatingThread.
+    private static final long PROBE_TIMEOUT = 1000 * 10;
+
+    // Number of connections validated by one probe task.
+    private static final int VALIDITY_CHECK_BATCH_SIZE = 16;
+
     private final String urlIdentifier;
 
     private final Set<HostSpec> dns;
@@ -395,9 +402,7 @@ public class Cluster {
         Map<HostSpec, Boolean> oldStates = cachedDnList.entrySet().stream()
             .collect(Collectors.toMap(Entry::getKey,
                 (val) -> val.getValue().getDataNodeState()));
-        Map<HostSpec, Boolean> newStates = cachedDnList.entrySet().stream()
-            .collect(Collectors.toMap(Entry::getKey,
-                (val) -> this.checkDnState(val.getKey())));
+        Map<HostSpec, Boolean> newStates = probeDnStates(new ArrayList<>(oldStates.keySet()));
         Map<DataNodeChangedState, List<HostSpec>> checkResult = new HashMap<>();
         for (DataNodeChangedState dataNodeChangedState : DataNodeChangedState.values()) {
             checkResult.put(dataNodeChangedState, new ArrayList<>());
@@ -433,6 +438,30 @@ public class Cluster {
             checkResult.get(DataNodeChangedState.CHANGE_TO_INVALID).size();
     }
 
+    // Probe all data nodes concurrently, a data node whose probe misses the deadline is invalid.
+    private Map<HostSpec, Boolean> probeDnStates(List<HostSpec> hostSpecs) {
+        List<Callable<Boolean>> probes = new ArrayList<>(hostSpecs.size());
+        for (HostSpec hostSpec : hostSpecs) {
+            probes.add(() -> checkDnState(hostSpec));
+        }
+        List<Boolean> results = ProbeEngine.getInstance().invokeAll(probes, PROBE_TIMEOUT, null);
+        Map<HostSpec, Boolean> newStates = new HashMap<>();
+        for (int i = 0; i < hostSpecs.size(); i++) {
+            HostSpec hostSpec = hostSpecs.get(i);
+            Boolean state = results.get(i);
+            if (state == null) {
+                DataNode dataNode = cachedDnList.get(hostSpec);
+                if (dataNode != null) {
+                    dataNode.recordProbe(TimeUnit.MILLISECONDS.toNanos(PROBE_TIMEOUT), true);
+                    dataNode.setDataNodeState(false);
+                }
+                state = false;
+            }
+            newStates.put(hostSpec, state);
+        }
+        return newStates;
+    }
+
     enum DataNodeChangedState {
         KEEP_VALID, KEEP_INVALID, CHANGE_TO_VALID, CHANGE_TO_INVALID
     }
@@ -444,27 +473,31 @@ public class Cluster {
      * @return state of the date node
      */
     public boolean checkDnState(HostSpec hostSpec) {
+        DataNode dataNode = cachedDnList.get(hostSpec);
+        if (dataNode == null) {
+            return false;
+        }
+        // Data nodes are probed concurrently, so don't hold the lock while connecting.
+        List<Properties> propertiesList;
         synchronized (cachedPropertiesList) {
-            DataNode dataNode = cachedDnList.get(hostSpec);
-            if (dataNode == null) {
+            propertiesList = new ArrayList<>(cachedPropertiesList);
+        }
+        for (Properties properties : propertiesList) {
+            CheckDnStateResult result = dataNode.checkDnStateAndProperties(properties);
+            if (CheckDnStateResult.DN_VALID.equals(result)) {
+                dataNode.setDataNodeState(true);
+                return true;
+            } else if (CheckDnStateResult.DN_INVALID.equals(result)) {
+                dataNode.setDataNodeState(false);
                 return false;
-            }
-            for (Iterator<Properties> iterator = cachedPropertiesList.iterator(); iterator.hasNext(); ) {
-                Properties properties = iterator.next();
-                CheckDnStateResult result = dataNode.checkDnStateAndProperties(properties);
-                if (CheckDnStateResult.DN_VALID.equals(result)) {
-                    dataNode.setDataNodeState(true);
-                    return true;
-                } else if (CheckDnStateResult.DN_INVALID.equals(result)) {
-                    dataNode.setDataNodeState(false);
-                    return false;
-                } else {
-                    iterator.remove();
+            } else {
+                synchronized (cachedPropertiesList) {
+                    cachedPropertiesList.remove(properties);
                 }
             }
-            dataNode.setDataNodeState(false);
-            return false;
         }
+        dataNode.setDataNodeState(false);
+        return false;
     }
 
     private int quickLoadBalance(List<HostSpec> validDns) {
@@ -521,12 +554,26 @@ public class Cluster {
      * @return the amount of removed connections of each dn.
      */
     public List<Integer> checkConnectionsValidity() {
-        List<Integer> ans = new ArrayList<>();
-        for (Entry<HostSpec, DataNode> entry : cachedDnList.entrySet()) {
-            DataNode dataNode = entry.getValue();
-            ans.add(dataNode.checkConnectionsValidity());
+        List<DataNode> dataNodes = new ArrayList<>(cachedDnList.values());
+        List<Callable<Integer>> probes = new ArrayList<>();
+        List<Integer> owners = new ArrayList<>();
+        for (int i = 0; i < dataNodes.size(); i++) {
+            DataNode dataNode = dataNodes.get(i);
+            List<ConnectionInfo> connectionInfos = dataNode.filterConnectionsToValidate();
+            for (int from = 0; from < connectionInfos.size(); from += VALIDITY_CHECK_BATCH_SIZE) {
+                List<ConnectionInfo> batch = connectionInfos.subList(from,
+                    Math.min(from + VALIDITY_CHECK_BATCH_SIZE, connectionInfos.size()));
+                probes.add(() -> dataNode.checkConnectionsValidity(batch));
+                owners.add(i);
+            }
+        }
+        List<Integer> results = ProbeEngine.getInstance().invokeAll(probes, PROBE_TIMEOUT, 0);
+        Integer[] ans = new Integer[dataNodes.size()];
+        Arrays.fill(ans, 0);
+        for (int i = 0; i < results.size(); i++) {
+            ans[owners.get(i)] += results.get(i);
         }
-        return ans;
+        return new ArrayList<>(Arrays.asList(ans));
     }
 
     /**
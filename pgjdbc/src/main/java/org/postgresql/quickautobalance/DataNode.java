@@ -19,6 +19,7 @@ import org.postgresql.PGProperty;
 import org.postgresql.core.PGStream;
 import org.postgresql.core.QueryExecutor;
 import org.postgresql.core.SocketFactoryFactory;
+import org.postgresql.core.TransactionState;
 import org.postgresql.core.v3.ConnectionFactoryImpl;
 import org.postgresql.jdbc.PgConnection;
 import org.postgresql.jdbc.SslMode;
@@ -43,6 +44,7 @@ import java.util.Objects;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Datanode.
@@ -63,6 +65,16 @@ public class DataNode {
 
     private volatile boolean dataNodeState;
 
+    private final AtomicLong probeCount = new AtomicLong();
+
+    private final AtomicLong probeFailureCount = new AtomicLong();
+
+    private final AtomicLong totalProbeLatency = new AtomicLong();
+
+    private volatile long lastProbeLatency;
+
+    private final AtomicLong invalidConnectionCount = new AtomicLong();
+
     public DataNode(final HostSpec hostSpec) {
         this.hostSpec = hostSpec;
         this.cachedConnectionList = new ConcurrentHashMap<>();
@@ -131,6 +143,13 @@ public class DataNode {
      * @return result (dnValid, dnInvalid, propertiesInvalid)
      */
     public CheckDnStateResult checkDnStateAndProperties(Properties properties) {
+        long start = System.nanoTime();
+        CheckDnStateResult result = tryConnectDn(properties);
+        recordProbe(System.nanoTime() - start, CheckDnStateResult.DN_INVALID.equals(result));
+        return result;
+    }
+
+    private CheckDnStateResult tryConnectDn(Properties properties) {
         boolean isDataNodeValid;
         Properties singleNodeProperties = new Properties();
         PGProperty.USER.set(singleNodeProperties, PGProperty.USER.get(properties));
@@ -253,18 +272,116 @@ public class DataNode {
      * @return the amount of removed connections.
      */
     public int checkConnectionsValidity() {
+        return checkConnectionsValidity(filterConnectionsToValidate());
+    }
+
+    /**
+     * Check the validity of the given cached connections, and remove invalid connections.
+     *
+     * @param connectionInfos connections of this data node
+     * @return the amount of removed connections.
+     */
+    public int checkConnectionsValidity(final List<ConnectionInfo> connectionInfos) {
         int num = 0;
-        for (Entry<PgConnection, ConnectionInfo> entry : cachedConnectionList.entrySet()) {
-            PgConnection pgConnection = entry.getKey();
-            ConnectionInfo connectionInfo = entry.getValue();
+        for (ConnectionInfo connectionInfo : connectionInfos) {
             if (!connectionInfo.checkConnectionIsValid()) {
-                cachedConnectionList.remove(pgConnection);
+                cachedConnectionList.remove(connectionInfo.getPgConnection());
+                invalidConnectionCount.incrementAndGet();
                 num++;
             }
         }
         return num;
     }
 
+    /**
+     * Filter the cached connections to validate. Connections that are executing a statement or are in
+     * a transaction are in use by the application and skipped, so that validation does not wait for them.
+     *
+     * @return connections to validate
+     */
+    public List<ConnectionInfo> filterConnectionsToValidate() {
+        List<ConnectionInfo> connectionInfos = new ArrayList<>();
+        for (ConnectionInfo connectionInfo : cachedConnectionList.values()) {
+            PgConnection pgConnection = connectionInfo.getPgConnection();
+            if (pgConnection.getQueryExecutor().isClosed()
+                || (StatementCancelState.IDLE.equals(connectionInfo.getConnectionState())
+                && pgConnection.getTransactionState() == TransactionState.IDLE)) {
+                connectionInfos.add(connectionInfo);
+            }
+        }
+        return connectionInfos;
+    }
+
+    /**
+     * Record the result of a data node probe.
+     *
+     * @param latencyNanos probe latency in nanoseconds
+     * @param isFailed whether the data node was found invalid
+     */
+    public void recordProbe(long latencyNanos, boolean isFailed) {
+        probeCount.incrementAndGet();
+        totalProbeLatency.addAndGet(latencyNanos);
+        lastProbeLatency = latencyNanos;
+        if (isFailed) {
+            probeFailureCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Get the number of data node probes.
+     *
+     * @return number of probes
+     */
+    public long getProbeCount() {
+        return probeCount.get();
+    }
+
+    /**
+     * Get the number of data node probes that found the data node invalid.
+     *
+     * @return number of failed probes
+     */
+    public long getProbeFailureCount() {
+        return probeFailureCount.get();
+    }
+
+    /**
+     * Get the latency of the last data node probe.
+     *
+     * @return latency in nanoseconds
+     */
+    public long getLastProbeLatencyNanos() {
+        return lastProbeLatency;
+    }
+
+    /**
+     * Get the mean latency of data node probes.
+     *
+     * @return mean latency in nanoseconds
+     */
+    public long getMeanProbeLatencyNanos() {
+        long count = probeCount.get();
+        return count == 0 ? 0 : totalProbeLatency.get() / count;
+    }
+
+    /**
+     * Get the number of cached connections found invalid.
+     *
+     * @return number of invalid connections
+     */
+    public long getInvalidConnectionCount() {
+        return invalidConnectionCount.get();
+    }
+
+    /**
+     * Get hostSpec.
+     *
+     * @return the host of datanode
+     */
+    public HostSpec getHostSpec() {
+        return hostSpec;
+    }
+
     /**
      * Close cached connections, and clear cachedConnectionList.
      * JDBC execute clearCachedConnections when jdbc find an invalid datanode.
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.quickautobalance;
+
+import org.postgresql.log.Log;
+import org.postgresql.log.Logger;
+import org.postgresql.util.GT;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Probe engine, runs the probes of heartBeating tasks concurrently with a deadline, so that one
+ * data node or connection that does not answer does not delay the checks of the others.
+ */
+public class ProbeEngine {
+    private static final int PROBE_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    private static final ProbeEngine INSTANCE = new ProbeEngine();
+
+    private static Log LOGGER = Logger.getLogger(ProbeEngine.class.getName());
+
+    private final ThreadPoolExecutor executor;
+
+    private ProbeEngine() {
+        AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(PROBE_THREADS, PROBE_THREADS, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "quickAutoBalanceProbeThread-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Get instance.
+     *
+     * @return the probe engine
+     */
+    public static ProbeEngine getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Run probes concurrently and wait for them until the deadline. Probes that have not finished
+     * by then are cancelled.
+     *
+     * @param probes probes
+     * @param timeoutMillis deadline of all probes, in milliseconds from now
+     * @param failedResult result of a probe that failed or did not finish in time
+     * @param <T> type of probe result
+     * @return the result of each probe, in the order of the probes
+     */
+    public <T> List<T> invokeAll(List<Callable<T>> probes, long timeoutMillis, T failedResult) {
+        if (probes.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<T> results = new ArrayList<>(probes.size());
+        List<Future<T>> futures;
+        try {
+            futures = executor.invokeAll(probes, timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (int i = 0; i < probes.size(); i++) {
+                results.add(failedResult);
+            }
+            return results;
+        }
+        int timedOut = 0;
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (CancellationException e) {
+                timedOut++;
+                results.add(failedResult);
+            } catch (ExecutionException e) {
+                LOGGER.info(GT.tr("Probe failed: {0}.", e.getCause() != null ? e.getCause().getMessage() : ""));
+                results.add(failedResult);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                results.add(failedResult);
+            }
+        }
+        if (timedOut > 0) {
+            LOGGER.info(GT.tr("{0} probes did not finish within {1} milliseconds.", timedOut, timeoutMillis));
+        }
+        return results;
+    }
+}
@@ -7,6 +7,7 @@ package org.postgresql.readwritesplitting;
 import java.sql.SQLException;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Method invocation recorder.
@@ -15,7 +16,7 @@ import java.util.Map;
  * @param <T> type of target
  */
 public final class MethodInvocationRecorder<T> {
-    private final Map<String, ForceExecuteCallback<T>> methodInvocations = new LinkedHashMap<>();
+    private final Map<String, Invocation<T>> methodInvocations = new LinkedHashMap<>();
 
     /**
      * Record method invocation.
@@ -23,8 +24,21 @@ public final class MethodInvocationRecorder<T> {
      * @param methodName method name
      * @param callback callback
      */
-    public void record(final String methodName, final ForceExecuteCallback<T> callback) {
-        methodInvocations.put(methodName, callback);
+    public synchronized void record(final String methodName, final ForceExecuteCallback<T> callback) {
+        record(methodName, null, callback);
+    }
+
+    /**
+     * Record method invocation with its argument, so that it is only replayed onto targets that
+     * do not have the same argument applied already.
+     *
+     * @param methodName method name
+     * @param argument argument of the invocation
+     * @param callback callback
+     */
+    public synchronized void record(final String methodName, final Object argument,
+                                    final ForceExecuteCallback<T> callback) {
+        methodInvocations.put(methodName, new Invocation<>(argument, callback));
     }
 
     /**
@@ -33,9 +47,39 @@ public final class MethodInvocationRecorder<T> {
      * @param target target object
      * @throws SQLException SQL Exception
      */
-    public void replay(final T target) throws SQLException {
-        for (ForceExecuteCallback<T> each : methodInvocations.values()) {
-            each.execute(target);
+    public synchronized void replay(final T target) throws SQLException {
+        for (Invocation<T> each : methodInvocations.values()) {
+            each.callback.execute(target);
+        }
+    }
+
+    /**
+     * Replay the invocations whose argument differs from the one applied to the target.
+     *
+     * @param target target object
+     * @param applied arguments applied to the target by method name, updated by the replay
+     * @throws SQLException SQL Exception
+     */
+    public synchronized void replay(final T target, final Map<String, Object> applied) throws SQLException {
+        for (Map.Entry<String, Invocation<T>> entry : methodInvocations.entrySet()) {
+            Invocation<T> each = entry.getValue();
+            if (each.argument != null && applied.containsKey(entry.getKey())
+                    && Objects.equals(each.argument, applied.get(entry.getKey()))) {
+                continue;
+            }
+            each.callback.execute(target);
+            applied.put(entry.getKey(), each.argument);
+        }
+    }
+
+    private static final class Invocation<T> {
+        private final Object argument;
+
+        private final ForceExecuteCallback<T> callback;
+
+        Invocation(Object argument, ForceExecuteCallback<T> callback) {
+            this.argument = argument;
+            this.callback = callback;
         }
     }
 }
@@ -4,30 +4,47 @@
 
 package org.postgresql.readwritesplitting;
 
+import org.postgresql.PGProperty;
 import org.postgresql.hostchooser.HostRequirement;
 import org.postgresql.jdbc.PgConnection;
+import org.postgresql.util.GT;
 import org.postgresql.util.HostSpec;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.PSQLState;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * PG connection manager.
+ * PG connection manager. Physical connections are opened the first time a host is routed to, taken
+ * from the {@link PhysicalConnectionPool} of the data source when possible, and get the recorded
+ * session state applied when they are opened or taken. Changes of the session state are applied
+ * to the open connections at once. The statements created on the physical connections are
+ * registered here and closed with this manager, before the connections go back to the pool.
  *
  * @since 2023-11-20
  */
 public class PgConnectionManager implements AutoCloseable {
+    static final String SET_AUTO_COMMIT = "setAutoCommit";
+
+    static final String SET_READ_ONLY = "setReadOnly";
+
+    static final String SET_TRANSACTION_ISOLATION = "setTransactionIsolation";
+
+    static final String SET_SCHEMA = "setSchema";
+
     private final MethodInvocationRecorder<Connection> methodInvocationRecorder = new MethodInvocationRecorder<>();
 
-    private final ForceExecuteTemplate<PgConnection> forceExecuteTemplate = new ForceExecuteTemplate<>();
+    private final ForceExecuteTemplate<PhysicalConnection> forceExecuteTemplate = new ForceExecuteTemplate<>();
 
-    private final Map<String, PgConnection> cachedConnections = new ConcurrentHashMap<>();
+    private final Map<String, PhysicalConnection> cachedConnections = new ConcurrentHashMap<>();
 
-    private final AtomicReference<PgConnection> currentConnection = new AtomicReference<>();
+    private final AtomicReference<PhysicalConnection> currentConnection = new AtomicReference<>();
 
     private final Properties props;
 
@@ -39,6 +56,12 @@ public class PgConnectionManager implements AutoCloseable {
 
     private final ReadWriteSplittingPgConnection readWriteSplittingPgConnection;
 
+    private final int maxIdle;
+
+    private volatile boolean isShared = true;
+
+    private volatile boolean isClosed;
+
     /**
      * Constructor.
      *
@@ -55,6 +78,10 @@ public class PgConnectionManager implements AutoCloseable {
         this.database = database;
         this.url = url;
         this.readWriteSplittingPgConnection = connection;
+        this.maxIdle = Math.max(0, PGProperty.ROUTED_CONNECTION_POOL_SIZE.getIntNoCheck(props));
+        // the state of a new connection, see PhysicalConnection
+        methodInvocationRecorder.record(SET_AUTO_COMMIT, Boolean.TRUE, target -> target.setAutoCommit(true));
+        methodInvocationRecorder.record(SET_READ_ONLY, Boolean.FALSE, target -> target.setReadOnly(false));
     }
 
     /**
@@ -65,23 +92,71 @@ public class PgConnectionManager implements AutoCloseable {
      * @throws SQLException SQL exception
      */
     public synchronized PgConnection getConnection(HostSpec hostSpec) throws SQLException {
+        if (isClosed) {
+            throw new PSQLException(GT.tr("This connection has been closed."), PSQLState.CONNECTION_DOES_NOT_EXIST);
+        }
         String cacheKey = getCacheKey(hostSpec);
-        PgConnection result = cachedConnections.get(cacheKey);
+        PhysicalConnection result = cachedConnections.get(cacheKey);
         if (result == null) {
             result = createConnection(hostSpec, cacheKey);
         }
         setCurrentConnection(result);
-        return result;
+        return result.getConnection();
     }
 
-    private PgConnection createConnection(HostSpec hostSpec, String cacheKey) throws SQLException {
-        PgConnection result = new PgConnection(new HostSpec[]{hostSpec}, user, database, props, url);
-        methodInvocationRecorder.replay(result);
+    /**
+     * Get the connection to a host if it was opened already.
+     *
+     * @param hostSpec host spec
+     * @return connection, or null if there is none
+     */
+    public PgConnection getCachedConnection(HostSpec hostSpec) {
+        PhysicalConnection result = cachedConnections.get(getCacheKey(hostSpec));
+        return result == null ? null : result.getConnection();
+    }
+
+    private PhysicalConnection createConnection(HostSpec hostSpec, String cacheKey) throws SQLException {
+        boolean isPooled = isShared && maxIdle > 0;
+        PhysicalConnection result = isPooled ? PhysicalConnectionPool.acquire(getPoolKey(hostSpec)) : null;
+        boolean isNew = result == null;
+        if (isNew) {
+            result = new PhysicalConnection(new PgConnection(new HostSpec[]{hostSpec}, user, database, props, url),
+                    hostSpec);
+        }
+        try {
+            if (isNew && isPooled) {
+                PhysicalConnectionPool.recordInitialSettings(result);
+            }
+            methodInvocationRecorder.replay(result.getConnection(), result.getApplied());
+        } catch (SQLException ex) {
+            result.getConnection().close();
+            throw ex;
+        }
         cachedConnections.put(cacheKey, result);
         return result;
     }
 
-    private void setCurrentConnection(PgConnection result) {
+    /**
+     * Register a statement created on one of the physical connections of this manager, so that it
+     * is closed when this manager is closed.
+     *
+     * @param statement statement of a physical connection
+     * @param <T> type of the statement
+     * @return the statement
+     * @throws SQLException SQL exception
+     */
+    public <T extends Statement> T register(T statement) throws SQLException {
+        Connection connection = statement.getConnection();
+        for (PhysicalConnection each : cachedConnections.values()) {
+            if (each.getConnection() == connection) {
+                each.addStatement(statement);
+                break;
+            }
+        }
+        return statement;
+    }
+
+    private void setCurrentConnection(PhysicalConnection result) {
         currentConnection.set(result);
     }
 
@@ -92,8 +167,20 @@ public class PgConnectionManager implements AutoCloseable {
      * @throws SQLException SQL exception
      */
     public PgConnection getCurrentConnection() throws SQLException {
-        PgConnection result = currentConnection.get();
-        return result == null ? getConnection(selectCurrentHostSpec()) : result;
+        PhysicalConnection result = currentConnection.get();
+        return result == null ? getConnection(selectCurrentHostSpec()) : result.getConnection();
+    }
+
+    /**
+     * Get current connection for a change of its state that is not recorded. The physical
+     * connections of this manager are closed instead of pooled afterwards.
+     *
+     * @return current connection
+     * @throws SQLException SQL exception
+     */
+    public PgConnection getExclusiveConnection() throws SQLException {
+        isShared = false;
+        return getCurrentConnection();
     }
 
     private HostSpec selectCurrentHostSpec() {
@@ -111,15 +198,36 @@ public class PgConnectionManager implements AutoCloseable {
         return hostSpec.getHost() + ":" + hostSpec.getPort();
     }
 
+    private PhysicalConnectionPool.Key getPoolKey(HostSpec hostSpec) {
+        return new PhysicalConnectionPool.Key(url, user, database, hostSpec, props);
+    }
+
     @Override
-    public void close() throws SQLException {
+    public synchronized void close() throws SQLException {
+        isClosed = true;
         try {
-            forceExecuteTemplate.execute(cachedConnections.values(), PgConnection::close);
+            if (isShared && maxIdle > 0) {
+                forceExecuteTemplate.execute(cachedConnections.values(), this::release);
+            } else {
+                forceExecuteTemplate.execute(cachedConnections.values(), each -> each.getConnection().close());
+            }
         } finally {
             cachedConnections.clear();
+            currentConnection.set(null);
         }
     }
 
+    private void release(PhysicalConnection connection) throws SQLException {
+        try {
+            // a statement left open must not run on the session of the next user
+            connection.closeStatements();
+        } catch (SQLException ex) {
+            connection.getConnection().close();
+            throw ex;
+        }
+        PhysicalConnectionPool.release(getPoolKey(connection.getHostSpec()), connection, maxIdle);
+    }
+
     /**
      * Set auto commit.
      *
@@ -127,8 +235,9 @@ public class PgConnectionManager implements AutoCloseable {
      * @throws SQLException SQL exception
      */
     public void setAutoCommit(final boolean isAutoCommit) throws SQLException {
-        methodInvocationRecorder.record("setAutoCommit", target -> target.setAutoCommit(isAutoCommit));
-        forceExecuteTemplate.execute(cachedConnections.values(), connection -> connection.setAutoCommit(isAutoCommit));
+        methodInvocationRecorder.record(SET_AUTO_COMMIT, isAutoCommit, target -> target.setAutoCommit(isAutoCommit));
+        forceExecuteTemplate.execute(cachedConnections.values(),
+            each -> each.apply(SET_AUTO_COMMIT, isAutoCommit, connection -> connection.setAutoCommit(isAutoCommit)));
     }
 
     /**
@@ -137,11 +246,11 @@ public class PgConnectionManager implements AutoCloseable {
      * @param level transaction isolation level
      * @throws SQLException SQL exception
      */
-    public void setTransactionIsolation(int level) throws SQLException {
-        methodInvocationRecorder.record("setTransactionIsolation",
-                connection -> connection.setTransactionIsolation(level));
-        forceExecuteTemplate.execute(cachedConnections.values(),
-                connection -> connection.setTransactionIsolation(level));
+    public void setTransactionIsolation(final int level) throws SQLException {
+        methodInvocationRecorder.record(SET_TRANSACTION_ISOLATION, level,
+            connection -> connection.setTransactionIsolation(level));
+        forceExecuteTemplate.execute(cachedConnections.values(), each -> each.apply(SET_TRANSACTION_ISOLATION, level,
+            connection -> connection.setTransactionIsolation(level)));
     }
 
     /**
@@ -150,9 +259,10 @@ public class PgConnectionManager implements AutoCloseable {
      * @param schema schema
      * @throws SQLException SQL exception
      */
-    public void setSchema(String schema) throws SQLException {
-        methodInvocationRecorder.record("setSchema", connection -> connection.setSchema(schema));
-        forceExecuteTemplate.execute(cachedConnections.values(), connection -> connection.setSchema(schema));
+    public void setSchema(final String schema) throws SQLException {
+        methodInvocationRecorder.record(SET_SCHEMA, schema, connection -> connection.setSchema(schema));
+        forceExecuteTemplate.execute(cachedConnections.values(),
+            each -> each.apply(SET_SCHEMA, schema, connection -> connection.setSchema(schema)));
     }
 
     /**
@@ -161,7 +271,7 @@ public class PgConnectionManager implements AutoCloseable {
      * @throws SQLException SQL exception
      */
     public void commit() throws SQLException {
-        forceExecuteTemplate.execute(cachedConnections.values(), Connection::commit);
+        forceExecuteTemplate.execute(cachedConnections.values(), each -> each.getConnection().commit());
     }
 
     /**
@@ -170,7 +280,7 @@ public class PgConnectionManager implements AutoCloseable {
      * @throws SQLException SQL exception
      */
     public void rollback() throws SQLException {
-        forceExecuteTemplate.execute(cachedConnections.values(), Connection::rollback);
+        forceExecuteTemplate.execute(cachedConnections.values(), each -> each.getConnection().rollback());
     }
 
     /**
@@ -180,8 +290,9 @@ public class PgConnectionManager implements AutoCloseable {
      * @throws SQLException SQL exception
      */
     public void setReadOnly(final boolean isReadOnly) throws SQLException {
-        methodInvocationRecorder.record("setReadOnly", connection -> connection.setReadOnly(isReadOnly));
-        forceExecuteTemplate.execute(cachedConnections.values(), connection -> connection.setReadOnly(isReadOnly));
+        methodInvocationRecorder.record(SET_READ_ONLY, isReadOnly, connection -> connection.setReadOnly(isReadOnly));
+        forceExecuteTemplate.execute(cachedConnections.values(),
+            each -> each.apply(SET_READ_ONLY, isReadOnly, connection -> connection.setReadOnly(isReadOnly)));
     }
 
     /**
@@ -192,8 +303,8 @@ public class PgConnectionManager implements AutoCloseable {
      * @throws SQLException SQL exception
      */
     public boolean isValid(final int timeout) throws SQLException {
-        for (Connection each : cachedConnections.values()) {
-            if (!each.isValid(timeout)) {
+        for (PhysicalConnection each : cachedConnections.values()) {
+            if (!each.getConnection().isValid(timeout)) {
                 return false;
             }
         }
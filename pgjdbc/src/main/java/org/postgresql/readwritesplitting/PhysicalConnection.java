@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ */
+
+package org.postgresql.readwritesplitting;
+
+import org.postgresql.jdbc.PgConnection;
+import org.postgresql.util.HostSpec;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Physical connection to one host with the session state applied to it.
+ *
+ * @since 2025-06-20
+ */
+public final class PhysicalConnection {
+    private final PgConnection connection;
+
+    private final HostSpec hostSpec;
+
+    private final Map<String, Object> applied = new HashMap<>();
+
+    // statements the application may still hold, weak so that dropped ones are not kept
+    private final Set<Statement> statements = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private Map<String, String> initialSettings;
+
+    private long idleSince;
+
+    /**
+     * Constructor.
+     *
+     * @param connection physical connection
+     * @param hostSpec host of the connection
+     */
+    public PhysicalConnection(PgConnection connection, HostSpec hostSpec) {
+        this.connection = connection;
+        this.hostSpec = hostSpec;
+        resetApplied();
+    }
+
+    /**
+     * Forget the applied session state after the session was reset, the connection is in the
+     * state of a new connection again.
+     */
+    void resetApplied() {
+        applied.clear();
+        applied.put(PgConnectionManager.SET_AUTO_COMMIT, Boolean.TRUE);
+        applied.put(PgConnectionManager.SET_READ_ONLY, Boolean.FALSE);
+    }
+
+    /**
+     * Get physical connection.
+     *
+     * @return physical connection
+     */
+    public PgConnection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Get host spec.
+     *
+     * @return host of the connection
+     */
+    public HostSpec getHostSpec() {
+        return hostSpec;
+    }
+
+    /**
+     * Get the arguments of the session state methods applied to the connection.
+     *
+     * @return arguments by method name
+     */
+    public Map<String, Object> getApplied() {
+        return applied;
+    }
+
+    /**
+     * Apply a session state method unless the same argument is applied already.
+     *
+     * @param methodName method name
+     * @param argument argument
+     * @param callback callback
+     * @throws SQLException SQL exception
+     */
+    public void apply(String methodName, Object argument, ForceExecuteCallback<PgConnection> callback)
+            throws SQLException {
+        if (applied.containsKey(methodName) && Objects.equals(applied.get(methodName), argument)) {
+            return;
+        }
+        callback.execute(connection);
+        applied.put(methodName, argument);
+    }
+
+    /**
+     * Remember a statement created on the connection, see {@link #closeStatements()}.
+     *
+     * @param statement statement of the connection
+     */
+    void addStatement(Statement statement) {
+        synchronized (statements) {
+            statements.add(statement);
+        }
+    }
+
+    /**
+     * Close the statements created on the connection, and with them their result sets, so they
+     * cannot be used once the connection serves another logical connection.
+     *
+     * @throws SQLException if a statement cannot be closed
+     */
+    void closeStatements() throws SQLException {
+        List<Statement> open;
+        synchronized (statements) {
+            open = new ArrayList<>(statements);
+            statements.clear();
+        }
+        new ForceExecuteTemplate<Statement>().execute(open, Statement::close);
+    }
+
+    Map<String, String> getInitialSettings() {
+        return initialSettings;
+    }
+
+    void setInitialSettings(Map<String, String> initialSettings) {
+        this.initialSettings = initialSettings;
+    }
+
+    long getIdleSince() {
+        return idleSince;
+    }
+
+    void setIdleSince(long idleSince) {
+        this.idleSince = idleSince;
+    }
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ */
+
+package org.postgresql.readwritesplitting;
+
+import org.postgresql.core.TransactionState;
+import org.postgresql.core.Utils;
+import org.postgresql.jdbc.PgConnection;
+import org.postgresql.log.Log;
+import org.postgresql.log.Logger;
+import org.postgresql.util.HostSpec;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Idle physical connections shared by the read write splitting connections of the same data
+ * source, per host. A read write splitting connection takes a physical connection from here the
+ * first time it routes to a host and gives it back when it is closed. The session of a connection
+ * is reset with DISCARD ALL before it is given back, which also undoes the settings made when the
+ * connection was opened, so those are recorded first and made again after the reset. Connections
+ * that stay idle longer than {@value #IDLE_TIMEOUT_SECONDS} seconds are closed by a background
+ * thread.
+ *
+ * @since 2025-06-20
+ */
+public final class PhysicalConnectionPool {
+    private static final long IDLE_TIMEOUT_SECONDS = 60L;
+
+    private static final long IDLE_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(IDLE_TIMEOUT_SECONDS);
+
+    private static final long EVICT_PERIOD_SECONDS = 10L;
+
+    // set after the startup by ConnectionFactoryImpl.runInitialQueries and PgConnection
+    private static final String INITIAL_SETTINGS_SQL = "select name, setting from pg_settings where name in "
+            + "('extra_float_digits', 'application_name', 'application_type', 'connection_info')";
+
+    private static final Map<Key, Deque<PhysicalConnection>> IDLE_CONNECTIONS = new ConcurrentHashMap<>();
+
+    private static final Log LOGGER = Logger.getLogger(PhysicalConnectionPool.class.getName());
+
+    private static ScheduledExecutorService evictor;
+
+    private PhysicalConnectionPool() {
+    }
+
+    /**
+     * Record the settings made when a new connection was opened. Only connections with recorded
+     * settings are pooled by {@link #release}.
+     *
+     * @param physicalConnection new connection
+     * @throws SQLException if the settings cannot be read
+     */
+    public static void recordInitialSettings(PhysicalConnection physicalConnection) throws SQLException {
+        Map<String, String> settings = new LinkedHashMap<>();
+        try (Statement statement = physicalConnection.getConnection().createStatement();
+             ResultSet rs = statement.executeQuery(INITIAL_SETTINGS_SQL)) {
+            while (rs.next()) {
+                settings.put(rs.getString(1), rs.getString(2));
+            }
+        }
+        physicalConnection.setInitialSettings(settings);
+    }
+
+    /**
+     * Take the most recently used idle connection. Its session is in the state of a new connection.
+     *
+     * @param key pool key
+     * @return idle connection, or null if there is none
+     */
+    public static PhysicalConnection acquire(Key key) {
+        Deque<PhysicalConnection> idle = IDLE_CONNECTIONS.get(key);
+        if (idle == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        List<PhysicalConnection> expired = new ArrayList<>();
+        PhysicalConnection result;
+        synchronized (idle) {
+            result = idle.pollFirst();
+            if (result != null && now - result.getIdleSince() > IDLE_TIMEOUT_NANOS) {
+                // the most recent one is expired, so are the others
+                expired.add(result);
+                expired.addAll(idle);
+                idle.clear();
+                result = null;
+            }
+        }
+        for (PhysicalConnection each : expired) {
+            closeQuietly(each);
+        }
+        return result;
+    }
+
+    /**
+     * Give a connection back. It is closed instead when it is broken, its session cannot be reset,
+     * its initial settings were not recorded, or the host has maxIdle idle connections already.
+     *
+     * @param key pool key
+     * @param connection connection
+     * @param maxIdle maximum number of idle connections of the host
+     */
+    public static void release(Key key, PhysicalConnection connection, int maxIdle) {
+        if (maxIdle > 0 && getIdleCount(key) < maxIdle && reset(connection)) {
+            Deque<PhysicalConnection> idle = IDLE_CONNECTIONS.computeIfAbsent(key, k -> new ArrayDeque<>());
+            boolean isAdded = false;
+            synchronized (idle) {
+                if (idle.size() < maxIdle) {
+                    connection.setIdleSince(System.nanoTime());
+                    idle.addFirst(connection);
+                    isAdded = true;
+                }
+            }
+            if (isAdded) {
+                startEvictor();
+                return;
+            }
+        }
+        closeQuietly(connection);
+    }
+
+    /**
+     * Get the number of idle connections.
+     *
+     * @param key pool key
+     * @return number of idle connections
+     */
+    public static int getIdleCount(Key key) {
+        Deque<PhysicalConnection> idle = IDLE_CONNECTIONS.get(key);
+        if (idle == null) {
+            return 0;
+        }
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    /**
+     * Bring the session back to the state of a new connection: roll back an open transaction, turn
+     * auto commit on and read only off, discard everything else set in the session, such as
+     * settings, temporary tables and prepared statements, and make the initial settings again.
+     */
+    private static boolean reset(PhysicalConnection physicalConnection) {
+        PgConnection connection = physicalConnection.getConnection();
+        Map<String, String> initialSettings = physicalConnection.getInitialSettings();
+        try {
+            if (initialSettings == null || connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit() && connection.getTransactionState() != TransactionState.IDLE) {
+                connection.rollback();
+            }
+            if (connection.getTransactionState() != TransactionState.IDLE) {
+                return false;
+            }
+            connection.setAutoCommit(true);
+            connection.setReadOnly(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DISCARD ALL");
+                if (!initialSettings.isEmpty()) {
+                    statement.execute(getSetSql(connection, initialSettings));
+                }
+            }
+            physicalConnection.resetApplied();
+            return true;
+        } catch (SQLException ex) {
+            LOGGER.debug("Physical connection is not reused: " + ex.getMessage());
+            return false;
+        }
+    }
+
+    private static String getSetSql(PgConnection connection, Map<String, String> settings) throws SQLException {
+        StringBuilder sql = new StringBuilder();
+        for (Map.Entry<String, String> each : settings.entrySet()) {
+            sql.append(sql.length() == 0 ? "" : ";").append("SET ").append(each.getKey()).append(" = '");
+            Utils.escapeLiteral(sql, each.getValue(), connection.getStandardConformingStrings());
+            sql.append("'");
+        }
+        return sql.toString();
+    }
+
+    private static synchronized void startEvictor() {
+        if (evictor != null) {
+            return;
+        }
+        evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "PostgreSQL JDBC driver idle connection evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(() -> evictExpired(System.nanoTime()), EVICT_PERIOD_SECONDS,
+                EVICT_PERIOD_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Close the connections that have been idle for too long. The thread ends when no idle
+     * connection is left, and is started again by the next release.
+     *
+     * @param now current {@link System#nanoTime()}
+     */
+    static void evictExpired(long now) {
+        List<PhysicalConnection> expired = new ArrayList<>();
+        for (Deque<PhysicalConnection> idle : IDLE_CONNECTIONS.values()) {
+            synchronized (idle) {
+                // the oldest connections are at the end
+                while (!idle.isEmpty() && now - idle.peekLast().getIdleSince() > IDLE_TIMEOUT_NANOS) {
+                    expired.add(idle.pollLast());
+                }
+            }
+        }
+        for (PhysicalConnection each : expired) {
+            closeQuietly(each);
+        }
+        stopEvictorIfEmpty();
+    }
+
+    private static synchronized void stopEvictorIfEmpty() {
+        for (Deque<PhysicalConnection> idle : IDLE_CONNECTIONS.values()) {
+            synchronized (idle) {
+                if (!idle.isEmpty()) {
+                    return;
+                }
+            }
+        }
+        if (evictor != null) {
+            evictor.shutdown();
+            evictor = null;
+        }
+    }
+
+    private static void closeQuietly(PhysicalConnection connection) {
+        try {
+            connection.getConnection().close();
+        } catch (SQLException ex) {
+            LOGGER.debug("Error closing physical connection: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Identifies the data source and host of physical connections.
+     */
+    public static final class Key {
+        private final String url;
+
+        private final String user;
+
+        private final String database;
+
+        private final HostSpec hostSpec;
+
+        private final Properties props;
+
+        private final int hash;
+
+        /**
+         * Constructor.
+         *
+         * @param url url
+         * @param user user
+         * @param database database
+         * @param hostSpec host spec
+         * @param props props, copied
+         */
+        public Key(String url, String user, String database, HostSpec hostSpec, Properties props) {
+            this.url = url;
+            this.user = user;
+            this.database = database;
+            this.hostSpec = hostSpec;
+            this.props = new Properties();
+            this.props.putAll(props);
+            this.hash = Objects.hash(url, user, database, hostSpec, this.props);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return hash == other.hash && Objects.equals(url, other.url) && Objects.equals(user, other.user)
+                    && Objects.equals(database, other.database) && hostSpec.equals(other.hostSpec)
+                    && props.equals(other.props);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
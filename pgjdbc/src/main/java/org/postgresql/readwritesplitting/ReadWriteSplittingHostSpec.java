@@ -4,11 +4,18 @@
 
 package org.postgresql.readwritesplitting;
 
+import org.postgresql.PGProperty;
+import org.postgresql.clusterhealthy.ClusterHeartBeatReplicaLag;
+import org.postgresql.hostchooser.CandidateHost;
 import org.postgresql.hostchooser.HostChooser;
 import org.postgresql.hostchooser.HostChooserFactory;
 import org.postgresql.hostchooser.HostRequirement;
+import org.postgresql.replication.LogSequenceNumber;
 import org.postgresql.util.HostSpec;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Properties;
 
 /**
@@ -25,6 +32,12 @@ public class ReadWriteSplittingHostSpec {
 
     private final HostChooser readChooser;
 
+    private final boolean isLatencyBalanced;
+
+    private final long maxReplicaLag;
+
+    private final boolean isReadYourWrites;
+
     /**
      * Constructor.
      *
@@ -39,6 +52,9 @@ public class ReadWriteSplittingHostSpec {
         this.readHostSpecs = createReadHostSpecs(hostSpecs, writeHostSpec);
         this.targetServerType = targetServerType;
         readChooser = HostChooserFactory.createHostChooser(readHostSpecs, targetServerType, props);
+        isLatencyBalanced = "latency".equals(PGProperty.READ_LOAD_BALANCE_POLICY.get(props));
+        maxReplicaLag = Math.max(0, PGProperty.MAX_REPLICA_LAG.getIntNoCheck(props));
+        isReadYourWrites = PGProperty.READ_YOUR_WRITES.getBoolean(props);
     }
 
     private HostSpec[] createReadHostSpecs(HostSpec[] hostSpecs, HostSpec writeHostSpec) {
@@ -79,12 +95,84 @@ public class ReadWriteSplittingHostSpec {
         return targetServerType;
     }
 
+    /**
+     * Whether reads are balanced by replica latency, see {@link ReplicaLoadBalancer}.
+     *
+     * @return true if readLoadBalancePolicy=latency
+     */
+    public boolean isLatencyBalanced() {
+        return isLatencyBalanced;
+    }
+
+    /**
+     * Get the maximum replay lag of a read replica.
+     *
+     * @return maximum replay lag in milliseconds, 0 for no limit
+     */
+    public long getMaxReplicaLag() {
+        return maxReplicaLag;
+    }
+
+    /**
+     * Whether reads after a write are routed to replicas that replayed the write.
+     *
+     * @return true if readYourWrites=true
+     */
+    public boolean isReadYourWrites() {
+        return isReadYourWrites;
+    }
+
+    /**
+     * Whether the replay lag of the read replicas is sampled, see {@link ClusterHeartBeatReplicaLag}.
+     *
+     * @return true if maxReplicaLag or readYourWrites is set
+     */
+    public boolean isReplicaLagTracked() {
+        return maxReplicaLag > 0 || isReadYourWrites;
+    }
+
     /**
      * Read load balance.
      *
      * @return routed host spec
      */
     public HostSpec readLoadBalance() {
-        return readChooser.iterator().next().hostSpec;
+        return readLoadBalance(LogSequenceNumber.INVALID_LSN);
+    }
+
+    /**
+     * Read load balance over the replicas within the lag bound that have replayed the given
+     * location. When no replica qualifies the read is routed to the write host.
+     *
+     * @param minLsn location the replica must have replayed, {@link LogSequenceNumber#INVALID_LSN}
+     *               for none
+     * @return routed host spec
+     */
+    public HostSpec readLoadBalance(LogSequenceNumber minLsn) {
+        if (maxReplicaLag == 0 && minLsn.asLong() == LogSequenceNumber.INVALID_LSN.asLong()) {
+            if (isLatencyBalanced) {
+                return ReplicaLoadBalancer.choose(readHostSpecs);
+            }
+            return readChooser.iterator().next().hostSpec;
+        }
+        ClusterHeartBeatReplicaLag replicaLag = ClusterHeartBeatReplicaLag.getInstance();
+        if (isLatencyBalanced) {
+            List<HostSpec> upToDate = new ArrayList<>(readHostSpecs.length);
+            for (HostSpec each : readHostSpecs) {
+                if (replicaLag.isUpToDate(each, maxReplicaLag, minLsn)) {
+                    upToDate.add(each);
+                }
+            }
+            return upToDate.isEmpty() ? writeHostSpec
+                    : ReplicaLoadBalancer.choose(upToDate.toArray(new HostSpec[0]));
+        }
+        Iterator<CandidateHost> candidates = readChooser.iterator();
+        while (candidates.hasNext()) {
+            HostSpec candidate = candidates.next().hostSpec;
+            if (replicaLag.isUpToDate(candidate, maxReplicaLag, minLsn)) {
+                return candidate;
+            }
+        }
+        return writeHostSpec;
     }
 }
@@ -5,12 +5,15 @@
 package org.postgresql.readwritesplitting;
 
 import org.postgresql.PGProperty;
+import org.postgresql.clusterhealthy.ClusterHeartBeatReplicaLag;
+import org.postgresql.core.SetupQueryRunner;
 import org.postgresql.core.v3.ConnectionFactoryImpl;
 import org.postgresql.hostchooser.HostRequirement;
 import org.postgresql.jdbc.PgConnection;
 import org.postgresql.jdbc.ReadWriteSplittingPgPreparedStatement;
 import org.postgresql.log.Log;
 import org.postgresql.log.Logger;
+import org.postgresql.replication.LogSequenceNumber;
 import org.postgresql.util.GT;
 import org.postgresql.util.HostSpec;
 import org.postgresql.util.PSQLException;
@@ -54,6 +57,12 @@ public class ReadWriteSplittingPgConnection implements Connection {
 
     private boolean isAutoCommit = true;
 
+    private final Properties props;
+
+    private volatile boolean isWritePending;
+
+    private volatile LogSequenceNumber lastWriteLsn = LogSequenceNumber.INVALID_LSN;
+
     /**
      * Constructor.
      *
@@ -70,6 +79,11 @@ public class ReadWriteSplittingPgConnection implements Connection {
         connectionManager = new PgConnectionManager(props, user, database, url, this);
         readWriteSplittingHostSpec = new ReadWriteSplittingHostSpec(getWriteDataSourceAddress(props, hostSpecs),
                 hostSpecs, getTargetServerTypeParam(props), props);
+        this.props = props;
+        if (readWriteSplittingHostSpec.isReplicaLagTracked()) {
+            ClusterHeartBeatReplicaLag.getInstance().register(readWriteSplittingHostSpec.getReadHostSpecs(), props,
+                    readWriteSplittingHostSpec.getMaxReplicaLag());
+        }
     }
 
     private static void checkRequiredDependencies() throws PSQLException {
@@ -159,6 +173,84 @@ public class ReadWriteSplittingPgConnection implements Connection {
         return connectionManager;
     }
 
+    /**
+     * Execute on the connection routed to the given host. When reads are balanced by latency, the
+     * response time and errors of read replicas are recorded.
+     *
+     * @param hostSpec routed host spec
+     * @param execution execution
+     * @param <T> type of the execution result
+     * @return execution result
+     * @throws SQLException SQL exception
+     */
+    public <T> T execute(HostSpec hostSpec, RoutedExecution<T> execution) throws SQLException {
+        if (readWriteSplittingHostSpec.isReadYourWrites()
+                && readWriteSplittingHostSpec.getWriteHostSpec().equals(hostSpec)) {
+            isWritePending = true;
+        }
+        if (!isTrackedReplica(hostSpec)) {
+            return execution.execute();
+        }
+        ReplicaStats stats = ReplicaLoadBalancer.getStats(hostSpec);
+        long start = stats.start();
+        SQLException error = null;
+        try {
+            return execution.execute();
+        } catch (SQLException ex) {
+            error = ex;
+            throw ex;
+        } finally {
+            stats.finish(start, error);
+        }
+    }
+
+    /**
+     * Record a failure to connect to the given host.
+     *
+     * @param hostSpec host spec
+     * @param error error
+     */
+    public void reportConnectFailure(HostSpec hostSpec, SQLException error) {
+        if (isTrackedReplica(hostSpec)) {
+            ReplicaLoadBalancer.getStats(hostSpec).fail(error);
+        }
+    }
+
+    /**
+     * Read load balance. With readYourWrites, only replicas that have replayed the last write of
+     * this connection are chosen.
+     *
+     * @return routed host spec
+     * @throws SQLException if the location of the last write cannot be queried
+     */
+    public HostSpec readLoadBalance() throws SQLException {
+        if (isWritePending) {
+            PgConnection writeConnection = connectionManager.getCachedConnection(
+                    readWriteSplittingHostSpec.getWriteHostSpec());
+            if (writeConnection != null) {
+                lastWriteLsn = queryWriteLsn(writeConnection);
+            }
+            isWritePending = false;
+        }
+        return readWriteSplittingHostSpec.readLoadBalance(lastWriteLsn);
+    }
+
+    private static LogSequenceNumber queryWriteLsn(PgConnection connection) throws SQLException {
+        byte[][] result = SetupQueryRunner.run(connection.getQueryExecutor(), "select pg_current_xlog_location()",
+                true);
+        try {
+            return LogSequenceNumber.valueOf(connection.getQueryExecutor().getEncoding().decode(result[0]));
+        } catch (IOException ex) {
+            throw new PSQLException(GT.tr("Unable to query the location of the last write"),
+                    PSQLState.DATA_ERROR, ex);
+        }
+    }
+
+    private boolean isTrackedReplica(HostSpec hostSpec) {
+        return readWriteSplittingHostSpec.isLatencyBalanced() && hostSpec != null
+                && !hostSpec.equals(readWriteSplittingHostSpec.getWriteHostSpec());
+    }
+
     @Override
     public Statement createStatement() throws SQLException {
         return createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
@@ -212,19 +304,20 @@ public class ReadWriteSplittingPgConnection implements Connection {
 
     @Override
     public CallableStatement prepareCall(String sql) throws SQLException {
-        return connectionManager.getCurrentConnection().prepareCall(sql);
+        return connectionManager.register(connectionManager.getCurrentConnection().prepareCall(sql));
     }
 
     @Override
     public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
-        return connectionManager.getCurrentConnection().prepareCall(sql, resultSetType, resultSetConcurrency);
+        return connectionManager.register(
+                connectionManager.getCurrentConnection().prepareCall(sql, resultSetType, resultSetConcurrency));
     }
 
     @Override
     public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency,
                                          int resultSetHoldability) throws SQLException {
-        return connectionManager.getCurrentConnection().prepareCall(sql, resultSetType, resultSetConcurrency,
-                resultSetHoldability);
+        return connectionManager.register(connectionManager.getCurrentConnection().prepareCall(sql, resultSetType,
+                resultSetConcurrency, resultSetHoldability));
     }
 
     @Override
@@ -270,6 +363,9 @@ public class ReadWriteSplittingPgConnection implements Connection {
 
     @Override
     public void close() throws SQLException {
+        if (!isClosed && readWriteSplittingHostSpec.isReplicaLagTracked()) {
+            ClusterHeartBeatReplicaLag.getInstance().unregister(readWriteSplittingHostSpec.getReadHostSpecs(), props);
+        }
         isClosed = true;
         connectionManager.close();
     }
@@ -346,12 +442,12 @@ public class ReadWriteSplittingPgConnection implements Connection {
 
     @Override
     public void setTypeMap(Map<String, Class<?>> map) throws SQLException {
-        connectionManager.getCurrentConnection().setTypeMap(map);
+        connectionManager.getExclusiveConnection().setTypeMap(map);
     }
 
     @Override
     public void setHoldability(int holdability) throws SQLException {
-        connectionManager.getCurrentConnection().setHoldability(holdability);
+        connectionManager.getExclusiveConnection().setHoldability(holdability);
     }
 
     @Override
@@ -382,7 +478,7 @@ public class ReadWriteSplittingPgConnection implements Connection {
     @Override
     public void setClientInfo(String name, String value) throws SQLClientInfoException {
         try {
-            connectionManager.getCurrentConnection().setClientInfo(name, value);
+            connectionManager.getExclusiveConnection().setClientInfo(name, value);
         } catch (SQLException e) {
             throw new SQLClientInfoException(Collections.emptyMap(), e);
         }
@@ -391,7 +487,7 @@ public class ReadWriteSplittingPgConnection implements Connection {
     @Override
     public void setClientInfo(Properties properties) throws SQLClientInfoException {
         try {
-            connectionManager.getCurrentConnection().setClientInfo(properties);
+            connectionManager.getExclusiveConnection().setClientInfo(properties);
         } catch (SQLException e) {
             throw new SQLClientInfoException(Collections.emptyMap(), e);
         }
@@ -424,12 +520,12 @@ public class ReadWriteSplittingPgConnection implements Connection {
 
     @Override
     public void abort(Executor executor) throws SQLException {
-        connectionManager.getCurrentConnection().abort(executor);
+        connectionManager.getExclusiveConnection().abort(executor);
     }
 
     @Override
     public void setNetworkTimeout(Executor executor, int milliseconds) throws SQLException {
-        connectionManager.getCurrentConnection().setNetworkTimeout(executor, milliseconds);
+        connectionManager.getExclusiveConnection().setNetworkTimeout(executor, milliseconds);
     }
 
     @Override
@@ -4,6 +4,8 @@
 
 package org.postgresql.readwritesplitting;
 
+import org.postgresql.util.HostSpec;
+
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -33,6 +35,8 @@ public class ReadWriteSplittingPgStatement implements Statement {
 
     private Statement currentStatement;
 
+    private HostSpec currentHostSpec;
+
     private ResultSet currentResultSet;
 
     private boolean isClosed;
@@ -56,16 +60,19 @@ public class ReadWriteSplittingPgStatement implements Statement {
     @Override
     public ResultSet executeQuery(String sql) throws SQLException {
         Statement pgStatement = createPgStatement(sql);
-        ResultSet result = pgStatement.executeQuery(sql);
+        ResultSet result = readWriteSplittingPgConnection.execute(currentHostSpec, () -> pgStatement.executeQuery(sql));
         currentResultSet = result;
         return result;
     }
 
     private Statement createPgStatement(String sql) throws SQLException {
-        Connection connection = SqlRouteEngine.getRoutedConnection(readWriteSplittingPgConnection, sql);
-        Statement statement = connection.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability);
+        HostSpec hostSpec = SqlRouteEngine.route(sql, readWriteSplittingPgConnection);
+        Connection connection = SqlRouteEngine.getConnection(readWriteSplittingPgConnection, hostSpec);
+        Statement statement = readWriteSplittingPgConnection.getConnectionManager().register(
+                connection.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability));
         statements.add(statement);
         currentStatement = statement;
+        currentHostSpec = hostSpec;
         return statement;
     }
 
@@ -77,8 +84,9 @@ public class ReadWriteSplittingPgStatement implements Statement {
      */
     public Statement getCurrentStatement() throws SQLException {
         if (currentStatement == null) {
-            Statement statement =
-                    readWriteSplittingPgConnection.getConnectionManager().getCurrentConnection().createStatement();
+            PgConnectionManager connectionManager = readWriteSplittingPgConnection.getConnectionManager();
+            Statement statement = connectionManager.register(
+                    connectionManager.getCurrentConnection().createStatement());
             statements.add(statement);
             currentStatement = statement;
             return statement;
@@ -90,49 +98,49 @@ public class ReadWriteSplittingPgStatement implements Statement {
     @Override
     public boolean execute(String sql) throws SQLException {
         Statement pgStatement = createPgStatement(sql);
-        return pgStatement.execute(sql);
+        return readWriteSplittingPgConnection.execute(currentHostSpec, () -> pgStatement.execute(sql));
     }
 
     @Override
     public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
         Statement pgStatement = createPgStatement(sql);
-        return pgStatement.execute(sql, autoGeneratedKeys);
+        return readWriteSplittingPgConnection.execute(currentHostSpec, () -> pgStatement.execute(sql, autoGeneratedKeys));
     }
 
     @Override
     public boolean execute(String sql, int[] columnIndexes) throws SQLException {
         Statement pgStatement = createPgStatement(sql);
-        return pgStatement.execute(sql, columnIndexes);
+        return readWriteSplittingPgConnection.execute(currentHostSpec, () -> pgStatement.execute(sql, columnIndexes));
     }
 
     @Override
     public boolean execute(String sql, String[] columnNames) throws SQLException {
         Statement pgStatement = createPgStatement(sql);
-        return pgStatement.execute(sql, columnNames);
+        return readWriteSplittingPgConnection.execute(currentHostSpec, () -> pgStatement.execute(sql, columnNames));
     }
 
     @Override
     public int executeUpdate(String sql) throws SQLException {
         Statement pgStatement = createPgStatement(sql);
-        return pgStatement.executeUpdate(sql);
+        return readWriteSplittingPgConnection.execute(currentHostSpec, () -> pgStatement.executeUpdate(sql));
     }
 
     @Override
     public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
         Statement pgStatement = createPgStatement(sql);
-        return pgStatement.executeUpdate(sql, autoGeneratedKeys);
+        return readWriteSplittingPgConnection.execute(currentHostSpec, () -> pgStatement.executeUpdate(sql, autoGeneratedKeys));
     }
 
     @Override
     public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
         Statement pgStatement = createPgStatement(sql);
-        return pgStatement.executeUpdate(sql, columnIndexes);
+        return readWriteSplittingPgConnection.execute(currentHostSpec, () -> pgStatement.executeUpdate(sql, columnIndexes));
     }
 
     @Override
     public int executeUpdate(String sql, String[] columnNames) throws SQLException {
         Statement pgStatement = createPgStatement(sql);
-        return pgStatement.executeUpdate(sql, columnNames);
+        return readWriteSplittingPgConnection.execute(currentHostSpec, () -> pgStatement.executeUpdate(sql, columnNames));
     }
 
     public Collection<Statement> getRoutedStatements() {
@@ -161,7 +169,8 @@ public class ReadWriteSplittingPgStatement implements Statement {
 
     @Override
     public int[] executeBatch() throws SQLException {
-        return getCurrentStatement().executeBatch();
+        Statement statement = getCurrentStatement();
+        return readWriteSplittingPgConnection.execute(currentHostSpec, statement::executeBatch);
     }
 
     @Override
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ */
+
+package org.postgresql.readwritesplitting;
+
+import org.postgresql.util.HostSpec;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Latency aware read load balancing. Two healthy replicas are picked at random and the one with
+ * the lower {@link ReplicaStats#cost cost} is used, which keeps load spread over the replicas while
+ * steering it away from slow, busy or failing ones. Statistics are shared by all connections.
+ *
+ * @since 2025-06-20
+ */
+public class ReplicaLoadBalancer {
+    private static final ConcurrentMap<HostSpec, ReplicaStats> STATS = new ConcurrentHashMap<>();
+
+    private ReplicaLoadBalancer() {
+    }
+
+    /**
+     * Get the statistics of a replica.
+     *
+     * @param hostSpec replica host spec
+     * @return replica statistics
+     */
+    public static ReplicaStats getStats(HostSpec hostSpec) {
+        ReplicaStats stats = STATS.get(hostSpec);
+        return stats == null ? STATS.computeIfAbsent(hostSpec, key -> new ReplicaStats()) : stats;
+    }
+
+    /**
+     * Choose a replica with power of two choices.
+     *
+     * @param replicas replica host specs
+     * @return chosen replica
+     */
+    public static HostSpec choose(HostSpec[] replicas) {
+        if (replicas.length == 1) {
+            return replicas[0];
+        }
+        long now = System.nanoTime();
+        int healthy = 0;
+        for (HostSpec each : replicas) {
+            if (getStats(each).isHealthy(now)) {
+                healthy++;
+            }
+        }
+        boolean isHealthyOnly = healthy > 0;
+        int candidates = isHealthyOnly ? healthy : replicas.length;
+        if (candidates == 1) {
+            return nth(replicas, 0, true, now);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates);
+        int second = random.nextInt(candidates - 1);
+        if (second >= first) {
+            second++;
+        }
+        HostSpec a = nth(replicas, first, isHealthyOnly, now);
+        HostSpec b = nth(replicas, second, isHealthyOnly, now);
+        return getStats(b).cost(now) < getStats(a).cost(now) ? b : a;
+    }
+
+    private static HostSpec nth(HostSpec[] replicas, int index, boolean isHealthyOnly, long now) {
+        int seen = 0;
+        for (HostSpec each : replicas) {
+            if (!isHealthyOnly || getStats(each).isHealthy(now)) {
+                if (seen++ == index) {
+                    return each;
+                }
+            }
+        }
+        // health changed while choosing
+        return replicas[index % replicas.length];
+    }
+}
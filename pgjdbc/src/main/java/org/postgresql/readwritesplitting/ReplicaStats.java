@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ */
+
+package org.postgresql.readwritesplitting;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Response time, in-flight statements and error rate of one read replica.
+ *
+ * <p>Response time and error rate are exponentially weighted moving averages. Observations fade
+ * with age, so a replica that was slow or failing a while ago is tried again once it has not been
+ * used for some time.</p>
+ *
+ * @since 2025-06-20
+ */
+public class ReplicaStats {
+    private static final double ALPHA = 0.3;
+
+    private static final double DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private static final double UNHEALTHY_ERROR_RATE = 0.5;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private double latencyNanos;
+
+    private double errorRate;
+
+    private long lastUpdate;
+
+    private boolean isObserved;
+
+    /**
+     * Start a statement on the replica.
+     *
+     * @return start time in nanoseconds
+     */
+    public long start() {
+        inFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * Finish a statement started with {@link #start()}.
+     *
+     * @param start start time returned by {@link #start()}
+     * @param error error thrown by the statement, null on success
+     */
+    public void finish(long start, SQLException error) {
+        record(start, error != null && isReplicaError(error.getSQLState()));
+    }
+
+    /**
+     * Record a failure that happened outside a statement, such as a failed connection attempt.
+     * An error without SQLState counts as well here, because the attempt never reached a point
+     * where the statement could be at fault.
+     *
+     * @param error error
+     */
+    public void fail(SQLException error) {
+        String state = error.getSQLState();
+        record(start(), state == null || isReplicaError(state));
+    }
+
+    private void record(long start, boolean isFailed) {
+        long now = System.nanoTime();
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            double weight = isObserved ? ALPHA + (1 - ALPHA) * (1 - fade(now)) : 1;
+            errorRate += weight * ((isFailed ? 1 : 0) - errorRate);
+            if (!isFailed) {
+                latencyNanos += weight * ((now - start) - latencyNanos);
+            }
+            lastUpdate = now;
+            isObserved = true;
+        }
+    }
+
+    /**
+     * Errors reported by the server that say something about the replica rather than the
+     * statement: connection errors, insufficient resources and operator intervention such as
+     * shutdown or statement timeout. Errors without SQLState are raised by the driver itself, for
+     * a bad argument or a closed statement, and do not count against the replica.
+     */
+    private static boolean isReplicaError(String state) {
+        return state != null && (state.startsWith("08") || state.startsWith("53") || state.startsWith("57"));
+    }
+
+    private double fade(long now) {
+        return isObserved ? Math.exp(-(now - lastUpdate) / DECAY_NANOS) : 0;
+    }
+
+    /**
+     * Whether the recent error rate of the replica is acceptable.
+     *
+     * @param now current time in nanoseconds
+     * @return true if the replica is healthy
+     */
+    public synchronized boolean isHealthy(long now) {
+        return errorRate * fade(now) < UNHEALTHY_ERROR_RATE;
+    }
+
+    /**
+     * Expected cost of sending the next statement to the replica: the response time weighted by
+     * the number of statements in flight and the error rate. Unknown replicas cost nothing, so they
+     * are tried first.
+     *
+     * @param now current time in nanoseconds
+     * @return cost
+     */
+    public synchronized double cost(long now) {
+        double fade = fade(now);
+        double health = 1 - errorRate * fade;
+        return latencyNanos * fade * (inFlight.get() + 1) / Math.max(health * health, 0.01);
+    }
+
+    /**
+     * Get the number of statements in flight.
+     *
+     * @return statements in flight
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Get the moving average of the response time.
+     *
+     * @return response time in nanoseconds
+     */
+    public synchronized long getLatencyNanos() {
+        return (long) latencyNanos;
+    }
+
+    /**
+     * Get the moving average of the error rate.
+     *
+     * @return error rate between 0 and 1
+     */
+    public synchronized double getErrorRate() {
+        return errorRate;
+    }
+}
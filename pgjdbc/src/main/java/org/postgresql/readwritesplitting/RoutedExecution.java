@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ */
+
+package org.postgresql.readwritesplitting;
+
+import java.sql.SQLException;
+
+/**
+ * Execution on a routed connection.
+ *
+ * @since 2025-06-20
+ * @param <T> type of the execution result
+ */
+public interface RoutedExecution<T> {
+    /**
+     * Execute.
+     *
+     * @return execution result
+     * @throws SQLException SQL exception
+     */
+    T execute() throws SQLException;
+}
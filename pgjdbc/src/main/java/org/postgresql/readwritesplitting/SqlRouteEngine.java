@@ -41,11 +41,28 @@ public class SqlRouteEngine {
      */
     public static Connection getRoutedConnection(ReadWriteSplittingPgConnection readWriteSplittingPgConnection,
                                                  String sql) throws SQLException {
-        HostSpec hostSpec = SqlRouteEngine.route(sql, readWriteSplittingPgConnection);
+        return getConnection(readWriteSplittingPgConnection, route(sql, readWriteSplittingPgConnection));
+    }
+
+    /**
+     * Get the connection to a routed host.
+     *
+     * @param readWriteSplittingPgConnection read write splitting PG Connection
+     * @param hostSpec routed host spec
+     * @return routed connection
+     * @throws SQLException SQL exception
+     */
+    public static Connection getConnection(ReadWriteSplittingPgConnection readWriteSplittingPgConnection,
+                                           HostSpec hostSpec) throws SQLException {
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("Routed connection host spec: " + hostSpec);
         }
-        return readWriteSplittingPgConnection.getConnectionManager().getConnection(hostSpec);
+        try {
+            return readWriteSplittingPgConnection.getConnectionManager().getConnection(hostSpec);
+        } catch (SQLException ex) {
+            readWriteSplittingPgConnection.reportConnectFailure(hostSpec, ex);
+            throw ex;
+        }
     }
 
     /**
@@ -67,7 +84,7 @@ public class SqlRouteEngine {
                 return hostSpec.getWriteHostSpec();
             }
             if (HostRequirement.secondary == hostSpec.getTargetServerType()) {
-                return hostSpec.readLoadBalance();
+                return readWriteSplittingPgConnection.readLoadBalance();
             }
             ParseASTNode parseASTNode = PARSE_ENGINE.parse(sql, true);
             SQLStatement sqlStatement = new SQLStatementVisitorEngine(DATABASE_TYPE, false).visit(parseASTNode);
@@ -77,7 +94,7 @@ public class SqlRouteEngine {
         } catch (final Exception ignored) {
             return hostSpec.getWriteHostSpec();
         }
-        return hostSpec.readLoadBalance();
+        return readWriteSplittingPgConnection.readLoadBalance();
     }
 
     private static boolean isWriteRouteStatement(final SQLStatement sqlStatement) {
@@ -28,6 +28,15 @@ public class ByteConverter {
   private static final BigInteger[] BI_TEN_POWERS = new BigInteger[32];
   private static final BigInteger BI_TEN_THOUSAND = BigInteger.valueOf(10000);
 
+  static {
+    for (int i = 0; i < INT_TEN_POWERS.length; ++i) {
+      INT_TEN_POWERS[i] = (int) Math.pow(10, i);
+    }
+    for (int i = 0; i < BI_TEN_POWERS.length; ++i) {
+      BI_TEN_POWERS[i] = BigInteger.TEN.pow(i);
+    }
+  }
+
   /**
    * Convert a variable length array of bytes to an integer
    * @param bytes array of bytes that can be decoded as an integer
@@ -176,6 +185,9 @@ public class ByteConverter {
           }
         }
       }
+      if (unscaledBI == null && effectiveScale == 0) {
+        return BigDecimal.valueOf(sign == NUMERIC_NEG ? -unscaledInt : unscaledInt, scale);
+      }
       //now we need BigInteger to create BigDecimal
       if (unscaledBI == null) {
         unscaledBI = BigInteger.valueOf(unscaledInt);
@@ -214,6 +226,11 @@ public class ByteConverter {
           }
         }
       }
+      //the difference between len and weight (adjusted from 0 based) becomes the scale for BigDecimal
+      final int bigDecScale = (len - (weight + 1)) * 4;
+      if (unscaledBI == null && bigDecScale == 0) {
+        return BigDecimal.valueOf(sign == NUMERIC_NEG ? -unscaledInt : unscaledInt);
+      }
       //now we need BigInteger to create BigDecimal
       if (unscaledBI == null) {
         unscaledBI = BigInteger.valueOf(unscaledInt);
@@ -221,8 +238,6 @@ public class ByteConverter {
       if (sign == NUMERIC_NEG) {
         unscaledBI = unscaledBI.negate();
       }
-      //the difference between len and weight (adjusted from 0 based) becomes the scale for BigDecimal
-      final int bigDecScale = (len - (weight + 1)) * 4;
       //string representation always results in a BigDecimal with scale of 0
       //the binary representation, where weight and len can infer trailing 0s, can result in a negative scale
       //to produce a consistent BigDecimal, we return the equivalent object with scale set to 0
@@ -281,6 +296,9 @@ public class ByteConverter {
       }
     }
 
+    if (unscaledBI == null && effectiveWeight == 0 && effectiveScale == 0) {
+      return BigDecimal.valueOf(sign == NUMERIC_NEG ? -unscaledInt : unscaledInt, scale);
+    }
     //now we need BigInteger to create BigDecimal
     if (unscaledBI == null) {
       unscaledBI = BigInteger.valueOf(unscaledInt);
@@ -300,6 +318,72 @@ public class ByteConverter {
     return new BigDecimal(unscaledBI, scale);
   }
 
+  /**
+   * Encode a {@link BigDecimal} in the binary numeric representation: a header of digit count,
+   * weight, sign and display scale followed by the base 10000 digits. Values whose unscaled value
+   * fits in a long are split into digits without any {@link BigInteger} arithmetic.
+   *
+   * @param value the value to encode
+   * @return the binary numeric representation of the value
+   * @throws IllegalArgumentException if the scale or weight of the value cannot be represented
+   */
+  public static byte[] numeric(BigDecimal value) {
+    if (value.scale() < 0) {
+      value = value.setScale(0);
+    }
+    int scale = value.scale();
+    if (scale > NUMERIC_DSCALE_MASK) {
+      throw new IllegalArgumentException("invalid scale in \"numeric\" value");
+    }
+    BigInteger unscaled = value.unscaledValue();
+    int signum = unscaled.signum();
+    if (signum == 0) {
+      byte[] bytes = new byte[8];
+      int2(bytes, 6, scale);
+      return bytes;
+    }
+    //pad the unscaled value so that the decimal point falls on a base 10000 digit boundary
+    int pad = (4 - scale % 4) % 4;
+    int fractionDigits = (scale + pad) / 4;
+    //base 10000 digits, least significant first
+    short[] digits = new short[(unscaled.bitLength() + pad * 4) / 13 + 2];
+    int count = 0;
+    //2^53 * 1000 still fits in a long
+    if (unscaled.bitLength() <= 53) {
+      long unscaledInt = Math.abs(unscaled.longValue()) * INT_TEN_POWERS[pad];
+      while (unscaledInt != 0) {
+        digits[count++] = (short) (unscaledInt % 10000);
+        unscaledInt /= 10000;
+      }
+    } else {
+      BigInteger unscaledBI = unscaled.abs().multiply(tenPower(pad));
+      while (unscaledBI.signum() != 0) {
+        BigInteger[] quotientAndRemainder = unscaledBI.divideAndRemainder(BI_TEN_THOUSAND);
+        digits[count++] = quotientAndRemainder[1].shortValue();
+        unscaledBI = quotientAndRemainder[0];
+      }
+    }
+    int weight = count - fractionDigits - 1;
+    if (weight > Short.MAX_VALUE) {
+      throw new IllegalArgumentException("invalid weight in \"numeric\" value");
+    }
+    //trailing zero digits are implied by the weight and scale
+    int first = 0;
+    while (digits[first] == 0) {
+      first++;
+    }
+    int len = count - first;
+    byte[] bytes = new byte[8 + len * SHORT_BYTES];
+    int2(bytes, 0, len);
+    int2(bytes, 2, weight);
+    int2(bytes, 4, signum < 0 ? NUMERIC_NEG : NUMERIC_POS);
+    int2(bytes, 6, scale);
+    for (int i = 0, idx = 8; i < len; i++, idx += SHORT_BYTES) {
+      int2(bytes, idx, digits[count - 1 - i]);
+    }
+    return bytes;
+  }
+
   private static BigInteger tenPower(int exponent) {
     return BI_TEN_POWERS.length > exponent ? BI_TEN_POWERS[exponent] : BigInteger.TEN.pow(exponent);
   }
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.postgresql.core.QueryExecutor;
+import org.postgresql.util.HostSpec;
+
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Properties;
+
+public class GlobalConnectionTrackerTest {
+  private static final HostSpec HOST = new HostSpec("tracker.test", 5432);
+
+  private static class FakeExecutor implements InvocationHandler {
+    boolean closed;
+    boolean available = true;
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+      switch (method.getName()) {
+        case "getHostSpec":
+          return HOST;
+        case "isClosed":
+          return closed;
+        case "close":
+          closed = true;
+          return null;
+        case "setAvailability":
+          available = (Boolean) args[0];
+          return null;
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        case "equals":
+          return proxy == args[0];
+        default:
+          throw new UnsupportedOperationException(method.getName());
+      }
+    }
+  }
+
+  private static QueryExecutor executor(FakeExecutor handler) {
+    return (QueryExecutor) Proxy.newProxyInstance(QueryExecutor.class.getClassLoader(),
+        new Class<?>[]{QueryExecutor.class}, handler);
+  }
+
+  private static Properties slaveProps() {
+    Properties props = new Properties();
+    PGProperty.TARGET_SERVER_TYPE.set(props, "slave");
+    PGProperty.FORCE_TARGET_SERVER_SLAVE.set(props, true);
+    return props;
+  }
+
+  @Test
+  public void testPossessAndRelease() {
+    Properties props = slaveProps();
+    QueryExecutor first = executor(new FakeExecutor());
+    QueryExecutor second = executor(new FakeExecutor());
+    GlobalConnectionTracker.possessConnectionReference(first, props);
+    GlobalConnectionTracker.possessConnectionReference(second, props);
+    assertEquals(2, GlobalConnectionTracker.getConnections(HOST.toString()).size());
+
+    GlobalConnectionTracker.releaseConnectionReference(first, props);
+    assertEquals(1, GlobalConnectionTracker.getConnections(HOST.toString()).size());
+    assertTrue(GlobalConnectionTracker.getConnections(HOST.toString()).contains(second));
+
+    GlobalConnectionTracker.releaseConnectionReference(second, props);
+    assertTrue(GlobalConnectionTracker.getConnections(HOST.toString()).isEmpty());
+  }
+
+  @Test
+  public void testCloseOldConnection() {
+    Properties props = slaveProps();
+    FakeExecutor handler = new FakeExecutor();
+    GlobalConnectionTracker.possessConnectionReference(executor(handler), props);
+    GlobalConnectionTracker.closeOldConnection(HOST.toString(), props);
+    assertFalse(handler.available);
+    assertFalse(handler.closed);
+    assertTrue(GlobalConnectionTracker.getConnections(HOST.toString()).isEmpty());
+  }
+
+  @Test
+  public void testCloseConnectionOfCrash() {
+    FakeExecutor handler = new FakeExecutor();
+    GlobalConnectionTracker.possessConnectionReference(executor(handler), slaveProps());
+    GlobalConnectionTracker.closeConnectionOfCrash(HOST.toString());
+    assertTrue(handler.closed);
+    assertFalse(handler.available);
+    assertTrue(GlobalConnectionTracker.getConnections(HOST.toString()).isEmpty());
+  }
+}
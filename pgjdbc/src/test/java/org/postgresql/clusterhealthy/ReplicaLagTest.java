@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ */
+
+package org.postgresql.clusterhealthy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.postgresql.hostchooser.HostRequirement;
+import org.postgresql.readwritesplitting.ReadWriteSplittingHostSpec;
+import org.postgresql.replication.LogSequenceNumber;
+import org.postgresql.util.HostSpec;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Properties;
+
+/**
+ * Replication lag bounded read routing test, without a server.
+ *
+ * @since 2025-06-20
+ */
+public class ReplicaLagTest {
+    private final ClusterHeartBeatReplicaLag replicaLag = ClusterHeartBeatReplicaLag.getInstance();
+
+    private static ReadWriteSplittingHostSpec hostSpec(HostSpec writer, HostSpec[] hosts, String policy,
+                                                       String maxReplicaLag) {
+        StringBuilder names = new StringBuilder();
+        StringBuilder ports = new StringBuilder();
+        for (HostSpec host : hosts) {
+            names.append(names.length() == 0 ? "" : ",").append(host.getHost());
+            ports.append(ports.length() == 0 ? "" : ",").append(host.getPort());
+        }
+        Properties props = new Properties();
+        props.setProperty("PGHOSTURL", names.toString());
+        props.setProperty("PGPORTURL", ports.toString());
+        props.setProperty("readLoadBalancePolicy", policy);
+        props.setProperty("maxReplicaLag", maxReplicaLag);
+        return new ReadWriteSplittingHostSpec(writer, hosts, HostRequirement.any, props);
+    }
+
+    @Test
+    public void testLaggingReplicaIsExcluded() {
+        HostSpec writer = new HostSpec("lag-writer.test", 5432);
+        HostSpec current = new HostSpec("lag-current.test", 5432);
+        HostSpec behind = new HostSpec("lag-behind.test", 5432);
+        replicaLag.recordSample(current, 20, LogSequenceNumber.valueOf(100));
+        replicaLag.recordSample(behind, 5000, LogSequenceNumber.valueOf(50));
+        for (String policy : new String[]{"default", "latency"}) {
+            ReadWriteSplittingHostSpec hostSpec = hostSpec(writer, new HostSpec[]{writer, behind, current}, policy,
+                    "1000");
+            for (int i = 0; i < 100; i++) {
+                assertEquals(current, hostSpec.readLoadBalance());
+            }
+        }
+        assertEquals(5000, replicaLag.getReplicaLag(behind));
+    }
+
+    @Test
+    public void testWriterIsUsedWithoutUpToDateReplica() {
+        HostSpec writer = new HostSpec("lag-writer2.test", 5432);
+        HostSpec behind = new HostSpec("lag-behind2.test", 5432);
+        HostSpec unsampled = new HostSpec("lag-unsampled.test", 5432);
+        replicaLag.recordSample(behind, 5000, LogSequenceNumber.valueOf(50));
+        ReadWriteSplittingHostSpec hostSpec = hostSpec(writer, new HostSpec[]{writer, behind, unsampled}, "default",
+                "1000");
+        assertEquals(-1, replicaLag.getReplicaLag(unsampled));
+        assertEquals(writer, hostSpec.readLoadBalance());
+    }
+
+    @Test
+    public void testReadYourWrites() {
+        HostSpec writer = new HostSpec("ryw-writer.test", 5432);
+        HostSpec replica = new HostSpec("ryw-replica.test", 5432);
+        replicaLag.recordSample(replica, 10, LogSequenceNumber.valueOf("0/1000"));
+        ReadWriteSplittingHostSpec hostSpec = hostSpec(writer, new HostSpec[]{writer, replica}, "default", "0");
+        assertFalse(hostSpec.isReplicaLagTracked());
+        assertEquals(replica, hostSpec.readLoadBalance(LogSequenceNumber.valueOf("0/1000")));
+        assertEquals(writer, hostSpec.readLoadBalance(LogSequenceNumber.valueOf("0/1001")));
+        assertTrue(replicaLag.isUpToDate(replica, 0, LogSequenceNumber.INVALID_LSN));
+        assertFalse(replicaLag.isUpToDate(replica, 5, LogSequenceNumber.INVALID_LSN));
+    }
+
+    @Test
+    public void testUnregisterDoesNotWaitForSample() throws Exception {
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            HostSpec replica = new HostSpec(InetAddress.getLoopbackAddress().getHostAddress(),
+                    server.getLocalPort());
+            final HostSpec[] hosts = {replica};
+            final Properties props = new Properties();
+            props.setProperty("sslmode", "disable");
+            replicaLag.register(hosts, props, 1000);
+            // the probe connection is accepted but never answered, so the sample hangs
+            Socket probe = server.accept();
+            try {
+                Thread unregister = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        replicaLag.unregister(hosts, props);
+                    }
+                });
+                unregister.start();
+                unregister.join(5000);
+                assertFalse(unregister.isAlive());
+            } finally {
+                probe.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.postgresql.util.HostSpec;
+
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class CancelDispatcherTest {
+  private final CancelDispatcher dispatcher = CancelDispatcher.getInstance();
+
+  @Test
+  public void testExecuteRunsOffThread() throws Exception {
+    final AtomicReference<Thread> ran = new AtomicReference<Thread>();
+    final CountDownLatch done = new CountDownLatch(1);
+    dispatcher.execute(new Runnable() {
+      @Override
+      public void run() {
+        ran.set(Thread.currentThread());
+        done.countDown();
+      }
+    });
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    assertTrue(ran.get() != Thread.currentThread());
+    assertTrue(ran.get().isDaemon());
+  }
+
+  @Test
+  public void testConcurrentCancelsForSameBackendAreCoalesced() throws Exception {
+    final HostSpec host = new HostSpec("cancel.test", 5432);
+    final AtomicInteger handshakes = new AtomicInteger();
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+    long coalescedBefore = dispatcher.getCoalescedCount();
+
+    Thread first = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          dispatcher.cancel(host, 42, new CancelDispatcher.CancelRequest() {
+            @Override
+            public void send() {
+              handshakes.incrementAndGet();
+              started.countDown();
+              try {
+                release.await();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            }
+          });
+        } catch (Throwable t) {
+          error.set(t);
+        }
+      }
+    });
+    first.start();
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+
+    Thread second = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          dispatcher.cancel(host, 42, new CancelDispatcher.CancelRequest() {
+            @Override
+            public void send() {
+              handshakes.incrementAndGet();
+            }
+          });
+        } catch (Throwable t) {
+          error.set(t);
+        }
+      }
+    });
+    second.start();
+    while (dispatcher.getCoalescedCount() == coalescedBefore) {
+      Thread.sleep(1);
+    }
+    release.countDown();
+    first.join();
+    second.join();
+
+    assertEquals(null, error.get());
+    assertEquals(1, handshakes.get());
+  }
+
+  @Test
+  public void testFailureIsReported() {
+    long failedBefore = dispatcher.getFailedCount();
+    try {
+      dispatcher.cancel(new HostSpec("cancel.test", 5433), 7, new CancelDispatcher.CancelRequest() {
+        @Override
+        public void send() throws SQLException {
+          throw new SQLException("boom");
+        }
+      });
+      fail("Expected SQLException");
+    } catch (SQLException e) {
+      assertEquals("boom", e.getMessage());
+    }
+    assertEquals(failedBefore + 1, dispatcher.getFailedCount());
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.postgresql.util.HostSpec;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import javax.net.SocketFactory;
+
+/**
+ * Checks that {@link ClientEncoder} measures and writes exactly what {@link String#getBytes} does.
+ */
+public class ClientEncoderTest {
+  private static final String[] VALUES = {
+      "",
+      "plain ascii 0123456789",
+      "café über",
+      "中文字符",
+      "euro € and yen ¥",
+      "emoji 😀!",
+      "lone \ud83d surrogate \ude00",
+      repeat("中éa😀", 5000),
+  };
+
+  private static String repeat(String s, int count) {
+    StringBuilder sb = new StringBuilder(s.length() * count);
+    for (int i = 0; i < count; i++) {
+      sb.append(s);
+    }
+    return sb.toString();
+  }
+
+  @Test
+  public void testUtf8() throws IOException {
+    check("UTF8");
+  }
+
+  @Test
+  public void testGbk() throws IOException {
+    check("GBK");
+  }
+
+  @Test
+  public void testLatin1() throws IOException {
+    check("ISO-8859-1");
+  }
+
+  @Test
+  public void testIsDirect() {
+    assertTrue(new ClientEncoder("UTF8").isDirect("中文字符"));
+    ClientEncoder gbk = new ClientEncoder("GBK");
+    assertTrue(gbk.isDirect("plain ascii"));
+    assertFalse(gbk.isDirect("中文字符"));
+  }
+
+  private static void check(String encoding) throws IOException {
+    ClientEncoder encoder = new ClientEncoder(encoding);
+    for (String value : VALUES) {
+      byte[] expected = value.getBytes(encoder.charset());
+      String message = encoding + " " + value.substring(0, Math.min(20, value.length()));
+      assertEquals(message, expected.length, encoder.length(value));
+      assertArrayEquals(message, expected, write(encoder, value));
+    }
+  }
+
+  private static byte[] write(ClientEncoder encoder, String value) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    SocketFactory socketFactory = new SocketFactory() {
+      @Override
+      public Socket createSocket() {
+        return new Socket() {
+          @Override
+          public boolean isConnected() {
+            return true;
+          }
+
+          @Override
+          public void setTcpNoDelay(boolean on) {
+          }
+
+          @Override
+          public InputStream getInputStream() {
+            return new ByteArrayInputStream(new byte[0]);
+          }
+
+          @Override
+          public OutputStream getOutputStream() {
+            return out;
+          }
+        };
+      }
+
+      @Override
+      public Socket createSocket(String host, int port) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public Socket createSocket(String host, int port, InetAddress localHost, int localPort) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public Socket createSocket(InetAddress host, int port) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort) {
+        throw new UnsupportedOperationException();
+      }
+    };
+    PGStream pgStream = new PGStream(socketFactory, new HostSpec("localhost", 5432), 0);
+    encoder.write(value, pgStream);
+    pgStream.flush();
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.postgresql.hostchooser.CandidateHost;
+import org.postgresql.hostchooser.HostRequirement;
+import org.postgresql.util.HostSpec;
+
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConnectionRacerTest {
+  private final ConnectionRacer racer = ConnectionRacer.getInstance();
+
+  private static List<CandidateHost> hosts(String... names) {
+    List<CandidateHost> candidates = new ArrayList<CandidateHost>();
+    for (String name : names) {
+      candidates.add(new CandidateHost(new HostSpec(name, 5432), HostRequirement.any));
+    }
+    return candidates;
+  }
+
+  private static final ConnectionRacer.Discard<String> IGNORE = new ConnectionRacer.Discard<String>() {
+    @Override
+    public void discard(String connection) {
+    }
+  };
+
+  @Test
+  public void testStalledHostIsBypassedAfterDelay() throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch discarded = new CountDownLatch(1);
+    long staggeredBefore = racer.getStaggeredCount();
+    long discardedBefore = racer.getDiscardedCount();
+
+    String winner = racer.race(hosts("stalled", "healthy"), 2, 50,
+        new ConnectionRacer.Attempt<String>() {
+          @Override
+          public String connect(CandidateHost candidate) throws SQLException {
+            if (candidate.hostSpec.getHost().equals("stalled")) {
+              try {
+                release.await(10, TimeUnit.SECONDS);
+              } catch (InterruptedException e) {
+                throw new SQLException(e);
+              }
+            }
+            return candidate.hostSpec.getHost();
+          }
+        },
+        new ConnectionRacer.Discard<String>() {
+          @Override
+          public void discard(String connection) {
+            assertEquals("stalled", connection);
+            discarded.countDown();
+          }
+        });
+
+    assertEquals("healthy", winner);
+    assertTrue(racer.getStaggeredCount() > staggeredBefore);
+    release.countDown();
+    assertTrue(discarded.await(10, TimeUnit.SECONDS));
+    assertTrue(racer.getDiscardedCount() > discardedBefore);
+  }
+
+  @Test
+  public void testFailureStartsNextHostAtOnce() throws Exception {
+    long begin = System.nanoTime();
+    String winner = racer.race(hosts("down", "up"), 2, 60000,
+        new ConnectionRacer.Attempt<String>() {
+          @Override
+          public String connect(CandidateHost candidate) throws SQLException {
+            if (candidate.hostSpec.getHost().equals("down")) {
+              throw new SQLException("refused");
+            }
+            return candidate.hostSpec.getHost();
+          }
+        }, IGNORE);
+    assertEquals("up", winner);
+    assertTrue(System.nanoTime() - begin < TimeUnit.SECONDS.toNanos(30));
+  }
+
+  @Test
+  public void testAllFailuresAreReported() {
+    try {
+      racer.race(hosts("first", "second", "third"), 2, 0,
+          new ConnectionRacer.Attempt<String>() {
+            @Override
+            public String connect(CandidateHost candidate) throws SQLException {
+              throw new SQLException(candidate.hostSpec.getHost());
+            }
+          }, IGNORE);
+      fail("Expected SQLException");
+    } catch (SQLException e) {
+      assertEquals(2, e.getSuppressed().length);
+    }
+  }
+
+  @Test
+  public void testMismatchedHostsReturnNull() throws Exception {
+    assertNull(racer.race(hosts("standby1", "standby2"), 2, 0,
+        new ConnectionRacer.Attempt<String>() {
+          @Override
+          public String connect(CandidateHost candidate) {
+            return null;
+          }
+        }, IGNORE));
+  }
+
+  @Test
+  public void testInFlightAttemptsAreBounded() throws Exception {
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger maxRunning = new AtomicInteger();
+    String winner = racer.race(hosts("a", "b", "c", "d", "e"), 2, 0,
+        new ConnectionRacer.Attempt<String>() {
+          @Override
+          public String connect(CandidateHost candidate) throws SQLException {
+            int now = running.incrementAndGet();
+            while (now > maxRunning.get()) {
+              maxRunning.set(now);
+            }
+            try {
+              Thread.sleep(20);
+            } catch (InterruptedException e) {
+              throw new SQLException(e);
+            }
+            running.decrementAndGet();
+            if (!candidate.hostSpec.getHost().equals("e")) {
+              throw new SQLException("refused");
+            }
+            return "e";
+          }
+        }, IGNORE);
+    assertEquals("e", winner);
+    assertTrue(maxRunning.get() <= 2);
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+
+/**
+ * Tests {@link ORChannel} against a local echo server.
+ */
+public class ORChannelTest {
+    private ServerSocket server;
+    private Thread echo;
+    private ORChannel channel;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        echo = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try (Socket socket = server.accept()) {
+                    InputStream in = socket.getInputStream();
+                    OutputStream out = socket.getOutputStream();
+                    byte[] buf = new byte[4096];
+                    int read;
+                    while ((read = in.read(buf)) > 0) {
+                        out.write(buf, 0, read);
+                    }
+                } catch (IOException e) {
+                    // test finished
+                }
+            }
+        });
+        echo.setDaemon(true);
+        echo.start();
+        channel = new ORChannel(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                server.getLocalPort()), 5000, 64, 256);
+        channel.setTimeout(5000);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        channel.close();
+        server.close();
+    }
+
+    @Test
+    public void testIntegersInBothByteOrders() throws IOException {
+        channel.writeByte(0xAB);
+        channel.writeShort(-2);
+        channel.writeInt(0x01020304);
+        channel.writeLong(-5L);
+        channel.flush();
+        assertEquals(0xAB, channel.readByte());
+        assertEquals(-2, channel.readShort());
+        byte[] bytes = new byte[4];
+        channel.read(bytes, 0, 4);
+        assertArrayEquals(new byte[]{4, 3, 2, 1}, bytes);
+        assertEquals(-5L, channel.readLong());
+
+        channel.setBigEndian(true);
+        channel.writeInt(0x01020304);
+        channel.flush();
+        channel.read(bytes, 0, 4);
+        assertArrayEquals(new byte[]{1, 2, 3, 4}, bytes);
+    }
+
+    @Test
+    public void testLargeArraysAndBufferGrowth() throws IOException {
+        byte[] large = new byte[1000];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = (byte) i;
+        }
+        channel.writeInt(7);
+        channel.write(large, 0, large.length);
+        channel.flush();
+        assertEquals(128, channel.getOutputBufferSize());
+        assertEquals(7, channel.readInt());
+        byte[] back = new byte[large.length];
+        channel.read(back, 0, back.length);
+        assertArrayEquals(large, back);
+
+        channel.write(large, 0, 300);
+        channel.flush();
+        assertEquals(256, channel.getOutputBufferSize());
+        channel.read(back, 0, 300);
+
+        for (int i = 0; i < 64; i++) {
+            channel.writeInt(i);
+            channel.flush();
+            assertEquals(i, channel.readInt());
+        }
+        assertEquals(128, channel.getOutputBufferSize());
+    }
+
+    @Test
+    public void testReadTimeout() throws IOException {
+        channel.setTimeout(50);
+        try {
+            channel.readInt();
+            fail("Expected SocketTimeoutException");
+        } catch (SocketTimeoutException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link ORRowBatch} without a server.
+ */
+public class ORRowBatchTest {
+    private static void put(ORRowBatch rows, byte[] value, int padding) {
+        int offset = rows.addValue(value.length, padding);
+        System.arraycopy(value, 0, rows.getData(), offset, value.length);
+    }
+
+    @Test
+    public void testCellsOfSeveralRows() {
+        ORRowBatch rows = new ORRowBatch(2, 16);
+        rows.startRow(3);
+        put(rows, new byte[]{1, 2, 3, 4}, 0);
+        rows.addNull();
+        put(rows, new byte[]{5, 6}, 2);
+        rows.startRow(3);
+        rows.addNull();
+        put(rows, new byte[]{7}, 1);
+        put(rows, new byte[]{8, 9, 10, 11, 12, 13, 14, 15}, 0);
+
+        assertEquals(2, rows.getRowCount());
+        assertArrayEquals(new byte[]{1, 2, 3, 4}, rows.getValue(0, 0));
+        assertTrue(rows.isNull(0, 1));
+        assertNull(rows.getValue(0, 1));
+        assertEquals(2, rows.getLength(0, 2));
+        assertEquals(4, rows.getOffset(0, 2));
+        assertArrayEquals(new byte[]{5, 6}, rows.getValue(0, 2));
+        assertTrue(rows.isNull(1, 0));
+        assertEquals(8, rows.getOffset(1, 1));
+        assertArrayEquals(new byte[]{7}, rows.getValue(1, 1));
+        assertFalse(rows.isNull(1, 2));
+        assertEquals(10, rows.getOffset(1, 2));
+    }
+
+    @Test
+    public void testGrowsBeyondHints() {
+        ORRowBatch rows = new ORRowBatch(1, 0);
+        for (int row = 0; row < 100; row++) {
+            rows.startRow(10);
+            for (int col = 0; col < 10; col++) {
+                put(rows, new byte[]{(byte) row, (byte) col}, 0);
+            }
+        }
+        assertEquals(100, rows.getRowCount());
+        assertArrayEquals(new byte[]{42, 7}, rows.getValue(42, 7));
+        assertArrayEquals(new byte[]{99, 9}, rows.getValue(99, 9));
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.postgresql.util.HostSpec;
+
+import org.junit.Test;
+
+public class PrepareStatisticsTest {
+  private static PrepareStatistics statistics(String database) {
+    return PrepareStatistics.forScope(new HostSpec("localhost", 5432), database, "user", null,
+        16, 1024 * 1024);
+  }
+
+  @Test
+  public void testScopes() {
+    assertSame(statistics("scopes"), statistics("scopes"));
+    assertNotSame(statistics("scopes"), statistics("scopes2"));
+  }
+
+  @Test
+  public void testUnusedScopeIsCollected() throws InterruptedException {
+    PrepareStatistics statistics = statistics("collected");
+    int scopes = PrepareStatistics.getScopeCount();
+    assertSame(statistics, statistics("collected"));
+    statistics = null;
+    for (int i = 0; i < 100 && PrepareStatistics.getScopeCount() >= scopes; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertTrue(PrepareStatistics.getScopeCount() < scopes);
+  }
+
+  @Test
+  public void testHotStatementIsPreparedOnFirstUse() {
+    PrepareStatistics statistics = new PrepareStatistics(16, 1024 * 1024);
+    String sql = "select * from t where id = ?";
+    // five pooled connections each execute the statement once
+    for (int connection = 0; connection < 4; connection++) {
+      assertFalse(statistics.recordExecution(sql, 1, 5));
+    }
+    assertTrue(statistics.recordExecution(sql, 1, 5));
+    // from now on every connection prepares it on first use
+    assertTrue(statistics.recordExecution(sql, 1, 5));
+    assertTrue(statistics.recordExecution(sql, 2, 5));
+    assertEquals(7, statistics.getExecutionCount());
+    assertEquals(2, statistics.getHitCount());
+    assertEquals(2, statistics.getPromotionCount());
+    assertEquals(2.0 / 7, statistics.getHitRate(), 1e-9);
+
+    // one-off statements stay unnamed
+    assertFalse(statistics.recordExecution("select 1", 1, 5));
+    // a statement hot on its own connection is prepared as before
+    assertTrue(statistics.recordExecution("select 2", 5, 5));
+  }
+
+  @Test
+  public void testServerStatementCount() {
+    PrepareStatistics statistics = new PrepareStatistics(16, 1024 * 1024);
+    statistics.statementPrepared();
+    statistics.statementPrepared();
+    statistics.statementPrepared();
+    statistics.statementsClosed(1);
+    assertEquals(2, statistics.getServerStatementCount());
+    statistics.statementsClosed(2);
+    assertEquals(0, statistics.getServerStatementCount());
+  }
+}
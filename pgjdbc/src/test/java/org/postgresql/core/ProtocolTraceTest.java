@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.postgresql.log.Log;
+import org.postgresql.log.Logger;
+
+import org.junit.Test;
+
+import java.util.List;
+
+public class ProtocolTraceTest {
+  private static final Log LOGGER = Logger.getLogger(ProtocolTraceTest.class.getName());
+
+  @Test
+  public void testRingBufferKeepsMostRecentEvents() {
+    ProtocolTrace trace = new ProtocolTrace(LOGGER, "localhost", 3);
+    assertTrue(trace.isEnabled());
+    trace.frontend("Parse", "S_1");
+    trace.frontend("Bind", null);
+    trace.frontend("Execute", "C_1", 100);
+    trace.frontend("Sync");
+    trace.backend("CommandStatus", "INSERT 0 1");
+
+    List<String> events = trace.getCapturedEvents();
+    assertEquals(3, events.size());
+    assertTrue(events.get(0), events.get(0).endsWith(" FE=> Execute(C_1,100)"));
+    assertTrue(events.get(1), events.get(1).endsWith(" FE=> Sync"));
+    assertTrue(events.get(2), events.get(2).endsWith(" <=BE CommandStatus(INSERT 0 1)"));
+  }
+
+  @Test
+  public void testNumericDetail() {
+    ProtocolTrace trace = new ProtocolTrace(LOGGER, "localhost", 2);
+    trace.backend("DataRow", 42);
+    trace.backend("ReadyForQuery", Character.valueOf('I'));
+
+    List<String> events = trace.getCapturedEvents();
+    assertTrue(events.get(0), events.get(0).endsWith(" <=BE DataRow(42)"));
+    assertTrue(events.get(1), events.get(1).endsWith(" <=BE ReadyForQuery(I)"));
+  }
+
+  @Test
+  public void testNoCapture() {
+    ProtocolTrace trace = new ProtocolTrace(LOGGER, "localhost", 0);
+    trace.frontend("Sync");
+    assertTrue(trace.getCapturedEvents().isEmpty());
+    assertEquals(LOGGER.isTraceEnabled(), trace.isEnabled());
+  }
+}
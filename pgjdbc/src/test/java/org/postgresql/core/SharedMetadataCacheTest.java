@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.postgresql.util.HostSpec;
+
+import org.junit.Test;
+
+import java.util.List;
+
+public class SharedMetadataCacheTest {
+  private static SharedMetadataCache cache(String database) {
+    return cache(database, null);
+  }
+
+  private static SharedMetadataCache cache(String database, String options) {
+    return SharedMetadataCache.forScope(new HostSpec("localhost", 5432), database, "user", null,
+        options, 16, 1024 * 1024);
+  }
+
+  @Test
+  public void testScopes() {
+    assertSame(cache("scopes"), cache("scopes"));
+    assertNotSame(cache("scopes"), cache("scopes2"));
+    assertNotSame(cache("scopes"), cache("scopes", "-c search_path=other"));
+    assertSame(cache("scopes", "-c search_path=other"), cache("scopes", "-c search_path=other"));
+  }
+
+  @Test
+  public void testUnusedScopeIsCollected() throws InterruptedException {
+    SharedMetadataCache cache = cache("collected");
+    int scopes = SharedMetadataCache.getScopeCount();
+    assertSame(cache, cache("collected"));
+    cache = null;
+    for (int i = 0; i < 100 && SharedMetadataCache.getScopeCount() >= scopes; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertTrue(SharedMetadataCache.getScopeCount() < scopes);
+  }
+
+  @Test
+  public void testParsedQueriesAreCopied() throws Exception {
+    SharedMetadataCache cache = cache("parsed");
+    List<NativeQuery> queries = Parser.parseJdbcSql("select ?; select ?", true, true, true,
+        false, true);
+    SharedMetadataCache.ParseKey key = new SharedMetadataCache.ParseKey("select ?; select ?", 3,
+        90204, 3);
+    assertNull(cache.getParsed(key));
+    cache.putParsed(key, new SharedMetadataCache.ParsedSql(queries, false, false));
+    queries.get(0).nativeSql = "changed by client logic";
+
+    SharedMetadataCache.ParsedSql first = cache.getParsed(key);
+    assertEquals(2, first.queries.size());
+    assertEquals("select $1", first.queries.get(0).nativeSql);
+    first.queries.get(0).nativeSql = "changed again";
+    assertEquals("select $1", cache.getParsed(key).queries.get(0).nativeSql);
+
+    assertNull(cache.getParsed(new SharedMetadataCache.ParseKey("select ?; select ?", 1, 90204, 3)));
+  }
+
+  @Test
+  public void testInvalidateTypes() {
+    SharedMetadataCache cache = cache("types");
+    SharedMetadataCache.TypeEntries types = cache.getTypes();
+    types.putName(16384, "mytype");
+    assertEquals("mytype", cache.getTypes().getName(16384));
+    cache.invalidateTypes();
+    assertNull(cache.getTypes().getName(16384));
+    // late publish into an old generation is not visible
+    types.putName(16385, "other");
+    assertNull(cache.getTypes().getName(16385));
+  }
+
+  @Test
+  public void testCommandClassification() {
+    assertTrue(SharedMetadataCache.changesTypes("CREATE TYPE"));
+    assertTrue(SharedMetadataCache.changesTypes("DROP TABLE"));
+    assertTrue(SharedMetadataCache.changesTypes("ALTER DOMAIN"));
+    assertFalse(SharedMetadataCache.changesTypes("CREATE INDEX"));
+    assertFalse(SharedMetadataCache.changesTypes("INSERT 0 1"));
+    assertTrue(SharedMetadataCache.changesSession("SET"));
+    assertTrue(SharedMetadataCache.changesSession("DISCARD ALL"));
+    assertFalse(SharedMetadataCache.changesSession("SELECT 1"));
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+public class VisibleBufferedInputStreamTest {
+  private static byte[] data(int size) {
+    byte[] data = new byte[size];
+    for (int i = 0; i < size; i++) {
+      data[i] = (byte) (i % 251 + 1);
+    }
+    return data;
+  }
+
+  @Test
+  public void testLargeReadDoesNotGrowBuffer() throws IOException {
+    byte[] data = data(1 << 20);
+    VisibleBufferedInputStream in = new VisibleBufferedInputStream(new ByteArrayInputStream(data), 8192);
+    assertEquals(data[0] & 0xFF, in.peek());
+    byte[] to = new byte[data.length];
+    int read = 0;
+    while (read < to.length) {
+      read += in.read(to, read, to.length - read);
+    }
+    assertArrayEquals(data, to);
+    assertEquals(0, in.getGrowthCount());
+    assertEquals(8192, in.getBuffer().length);
+  }
+
+  @Test
+  public void testShrinkAfterGrowth() throws IOException {
+    byte[] data = data(100000);
+    data[70000] = 0;
+    VisibleBufferedInputStream in = new VisibleBufferedInputStream(new ByteArrayInputStream(data), 8192);
+    assertFalse(in.fits(70001));
+    assertEquals(70001, in.scanCStringLength());
+    assertTrue(in.getGrowthCount() > 0);
+    assertTrue(in.fits(70001));
+    // unread bytes that do not fit keep the buffer
+    assertFalse(in.shrink());
+
+    in.skip(70001);
+    byte[] rest = new byte[100];
+    assertEquals(100, in.read(rest, 0, rest.length));
+    assertArrayEquals(Arrays.copyOfRange(data, 70001, 70101), rest);
+    in.skip(in.available() - 10);
+    assertTrue(in.shrink());
+    assertEquals(8192, in.getBuffer().length);
+    assertFalse(in.shrink());
+    byte[] tail = new byte[10];
+    assertEquals(10, in.read(tail, 0, tail.length));
+    assertArrayEquals(Arrays.copyOfRange(data, data.length - 10, data.length), tail);
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.core.v3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.postgresql.core.NativeQuery;
+import org.postgresql.core.PGStream;
+import org.postgresql.core.Parser;
+import org.postgresql.core.SqlCommand;
+
+import org.junit.Test;
+
+import java.sql.SQLException;
+
+/**
+ * Tests the multi-row statements derived by {@link BatchedQuery} without a server.
+ */
+public class BatchedQueryTest {
+  private static final TypeTransferModeRegistry TEXT = new TypeTransferModeRegistry() {
+    @Override
+    public boolean useBinaryForSend(int oid) {
+      return false;
+    }
+
+    @Override
+    public boolean useBinaryForReceive(int oid) {
+      return false;
+    }
+  };
+
+  private static BatchedQuery batchedQuery(String sql) throws SQLException {
+    NativeQuery nativeQuery = Parser.parseJdbcSql(sql, true, true, true, true, false).get(0);
+    SqlCommand command = nativeQuery.getCommand();
+    return new BatchedQuery(nativeQuery, TEXT, command.getBatchRewriteValuesBraceOpenPosition(),
+        command.getBatchRewriteValuesBraceClosePosition(), false);
+  }
+
+  @Test
+  public void testDeriveAnyBlockSize() throws SQLException {
+    BatchedQuery query = batchedQuery("insert into t(a, b) values (?, ?)");
+    BatchedQuery three = query.deriveForMultiBatch(3);
+    assertEquals(3, three.getBatchSize());
+    assertEquals(6, three.getBindCount());
+    assertEquals("insert into t(a, b) values ($1, $2),($3, $4),($5, $6)", three.getNativeSql());
+    assertSame(three, query.deriveForMultiBatch(3));
+    assertEquals(PGStream.MAX_PARAMS_NUM - 1,
+        query.deriveForMultiBatch(PGStream.MAX_PARAMS_NUM / 2).getBindCount());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDeriveBeyondBindLimit() throws SQLException {
+    batchedQuery("insert into t(a, b) values (?, ?)").deriveForMultiBatch(PGStream.MAX_PARAMS_NUM / 2 + 1);
+  }
+
+  @Test
+  public void testDeriveUpsertAndReturning() throws SQLException {
+    assertEquals("insert into t(a, b) values ($1, $2),($3, $4) on duplicate key update b = values(b)",
+        batchedQuery("insert into t(a, b) values (?, ?) on duplicate key update b = values(b)")
+            .deriveForMultiBatch(2).getNativeSql());
+    assertEquals("insert into t(a) values ($1),($2),($3) on conflict (a) do nothing returning a",
+        batchedQuery("insert into t(a) values (?) on conflict (a) do nothing returning a")
+            .deriveForMultiBatch(3).getNativeSql());
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.core.v3;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class CloseCoalescerTest {
+  private final List<String> sent = new ArrayList<String>();
+
+  private final CloseCoalescer.Sender sender = new CloseCoalescer.Sender() {
+    @Override
+    public void closeStatement(String statementName) {
+      sent.add(statementName);
+    }
+
+    @Override
+    public void closePortal(String portalName) {
+      sent.add(portalName);
+    }
+  };
+
+  private void send(CloseCoalescer coalescer) throws Exception {
+    sent.clear();
+    coalescer.send(sender);
+  }
+
+  @Test
+  public void testBudgetPerRoundTrip() throws Exception {
+    CloseCoalescer coalescer = new CloseCoalescer(2);
+    coalescer.addStatement("S_1");
+    coalescer.addStatement("S_2");
+    coalescer.addStatement("S_3");
+    coalescer.addPortal("C_1");
+    assertEquals(3, coalescer.getPendingStatementCount());
+    assertEquals(4, coalescer.getPendingCount());
+
+    send(coalescer);
+    assertEquals(Arrays.asList("C_1", "S_1"), sent);
+    send(coalescer);
+    assertEquals(Arrays.asList("S_2", "S_3"), sent);
+    send(coalescer);
+    assertEquals(0, sent.size());
+    assertEquals(0, coalescer.getPendingCount());
+  }
+
+  @Test
+  public void testFlushAll() throws Exception {
+    CloseCoalescer coalescer = new CloseCoalescer(1);
+    for (int i = 0; i < 10; i++) {
+      coalescer.addStatement("S_" + i);
+    }
+    coalescer.flushAll();
+    send(coalescer);
+    assertEquals(10, sent.size());
+    coalescer.addStatement("S_10");
+    coalescer.addStatement("S_11");
+    send(coalescer);
+    assertEquals(1, sent.size());
+  }
+
+  @Test
+  public void testNoBudget() throws Exception {
+    CloseCoalescer coalescer = new CloseCoalescer(0);
+    for (int i = 0; i < 100; i++) {
+      coalescer.addStatement("S_" + i);
+    }
+    send(coalescer);
+    assertEquals(100, sent.size());
+    coalescer.addStatement("S_100");
+    coalescer.addPortal("C_1");
+    assertEquals(1, coalescer.clear());
+    assertEquals(0, coalescer.getPendingCount());
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.core.v3;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.postgresql.core.ORDataType;
+import org.postgresql.core.ORParameterList;
+import org.postgresql.core.ORStream;
+import org.postgresql.util.HostSpec;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import javax.net.SocketFactory;
+
+/**
+ * Checks the wire layout written by {@link ORParameterEncoder} byte by byte.
+ */
+public class ORParameterEncoderTest {
+    private ServerSocket server;
+    private Thread reader;
+    private final ByteArrayOutputStream received = new ByteArrayOutputStream();
+    private ORStream orStream;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try (Socket socket = server.accept()) {
+                    InputStream in = socket.getInputStream();
+                    byte[] buf = new byte[4096];
+                    int read;
+                    while ((read = in.read(buf)) > 0) {
+                        synchronized (received) {
+                            received.write(buf, 0, read);
+                        }
+                    }
+                } catch (IOException e) {
+                    // test finished
+                }
+            }
+        });
+        reader.setDaemon(true);
+        reader.start();
+        orStream = new ORStream(new HostSpec(InetAddress.getLoopbackAddress().getHostAddress(),
+                server.getLocalPort()));
+        orStream.connect(new Properties(), SocketFactory.getDefault());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    private byte[] write(List<ORParameterList> batch, int rows) throws Exception {
+        ORParameterEncoder.writeParams(orStream, batch, rows);
+        orStream.flush();
+        orStream.close();
+        reader.join(5000);
+        synchronized (received) {
+            return received.toByteArray();
+        }
+    }
+
+    private ORParameterList params(Object a, Object b, Object c) throws SQLException {
+        ORParameterList params = new ORParameterList(3);
+        params.bindParam(orStream, 1, ORDataType.INT, a);
+        params.bindParam(orStream, 2, ORDataType.VARCHAR, b);
+        params.bindParam(orStream, 3, ORDataType.BIGINT, c);
+        return params;
+    }
+
+    @Test
+    public void testLayout() throws Exception {
+        List<ORParameterList> batch = Arrays.asList(params(7, "abcde", null), params(null, "", -2L));
+        assertEquals(2, ORParameterEncoder.getEncodableRows(batch));
+        assertEquals(48, ORParameterEncoder.getParamsLength(batch, 2));
+        byte[] expected = {
+            // types, padded to 4 bytes
+            ORDataType.INT, ORDataType.VARCHAR, ORDataType.BIGINT, 0,
+            // row 1: size, null signs, int, varchar length, varchar padded to 4 bytes
+            24, 0, 0, 0,
+            64, 64, 65, 0,
+            7, 0, 0, 0,
+            5, 0, 0, 0,
+            'a', 'b', 'c', 'd', 'e', 0, 0, 0,
+            // row 2: size, null signs, empty varchar, bigint
+            20, 0, 0, 0,
+            65, 64, 64, 0,
+            0, 0, 0, 0,
+            -2, -1, -1, -1, -1, -1, -1, -1};
+        assertArrayEquals(expected, write(batch, 2));
+    }
+
+    @Test
+    public void testTimeIsSentAsTimestamp() throws Exception {
+        ORParameterList params = new ORParameterList(1);
+        params.bindParam(orStream, 1, ORDataType.TIME, 1L);
+        List<ORParameterList> batch = Arrays.asList(params);
+        assertEquals(20, ORParameterEncoder.getParamsLength(batch, 1));
+        byte[] expected = {
+            ORDataType.TIMESTAMP, 0, 0, 0,
+            16, 0, 0, 0,
+            64, 0, 0, 0,
+            1, 0, 0, 0, 0, 0, 0, 0};
+        assertArrayEquals(expected, write(batch, 1));
+    }
+
+    @Test
+    public void testRowsWithOtherTypesAreNotEncodable() throws Exception {
+        ORParameterList other = new ORParameterList(3);
+        other.bindParam(orStream, 1, ORDataType.BIGINT, 1L);
+        other.bindParam(orStream, 2, ORDataType.VARCHAR, "x");
+        other.bindParam(orStream, 3, ORDataType.BIGINT, 1L);
+        List<ORParameterList> batch = Arrays.asList(params(1, "a", 1L), params(2, "b", 2L), other);
+        assertEquals(2, ORParameterEncoder.getEncodableRows(batch));
+        assertEquals(0, ORParameterEncoder.getParamsLength(batch, 0));
+        assertArrayEquals(new byte[0], write(batch, 0));
+    }
+}
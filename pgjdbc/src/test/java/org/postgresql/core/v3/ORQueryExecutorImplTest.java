@@ -0,0 +1,353 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.core.v3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.postgresql.core.ORCachedQuery;
+import org.postgresql.core.ORField;
+import org.postgresql.core.ORRowBatch;
+import org.postgresql.core.ORStream;
+import org.postgresql.jdbc.ORConnection;
+import org.postgresql.jdbc.ORResultSet;
+import org.postgresql.jdbc.ORStatement;
+import org.postgresql.util.HostSpec;
+import org.postgresql.util.ORRequestCommand;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.net.SocketFactory;
+
+/**
+ * Runs {@link ORQueryExecutorImpl} against a scripted server to check how a fetch ahead is read
+ * back before the next request.
+ */
+public class ORQueryExecutorImplTest {
+    private ServerSocket server;
+    private Thread serverThread;
+    private final List<Integer> commands = new ArrayList<Integer>();
+    private volatile boolean isFetchError;
+    private volatile int fetchesWithMore;
+    private int fetchCount;
+    private ORStream orStream;
+    private ORQueryExecutorImpl executor;
+    private ORStatement statement;
+    private RecordingQuery query;
+
+    /**
+     * Query that records what the executor hands to it.
+     */
+    private static class RecordingQuery extends ORCachedQuery {
+        private ORRowBatch rows;
+        private boolean isPrefetchRows;
+        private boolean isPrefetchDone;
+        private SQLException prefetchError;
+        private boolean isPrefetch;
+
+        RecordingQuery(ORStatement statement) {
+            super(null, statement, "select 1", false);
+        }
+
+        @Override
+        public void setPrefetch(boolean isPrefetch) {
+            this.isPrefetch = isPrefetch;
+        }
+
+        @Override
+        public void setNewData(ORRowBatch rows, boolean hasRemain) {
+            this.rows = rows;
+            this.isPrefetchRows = isPrefetch;
+        }
+
+        @Override
+        public void prefetchDone(SQLException error) {
+            this.isPrefetchDone = true;
+            this.prefetchError = error;
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        serverThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try (Socket socket = server.accept()) {
+                    serve(socket);
+                } catch (IOException e) {
+                    // test finished
+                }
+            }
+        });
+        serverThread.setDaemon(true);
+        serverThread.start();
+        orStream = new ORStream(new HostSpec(InetAddress.getLoopbackAddress().getHostAddress(),
+                server.getLocalPort()));
+        orStream.connect(new Properties(), SocketFactory.getDefault());
+        executor = new ORQueryExecutorImpl(orStream, null);
+        statement = allocate(ORStatement.class);
+        query = new RecordingQuery(statement);
+        query.setRs(new ORResultSet(statement, "select 1", new ORField[0], new ORRowBatch(0, 0), true));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        orStream.close();
+        server.close();
+    }
+
+    /**
+     * The statement is only used for its id here, so it is created without a connection.
+     */
+    private static <T> T allocate(Class<T> type) throws Exception {
+        Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+        Field field = unsafeClass.getDeclaredField("theUnsafe");
+        field.setAccessible(true);
+        Method allocateInstance = unsafeClass.getMethod("allocateInstance", Class.class);
+        return type.cast(allocateInstance.invoke(field.get(null), type));
+    }
+
+    private static void setField(Class<?> type, Object target, String name, Object value) throws Exception {
+        Field field = type.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    private static Object getField(Class<?> type, Object target, String name) throws Exception {
+        Field field = type.getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(target);
+    }
+
+    private void serve(Socket socket) throws IOException {
+        DataInputStream in = new DataInputStream(socket.getInputStream());
+        OutputStream out = socket.getOutputStream();
+        byte[] sizeBytes = new byte[4];
+        while (true) {
+            in.readFully(sizeBytes);
+            int size = ByteBuffer.wrap(sizeBytes).order(ByteOrder.LITTLE_ENDIAN).getInt();
+            byte[] request = new byte[size - 4];
+            in.readFully(request);
+            int command = request[0];
+            int requestCount = ByteBuffer.wrap(request, 8, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+            synchronized (commands) {
+                commands.add(command);
+                commands.notifyAll();
+            }
+            if (command == ORRequestCommand.FETCH) {
+                fetchCount++;
+                out.write(isFetchError ? errorReply(command, requestCount)
+                        : rowReply(command, requestCount, 41 + fetchCount, fetchCount <= fetchesWithMore));
+            } else {
+                out.write(reply(command, 0, requestCount, new byte[0]));
+            }
+            out.flush();
+        }
+    }
+
+    private static byte[] reply(int command, int result, int requestCount, byte[] body) {
+        ByteBuffer buf = ByteBuffer.allocate(16 + body.length).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(16 + body.length);
+        buf.put((byte) command).put((byte) result).putShort((short) 0);
+        buf.put(new byte[4]);
+        buf.putInt(requestCount);
+        buf.put(body);
+        return buf.array();
+    }
+
+    /**
+     * One row with one 4 byte column, the first fetch returns 42, the next 43 and so on.
+     */
+    private static byte[] rowReply(int command, int requestCount, int value, boolean hasRemain) {
+        ByteBuffer body = ByteBuffer.allocate(20).order(ByteOrder.LITTLE_ENDIAN);
+        body.putInt(0).putShort((short) 1).put((byte) (hasRemain ? 1 : 0)).put((byte) 0);
+        body.putShort((short) 12).putShort((short) 1).put((byte) 0);
+        body.put(new byte[] {1, 0, 0});
+        body.putInt(value);
+        return reply(command, 0, requestCount, body.array());
+    }
+
+    private static byte[] errorReply(int command, int requestCount) {
+        ByteBuffer body = ByteBuffer.allocate(20).order(ByteOrder.LITTLE_ENDIAN);
+        body.putInt(0).putShort((short) 0).putShort((short) 0).putShort((short) 0).putShort((short) 0);
+        body.put(new byte[] {'b', 'o', 'o', 'm', 0, 0, 0, 0});
+        return reply(command, 1, requestCount, body.array());
+    }
+
+    private List<Integer> commands() {
+        synchronized (commands) {
+            return new ArrayList<Integer>(commands);
+        }
+    }
+
+    private void assertPrefetchRows() {
+        assertTrue(query.isPrefetchDone);
+        assertNull(query.prefetchError);
+        assertTrue(query.isPrefetchRows);
+        assertEquals(1, query.rows.getRowCount());
+        assertEquals(42, ByteBuffer.wrap(query.rows.getValue(0, 0)).order(ByteOrder.LITTLE_ENDIAN).getInt());
+    }
+
+    @Test
+    public void testFetchUsesPrefetchedResponse() throws Exception {
+        executor.prefetch(query);
+        executor.fetch(query);
+        assertEquals(1, query.rows.getRowCount());
+        assertFalse(query.isPrefetchDone);
+        assertEquals(1, commands().size());
+        assertEquals(ORRequestCommand.FETCH, (int) commands().get(0));
+    }
+
+    @Test
+    public void testCommitDrainsPrefetch() throws Exception {
+        executor.prefetch(query);
+        executor.commit();
+        assertPrefetchRows();
+        assertEquals(ORRequestCommand.FETCH, (int) commands().get(0));
+        assertEquals(ORRequestCommand.COMMIT, (int) commands().get(1));
+    }
+
+    @Test
+    public void testRollbackDrainsPrefetch() throws Exception {
+        executor.prefetch(query);
+        executor.rollback();
+        assertPrefetchRows();
+        assertEquals(ORRequestCommand.ROLLBACK, (int) commands().get(1));
+    }
+
+    @Test
+    public void testFreeStatementDrainsPrefetch() throws Exception {
+        executor.prefetch(query);
+        executor.freeStatement(statement);
+        assertPrefetchRows();
+        assertEquals(ORRequestCommand.FREE_STMT, (int) commands().get(1));
+    }
+
+    @Test
+    public void testPrefetchErrorGoesToItsQuery() throws Exception {
+        isFetchError = true;
+        executor.prefetch(query);
+        executor.commit();
+        assertTrue(query.isPrefetchDone);
+        assertNotNull(query.prefetchError);
+        assertEquals("boom", query.prefetchError.getMessage());
+        assertNull(query.rows);
+    }
+
+    @Test
+    public void testCommitWaitsForStreamLock() throws Exception {
+        final SQLException[] error = new SQLException[1];
+        Thread committer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    executor.commit();
+                } catch (SQLException e) {
+                    error[0] = e;
+                } catch (IOException e) {
+                    error[0] = new SQLException(e);
+                }
+            }
+        });
+        orStream.getLock().lock();
+        try {
+            executor.prefetch(query);
+            committer.start();
+            TimeUnit.MILLISECONDS.sleep(200);
+            assertFalse(query.isPrefetchDone);
+            assertEquals(1, commands().size());
+        } finally {
+            orStream.getLock().unlock();
+        }
+        committer.join(5000);
+        assertNull(error[0]);
+        assertPrefetchRows();
+        assertEquals(ORRequestCommand.COMMIT, (int) commands().get(1));
+    }
+
+    private static int currentValue(ORResultSet rs) throws Exception {
+        ORRowBatch rows = (ORRowBatch) getField(ORResultSet.class, rs, "dataRows");
+        int row = (Integer) getField(ORResultSet.class, rs, "currentRow");
+        return ByteBuffer.wrap(rows.getValue(row, 0)).order(ByteOrder.LITTLE_ENDIAN).getInt();
+    }
+
+    @Test
+    public void testNextUsesFetchAheadDrainedByAnotherStatement() throws Exception {
+        fetchesWithMore = 1;
+        ORConnection connection = allocate(ORConnection.class);
+        connection.setQueryExecutor(executor);
+        setField(ORConnection.class, connection, "isPrefetch", true);
+        setField(ORConnection.class, connection, "prefetchMemory", 1L << 20);
+        setField(ORStatement.class, statement, "connection", connection);
+        final ORResultSet rs = new ORResultSet(statement, "select 1", new ORField[0], new ORRowBatch(0, 0), true);
+        assertTrue(rs.next());
+        assertEquals(42, currentValue(rs));
+
+        final boolean[] hasNext = new boolean[1];
+        final Exception[] error = new Exception[1];
+        Thread reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    hasNext[0] = rs.next();
+                } catch (SQLException e) {
+                    error[0] = e;
+                }
+            }
+        });
+        ReentrantLock lock = orStream.getLock();
+        lock.lock();
+        try {
+            reader.start();
+            for (int i = 0; i < 500 && !lock.hasQueuedThread(reader); i++) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+            assertTrue(lock.hasQueuedThread(reader));
+            // another statement of the connection reads the fetch ahead while next() waits
+            executor.commit();
+        } finally {
+            lock.unlock();
+        }
+        reader.join(5000);
+        assertNull(error[0]);
+        assertTrue(hasNext[0]);
+        assertEquals(43, currentValue(rs));
+        assertEquals(3, commands().size());
+        assertEquals(ORRequestCommand.COMMIT, (int) commands().get(2));
+    }
+}
@@ -5,11 +5,19 @@
 
 package org.postgresql.core.v3;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.postgresql.core.ClientEncoder;
+import org.postgresql.core.Oid;
+import org.postgresql.core.ParameterList;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 
 /**
@@ -62,4 +70,95 @@ public class V3ParameterListTests {
         "Expected string representation of values does not match outcome.",
         "<[('1'::int4) ,('2'::int4) ,('3'::int4) ,('4'::int4) ,('5'::int4) ,('6'::int4) ,('7'::int4) ,('8'::int4)]>", s1SPL.toString());
   }
+
+  /**
+   * Test that primitive values keep their value, wire length and type through copies and merges.
+   *
+   * @throws SQLException
+   *           raised exception if setting parameter fails.
+   */
+  @Test
+  public void testPrimitiveParameters() throws SQLException {
+    SimpleParameterList spl = new SimpleParameterList(5, transferModeRegistry);
+    spl.setShortParameter(1, (short) -2);
+    spl.setIntParameter(2, -70000);
+    spl.setLongParameter(3, Long.MIN_VALUE);
+    spl.setFloatParameter(4, 1.5f);
+    spl.setDoubleParameter(5, Double.NaN);
+
+    String expected = "<[('-2'::int2) ,('-70000'::int4) ,('-9223372036854775808'::int8) ,('1.5'::float)"
+        + " ,('NaN'::double precision)]>";
+    assertEquals(expected, spl.toString());
+    assertEquals(expected, spl.copy().toString());
+    int[] lengths = {2, 4, 8, 4, 8};
+    for (int i = 0; i < lengths.length; i++) {
+      assertEquals(lengths[i], spl.getV3Length(i + 1, new ClientEncoder("UTF8")));
+      assertEquals(true, spl.isBinary(i + 1));
+    }
+    assertArrayEquals(new byte[]{(byte) 0xFF, (byte) 0xFE}, (byte[]) spl.getValues()[0]);
+    assertArrayEquals(new byte[]{0x3F, (byte) 0xC0, 0, 0}, (byte[]) spl.getValues()[3]);
+
+    SimpleParameterList merged = new SimpleParameterList(6, transferModeRegistry);
+    merged.setStringParameter(1, "a", 0);
+    merged.appendAll(spl);
+    assertEquals("<[('a') ," + expected.substring(2), merged.toString());
+  }
+
+  /**
+   * Test that a string that needs the charset encoder is encoded once for its length and the same
+   * bytes are sent, while other strings are measured without keeping an encoded copy.
+   *
+   * @throws SQLException
+   *           raised exception if setting parameter fails.
+   */
+  @Test
+  public void testStringEncodedOnce() throws SQLException {
+    SimpleParameterList spl = new SimpleParameterList(2, transferModeRegistry);
+    spl.setStringParameter(1, "中文字符", 0);
+    spl.setStringParameter(2, "ascii", 0);
+    ClientEncoder gbk = new ClientEncoder("GBK");
+    assertEquals(8, spl.getV3Length(1, gbk));
+    byte[] encoded = spl.getEncoding()[0];
+    assertArrayEquals("中文字符".getBytes(gbk.charset()), encoded);
+    assertEquals(8, spl.getV3Length(1, gbk));
+    assertSame(encoded, spl.getEncoding()[0]);
+    assertEquals(5, spl.getV3Length(2, gbk));
+    assertNull(spl.getEncoding()[1]);
+
+    spl.setStringParameter(1, "中", 0);
+    assertNull(spl.getEncoding()[0]);
+    assertEquals(3, spl.getV3Length(1, new ClientEncoder("UTF8")));
+    assertNull(spl.getEncoding()[0]);
+  }
+
+  /**
+   * Test that a date/time value formatted into the buffer of its parameter is sent from there, and
+   * that copies and merged lists keep their value when the buffer is reused.
+   *
+   * @throws SQLException
+   *           raised exception if setting parameter fails.
+   */
+  @Test
+  public void testAsciiParameterFormattedInPlace() throws SQLException {
+    SimpleParameterList spl = new SimpleParameterList(1, transferModeRegistry);
+    byte[] buf = spl.getAsciiBuffer(1, 48);
+    byte[] value = "2020-01-02".getBytes(StandardCharsets.US_ASCII);
+    System.arraycopy(value, 0, buf, 0, value.length);
+    spl.setAsciiParameter(1, value.length, Oid.DATE);
+    assertEquals(10, spl.getV3Length(1, new ClientEncoder("UTF8")));
+    assertEquals("('2020-01-02'::date)", spl.toString(1, true));
+    ParameterList copy = spl.copy();
+
+    assertSame(buf, spl.getAsciiBuffer(1, 48));
+    value = "1999-12-31".getBytes(StandardCharsets.US_ASCII);
+    System.arraycopy(value, 0, buf, 0, value.length);
+    spl.setAsciiParameter(1, value.length, Oid.DATE);
+    assertEquals("('2020-01-02'::date)", copy.toString(1, true));
+    assertEquals("('1999-12-31'::date)", spl.toString(1, true));
+
+    SimpleParameterList merged = new SimpleParameterList(2, transferModeRegistry);
+    merged.appendAll(copy);
+    merged.appendAll(spl);
+    assertEquals("<[('2020-01-02'::date) ,('1999-12-31'::date)]>", merged.toString());
+  }
 }
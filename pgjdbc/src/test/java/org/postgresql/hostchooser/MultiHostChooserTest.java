@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.hostchooser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.postgresql.util.HostSpec;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+public class MultiHostChooserTest {
+  private static Properties properties(String autoBalance, HostSpec... hosts) {
+    StringBuilder names = new StringBuilder();
+    StringBuilder ports = new StringBuilder();
+    for (HostSpec host : hosts) {
+      names.append(names.length() == 0 ? "" : ",").append(host.getHost());
+      ports.append(ports.length() == 0 ? "" : ",").append(host.getPort());
+    }
+    Properties info = new Properties();
+    info.setProperty("PGHOSTURL", names.toString());
+    info.setProperty("PGPORTURL", ports.toString());
+    info.setProperty("autoBalance", autoBalance);
+    return info;
+  }
+
+  private static HostSpec first(HostSpec[] hosts, Properties info, Set<HostSpec> seen) {
+    Iterator<CandidateHost> candidates =
+        new MultiHostChooser(hosts, HostRequirement.any, info).iterator();
+    HostSpec first = candidates.next().hostSpec;
+    seen.clear();
+    seen.add(first);
+    while (candidates.hasNext()) {
+      assertTrue(seen.add(candidates.next().hostSpec));
+    }
+    assertEquals(hosts.length, seen.size());
+    return first;
+  }
+
+  @Test
+  public void testRoundRobinVisitsEveryHostInTurn() {
+    HostSpec[] hosts = {new HostSpec("rr1.test", 5432), new HostSpec("rr2.test", 5432),
+        new HostSpec("rr3.test", 5432), new HostSpec("rr4.test", 5432)};
+    Properties info = properties("roundrobin", hosts);
+    Map<HostSpec, Integer> firstCounts = new HashMap<HostSpec, Integer>();
+    Set<HostSpec> seen = new HashSet<HostSpec>();
+    for (int i = 0; i < 40; i++) {
+      HostSpec first = first(hosts, info, seen);
+      Integer count = firstCounts.get(first);
+      firstCounts.put(first, count == null ? 1 : count + 1);
+    }
+    for (HostSpec host : hosts) {
+      assertEquals(Integer.valueOf(10), firstCounts.get(host));
+    }
+  }
+
+  @Test
+  public void testWeightedPrefersFastHealthyHosts() {
+    HostSpec fast = new HostSpec("weighted-fast.test", 5432);
+    HostSpec slow = new HostSpec("weighted-slow.test", 5432);
+    HostSpec failing = new HostSpec("weighted-failing.test", 5432);
+    for (int i = 0; i < 20; i++) {
+      GlobalHostStatusTracker.reportConnectTime(fast, 2000000L, false);
+      GlobalHostStatusTracker.reportConnectTime(slow, 200000000L, false);
+      GlobalHostStatusTracker.reportConnectTime(failing, 1000000L, true);
+    }
+    HostSpec[] hosts = {slow, failing, fast};
+    Properties info = properties("weighted", hosts);
+    int fastFirst = 0;
+    Set<HostSpec> seen = new HashSet<HostSpec>();
+    for (int i = 0; i < 1000; i++) {
+      if (first(hosts, info, seen).equals(fast)) {
+        fastFirst++;
+      }
+    }
+    assertTrue("fast host first " + fastFirst + " times", fastFirst > 800);
+  }
+}
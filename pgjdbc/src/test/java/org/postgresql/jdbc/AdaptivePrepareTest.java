@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.postgresql.core.CachedQuery;
+import org.postgresql.core.PrepareStatistics;
+import org.postgresql.core.QueryExecutor;
+import org.postgresql.core.SqlCommandType;
+import org.postgresql.util.HostSpec;
+
+import org.junit.Test;
+
+import java.sql.ResultSet;
+
+/**
+ * Tests how statements use the shared counters of {@code adaptivePrepare}, without a server.
+ */
+public class AdaptivePrepareTest {
+  private static final String SQL = "select * from t where id = ?";
+
+  private PrepareStatistics statistics;
+
+  private static boolean executeOneShot(StubQueryExecutor executor, PgPreparedStatement statement)
+      throws Exception {
+    statement.execute();
+    return executor.hasFlag(executor.executeFlags.size() - 1, QueryExecutor.QUERY_ONESHOT);
+  }
+
+  private void scope(String database) {
+    statistics = PrepareStatistics.forScope(new HostSpec("localhost", 5432), database, "user",
+        null, 16, 1024 * 1024);
+  }
+
+  private PgPreparedStatement prepare(StubQueryExecutor executor, CachedQuery query)
+      throws Exception {
+    executor.prepareStatistics = statistics;
+    return new PgPreparedStatement(executor.connect(3, false), query,
+        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, ResultSet.CLOSE_CURSORS_AT_COMMIT);
+  }
+
+  @Test
+  public void testHotStatementIsNamedOnOtherConnections() throws Exception {
+    scope("hot");
+    StubQueryExecutor first = new StubQueryExecutor();
+    PgPreparedStatement statement =
+        prepare(first, StubQueryExecutor.query(SQL, SqlCommandType.SELECT));
+    assertTrue(executeOneShot(first, statement));
+    assertTrue(executeOneShot(first, statement));
+    StubQueryExecutor second = new StubQueryExecutor();
+    assertFalse(executeOneShot(second,
+        prepare(second, StubQueryExecutor.query(SQL, SqlCommandType.SELECT))));
+    assertEquals(3, statistics.getExecutionCount());
+
+    StubQueryExecutor third = new StubQueryExecutor();
+    statement = prepare(third, StubQueryExecutor.query(SQL, SqlCommandType.SELECT));
+    assertFalse(executeOneShot(third, statement));
+    assertEquals(4, statistics.getExecutionCount());
+    assertEquals(1, statistics.getPromotionCount());
+
+    // once named, the statement stays named without looking at the shared counters
+    assertFalse(executeOneShot(third, statement));
+    assertFalse(executeOneShot(third, statement));
+    assertEquals(4, statistics.getExecutionCount());
+  }
+
+  @Test
+  public void testPreparedStatementSkipsSharedCounters() throws Exception {
+    scope("local");
+    StubQueryExecutor executor = new StubQueryExecutor();
+    PgPreparedStatement statement =
+        prepare(executor, StubQueryExecutor.query("select 1", SqlCommandType.SELECT));
+    for (int i = 0; i < 10; i++) {
+      statement.execute();
+    }
+    // executions from the threshold on are named and not counted
+    assertEquals(2, statistics.getExecutionCount());
+  }
+}
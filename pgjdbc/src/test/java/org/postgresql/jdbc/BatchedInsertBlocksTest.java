@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.jdbc;
+
+import static org.junit.Assert.assertEquals;
+
+import org.postgresql.core.CachedQuery;
+import org.postgresql.core.NativeQuery;
+import org.postgresql.core.PGStream;
+import org.postgresql.core.Parser;
+import org.postgresql.core.SqlCommand;
+import org.postgresql.core.v3.BatchedQuery;
+import org.postgresql.core.v3.TypeTransferModeRegistry;
+
+import org.junit.Test;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Tests how rewritten batch inserts are split into multi-row blocks, without a server.
+ */
+public class BatchedInsertBlocksTest {
+  private static final TypeTransferModeRegistry TEXT = new TypeTransferModeRegistry() {
+    @Override
+    public boolean useBinaryForSend(int oid) {
+      return false;
+    }
+
+    @Override
+    public boolean useBinaryForReceive(int oid) {
+      return false;
+    }
+  };
+
+  private final StubQueryExecutor executor = new StubQueryExecutor();
+
+  private static CachedQuery insert(int columns) throws SQLException {
+    StringBuilder sql = new StringBuilder("insert into t values (?");
+    for (int i = 1; i < columns; i++) {
+      sql.append(", ?");
+    }
+    sql.append(')');
+    NativeQuery nativeQuery =
+        Parser.parseJdbcSql(sql.toString(), true, true, true, true, false).get(0);
+    SqlCommand command = nativeQuery.getCommand();
+    BatchedQuery query = new BatchedQuery(nativeQuery, TEXT,
+        command.getBatchRewriteValuesBraceOpenPosition(),
+        command.getBatchRewriteValuesBraceClosePosition(), false);
+    return new CachedQuery(sql.toString(), query, false, false);
+  }
+
+  private PgPreparedStatement batch(CachedQuery query, int rows) throws Exception {
+    PgConnection connection = executor.connect(5, false);
+    PgPreparedStatement statement = new PgPreparedStatement(connection, query,
+        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, ResultSet.CLOSE_CURSORS_AT_COMMIT);
+    for (int i = 0; i < rows; i++) {
+      statement.addBatch();
+    }
+    statement.transformQueriesAndParameters();
+    return statement;
+  }
+
+  private static void assertBlocks(PgPreparedStatement statement, int columns, int... rows) {
+    assertEquals(rows.length, statement.batchStatements.size());
+    for (int i = 0; i < rows.length; i++) {
+      BatchedQuery block = (BatchedQuery) statement.batchStatements.get(i);
+      assertEquals(rows[i], block.getBatchSize());
+      assertEquals(rows[i] * columns, block.getBindCount());
+      assertEquals(rows[i] * columns, statement.batchParameters.get(i).getParameterCount());
+    }
+  }
+
+  @Test
+  public void testBlocksCappedByRowCount() throws Exception {
+    assertBlocks(batch(insert(2), 300), 2, 128, 128, 32, 8, 4);
+  }
+
+  @Test
+  public void testBlocksCappedByBindLimit() throws Exception {
+    int rows = PGStream.MAX_PARAMS_NUM / 600;
+    assertBlocks(batch(insert(600), 128), 600, rows, 16, 2, 1);
+  }
+
+  @Test
+  public void testBlocksCappedByBindLimitInSimpleMode() throws Exception {
+    executor.preferQueryMode = PreferQueryMode.SIMPLE;
+    int rows = PGStream.MAX_PARAMS_NUM / 600;
+    assertBlocks(batch(insert(600), 128), 600, rows, 16, 2, 1);
+  }
+}
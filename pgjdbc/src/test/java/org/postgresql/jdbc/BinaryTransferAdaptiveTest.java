@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.postgresql.PGProperty;
+import org.postgresql.core.CachedQuery;
+import org.postgresql.core.Oid;
+import org.postgresql.core.QueryExecutor;
+import org.postgresql.core.SqlCommandType;
+
+import org.junit.Test;
+
+import java.sql.ResultSet;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Tests {@link PGProperty#BINARY_TRANSFER_ADAPTIVE} without a server.
+ */
+public class BinaryTransferAdaptiveTest {
+  private final StubQueryExecutor executor = new StubQueryExecutor();
+
+  private PgPreparedStatement prepare(PgConnection connection, CachedQuery query, int concurrency)
+      throws Exception {
+    return new PgPreparedStatement(connection, query, ResultSet.TYPE_FORWARD_ONLY, concurrency,
+        ResultSet.CLOSE_CURSORS_AT_COMMIT);
+  }
+
+  @Test
+  public void testDescribedAndPreparedOnFirstExecution() throws Exception {
+    PgConnection connection = executor.connect(5, true);
+    CachedQuery query = StubQueryExecutor.query("select 1", SqlCommandType.SELECT);
+    PgPreparedStatement statement = prepare(connection, query, ResultSet.CONCUR_READ_ONLY);
+
+    statement.execute();
+    assertEquals(2, executor.executeFlags.size());
+    assertTrue(executor.hasFlag(0, QueryExecutor.QUERY_DESCRIBE_ONLY));
+    assertFalse(executor.hasFlag(1, QueryExecutor.QUERY_DESCRIBE_ONLY));
+    assertFalse(executor.hasFlag(1, QueryExecutor.QUERY_ONESHOT));
+    assertTrue(StubQueryExecutor.isDescribed(query));
+
+    statement.execute();
+    assertEquals(3, executor.executeFlags.size());
+    assertFalse(executor.hasFlag(2, QueryExecutor.QUERY_DESCRIBE_ONLY));
+    assertFalse(executor.hasFlag(2, QueryExecutor.QUERY_ONESHOT));
+  }
+
+  @Test
+  public void testDisabledKeepsOneShot() throws Exception {
+    PgConnection connection = executor.connect(5, false);
+    CachedQuery query = StubQueryExecutor.query("select 1", SqlCommandType.SELECT);
+    prepare(connection, query, ResultSet.CONCUR_READ_ONLY).execute();
+
+    assertEquals(1, executor.executeFlags.size());
+    assertTrue(executor.hasFlag(0, QueryExecutor.QUERY_ONESHOT));
+    assertFalse(StubQueryExecutor.isDescribed(query));
+  }
+
+  @Test
+  public void testOnlyQueriesReturningRows() throws Exception {
+    PgConnection connection = executor.connect(5, true);
+    CachedQuery query = StubQueryExecutor.query("insert into t values (1)", SqlCommandType.INSERT);
+    prepare(connection, query, ResultSet.CONCUR_READ_ONLY).execute();
+
+    assertEquals(1, executor.executeFlags.size());
+    assertTrue(executor.hasFlag(0, QueryExecutor.QUERY_ONESHOT));
+  }
+
+  @Test
+  public void testUpdatableResultSetsOptOut() throws Exception {
+    PgConnection connection = executor.connect(5, true);
+    CachedQuery query = StubQueryExecutor.query("select 1", SqlCommandType.SELECT);
+    prepare(connection, query, ResultSet.CONCUR_UPDATABLE).execute();
+
+    assertEquals(1, executor.executeFlags.size());
+    assertTrue(executor.hasFlag(0, QueryExecutor.QUERY_ONESHOT));
+  }
+
+  @Test
+  public void testCallableStatementsOptOut() throws Exception {
+    PgConnection connection = executor.connect(5, true);
+    executor.borrowedQuery = StubQueryExecutor.query("select * from f()", SqlCommandType.SELECT);
+    new PgCallableStatement(connection, "{call f()}", ResultSet.TYPE_FORWARD_ONLY,
+        ResultSet.CONCUR_READ_ONLY, ResultSet.CLOSE_CURSORS_AT_COMMIT).execute();
+
+    assertEquals(1, executor.executeFlags.size());
+    assertFalse(executor.hasFlag(0, QueryExecutor.QUERY_DESCRIBE_ONLY));
+    assertTrue(executor.hasFlag(0, QueryExecutor.QUERY_ONESHOT));
+  }
+
+  @Test
+  public void testPlainStatementsOptOut() throws Exception {
+    PgConnection connection = executor.connect(5, true);
+    executor.borrowedQuery = StubQueryExecutor.query("select 1", SqlCommandType.SELECT);
+    new PgStatement(connection, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY,
+        ResultSet.CLOSE_CURSORS_AT_COMMIT).execute("select 1");
+
+    assertEquals(1, executor.executeFlags.size());
+    assertFalse(executor.hasFlag(0, QueryExecutor.QUERY_DESCRIBE_ONLY));
+  }
+
+  @Test
+  public void testBinaryOids() throws Exception {
+    Set<Integer> oids = PgConnection.getAdaptiveBinaryOids(new Properties());
+    assertTrue(oids.contains(Oid.INT4));
+    assertTrue(oids.contains(Oid.INT8));
+    assertTrue(oids.contains(Oid.FLOAT8));
+    assertTrue(oids.contains(Oid.TIMESTAMPTZ));
+    assertTrue(oids.contains(Oid.UUID));
+    assertTrue(oids.contains(Oid.BYTEA));
+    assertFalse(oids.contains(Oid.VARCHAR));
+    assertFalse(oids.contains(Oid.TEXT));
+  }
+
+  @Test
+  public void testBinaryTransferDisableExcludes() throws Exception {
+    Properties info = new Properties();
+    PGProperty.BINARY_TRANSFER_DISABLE.set(info, "int8,TIMESTAMPTZ");
+    Set<Integer> oids = PgConnection.getAdaptiveBinaryOids(info);
+    assertFalse(oids.contains(Oid.INT8));
+    assertFalse(oids.contains(Oid.TIMESTAMPTZ));
+    assertTrue(oids.contains(Oid.INT4));
+  }
+}
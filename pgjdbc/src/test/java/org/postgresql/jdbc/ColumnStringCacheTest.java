@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.postgresql.core.Encoding;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tests {@link ColumnStringCache} and the ASCII decoding of {@link Encoding} without a server.
+ */
+public class ColumnStringCacheTest {
+  private final Encoding utf8 = Encoding.getDatabaseEncoding("UTF8");
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testRepeatedValuesShareInstance() throws IOException {
+    ColumnStringCache cache = new ColumnStringCache();
+    String first = cache.decode(bytes("ACTIVE"), utf8);
+    assertEquals("ACTIVE", first);
+    assertSame(first, cache.decode(bytes("ACTIVE"), utf8));
+    assertEquals("CN", cache.decode(bytes("CN"), utf8));
+    assertSame(first, cache.decode(bytes("ACTIVE"), utf8));
+    assertEquals("", cache.decode(new byte[0], utf8));
+  }
+
+  @Test
+  public void testLongAndNonAsciiValuesAreNotCached() throws IOException {
+    ColumnStringCache cache = new ColumnStringCache();
+    String longValue = "0123456789012345678901234567890123456789";
+    assertNotSame(cache.decode(bytes(longValue), utf8), cache.decode(bytes(longValue), utf8));
+    assertEquals("中国", cache.decode(bytes("中国"), utf8));
+    assertNotSame(cache.decode(bytes("中国"), utf8), cache.decode(bytes("中国"), utf8));
+  }
+
+  @Test
+  public void testAsciiDecoding() throws IOException {
+    assertTrue(utf8.isAsciiCompatible());
+    byte[] mixed = bytes("x-ascii and é");
+    assertEquals("ascii", utf8.decode(mixed, 2, 5));
+    assertEquals("x-ascii and é", utf8.decode(mixed));
+    Encoding gbk = Encoding.getJVMEncoding("GBK");
+    assertTrue(gbk.isAsciiCompatible());
+    assertEquals("中文 abc", gbk.decode("中文 abc".getBytes(gbk.name())));
+  }
+}
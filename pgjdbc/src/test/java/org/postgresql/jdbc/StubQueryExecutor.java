@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.jdbc;
+
+import org.postgresql.core.CachedQuery;
+import org.postgresql.core.ParameterList;
+import org.postgresql.core.PrepareStatistics;
+import org.postgresql.core.Query;
+import org.postgresql.core.QueryExecutor;
+import org.postgresql.core.SqlCommand;
+import org.postgresql.core.SqlCommandType;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimerTask;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Query executor for statement tests without a server. It records the flags of every query it
+ * is asked to execute and marks a query described when it executes its describe-only pass, the
+ * way the protocol implementation does.
+ */
+final class StubQueryExecutor implements InvocationHandler {
+  final List<Integer> executeFlags = new ArrayList<Integer>();
+  PreferQueryMode preferQueryMode = PreferQueryMode.EXTENDED;
+  PrepareStatistics prepareStatistics;
+  CachedQuery borrowedQuery;
+
+  /**
+   * Creates a connection that runs its queries on this executor. None of the connection setup
+   * is done, only the settings statements read are filled in.
+   *
+   * @param prepareThreshold prepareThreshold of the connection
+   * @param binaryTransferAdaptive binaryTransferAdaptive of the connection
+   * @return connection backed by this executor
+   * @throws Exception if the connection cannot be created
+   */
+  PgConnection connect(int prepareThreshold, boolean binaryTransferAdaptive) throws Exception {
+    Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+    Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+    theUnsafe.setAccessible(true);
+    Method allocateInstance = unsafeClass.getMethod("allocateInstance", Class.class);
+    PgConnection connection =
+        (PgConnection) allocateInstance.invoke(theUnsafe.get(null), PgConnection.class);
+    connection.setQueryExecutor((QueryExecutor) Proxy.newProxyInstance(
+        QueryExecutor.class.getClassLoader(), new Class<?>[]{QueryExecutor.class}, this));
+    connection.setPrepareThreshold(prepareThreshold);
+    Field adaptive = PgConnection.class.getDeclaredField("binaryTransferAdaptive");
+    adaptive.setAccessible(true);
+    adaptive.setBoolean(connection, binaryTransferAdaptive);
+    Field batchSize = PgConnection.class.getDeclaredField("reWriteBatchedInsertsSize");
+    batchSize.setAccessible(true);
+    batchSize.setInt(connection, 128);
+    Field autoCommit = PgConnection.class.getDeclaredField("autoCommit");
+    autoCommit.setAccessible(true);
+    autoCommit.setBoolean(connection, true);
+    Field timerUpdater = PgConnection.class.getDeclaredField("CANCEL_TIMER_UPDATER");
+    timerUpdater.setAccessible(true);
+    timerUpdater.set(connection, AtomicReferenceFieldUpdater.newUpdater(PgStatement.class,
+        TimerTask.class, "cancelTimerTask"));
+    return connection;
+  }
+
+  /**
+   * Creates a parsed query of the given type without parameters.
+   *
+   * @param sql query text, also used as cache key
+   * @param type command type of the query
+   * @return cached query
+   */
+  static CachedQuery query(String sql, SqlCommandType type) {
+    Query query = (Query) Proxy.newProxyInstance(Query.class.getClassLoader(),
+        new Class<?>[]{Query.class}, new StubQuery(sql, SqlCommand.createStatementTypeInfo(type)));
+    return new CachedQuery(sql, query, false, false);
+  }
+
+  static boolean isDescribed(CachedQuery cachedQuery) {
+    return ((StubQuery) Proxy.getInvocationHandler(cachedQuery.query)).described;
+  }
+
+  boolean hasFlag(int execution, int flag) {
+    return (executeFlags.get(execution) & flag) != 0;
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) {
+    String name = method.getName();
+    if (name.equals("execute") && args.length == 6 && args[0] instanceof Query) {
+      int flags = (Integer) args[5];
+      executeFlags.add(flags);
+      if ((flags & QueryExecutor.QUERY_DESCRIBE_ONLY) != 0) {
+        ((StubQuery) Proxy.getInvocationHandler(args[0])).described = true;
+      }
+      return null;
+    }
+    if (name.equals("getPreferQueryMode")) {
+      return preferQueryMode;
+    }
+    if (name.equals("getPrepareStatistics")) {
+      return prepareStatistics;
+    }
+    if (name.startsWith("borrow") || name.equals("createQueryByKey")) {
+      return borrowedQuery;
+    }
+    return defaultValue(method.getReturnType());
+  }
+
+  private static Object defaultValue(Class<?> type) {
+    if (type == boolean.class) {
+      return Boolean.FALSE;
+    }
+    if (type == int.class) {
+      return 0;
+    }
+    if (type == long.class) {
+      return 0L;
+    }
+    if (type == short.class) {
+      return (short) 0;
+    }
+    if (type == byte.class) {
+      return (byte) 0;
+    }
+    if (type == char.class) {
+      return (char) 0;
+    }
+    if (type == float.class) {
+      return 0f;
+    }
+    if (type == double.class) {
+      return 0d;
+    }
+    return null;
+  }
+
+  private static final class StubQuery implements InvocationHandler {
+    private final String sql;
+    private final SqlCommand command;
+    private boolean described;
+
+    StubQuery(String sql, SqlCommand command) {
+      this.sql = sql;
+      this.command = command;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+      String name = method.getName();
+      if (name.equals("getSqlCommand")) {
+        return command;
+      }
+      if (name.equals("getNativeSql") || name.equals("toString")) {
+        return sql;
+      }
+      if (name.equals("isStatementDescribed")) {
+        return described;
+      }
+      if (name.equals("createParameterList")) {
+        return Proxy.newProxyInstance(ParameterList.class.getClassLoader(),
+            new Class<?>[]{ParameterList.class}, new StubParameters());
+      }
+      if (name.equals("getBatchSize")) {
+        return 1;
+      }
+      if (name.equals("hashCode")) {
+        return System.identityHashCode(proxy);
+      }
+      if (name.equals("equals")) {
+        return proxy == args[0];
+      }
+      return defaultValue(method.getReturnType());
+    }
+  }
+
+  private static final class StubParameters implements InvocationHandler {
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+      if (method.getName().equals("copy")) {
+        return proxy;
+      }
+      return defaultValue(method.getReturnType());
+    }
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.postgresql.PGStatement;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+/**
+ * Tests {@link TimestampCodec} without a server.
+ */
+public class TimestampCodecTest {
+  private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+  private static final TimeZone MOSCOW = TimeZone.getTimeZone("Europe/Moscow");
+  private static final TimeZone NEW_YORK = TimeZone.getTimeZone("America/New_York");
+  private static final TimeZone SHANGHAI = TimeZone.getTimeZone("Asia/Shanghai");
+
+  private final TimestampCodec codec = new TimestampCodec(0);
+
+  private static byte[] ascii(String s) {
+    return s.getBytes(StandardCharsets.US_ASCII);
+  }
+
+  private Timestamp timestamp(TimeZone tz, String s) throws SQLException {
+    byte[] b = ascii(s);
+    return codec.toTimestamp(tz, b, 0, b.length);
+  }
+
+  private static long calendarMillis(TimeZone tz, int year, int month, int day, int hour,
+      int minute, int second) {
+    Calendar cal = new GregorianCalendar(tz);
+    cal.clear();
+    cal.set(year, month - 1, day, hour, minute, second);
+    return cal.getTimeInMillis();
+  }
+
+  @Test
+  public void testParseWithOffset() throws SQLException {
+    Timestamp ts = timestamp(MOSCOW, "2004-10-19 10:23:54.123456+02");
+    assertEquals(calendarMillis(UTC, 2004, 10, 19, 8, 23, 54) + 123, ts.getTime());
+    assertEquals(123456000, ts.getNanos());
+  }
+
+  @Test
+  public void testParseWithoutOffsetUsesZone() throws SQLException {
+    assertEquals(calendarMillis(NEW_YORK, 2015, 7, 4, 13, 40, 0),
+        timestamp(NEW_YORK, "2015-07-04 13:40:00").getTime());
+  }
+
+  @Test
+  public void testMatchesCalendarInGapAndOverlap() throws SQLException {
+    // 2016-03-13 02:30 does not exist in New York, 2016-11-06 01:30 exists twice
+    assertEquals(calendarMillis(NEW_YORK, 2016, 3, 13, 2, 30, 0),
+        timestamp(NEW_YORK, "2016-03-13 02:30:00").getTime());
+    assertEquals(calendarMillis(NEW_YORK, 2016, 11, 6, 1, 30, 0),
+        timestamp(NEW_YORK, "2016-11-06 01:30:00").getTime());
+  }
+
+  @Test
+  public void testMatchesCalendarBeforeGregorianCutover() throws SQLException {
+    assertEquals(calendarMillis(UTC, 1500, 2, 29, 12, 0, 0),
+        timestamp(UTC, "1500-02-29 12:00:00").getTime());
+    Calendar bc = new GregorianCalendar(UTC);
+    bc.clear();
+    bc.set(Calendar.ERA, GregorianCalendar.BC);
+    bc.set(100, 0, 1, 0, 0, 0);
+    assertEquals(bc.getTimeInMillis(), timestamp(UTC, "0100-01-01 00:00:00 BC").getTime());
+  }
+
+  @Test
+  public void testMatchesCalendarBeforeFirstTransition() throws SQLException {
+    // the tz rules use local mean time before the first transition, TimeZone does not
+    byte[] b = ascii("1900-01-01");
+    assertEquals(calendarMillis(SHANGHAI, 1900, 1, 1, 0, 0, 0),
+        codec.toDate(SHANGHAI, b, 0, b.length).getTime());
+    assertEquals(calendarMillis(MOSCOW, 1900, 1, 1, 0, 0, 0),
+        timestamp(MOSCOW, "1900-01-01 00:00:00").getTime());
+    assertEquals(calendarMillis(NEW_YORK, 1883, 11, 18, 0, 0, 0),
+        timestamp(NEW_YORK, "1883-11-18 00:00:00").getTime());
+    assertEquals(calendarMillis(NEW_YORK, 1850, 6, 1, 12, 0, 0),
+        timestamp(NEW_YORK, "1850-06-01 12:00:00").getTime());
+  }
+
+  @Test
+  public void testInfinity() throws SQLException {
+    assertEquals(PGStatement.DATE_POSITIVE_INFINITY, timestamp(UTC, "infinity").getTime());
+    assertEquals(PGStatement.DATE_NEGATIVE_INFINITY, timestamp(UTC, "-infinity").getTime());
+  }
+
+  @Test
+  public void testParseSlice() throws SQLException {
+    byte[] row = ascii("xx2020-01-02 03:04:05yy");
+    LocalDateTime ldt = codec.toLocalDateTime(row, 2, 19);
+    assertEquals(LocalDateTime.of(2020, 1, 2, 3, 4, 5), ldt);
+  }
+
+  @Test
+  public void testLocalTypes() throws SQLException {
+    byte[] b = ascii("24:00:00");
+    assertEquals(LocalTime.MAX, codec.toLocalTime(b, 0, b.length));
+    b = ascii("12:34:56.5");
+    assertEquals(LocalTime.of(12, 34, 56, 500000000), codec.toLocalTime(b, 0, b.length));
+    b = ascii("2020-01-02 03:04:05+03");
+    assertEquals(OffsetDateTime.of(2020, 1, 2, 0, 4, 5, 0, ZoneOffset.UTC),
+        codec.toOffsetDateTime(b, 0, b.length));
+  }
+
+  @Test
+  public void testTimeWithOffset() throws SQLException {
+    byte[] b = ascii("10:00:00+01");
+    Time time = codec.toTime(MOSCOW, b, 0, b.length);
+    assertEquals(9 * 3600 * 1000L, time.getTime());
+  }
+
+  @Test
+  public void testBadValue() {
+    byte[] b = ascii("2020-01-02 03:04:05 junk");
+    try {
+      codec.toTimestamp(UTC, b, 0, b.length);
+      fail("Expected SQLException");
+    } catch (SQLException e) {
+      // expected
+    }
+  }
+
+  private String format(TimeZone tz, Timestamp ts, boolean withTimeZone) {
+    byte[] buf = new byte[TimestampCodec.MAX_FORMATTED_LENGTH];
+    int len = codec.format(tz, ts, withTimeZone, buf, 0);
+    return new String(buf, 0, len, StandardCharsets.US_ASCII);
+  }
+
+  @Test
+  public void testFormatTimestamp() {
+    Timestamp ts = new Timestamp(calendarMillis(MOSCOW, 2004, 10, 19, 10, 23, 54));
+    ts.setNanos(123456789);
+    assertEquals("2004-10-19 10:23:54.123457+04", format(MOSCOW, ts, true));
+    ts.setNanos(0);
+    assertEquals("2004-10-19 10:23:54.0", format(MOSCOW, ts, false));
+    assertEquals("infinity", format(UTC, new Timestamp(PGStatement.DATE_POSITIVE_INFINITY), true));
+  }
+
+  @Test
+  public void testFormatRoundTrip() throws SQLException {
+    Timestamp ts = new Timestamp(calendarMillis(NEW_YORK, 1500, 3, 1, 1, 2, 3));
+    assertEquals(ts, timestamp(NEW_YORK, format(NEW_YORK, ts, true)));
+    ts = new Timestamp(calendarMillis(NEW_YORK, 2016, 11, 6, 1, 30, 0));
+    assertEquals(ts, timestamp(NEW_YORK, format(NEW_YORK, ts, true)));
+    ts = new Timestamp(calendarMillis(MOSCOW, 1900, 1, 1, 0, 0, 0));
+    assertEquals("1900-01-01 00:00:00.0", format(MOSCOW, ts, false));
+    assertEquals(ts, timestamp(MOSCOW, format(MOSCOW, ts, false)));
+    ts = new Timestamp(calendarMillis(SHANGHAI, 1900, 1, 1, 0, 0, 0));
+    assertEquals(ts, timestamp(SHANGHAI, format(SHANGHAI, ts, true)));
+  }
+
+  @Test
+  public void testFormatJavaTime() {
+    byte[] buf = new byte[TimestampCodec.MAX_FORMATTED_LENGTH];
+    int len = codec.format(LocalDate.of(2, 3, 4), buf, 0);
+    assertEquals("0002-03-04", new String(buf, 0, len, StandardCharsets.US_ASCII));
+    len = codec.format(LocalTime.of(23, 59, 59, 999999999), buf, 0);
+    assertEquals("24:00:00", new String(buf, 0, len, StandardCharsets.US_ASCII));
+    len = codec.format(OffsetDateTime.of(2020, 1, 2, 3, 4, 5, 600000, ZoneOffset.ofHoursMinutes(5, 30)), buf, 0);
+    assertEquals("2020-01-02 03:04:05.0006+05:30", new String(buf, 0, len, StandardCharsets.US_ASCII));
+  }
+}
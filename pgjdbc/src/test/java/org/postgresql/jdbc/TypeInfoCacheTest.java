@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.postgresql.core.Oid;
+
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Lookups of core types, which never reach the connection.
+ */
+public class TypeInfoCacheTest {
+  private final TypeInfoCache cache = new TypeInfoCache(null, Integer.MAX_VALUE);
+
+  @Test
+  public void testCoreTypes() throws SQLException {
+    assertEquals(Oid.INT4, cache.getPGType("int4"));
+    assertEquals(Oid.INT4_ARRAY, cache.getPGType("int4[]"));
+    assertEquals("_int4", cache.getPGType(Oid.INT4_ARRAY));
+    assertEquals(Types.INTEGER, cache.getSQLType(Oid.INT4));
+    assertEquals(Types.ARRAY, cache.getSQLType("_int4"));
+    assertEquals(Oid.INT4, cache.getPGArrayElement(Oid.INT4_ARRAY));
+    assertEquals(',', cache.getArrayDelimiter(Oid.INT4));
+    assertEquals("java.sql.Array", cache.getJavaClass(Oid.INT4_ARRAY));
+  }
+
+  @Test
+  public void testAddCoreTypeIsPerConnection() throws SQLException {
+    cache.addCoreType("uuid", Oid.UUID, Types.OTHER, "java.util.UUID", Oid.UUID_ARRAY);
+    assertEquals(Oid.UUID, cache.getPGType("uuid"));
+    assertEquals("java.util.UUID", cache.getJavaClass(Oid.UUID));
+    assertEquals(Oid.UUID, cache.getPGArrayElement(Oid.UUID_ARRAY));
+
+    TypeInfoCache other = new TypeInfoCache(null, Integer.MAX_VALUE);
+    assertFalse(names(other).contains("uuid"));
+    assertTrue(names(cache).contains("uuid"));
+  }
+
+  @Test
+  public void testIteratorCannotChangeBaseTypes() throws SQLException {
+    Iterator<String> it = cache.getPGTypeNamesWithSQLTypes();
+    it.next();
+    try {
+      it.remove();
+      fail("Expected UnsupportedOperationException");
+    } catch (UnsupportedOperationException e) {
+      // expected
+    }
+    TypeInfoCache other = new TypeInfoCache(null, Integer.MAX_VALUE);
+    assertEquals(names(cache), names(other));
+    assertEquals(Types.INTEGER, other.getSQLType("int4"));
+  }
+
+  @Test
+  public void testIteratorSurvivesUpdates() {
+    Iterator<String> it = cache.getPGTypeNamesWithSQLTypes();
+    cache.addCoreType("uuid", Oid.UUID, Types.OTHER, "java.util.UUID", Oid.UUID_ARRAY);
+    // must not fail with ConcurrentModificationException
+    while (it.hasNext()) {
+      it.next();
+    }
+  }
+
+  private static Set<String> names(TypeInfoCache cache) {
+    Set<String> names = new HashSet<String>();
+    for (Iterator<String> it = cache.getPGTypeNamesWithSQLTypes(); it.hasNext(); ) {
+      names.add(it.next());
+    }
+    return names;
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ */
+
+package org.postgresql.readwritesplitting;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.postgresql.PGProperty;
+import org.postgresql.jdbc.PgConnection;
+import org.postgresql.test.TestUtil;
+import org.postgresql.util.HostSpec;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Physical connection pool test.
+ *
+ * @since 2025-06-20
+ */
+public class PhysicalConnectionPoolTest {
+    private static final String APPLICATION_NAME = "pool-test";
+
+    private final List<PhysicalConnection> opened = new ArrayList<>();
+
+    private HostSpec hostSpec;
+
+    private Properties props;
+
+    private String url;
+
+    private PhysicalConnectionPool.Key key;
+
+    @Before
+    public void setUp() {
+        hostSpec = new HostSpec(TestUtil.getServer(), TestUtil.getPort());
+        props = new Properties();
+        PGProperty.APPLICATION_NAME.set(props, APPLICATION_NAME);
+        PGProperty.ROUTED_CONNECTION_POOL_SIZE.set(props, 2);
+        // a url of its own keeps the connections of each test apart
+        url = TestUtil.getURL() + "?test=" + System.nanoTime();
+        key = new PhysicalConnectionPool.Key(url, TestUtil.getUser(), TestUtil.getDatabase(), hostSpec, props);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        while (PhysicalConnectionPool.acquire(key) != null) {
+            // drained, the connections are closed below
+        }
+        for (PhysicalConnection each : opened) {
+            each.getConnection().close();
+        }
+    }
+
+    private PhysicalConnection open() throws Exception {
+        PhysicalConnection result =
+                new PhysicalConnection((PgConnection) TestUtil.openDB(props), hostSpec);
+        opened.add(result);
+        PhysicalConnectionPool.recordInitialSettings(result);
+        return result;
+    }
+
+    private static String show(PhysicalConnection connection, String name) throws SQLException {
+        try (Statement statement = connection.getConnection().createStatement();
+             ResultSet rs = statement.executeQuery("SHOW " + name)) {
+            assertTrue(rs.next());
+            return rs.getString(1);
+        }
+    }
+
+    @Test
+    public void testReleasedConnectionIsReused() throws Exception {
+        PhysicalConnection connection = open();
+        PhysicalConnectionPool.release(key, connection, 2);
+        assertEquals(1, PhysicalConnectionPool.getIdleCount(key));
+        assertSame(connection, PhysicalConnectionPool.acquire(key));
+        assertEquals(0, PhysicalConnectionPool.getIdleCount(key));
+        assertNull(PhysicalConnectionPool.acquire(key));
+    }
+
+    @Test
+    public void testReusedConnectionKeepsInitialSettings() throws Exception {
+        PhysicalConnection connection = open();
+        try (Statement statement = connection.getConnection().createStatement()) {
+            statement.execute("SET extra_float_digits = 0");
+            statement.execute("SET application_name = 'changed'");
+        }
+        PhysicalConnectionPool.release(key, connection, 2);
+        PhysicalConnection reused = PhysicalConnectionPool.acquire(key);
+        assertSame(connection, reused);
+        assertEquals("3", show(reused, "extra_float_digits"));
+        assertEquals(APPLICATION_NAME, show(reused, "application_name"));
+    }
+
+    @Test
+    public void testConnectionWithoutInitialSettingsIsClosed() throws Exception {
+        PhysicalConnection connection =
+                new PhysicalConnection((PgConnection) TestUtil.openDB(props), hostSpec);
+        opened.add(connection);
+        PhysicalConnectionPool.release(key, connection, 2);
+        assertEquals(0, PhysicalConnectionPool.getIdleCount(key));
+        assertTrue(connection.getConnection().isClosed());
+    }
+
+    @Test
+    public void testReleaseBeyondMaxIdleCloses() throws Exception {
+        PhysicalConnection first = open();
+        PhysicalConnection second = open();
+        PhysicalConnectionPool.release(key, first, 1);
+        PhysicalConnectionPool.release(key, second, 1);
+        assertEquals(1, PhysicalConnectionPool.getIdleCount(key));
+        assertFalse(first.getConnection().isClosed());
+        assertTrue(second.getConnection().isClosed());
+    }
+
+    @Test
+    public void testIdleConnectionIsEvicted() throws Exception {
+        PhysicalConnection connection = open();
+        PhysicalConnectionPool.release(key, connection, 2);
+        PhysicalConnectionPool.evictExpired(System.nanoTime());
+        assertEquals(1, PhysicalConnectionPool.getIdleCount(key));
+        PhysicalConnectionPool.evictExpired(System.nanoTime() + TimeUnit.MINUTES.toNanos(2));
+        assertEquals(0, PhysicalConnectionPool.getIdleCount(key));
+        assertTrue(connection.getConnection().isClosed());
+    }
+
+    @Test
+    public void testStatementsAreClosedBeforeRelease() throws Exception {
+        PhysicalConnectionPool.release(key, open(), 2);
+        PgConnectionManager manager =
+                new PgConnectionManager(props, TestUtil.getUser(), TestUtil.getDatabase(), url, null);
+        PgConnection connection = manager.getConnection(hostSpec);
+        Statement statement = manager.register(connection.createStatement());
+        ResultSet rs = statement.executeQuery("SELECT 1");
+        manager.close();
+        assertTrue(statement.isClosed());
+        assertTrue(rs.isClosed());
+        assertEquals(1, PhysicalConnectionPool.getIdleCount(key));
+    }
+}
@@ -50,10 +50,6 @@ public class BatchExecuteTest extends BaseTest4 {
     Collection<Object[]> ids = new ArrayList<Object[]>();
     for (BinaryMode binaryMode : BinaryMode.values()) {
       for (boolean insertRewrite : new boolean[]{false, true}) {
-        if (insertRewrite) {
-          // org.postgresql.util.PSQLException: batchMode and reWriteBatchedInserts can not both set true!
-          continue;
-        }
         ids.add(new Object[]{binaryMode, insertRewrite});
       }
     }
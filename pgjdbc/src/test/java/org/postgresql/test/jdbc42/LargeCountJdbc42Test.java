@@ -6,7 +6,6 @@
 package org.postgresql.test.jdbc42;
 
 import org.junit.Assert;
-import org.junit.Assume;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -352,8 +351,6 @@ public class LargeCountJdbc42Test extends BaseTest4 {
     @Test
     public void testExecuteLargeBatchValuesInsertSMALL() throws Exception {
         boolean[] loop = {true, false, true, false, false, false, true, true, true, true, false, true};
-        Assume.assumeFalse("org.postgresql.util.PSQLException: "
-                + "batchMode and reWriteBatchedInserts can not both set true!", insertRewrite);
         try (PreparedStatement stmt = con.prepareStatement("insert into largetable values(?)")) {
             for (boolean i : loop) {
                 stmt.setBoolean(1, i);
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.test.quickautobalance;
+
+import org.junit.Test;
+import org.postgresql.quickautobalance.DataNode;
+import org.postgresql.quickautobalance.ProbeEngine;
+import org.postgresql.util.HostSpec;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Probe engine test, without a server.
+ */
+public class ProbeEngineTest {
+    private static Callable<Integer> sleep(final int result, final long millis) {
+        return () -> {
+            Thread.sleep(millis);
+            return result;
+        };
+    }
+
+    @Test
+    public void probesRunConcurrentlyTest() {
+        List<Callable<Integer>> probes = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            probes.add(sleep(i, 300));
+        }
+        long start = System.nanoTime();
+        List<Integer> results = ProbeEngine.getInstance().invokeAll(probes, 10000, -1);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals(Arrays.asList(0, 1, 2, 3), results);
+        assertTrue("probes took " + elapsed + " ms", elapsed < 1000);
+    }
+
+    @Test
+    public void slowAndFailedProbesTest() {
+        List<Callable<Integer>> probes = new ArrayList<>();
+        probes.add(sleep(1, 0));
+        probes.add(sleep(2, 10000));
+        probes.add(() -> {
+            throw new SQLException("connection refused");
+        });
+        long start = System.nanoTime();
+        List<Integer> results = ProbeEngine.getInstance().invokeAll(probes, 200, -1);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals(Arrays.asList(1, -1, -1), results);
+        assertTrue("probes took " + elapsed + " ms", elapsed < 5000);
+    }
+
+    @Test
+    public void probeStatisticsTest() {
+        DataNode dataNode = new DataNode(new HostSpec("probe.test", 5432));
+        dataNode.recordProbe(TimeUnit.MILLISECONDS.toNanos(2), false);
+        dataNode.recordProbe(TimeUnit.MILLISECONDS.toNanos(4), true);
+        assertEquals(2, dataNode.getProbeCount());
+        assertEquals(1, dataNode.getProbeFailureCount());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(4), dataNode.getLastProbeLatencyNanos());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(3), dataNode.getMeanProbeLatencyNanos());
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ */
+
+package org.postgresql.test.readwritesplitting;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.postgresql.readwritesplitting.MethodInvocationRecorder;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Method invocation recorder test.
+ *
+ * @since 2025-06-20
+ */
+public class MethodInvocationRecorderTest {
+    @Test
+    public void testReplayOnlyChangedState() throws SQLException {
+        MethodInvocationRecorder<List<String>> recorder = new MethodInvocationRecorder<>();
+        recorder.record("setAutoCommit", Boolean.TRUE, target -> target.add("autoCommit=true"));
+        recorder.record("setSchema", "app", target -> target.add("schema=app"));
+        List<String> calls = new ArrayList<>();
+        Map<String, Object> applied = new HashMap<>();
+        applied.put("setAutoCommit", Boolean.TRUE);
+
+        recorder.replay(calls, applied);
+        assertEquals(1, calls.size());
+        assertEquals("schema=app", calls.get(0));
+
+        recorder.replay(calls, applied);
+        assertEquals(1, calls.size());
+
+        recorder.record("setAutoCommit", Boolean.FALSE, target -> target.add("autoCommit=false"));
+        recorder.replay(calls, applied);
+        assertEquals(2, calls.size());
+        assertEquals("autoCommit=false", calls.get(1));
+        assertEquals(Boolean.FALSE, applied.get("setAutoCommit"));
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ */
+
+package org.postgresql.test.readwritesplitting;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.postgresql.readwritesplitting.ReplicaLoadBalancer;
+import org.postgresql.readwritesplitting.ReplicaStats;
+import org.postgresql.util.HostSpec;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replica load balancer test, without a server.
+ *
+ * @since 2025-06-20
+ */
+public class ReplicaLoadBalancerTest {
+    private static void observe(HostSpec hostSpec, long latencyMillis, SQLException error) {
+        ReplicaStats stats = ReplicaLoadBalancer.getStats(hostSpec);
+        stats.finish(stats.start() - TimeUnit.MILLISECONDS.toNanos(latencyMillis), error);
+    }
+
+    @Test
+    public void testSlowReplicaIsAvoided() {
+        HostSpec fast1 = new HostSpec("p2c-fast1.test", 5432);
+        HostSpec fast2 = new HostSpec("p2c-fast2.test", 5432);
+        HostSpec slow = new HostSpec("p2c-slow.test", 5432);
+        for (int i = 0; i < 10; i++) {
+            observe(fast1, 1, null);
+            observe(fast2, 2, null);
+            observe(slow, 200, null);
+        }
+        HostSpec[] replicas = {fast1, slow, fast2};
+        int fast1Count = 0;
+        for (int i = 0; i < 1000; i++) {
+            HostSpec chosen = ReplicaLoadBalancer.choose(replicas);
+            assertNotEquals(slow, chosen);
+            if (chosen.equals(fast1)) {
+                fast1Count++;
+            }
+        }
+        assertTrue("fast1 chosen " + fast1Count + " times", fast1Count > 500);
+    }
+
+    @Test
+    public void testFailingReplicaIsExcluded() {
+        HostSpec healthy = new HostSpec("p2c-healthy.test", 5432);
+        HostSpec failing = new HostSpec("p2c-failing.test", 5432);
+        observe(healthy, 50, null);
+        observe(failing, 1, null);
+        for (int i = 0; i < 5; i++) {
+            observe(failing, 1, new SQLException("connection lost", "08006"));
+        }
+        // statement errors do not count against the replica
+        observe(healthy, 50, new SQLException("syntax error", "42601"));
+        assertFalse(ReplicaLoadBalancer.getStats(failing).isHealthy(System.nanoTime()));
+        assertTrue(ReplicaLoadBalancer.getStats(healthy).isHealthy(System.nanoTime()));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(healthy, ReplicaLoadBalancer.choose(new HostSpec[]{failing, healthy}));
+        }
+    }
+
+    @Test
+    public void testDriverErrorsDoNotCount() {
+        HostSpec replica = new HostSpec("p2c-driver-error.test", 5432);
+        observe(replica, 1, null);
+        for (int i = 0; i < 5; i++) {
+            observe(replica, 1, new SQLException("statement is closed"));
+        }
+        assertTrue(ReplicaLoadBalancer.getStats(replica).isHealthy(System.nanoTime()));
+    }
+
+    @Test
+    public void testConnectFailureWithoutStateCounts() {
+        HostSpec replica = new HostSpec("p2c-connect-fail.test", 5432);
+        ReplicaStats stats = ReplicaLoadBalancer.getStats(replica);
+        observe(replica, 1, null);
+        for (int i = 0; i < 5; i++) {
+            stats.fail(new SQLException("Connection refused"));
+        }
+        assertFalse(stats.isHealthy(System.nanoTime()));
+        assertEquals(0, stats.getInFlight());
+    }
+
+    @Test
+    public void testInFlightStatementsRaiseCost() {
+        HostSpec busy = new HostSpec("p2c-busy.test", 5432);
+        HostSpec idle = new HostSpec("p2c-idle.test", 5432);
+        observe(busy, 10, null);
+        observe(idle, 20, null);
+        HostSpec[] replicas = {busy, idle};
+        assertEquals(busy, ReplicaLoadBalancer.choose(replicas));
+        ReplicaStats stats = ReplicaLoadBalancer.getStats(busy);
+        long[] starts = new long[4];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = stats.start();
+        }
+        assertEquals(4, stats.getInFlight());
+        assertEquals(idle, ReplicaLoadBalancer.choose(replicas));
+        for (long start : starts) {
+            stats.finish(start, null);
+        }
+        assertEquals(0, stats.getInFlight());
+    }
+}
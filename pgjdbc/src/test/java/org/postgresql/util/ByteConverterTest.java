@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2025-2025. All rights reserved.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *          http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.postgresql.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Random;
+
+/**
+ * Checks the binary numeric encoder against the decoder without a server.
+ */
+public class ByteConverterTest {
+  private static final String[] VALUES = {
+      "0", "0.00", "1", "-1", "0.5", "-0.0001", "0.00000001", "12345.67", "10000", "100000000",
+      "9999.9999", "1.000100", "123456789012345678", "-9223372036854775808",
+      "3.14159265358979323846264338327950288419716939937510",
+      "-123456789012345678901234567890.123456789012345678901234567890",
+      "1E+20", "0.000000000000000000000000000001",
+  };
+
+  private static short[] shorts(byte[] bytes) {
+    short[] shorts = new short[bytes.length / 2];
+    for (int i = 0; i < shorts.length; i++) {
+      shorts[i] = ByteConverter.int2(bytes, i * 2);
+    }
+    return shorts;
+  }
+
+  @Test
+  public void testNumericLayout() {
+    // ndigits, weight, sign, dscale, digits
+    assertArrayEquals(new short[]{3, 1, 0, 2, 1, 2345, 6700},
+        shorts(ByteConverter.numeric(new BigDecimal("12345.67"))));
+    assertArrayEquals(new short[]{1, -1, 0x4000, 4, 1},
+        shorts(ByteConverter.numeric(new BigDecimal("-0.0001"))));
+    assertArrayEquals(new short[]{1, 2, 0, 0, 1},
+        shorts(ByteConverter.numeric(new BigDecimal("100000000"))));
+    assertArrayEquals(new short[]{0, 0, 0, 2},
+        shorts(ByteConverter.numeric(new BigDecimal("0.00"))));
+  }
+
+  @Test
+  public void testNumericRoundTrip() {
+    for (String value : VALUES) {
+      check(new BigDecimal(value));
+    }
+    Random random = new Random(0);
+    for (int i = 0; i < 2000; i++) {
+      BigInteger unscaled = new BigInteger(1 + random.nextInt(200), random);
+      if (random.nextBoolean()) {
+        unscaled = unscaled.negate();
+      }
+      check(new BigDecimal(unscaled, random.nextInt(40)));
+    }
+  }
+
+  @Test
+  public void testNaN() {
+    byte[] bytes = new byte[8];
+    ByteConverter.int2(bytes, 4, 0xC000);
+    assertTrue(Double.isNaN(ByteConverter.numeric(bytes).doubleValue()));
+  }
+
+  private static void check(BigDecimal value) {
+    BigDecimal expected = value.scale() < 0 ? value.setScale(0) : value;
+    assertEquals(value.toString(), expected, ByteConverter.numeric(ByteConverter.numeric(value)));
+  }
+}